@@ -41,6 +41,7 @@
 #include "exec/schema_scanner/schema_partitions_meta_scanner.h"
 #include "exec/schema_scanner/schema_pipe_files.h"
 #include "exec/schema_scanner/schema_pipes.h"
+#include "exec/schema_scanner/schema_query_profiles_scanner.h"
 #include "exec/schema_scanner/schema_routine_load_jobs_scanner.h"
 #include "exec/schema_scanner/schema_schema_privileges_scanner.h"
 #include "exec/schema_scanner/schema_schemata_scanner.h"
@@ -56,6 +57,7 @@
 #include "exec/schema_scanner/schema_views_scanner.h"
 #include "exec/schema_scanner/starrocks_grants_to_scanner.h"
 #include "exec/schema_scanner/starrocks_role_edges_scanner.h"
+#include "exec/schema_scanner/sys_fe_lock_contentions.h"
 #include "exec/schema_scanner/sys_fe_locks.h"
 #include "exec/schema_scanner/sys_fe_memory_usage.h"
 #include "exec/schema_scanner/sys_object_dependencies.h"
@@ -205,6 +207,8 @@ std::unique_ptr<SchemaScanner> SchemaScanner::create(TSchemaTableType::type type
         return std::make_unique<SchemaTablePipes>();
     case TSchemaTableType::SYS_FE_LOCKS:
         return std::make_unique<SysFeLocks>();
+    case TSchemaTableType::SYS_FE_LOCK_CONTENTIONS:
+        return std::make_unique<SysFeLockContentions>();
     case TSchemaTableType::SCH_BE_DATACACHE_METRICS:
         return std::make_unique<SchemaBeDataCacheMetricsScanner>();
     case TSchemaTableType::SCH_PARTITIONS_META:
@@ -213,6 +217,8 @@ std::unique_ptr<SchemaScanner> SchemaScanner::create(TSchemaTableType::type type
         return std::make_unique<SysFeMemoryUsage>();
     case TSchemaTableType::SCH_TEMP_TABLES:
         return std::make_unique<SchemaTempTablesScanner>();
+    case TSchemaTableType::SCH_QUERY_PROFILES:
+        return std::make_unique<SchemaQueryProfilesScanner>();
     default:
         return std::make_unique<SchemaDummyScanner>();
     }
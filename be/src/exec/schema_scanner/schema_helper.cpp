@@ -78,6 +78,12 @@ Status SchemaHelper::list_fe_locks(const SchemaScannerState& state, const TFeLoc
     return _call_rpc(state, [&req, &res](FrontendServiceConnection& client) { client->listFeLocks(*res, req); });
 }
 
+Status SchemaHelper::list_fe_lock_contentions(const SchemaScannerState& state, const TFeLockContentionsReq& req,
+                                              TFeLockContentionsRes* res) {
+    return _call_rpc(state,
+                     [&req, &res](FrontendServiceConnection& client) { client->listFeLockContentions(*res, req); });
+}
+
 Status SchemaHelper::list_fe_memory_usage(const SchemaScannerState& state, const TFeMemoryReq& req, TFeMemoryRes* res) {
     return _call_rpc(state, [&req, &res](FrontendServiceConnection& client) { client->listFeMemoryUsage(*res, req); });
 }
@@ -97,6 +103,14 @@ Status SchemaHelper::get_temporary_tables_info(const SchemaScannerState& state,
     });
 }
 
+Status SchemaHelper::get_query_profiles_info(const SchemaScannerState& state,
+                                             const TGetQueryProfilesInfoRequest& request,
+                                             TGetQueryProfilesInfoResponse* response) {
+    return _call_rpc(state, [&request, &response](FrontendServiceConnection& client) {
+        client->getQueryProfilesInfo(*response, request);
+    });
+}
+
 Status SchemaHelper::describe_table(const SchemaScannerState& state, const TDescribeTableParams& request,
                                     TDescribeTableResult* result) {
     return _call_rpc(
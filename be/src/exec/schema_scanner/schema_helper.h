@@ -50,6 +50,8 @@ public:
     static Status list_object_dependencies(const SchemaScannerState& state, const TObjectDependencyReq& req,
                                            TObjectDependencyRes* res);
     static Status list_fe_locks(const SchemaScannerState& state, const TFeLocksReq& req, TFeLocksRes* res);
+    static Status list_fe_lock_contentions(const SchemaScannerState& state, const TFeLockContentionsReq& req,
+                                           TFeLockContentionsRes* res);
 
     static Status list_fe_memory_usage(const SchemaScannerState& state, const TFeMemoryReq& req, TFeMemoryRes* res);
 
@@ -60,6 +62,9 @@ public:
                                             const TGetTemporaryTablesInfoRequest& request,
                                             TGetTemporaryTablesInfoResponse* response);
 
+    static Status get_query_profiles_info(const SchemaScannerState& state, const TGetQueryProfilesInfoRequest& request,
+                                          TGetQueryProfilesInfoResponse* response);
+
     static Status describe_table(const SchemaScannerState& state, const TDescribeTableParams& desc_params,
                                  TDescribeTableResult* desc_result);
 
@@ -79,6 +79,7 @@
 #include "storage/dictionary_cache_manager.h"
 #include "storage/storage_engine.h"
 #include "storage/txn_manager.h"
+#include "util/compression/block_compression.h"
 #include "util/failpoint/fail_point.h"
 #include "util/stopwatch.hpp"
 #include "util/thrift_util.h"
@@ -334,6 +335,22 @@ void PInternalServiceImplBase<T>::_exec_batch_plan_fragments(google::protobuf::R
     }
 
     auto ser_request = cntl->request_attachment().to_string();
+    if (request->has_attachment_compression_type() &&
+        request->attachment_compression_type() != CompressionTypePB::NO_COMPRESSION) {
+        const BlockCompressionCodec* codec = nullptr;
+        Status status = get_block_compression_codec(request->attachment_compression_type(), &codec);
+        if (status.ok()) {
+            std::string uncompressed(request->attachment_uncompressed_size(), '\0');
+            Slice output(uncompressed.data(), uncompressed.size());
+            status = codec->decompress(Slice(ser_request), &output);
+            ser_request = std::move(uncompressed);
+        }
+        if (!status.ok()) {
+            status.to_protobuf(response->mutable_status());
+            return;
+        }
+    }
+
     std::shared_ptr<TExecBatchPlanFragmentsParams> t_batch_requests = std::make_shared<TExecBatchPlanFragmentsParams>();
     {
         const auto* buf = (const uint8_t*)ser_request.data();
@@ -353,7 +370,15 @@ void PInternalServiceImplBase<T>::_exec_batch_plan_fragments(google::protobuf::R
         return;
     }
 
-    Status status = _exec_plan_fragment_by_pipeline(common_request, unique_requests[0]);
+    // The unique requests share the common request, and stop at the first failed instance,
+    // the deployed ones are cancelled by FE.
+    Status status;
+    for (const auto& unique_request : unique_requests) {
+        status = _exec_plan_fragment_by_pipeline(common_request, unique_request);
+        if (!status.ok()) {
+            break;
+        }
+    }
     status.to_protobuf(response->mutable_status());
 }
 
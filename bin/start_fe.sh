@@ -145,7 +145,7 @@ if [ -z "$final_java_opt" ] ; then
     if [ -z "$DATE" ] ; then
         DATE=`date +%Y%m%d-%H%M%S`
     fi
-    final_java_opt="-Dlog4j2.formatMsgNoLookups=true -Xmx8192m -XX:+UseG1GC -Xlog:gc*:${LOG_DIR}/fe.gc.log.$DATE:time -Djava.security.policy=${STARROCKS_HOME}/conf/udf_security.policy"
+    final_java_opt="-Dlog4j2.formatMsgNoLookups=true -Xmx8192m -XX:+UseG1GC -Xlog:gc*:${LOG_DIR}/fe.gc.log.$DATE:time -Djava.security.policy=${STARROCKS_HOME}/conf/udf_security.policy --add-opens=java.base/java.nio=ALL-UNNAMED"
     echo "JAVA_OPTS is not set in fe.conf, use default java options to start fe process: $final_java_opt"
 fi
 
@@ -155,6 +155,11 @@ fi
 xmx=$(detect_jvm_xmx)
 final_java_opt="${final_java_opt} ${xmx}"
 
+# Arrow flight sql service needs the access to java.nio for its direct buffers, keep it for old fe.conf
+if [[ "$final_java_opt" != *"--add-opens=java.base/java.nio=ALL-UNNAMED"* ]]; then
+    final_java_opt="${final_java_opt} --add-opens=java.base/java.nio=ALL-UNNAMED"
+fi
+
 if [ ${ENABLE_DEBUGGER} -eq 1 ]; then
     # Allow attaching debuggers to the FE process:
     # https://www.jetbrains.com/help/idea/attaching-to-local-process.html
@@ -56,6 +56,7 @@ import com.starrocks.server.RunMode;
 import com.starrocks.service.ExecuteEnv;
 import com.starrocks.service.FrontendOptions;
 import com.starrocks.service.FrontendThriftServer;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlService;
 import com.starrocks.staros.StarMgrServer;
 import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
@@ -158,6 +159,7 @@ public class StarRocksFE {
             // 1. QeService for MySQL Server
             // 2. FrontendThriftServer for Thrift Server
             // 3. HttpServer for HTTP Server
+            // 4. ArrowFlightSqlService for Arrow Flight SQL Server, if it's enabled
             QeService qeService = new QeService(Config.query_port, Config.mysql_service_nio_enabled,
                     ExecuteEnv.getInstance().getScheduler());
             FrontendThriftServer frontendThriftServer = new FrontendThriftServer(Config.rpc_port);
@@ -167,6 +169,10 @@ public class StarRocksFE {
             frontendThriftServer.start();
             httpServer.start();
             qeService.start();
+            if (Config.arrow_flight_port > 0) {
+                ArrowFlightSqlService arrowFlightSqlService = new ArrowFlightSqlService(Config.arrow_flight_port);
+                arrowFlightSqlService.start();
+            }
 
             ThreadPoolManager.registerAllThreadPoolMetric();
 
@@ -406,6 +406,7 @@ public abstract class LakeTableAlterMetaJobBase extends AlterJobV2 {
             LOG.info("LakeTableAlterMetaJob id: {} update visible version of partition: {}, visible Version: {}",
                     jobId, partition.getId(), commitVersion);
         }
+        table.increasePartitionsVersion();
     }
 
     protected AgentBatchTask getBatchTask() {
@@ -871,6 +871,7 @@ public class LakeTableSchemaChangeJob extends AlterJobV2 {
             Preconditions.checkState(commitVersion == partition.getVisibleVersion() + 1,
                     commitVersion + " vs " + partition.getVisibleVersion());
             partition.setVisibleVersion(commitVersion, finishedTimeMs);
+            table.increasePartitionsVersion();
             LOG.debug("update visible version of partition {} to {}. jobId={}", partition.getId(),
                     commitVersion, jobId);
             TStorageMedium medium = table.getPartitionInfo().getDataProperty(partition.getParentId()).getStorageMedium();
@@ -1516,6 +1516,9 @@ public class RestoreJob extends AbstractJob {
                     LOG.debug("restore set partition {} version in table {}, version: {}",
                             partId, tblId, entry.getValue());
                 }
+                // invalidate the cached plans which still scan the versions before restore,
+                // this path is shared by the replay.
+                olapTbl.increasePartitionsVersion();
             }
         } finally {
             locker.unLockDatabase(db.getId(), LockType.WRITE);
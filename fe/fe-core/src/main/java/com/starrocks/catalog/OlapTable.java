@@ -283,6 +283,10 @@ public class OlapTable extends Table {
     // Record the alter, schema change, MV update time
     public AtomicLong lastSchemaUpdateTime = new AtomicLong(-1);
 
+    // Increased each time the partitions or their visible versions are changed, it's shared with the copies of the
+    // table like lastSchemaUpdateTime. It's only used to validate the plans cached in memory, so it's not persisted.
+    private AtomicLong partitionsVersion = new AtomicLong(0);
+
     private Map<String, Lock> createPartitionLocks = Maps.newHashMap();
 
     protected Map<Long, Long> doubleWritePartitions = new HashMap<>();
@@ -405,6 +409,7 @@ public class OlapTable extends Table {
 
         // Shallow copy shared data to check whether the copied table has changed or not.
         olapTable.lastSchemaUpdateTime = this.lastSchemaUpdateTime;
+        olapTable.partitionsVersion = this.partitionsVersion;
         olapTable.sessionId = this.sessionId;
 
         if (this.bfColumns != null) {
@@ -1343,6 +1348,7 @@ public class OlapTable extends Table {
             partition.setName(newPartitionName);
             nameToPartition.put(newPartitionName, partition);
         }
+        increasePartitionsVersion();
     }
 
     public void addPartition(Partition partition) {
@@ -1352,10 +1358,23 @@ public class OlapTable extends Table {
             physicalPartitionIdToPartitionId.put(physicalPartition.getId(), partition.getId());
             physicalPartitionNameToPartitionId.put(physicalPartition.getName(), partition.getId());
         }
+        increasePartitionsVersion();
     }
 
     public void addPhysicalPartition(PhysicalPartition physicalPartition) {
         physicalPartitionIdToPartitionId.put(physicalPartition.getId(), physicalPartition.getParentId());
+        increasePartitionsVersion();
+    }
+
+    public long getPartitionsVersion() {
+        return partitionsVersion.get();
+    }
+
+    /**
+     * Must be called after the partitions of the table or their visible versions are changed.
+     */
+    public void increasePartitionsVersion() {
+        partitionsVersion.incrementAndGet();
     }
 
     // This is a private method.
@@ -1381,6 +1400,7 @@ public class OlapTable extends Table {
         physicalPartitionNameToPartitionId.keySet().removeAll(partition.getSubPartitions()
                 .stream().map(PhysicalPartition::getName)
                 .collect(Collectors.toList()));
+        increasePartitionsVersion();
     }
 
     protected RecyclePartitionInfo buildRecyclePartitionInfo(long dbId, Partition partition) {
@@ -2055,6 +2075,7 @@ public class OlapTable extends Table {
         }
 
         lastSchemaUpdateTime = new AtomicLong(-1);
+        partitionsVersion = new AtomicLong(0);
     }
 
     public OlapTable selectiveCopy(Collection<String> reservedPartitions, boolean resetState, IndexExtState extState) {
@@ -2147,6 +2168,7 @@ public class OlapTable extends Table {
         });
 
         nameToPartition.put(newPartition.getName(), newPartition);
+        increasePartitionsVersion();
 
         DataProperty dataProperty = partitionInfo.getDataProperty(oldPartition.getId());
         short replicationNum = partitionInfo.getReplicationNum(oldPartition.getId());
@@ -2718,6 +2740,7 @@ public class OlapTable extends Table {
                 physicalPartitionIdToPartitionId.remove(physicalPartition.getId());
                 physicalPartitionNameToPartitionId.remove(physicalPartition.getName());
             }
+            increasePartitionsVersion();
         }
     }
 
@@ -2827,6 +2850,7 @@ public class OlapTable extends Table {
         for (Column column : getColumns()) {
             IDictManager.getInstance().removeGlobalDict(this.getId(), column.getColumnId());
         }
+        increasePartitionsVersion();
     }
 
     // used for unpartitioned table in insert overwrite
@@ -2853,6 +2877,7 @@ public class OlapTable extends Table {
         for (Column column : getColumns()) {
             IDictManager.getInstance().removeGlobalDict(this.getId(), column.getColumnId());
         }
+        increasePartitionsVersion();
     }
 
     public void addTempPartition(Partition partition) {
@@ -2861,6 +2886,7 @@ public class OlapTable extends Table {
             physicalPartitionIdToPartitionId.put(physicalPartition.getId(), partition.getId());
             physicalPartitionNameToPartitionId.put(physicalPartition.getName(), partition.getId());
         }
+        increasePartitionsVersion();
     }
 
     public void dropAllTempPartitions() {
@@ -2872,6 +2898,7 @@ public class OlapTable extends Table {
             }
         }
         tempPartitions.dropAll();
+        increasePartitionsVersion();
     }
 
     public boolean existTempPartitions() {
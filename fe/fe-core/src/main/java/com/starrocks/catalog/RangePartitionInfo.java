@@ -37,7 +37,10 @@ package com.starrocks.catalog;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableRangeMap;
 import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.TreeRangeMap;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.analysis.Expr;
 import com.starrocks.common.AnalysisException;
@@ -98,6 +101,13 @@ public class RangePartitionInfo extends PartitionInfo {
     @SerializedName(value = "serializedIdToTempRange")
     private Map<Long, byte[]> serializedIdToTempRange;
 
+    // sorted index of the formal partition ranges used by partition pruning, so that pruning doesn't need to
+    // sort all the ranges on every query. It's built on demand and dropped whenever a formal range changes,
+    // and it's immutable so that the copies of this partition info made for query can share it.
+    private transient volatile RangeMap<PartitionKey, Long> rangeIndex;
+    // bumped whenever a formal range changes, to avoid publishing an index built from the stale ranges
+    private transient long rangeIndexVersion = 0;
+
     public RangePartitionInfo() {
         // for persist
         super();
@@ -134,6 +144,7 @@ public class RangePartitionInfo extends PartitionInfo {
         super.dropPartition(partitionId);
         idToRange.remove(partitionId);
         idToTempRange.remove(partitionId);
+        invalidateRangeIndex();
     }
 
     public void addPartition(long partitionId, boolean isTemp, Range<PartitionKey> range, DataProperty dataProperty,
@@ -326,6 +337,36 @@ public class RangePartitionInfo extends PartitionInfo {
         }
     }
 
+    /**
+     * Returns the formal partition ranges sorted by range, whose values are the partition ids.
+     */
+    public RangeMap<PartitionKey, Long> getRangeIndex() {
+        RangeMap<PartitionKey, Long> index = rangeIndex;
+        if (index != null) {
+            return index;
+        }
+        long version;
+        synchronized (this) {
+            version = rangeIndexVersion;
+        }
+        TreeRangeMap<PartitionKey, Long> treeRangeMap = TreeRangeMap.create();
+        for (Map.Entry<Long, Range<PartitionKey>> entry : idToRange.entrySet()) {
+            treeRangeMap.put(entry.getValue(), entry.getKey());
+        }
+        index = ImmutableRangeMap.copyOf(treeRangeMap);
+        synchronized (this) {
+            if (version == rangeIndexVersion) {
+                rangeIndex = index;
+            }
+        }
+        return index;
+    }
+
+    private synchronized void invalidateRangeIndex() {
+        rangeIndexVersion++;
+        rangeIndex = null;
+    }
+
     public Range<PartitionKey> getRange(long partitionId) {
         Range<PartitionKey> range = idToRange.get(partitionId);
         if (range == null) {
@@ -424,6 +465,7 @@ public class RangePartitionInfo extends PartitionInfo {
             idToTempRange.put(partitionId, range);
         } else {
             idToRange.put(partitionId, range);
+            invalidateRangeIndex();
         }
     }
 
@@ -432,6 +474,7 @@ public class RangePartitionInfo extends PartitionInfo {
             idToTempRange.remove(partitionId);
         } else {
             idToRange.remove(partitionId);
+            invalidateRangeIndex();
         }
     }
 
@@ -439,6 +482,7 @@ public class RangePartitionInfo extends PartitionInfo {
         Range<PartitionKey> range = idToTempRange.remove(tempPartitionId);
         if (range != null) {
             idToRange.put(tempPartitionId, range);
+            invalidateRangeIndex();
         }
     }
 
@@ -489,6 +533,7 @@ public class RangePartitionInfo extends PartitionInfo {
             }
             serializedIdToTempRange = null;
         }
+        invalidateRangeIndex();
         if (partitionColumnIds == null || partitionColumnIds.size() <= 0) {
             partitionColumnIds = deprecatedColumns.stream().map(Column::getColumnId).collect(Collectors.toList());
         }
@@ -567,6 +612,8 @@ public class RangePartitionInfo extends PartitionInfo {
         info.idToRange = new ConcurrentHashMap<>(this.idToRange);
         info.idToTempRange = new ConcurrentHashMap<>(this.idToTempRange);
         info.isMultiColumnPartition = partitionColumnIds.size() > 1;
+        // the index is immutable, the clone shares it until its own ranges change
+        info.rangeIndex = this.rangeIndex;
         return info;
     }
 
@@ -593,5 +640,6 @@ public class RangePartitionInfo extends PartitionInfo {
                 this.idToTempRange.put(newId, tempRange);
             }
         }
+        invalidateRangeIndex();
     }
 }
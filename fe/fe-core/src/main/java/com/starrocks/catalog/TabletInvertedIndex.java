@@ -43,6 +43,8 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import com.starrocks.common.Pair;
+import com.starrocks.common.util.LongLongHashMap;
+import com.starrocks.common.util.LongObjectHashMap;
 import com.starrocks.lake.LakeTablet;
 import com.starrocks.memory.MemoryTrackable;
 import com.starrocks.server.GlobalStateMgr;
@@ -51,17 +53,25 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 /*
  * this class stores an inverted index
  * key is tablet id. value is the related ids of this tablet
  * Checkpoint thread is no need to modify this inverted index, because this inverted index will not be written
  * into image, all metadata are in globalStateMgr, and the inverted index will be rebuilt when FE restart.
+ *
+ * The index may hold tens of millions of replicas, so it's kept in primitive long keyed open addressing maps
+ * instead of boxed maps, and it's split into stripes by id, each with its own lock, instead of one global lock.
+ * An update takes all the stripes it touches in ascending stripe index order and holds them till it's done, so
+ * the tablet, replica and backend entries change together. Backend locks are only taken inside the stripe locks,
+ * and never more than one at a time, so the locks can't dead lock with each other.
  */
 public class TabletInvertedIndex implements MemoryTrackable {
     private static final Logger LOG = LogManager.getLogger(TabletInvertedIndex.class);
@@ -71,71 +81,82 @@ public class TabletInvertedIndex implements MemoryTrackable {
     public static final TabletMeta NOT_EXIST_TABLET_META = new TabletMeta(NOT_EXIST_VALUE, NOT_EXIST_VALUE,
             NOT_EXIST_VALUE, NOT_EXIST_VALUE, NOT_EXIST_VALUE, TStorageMedium.HDD);
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private static final int STRIPE_NUM = 128;
 
-    // tablet id -> tablet meta
-    private final Map<Long, TabletMeta> tabletMetaMap = Maps.newConcurrentMap();
+    private static final Replica[] EMPTY_REPLICAS = new Replica[0];
 
-    // replica id -> tablet id
-    private final Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+    // tablet metas and replicas are in the stripe of tablet id, replica id -> tablet id is in the stripe of replica id
+    private static class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // tablet id -> tablet meta
+        private final LongObjectHashMap<TabletMeta> tabletMetas = new LongObjectHashMap<>();
+        // tablet id -> replicas, at most one replica on each backend. Replaced instead of modified in place.
+        private final LongObjectHashMap<Replica[]> replicas = new LongObjectHashMap<>();
+        // replica id -> tablet id
+        private final LongLongHashMap replicaToTablet = new LongLongHashMap();
+    }
 
-    // tablet id -> backend set
-    private final Map<Long, Set<Long>> forceDeleteTablets = Maps.newHashMap();
+    // replicas on a backend, for visiting backend replicas faster
+    private static class BackendReplicas {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // tablet id -> replica
+        private final LongObjectHashMap<Replica> replicas = new LongObjectHashMap<>();
+    }
 
-    // tablet id -> (backend id -> replica)
-    private final Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
-    // backing replica table, for visiting backend replicas faster.
-    // backend id -> (tablet id -> replica)
-    private final Table<Long, Long, Replica> backingReplicaMetaTable = HashBasedTable.create();
+    private final Stripe[] stripes = new Stripe[STRIPE_NUM];
 
-    public TabletInvertedIndex() {
-    }
+    // backend id -> replicas on that backend
+    private final ConcurrentMap<Long, BackendReplicas> backendReplicas = Maps.newConcurrentMap();
 
-    public void readLock() {
-        this.lock.readLock().lock();
-    }
+    private final AtomicLong tabletCount = new AtomicLong();
+    private final AtomicLong replicaCount = new AtomicLong();
 
-    public void readUnlock() {
-        this.lock.readLock().unlock();
+    // tablet id -> backend set
+    private final Object forceDeleteLock = new Object();
+    private final Map<Long, Set<Long>> forceDeleteTablets = Maps.newHashMap();
+
+    public TabletInvertedIndex() {
+        for (int i = 0; i < STRIPE_NUM; i++) {
+            stripes[i] = new Stripe();
+        }
     }
 
-    private void writeLock() {
-        this.lock.writeLock().lock();
+    private Stripe stripeOf(long id) {
+        return stripes[LongObjectHashMap.mix(id) & (STRIPE_NUM - 1)];
     }
 
-    private void writeUnlock() {
-        this.lock.writeLock().unlock();
+    private BackendReplicas getOrCreateBackendReplicas(long backendId) {
+        return backendReplicas.computeIfAbsent(backendId, k -> new BackendReplicas());
     }
 
     public Long getTabletIdByReplica(long replicaId) {
-        readLock();
+        Stripe stripe = stripeOf(replicaId);
+        stripe.lock.readLock().lock();
         try {
-            return replicaToTabletMap.get(replicaId);
+            long tabletId = stripe.replicaToTablet.get(replicaId, NOT_EXIST_VALUE);
+            return tabletId == NOT_EXIST_VALUE ? null : tabletId;
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public TabletMeta getTabletMeta(long tabletId) {
-        readLock();
+        Stripe stripe = stripeOf(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            return tabletMetaMap.get(tabletId);
+            return stripe.tabletMetas.get(tabletId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
     public List<TabletMeta> getTabletMetaList(List<Long> tabletIdList) {
         List<TabletMeta> tabletMetaList = new ArrayList<>(tabletIdList.size());
-        readLock();
-        try {
-            for (Long tabletId : tabletIdList) {
-                tabletMetaList.add(tabletMetaMap.getOrDefault(tabletId, NOT_EXIST_TABLET_META));
-            }
-            return tabletMetaList;
-        } finally {
-            readUnlock();
+        for (Long tabletId : tabletIdList) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            tabletMetaList.add(tabletMeta != null ? tabletMeta : NOT_EXIST_TABLET_META);
         }
+        return tabletMetaList;
     }
 
     // always add tablet before adding replicas
@@ -143,47 +164,35 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
+        Stripe stripe = stripeOf(tabletId);
+        stripe.lock.writeLock().lock();
         try {
-            tabletMetaMap.putIfAbsent(tabletId, tabletMeta);
+            if (stripe.tabletMetas.putIfAbsent(tabletId, tabletMeta) == null) {
+                tabletCount.incrementAndGet();
+            }
             LOG.debug("add tablet: {} tabletMeta: {}", tabletId, tabletMeta);
         } finally {
-            writeUnlock();
+            stripe.lock.writeLock().unlock();
         }
     }
 
     @VisibleForTesting
     public Map<Long, Set<Long>> getForceDeleteTablets() {
-        readLock();
-        try {
+        synchronized (forceDeleteLock) {
             return forceDeleteTablets;
-        } finally {
-            readUnlock();
         }
     }
 
     public boolean tabletForceDelete(long tabletId, long backendId) {
-        readLock();
-        try {
-            if (forceDeleteTablets.containsKey(tabletId)) {
-                return forceDeleteTablets.get(tabletId).contains(backendId);
-            }
-            return false;
-        } finally {
-            readUnlock();
+        synchronized (forceDeleteLock) {
+            Set<Long> backendIds = forceDeleteTablets.get(tabletId);
+            return backendIds != null && backendIds.contains(backendId);
         }
     }
 
     public void markTabletForceDelete(long tabletId, long backendId) {
-        writeLock();
-        try {
-            if (forceDeleteTablets.containsKey(tabletId)) {
-                forceDeleteTablets.get(tabletId).add(backendId);
-            } else {
-                forceDeleteTablets.put(tabletId, Sets.newHashSet(backendId));
-            }
-        } finally {
-            writeUnlock();
+        synchronized (forceDeleteLock) {
+            forceDeleteTablets.computeIfAbsent(tabletId, k -> Sets.newHashSet()).add(backendId);
         }
     }
 
@@ -191,9 +200,9 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (backendIds.isEmpty()) {
             return;
         }
-        writeLock();
-        forceDeleteTablets.put(tabletId, backendIds);
-        writeUnlock();
+        synchronized (forceDeleteLock) {
+            forceDeleteTablets.put(tabletId, backendIds);
+        }
     }
 
     public void markTabletForceDelete(Tablet tablet) {
@@ -205,16 +214,14 @@ public class TabletInvertedIndex implements MemoryTrackable {
     }
 
     public void eraseTabletForceDelete(long tabletId, long backendId) {
-        writeLock();
-        try {
-            if (forceDeleteTablets.containsKey(tabletId)) {
-                forceDeleteTablets.get(tabletId).remove(backendId);
-                if (forceDeleteTablets.get(tabletId).isEmpty()) {
+        synchronized (forceDeleteLock) {
+            Set<Long> backendIds = forceDeleteTablets.get(tabletId);
+            if (backendIds != null) {
+                backendIds.remove(backendId);
+                if (backendIds.isEmpty()) {
                     forceDeleteTablets.remove(tabletId);
                 }
             }
-        } finally {
-            writeUnlock();
         }
     }
 
@@ -222,27 +229,57 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
-        try {
-            Map<Long, Replica> replicas = replicaMetaTable.rowMap().remove(tabletId);
-            if (replicas != null) {
-                for (Replica replica : replicas.values()) {
-                    replicaToTabletMap.remove(replica.getId());
+        Stripe stripe = stripeOf(tabletId);
+        while (true) {
+            // the replica ids decide which stripes to lock, retry if the replicas changed before they are locked
+            Replica[] replicas = getReplicaArray(tabletId);
+            long[] ids = new long[replicas == null ? 1 : replicas.length + 1];
+            ids[0] = tabletId;
+            for (int i = 1; i < ids.length; i++) {
+                ids[i] = replicas[i - 1].getId();
+            }
+            int[] locked = writeLockStripes(ids);
+            try {
+                if (stripe.replicas.get(tabletId) != replicas) {
+                    continue;
                 }
-
-                for (long backendId : replicas.keySet()) {
-                    backingReplicaMetaTable.remove(backendId, tabletId);
+                if (stripe.tabletMetas.remove(tabletId) != null) {
+                    tabletCount.decrementAndGet();
+                }
+                if (replicas != null) {
+                    stripe.replicas.remove(tabletId);
+                    for (Replica replica : replicas) {
+                        stripeOf(replica.getId()).replicaToTablet.remove(replica.getId());
+                        removeBackendReplica(replica.getBackendId(), tabletId);
+                    }
+                    replicaCount.addAndGet(-replicas.length);
                 }
+            } finally {
+                writeUnlockStripes(locked);
             }
-            tabletMetaMap.remove(tabletId);
-
             LOG.debug("delete tablet: {}", tabletId);
-        } finally {
-            writeUnlock();
+            return;
         }
     }
 
+    /**
+     * A snapshot of all the replicas, tablet id -> (backend id -> replica).
+     */
+    @VisibleForTesting
     public Table<Long, Long, Replica> getReplicaMetaTable() {
+        Table<Long, Long, Replica> replicaMetaTable = HashBasedTable.create();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                stripe.replicas.forEach((tabletId, replicas) -> {
+                    for (Replica replica : replicas) {
+                        replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
+                    }
+                });
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
         return replicaMetaTable;
     }
 
@@ -250,16 +287,48 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
-        try {
-            Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-            replicaMetaTable.put(tabletId, replica.getBackendId(), replica);
-            replicaToTabletMap.put(replica.getId(), tabletId);
-            backingReplicaMetaTable.put(replica.getBackendId(), tabletId, replica);
-            LOG.debug("add replica {} of tablet {} in backend {}",
-                    replica.getId(), tabletId, replica.getBackendId());
-        } finally {
-            writeUnlock();
+        long backendId = replica.getBackendId();
+        Stripe stripe = stripeOf(tabletId);
+        while (true) {
+            // the replica replaced on the same backend also needs its stripe, retry if it changed before locked
+            Replica[] replicas = getReplicaArray(tabletId);
+            int pos = replicas == null ? -1 : indexOfBackend(replicas, backendId);
+            long oldReplicaId = pos >= 0 ? replicas[pos].getId() : replica.getId();
+            int[] locked = writeLockStripes(tabletId, replica.getId(), oldReplicaId);
+            try {
+                Preconditions.checkState(stripe.tabletMetas.containsKey(tabletId));
+                if (stripe.replicas.get(tabletId) != replicas) {
+                    continue;
+                }
+                Replica[] newReplicas;
+                if (pos >= 0) {
+                    newReplicas = replicas.clone();
+                    newReplicas[pos] = replica;
+                } else {
+                    Replica[] current = replicas == null ? EMPTY_REPLICAS : replicas;
+                    newReplicas = Arrays.copyOf(current, current.length + 1);
+                    newReplicas[current.length] = replica;
+                    replicaCount.incrementAndGet();
+                }
+                stripe.replicas.put(tabletId, newReplicas);
+
+                if (oldReplicaId != replica.getId()) {
+                    stripeOf(oldReplicaId).replicaToTablet.remove(oldReplicaId);
+                }
+                stripeOf(replica.getId()).replicaToTablet.put(replica.getId(), tabletId);
+
+                BackendReplicas onBackend = getOrCreateBackendReplicas(backendId);
+                onBackend.lock.writeLock().lock();
+                try {
+                    onBackend.replicas.put(tabletId, replica);
+                } finally {
+                    onBackend.lock.writeLock().unlock();
+                }
+            } finally {
+                writeUnlockStripes(locked);
+            }
+            LOG.debug("add replica {} of tablet {} in backend {}", replica.getId(), tabletId, backendId);
+            return;
         }
     }
 
@@ -267,50 +336,112 @@ public class TabletInvertedIndex implements MemoryTrackable {
         if (GlobalStateMgr.isCheckpointThread()) {
             return;
         }
-        writeLock();
-        try {
-            if (!tabletMetaMap.containsKey(tabletId)) {
-                return;
+        Stripe stripe = stripeOf(tabletId);
+        while (true) {
+            // the deleted replica id decides which stripe to lock, retry if the replicas changed before locked
+            Replica[] replicas = getReplicaArray(tabletId);
+            int pos = replicas == null ? -1 : indexOfBackend(replicas, backendId);
+            Replica replica = pos >= 0 ? replicas[pos] : null;
+            int[] locked = replica == null ? writeLockStripes(tabletId) : writeLockStripes(tabletId, replica.getId());
+            try {
+                if (stripe.replicas.get(tabletId) != replicas) {
+                    continue;
+                }
+                if (!stripe.tabletMetas.containsKey(tabletId)) {
+                    return;
+                }
+                if (replicas == null) {
+                    // this may happen when fe restart after tablet is empty(bug cause)
+                    // add log instead of assertion to observe
+                    LOG.error("tablet[{}] contains no replica in inverted index", tabletId);
+                    return;
+                }
+                if (replica == null) {
+                    LOG.error("tablet[{}] contains no replica of backend[{}] in inverted index", tabletId, backendId);
+                    return;
+                }
+                if (replicas.length == 1) {
+                    stripe.replicas.remove(tabletId);
+                } else {
+                    Replica[] newReplicas = new Replica[replicas.length - 1];
+                    System.arraycopy(replicas, 0, newReplicas, 0, pos);
+                    System.arraycopy(replicas, pos + 1, newReplicas, pos, replicas.length - pos - 1);
+                    stripe.replicas.put(tabletId, newReplicas);
+                }
+                replicaCount.decrementAndGet();
+                stripeOf(replica.getId()).replicaToTablet.remove(replica.getId());
+                removeBackendReplica(backendId, tabletId);
+            } finally {
+                writeUnlockStripes(locked);
             }
-            if (replicaMetaTable.containsRow(tabletId)) {
-                Replica replica = replicaMetaTable.remove(tabletId, backendId);
-                assert replica != null;
-                replicaToTabletMap.remove(replica.getId());
-                replicaMetaTable.remove(tabletId, backendId);
-                backingReplicaMetaTable.remove(backendId, tabletId);
-                LOG.debug("delete replica {} of tablet {} in backend {}",
-                        replica.getId(), tabletId, backendId);
-            } else {
-                // this may happen when fe restart after tablet is empty(bug cause)
-                // add log instead of assertion to observe
-                LOG.error("tablet[{}] contains no replica in inverted index", tabletId);
+            LOG.debug("delete replica {} of tablet {} in backend {}", replica.getId(), tabletId, backendId);
+            return;
+        }
+    }
+
+    private static int indexOfBackend(Replica[] replicas, long backendId) {
+        for (int i = 0; i < replicas.length; i++) {
+            if (replicas[i].getBackendId() == backendId) {
+                return i;
             }
-        } finally {
-            writeUnlock();
         }
+        return -1;
     }
 
-    public Replica getReplica(long tabletId, long backendId) {
-        readLock();
+    /**
+     * Write lock the stripes of all the ids in ascending stripe index order, and return the locked indexes.
+     */
+    private int[] writeLockStripes(long... ids) {
+        int[] indexes = Arrays.stream(ids).mapToInt(id -> (int) (id & (STRIPE_NUM - 1))).distinct().sorted().toArray();
+        for (int index : indexes) {
+            stripes[index].lock.writeLock().lock();
+        }
+        return indexes;
+    }
+
+    private void writeUnlockStripes(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].lock.writeLock().unlock();
+        }
+    }
+
+    private void removeBackendReplica(long backendId, long tabletId) {
+        BackendReplicas onBackend = backendReplicas.get(backendId);
+        if (onBackend == null) {
+            return;
+        }
+        onBackend.lock.writeLock().lock();
         try {
-            return replicaMetaTable.get(tabletId, backendId);
+            onBackend.replicas.remove(tabletId);
         } finally {
-            readUnlock();
+            onBackend.lock.writeLock().unlock();
         }
     }
 
-    public List<Replica> getReplicasByTabletId(long tabletId) {
-        readLock();
+    private Replica[] getReplicaArray(long tabletId) {
+        Stripe stripe = stripeOf(tabletId);
+        stripe.lock.readLock().lock();
         try {
-            if (replicaMetaTable.containsRow(tabletId)) {
-                return Lists.newArrayList(replicaMetaTable.row(tabletId).values());
-            }
-            return Lists.newArrayList();
+            return stripe.replicas.get(tabletId);
         } finally {
-            readUnlock();
+            stripe.lock.readLock().unlock();
         }
     }
 
+    public Replica getReplica(long tabletId, long backendId) {
+        Replica[] replicas = getReplicaArray(tabletId);
+        if (replicas == null) {
+            return null;
+        }
+        int pos = indexOfBackend(replicas, backendId);
+        return pos >= 0 ? replicas[pos] : null;
+    }
+
+    public List<Replica> getReplicasByTabletId(long tabletId) {
+        Replica[] replicas = getReplicaArray(tabletId);
+        return replicas == null ? Lists.newArrayList() : Lists.newArrayList(replicas);
+    }
+
     /**
      * For each tabletId in the tablet_id list, get the replica on specified backend or null, return as a list.
      *
@@ -319,64 +450,82 @@ public class TabletInvertedIndex implements MemoryTrackable {
      * @return list of replica or null if backend not found
      */
     public List<Replica> getReplicasOnBackendByTabletIds(List<Long> tabletIds, long backendId) {
-        readLock();
+        BackendReplicas onBackend = backendReplicas.get(backendId);
+        if (onBackend == null) {
+            return null;
+        }
+        onBackend.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            if (!replicaMetaWithBackend.isEmpty()) {
-                List<Replica> replicas = Lists.newArrayList();
-                for (long tabletId : tabletIds) {
-                    replicas.add(replicaMetaWithBackend.get(tabletId));
-                }
-                return replicas;
+            if (onBackend.replicas.isEmpty()) {
+                return null;
             }
-            return null;
+            List<Replica> replicas = Lists.newArrayListWithCapacity(tabletIds.size());
+            for (long tabletId : tabletIds) {
+                replicas.add(onBackend.replicas.get(tabletId));
+            }
+            return replicas;
         } finally {
-            readUnlock();
+            onBackend.lock.readLock().unlock();
         }
     }
 
-    public List<Long> getTabletIdsByBackendId(long backendId) {
-        List<Long> tabletIds = Lists.newArrayList();
-        readLock();
+    private long[] getTabletIdArrayByBackendId(long backendId) {
+        BackendReplicas onBackend = backendReplicas.get(backendId);
+        if (onBackend == null) {
+            return new long[0];
+        }
+        onBackend.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            tabletIds.addAll(replicaMetaWithBackend.keySet());
+            return onBackend.replicas.keys();
         } finally {
-            readUnlock();
+            onBackend.lock.readLock().unlock();
         }
-        return tabletIds;
+    }
+
+    public List<Long> getTabletIdsByBackendId(long backendId) {
+        long[] tabletIds = getTabletIdArrayByBackendId(backendId);
+        List<Long> result = Lists.newArrayListWithCapacity(tabletIds.length);
+        for (long tabletId : tabletIds) {
+            result.add(tabletId);
+        }
+        return result;
     }
 
     public List<Long> getTabletIdsByBackendIdAndStorageMedium(long backendId, TStorageMedium storageMedium) {
-        List<Long> tabletIds;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            tabletIds = replicaMetaWithBackend.keySet().stream().filter(
-                    id -> tabletMetaMap.get(id).getStorageMedium() == storageMedium).collect(Collectors.toList());
-        } finally {
-            readUnlock();
+        List<Long> tabletIds = Lists.newArrayList();
+        for (long tabletId : getTabletIdArrayByBackendId(backendId)) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            // the tablet may be deleted concurrently
+            if (tabletMeta != null && tabletMeta.getStorageMedium() == storageMedium) {
+                tabletIds.add(tabletId);
+            }
         }
         return tabletIds;
     }
 
     public long getTabletNumByBackendId(long backendId) {
-        readLock();
+        BackendReplicas onBackend = backendReplicas.get(backendId);
+        if (onBackend == null) {
+            return 0;
+        }
+        onBackend.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            return replicaMetaWithBackend.size();
+            return onBackend.replicas.size();
         } finally {
-            readUnlock();
+            onBackend.lock.readLock().unlock();
         }
     }
 
     public long getTabletNumByBackendIdAndPathHash(long backendId, long pathHash) {
-        readLock();
+        BackendReplicas onBackend = backendReplicas.get(backendId);
+        if (onBackend == null) {
+            return 0;
+        }
+        onBackend.lock.readLock().lock();
         try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            return replicaMetaWithBackend.values().stream().filter(r -> r.getPathHash() == pathHash).count();
+            return onBackend.replicas.values().stream().filter(r -> r.getPathHash() == pathHash).count();
         } finally {
-            readUnlock();
+            onBackend.lock.readLock().unlock();
         }
     }
 
@@ -384,18 +533,16 @@ public class TabletInvertedIndex implements MemoryTrackable {
         Map<TStorageMedium, Long> replicaNumMap = Maps.newHashMap();
         long hddNum = 0;
         long ssdNum = 0;
-        readLock();
-        try {
-            Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
-            for (long tabletId : replicaMetaWithBackend.keySet()) {
-                if (tabletMetaMap.get(tabletId).getStorageMedium() == TStorageMedium.HDD) {
-                    hddNum++;
-                } else {
-                    ssdNum++;
-                }
+        for (long tabletId : getTabletIdArrayByBackendId(backendId)) {
+            TabletMeta tabletMeta = getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                continue;
+            }
+            if (tabletMeta.getStorageMedium() == TStorageMedium.HDD) {
+                hddNum++;
+            } else {
+                ssdNum++;
             }
-        } finally {
-            readUnlock();
         }
         replicaNumMap.put(TStorageMedium.HDD, hddNum);
         replicaNumMap.put(TStorageMedium.SSD, ssdNum);
@@ -403,59 +550,108 @@ public class TabletInvertedIndex implements MemoryTrackable {
     }
 
     public long getTabletCount() {
-        return this.tabletMetaMap.size();
+        return tabletCount.get();
     }
 
     public long getReplicaCount() {
-        readLock();
-        try {
-            return this.replicaMetaTable.size();
-        } finally {
-            readUnlock();
-        }
+        return replicaCount.get();
     }
 
+    /**
+     * A snapshot of the replicas on the backend, tablet id -> replica. Never returns null.
+     */
     public Map<Long, Replica> getReplicaMetaWithBackend(Long backendId) {
-        return backingReplicaMetaTable.row(backendId);
+        BackendReplicas onBackend = backendReplicas.get(backendId);
+        if (onBackend == null) {
+            return Maps.newHashMap();
+        }
+        onBackend.lock.readLock().lock();
+        try {
+            Map<Long, Replica> replicas = Maps.newHashMapWithExpectedSize(onBackend.replicas.size());
+            onBackend.replicas.forEach(replicas::put);
+            return replicas;
+        } finally {
+            onBackend.lock.readLock().unlock();
+        }
     }
 
     // just for test
     public void clear() {
-        writeLock();
-        try {
-            tabletMetaMap.clear();
-            replicaToTabletMap.clear();
-            replicaMetaTable.clear();
-            backingReplicaMetaTable.clear();
-        } finally {
-            writeUnlock();
+        for (Stripe stripe : stripes) {
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.tabletMetas.clear();
+                stripe.replicas.clear();
+                stripe.replicaToTablet.clear();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        backendReplicas.clear();
+        tabletCount.set(0);
+        replicaCount.set(0);
+    }
+
+    @Override
+    public long estimateSize() {
+        // the tablet metas and replicas are estimated by samples, and the slots of the maps are counted exactly
+        long size = MemoryTrackable.super.estimateSize();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.tabletMetas.estimateSlotSize() + stripe.replicas.estimateSlotSize()
+                        + stripe.replicaToTablet.estimateSlotSize();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        for (BackendReplicas onBackend : backendReplicas.values()) {
+            onBackend.lock.readLock().lock();
+            try {
+                size += onBackend.replicas.estimateSlotSize();
+            } finally {
+                onBackend.lock.readLock().unlock();
+            }
         }
+        return size;
     }
 
     @Override
     public Map<String, Long> estimateCount() {
-        return ImmutableMap.of("TabletMeta", (long) tabletMetaMap.size(),
+        return ImmutableMap.of("TabletMeta", getTabletCount(),
                                "TabletCount", getTabletCount(),
                                "ReplicateCount", getReplicaCount());
     }
 
     @Override
     public List<Pair<List<Object>, Long>> getSamples() {
-        readLock();
-        try {
-            List<Object> tabletMetaSamples = tabletMetaMap.values()
-                    .stream()
-                    .limit(1)
-                    .collect(Collectors.toList());
-
-            List<Object> longSamples = Lists.newArrayList(0L);
-            long longSize = tabletMetaMap.size() + replicaToTabletMap.size() * 2L + forceDeleteTablets.size() * 4L
-                    + replicaMetaTable.size() * 2L + backingReplicaMetaTable.size() * 2L;
+        List<Object> tabletMetaSamples = Lists.newArrayList();
+        List<Object> replicaArraySamples = Lists.newArrayList();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                for (long tabletId : stripe.tabletMetas.keys(1)) {
+                    tabletMetaSamples.add(stripe.tabletMetas.get(tabletId));
+                    Replica[] replicas = stripe.replicas.get(tabletId);
+                    if (replicas != null) {
+                        replicaArraySamples.add(replicas);
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+            if (!tabletMetaSamples.isEmpty()) {
+                break;
+            }
+        }
 
-            return Lists.newArrayList(Pair.create(tabletMetaSamples, (long) tabletMetaMap.size()),
-                    Pair.create(longSamples, longSize));
-        } finally {
-            readUnlock();
+        long forceDeleteSize;
+        synchronized (forceDeleteLock) {
+            forceDeleteSize = forceDeleteTablets.size() * 4L;
         }
+        List<Object> longSamples = Lists.newArrayList(0L);
+        return Lists.newArrayList(Pair.create(tabletMetaSamples, getTabletCount()),
+                Pair.create(replicaArraySamples, getTabletCount()),
+                Pair.create(longSamples, forceDeleteSize));
     }
 }
@@ -104,6 +104,8 @@ public class SystemId {
 
     public static final long TEMP_TABLES_ID = 43L;
 
+    public static final long QUERY_PROFILES_ID = 44L;
+
     public static final long SYS_DB_ID = 100L;
 
     public static final long ROLE_EDGES_ID = 101L;
@@ -112,6 +114,7 @@ public class SystemId {
     public static final long OBJECT_DEPENDENCIES = 104L;
     public static final long FE_LOCKS_ID = 105L;
     public static final long MEMORY_USAGE_ID = 106L;
+    public static final long FE_LOCK_CONTENTIONS_ID = 107L;
     public static final long PIPE_FILES_ID = 120L;
     public static final long PIPES_ID = 121L;
     public static final long BE_DATACACHE_METRICS = 130L;
@@ -88,6 +88,7 @@ public class InfoSchemaDb extends Database {
             super.registerTableUnlocked(BeDataCacheMetricsTable.create());
             super.registerTableUnlocked(PartitionsMetaSystemTable.create());
             super.registerTableUnlocked(TemporaryTablesTable.create());
+            super.registerTableUnlocked(QueryProfilesSystemTable.create());
         }
     }
 
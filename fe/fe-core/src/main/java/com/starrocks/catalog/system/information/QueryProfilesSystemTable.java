@@ -0,0 +1,47 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog.system.information;
+
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.system.SystemId;
+import com.starrocks.catalog.system.SystemTable;
+import com.starrocks.thrift.TSchemaTableType;
+
+import static com.starrocks.catalog.system.SystemTable.NAME_CHAR_LEN;
+import static com.starrocks.catalog.system.SystemTable.builder;
+
+/**
+ * The finished query profiles of the connected FE, including the persisted ones in the profile store.
+ * Use `get_query_profile('<query_id>')` to get the content. `ANALYZE PROFILE FROM '<query_id>'` needs the plan of the
+ * query, which is kept only for the profiles still in memory. The sql statement of a persisted profile is truncated.
+ */
+public class QueryProfilesSystemTable {
+    public static final String NAME = "query_profiles";
+
+    public static SystemTable create() {
+        return new SystemTable(SystemId.QUERY_PROFILES_ID, NAME, Table.TableType.SCHEMA, builder()
+                .column("QUERY_ID", ScalarType.createVarchar(64))
+                .column("USER", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .column("DEFAULT_DB", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .column("SQL_STATEMENT", ScalarType.createVarchar(SystemTable.MAX_FIELD_VARCHAR_LENGTH))
+                .column("QUERY_TYPE", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .column("START_TIME", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .column("END_TIME", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .column("TOTAL_TIME", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .column("QUERY_STATE", ScalarType.createVarchar(NAME_CHAR_LEN))
+                .build(), TSchemaTableType.SCH_QUERY_PROFILES);
+    }
+}
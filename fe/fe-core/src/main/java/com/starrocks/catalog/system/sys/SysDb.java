@@ -33,6 +33,7 @@ public class SysDb extends Database {
         super.registerTableUnlocked(GrantsTo.createGrantsToUsers());
         super.registerTableUnlocked(SysObjectDependencies.create());
         super.registerTableUnlocked(SysFeLocks.create());
+        super.registerTableUnlocked(SysFeLockContentions.create());
         super.registerTableUnlocked(SysFeMemoryUsage.create());
     }
 
@@ -0,0 +1,114 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog.system.sys;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.system.SystemId;
+import com.starrocks.catalog.system.SystemTable;
+import com.starrocks.common.util.concurrent.lock.LockContentionProfiler;
+import com.starrocks.privilege.AccessDeniedException;
+import com.starrocks.privilege.PrivilegeType;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.Authorizer;
+import com.starrocks.sql.ast.UserIdentity;
+import com.starrocks.thrift.TAuthInfo;
+import com.starrocks.thrift.TFeLockContentionsItem;
+import com.starrocks.thrift.TFeLockContentionsReq;
+import com.starrocks.thrift.TFeLockContentionsRes;
+import com.starrocks.thrift.TSchemaTableType;
+import org.apache.thrift.TException;
+
+/**
+ * The lock waits profiled by {@link LockContentionProfiler}, one row for each resource and lock mode.
+ */
+public class SysFeLockContentions {
+    public static final String NAME = "fe_lock_contentions";
+
+    private static final int TOP_BLOCKERS = 3;
+
+    public static SystemTable create() {
+        return new SystemTable(SystemId.FE_LOCK_CONTENTIONS_ID, NAME,
+                Table.TableType.SCHEMA,
+                SystemTable.builder()
+                        .column("lock_object", ScalarType.createVarcharType(64))
+                        .column("lock_mode", ScalarType.createVarcharType(64))
+                        .column("wait_count", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("failed_wait_count", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("total_wait_ms", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("max_wait_ms", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("p50_wait_ms", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("p99_wait_ms", ScalarType.createType(PrimitiveType.BIGINT))
+                        .column("top_blockers", ScalarType.createVarcharType(SystemTable.MAX_FIELD_VARCHAR_LENGTH))
+                        .build(),
+                TSchemaTableType.SYS_FE_LOCK_CONTENTIONS);
+    }
+
+    @VisibleForTesting
+    public static TFeLockContentionsRes listLockContentions(TFeLockContentionsReq request, boolean authenticate)
+            throws TException {
+        TAuthInfo auth = request.getAuth_info();
+        UserIdentity currentUser;
+        if (auth.isSetCurrent_user_ident()) {
+            currentUser = UserIdentity.fromThrift(auth.getCurrent_user_ident());
+        } else {
+            currentUser = UserIdentity.createAnalyzedUserIdentWithIp(auth.getUser(), auth.getUser_ip());
+        }
+
+        // authorize
+        try {
+            if (authenticate) {
+                Authorizer.checkSystemAction(currentUser, null, PrivilegeType.OPERATE);
+            }
+        } catch (AccessDeniedException e) {
+            throw new TException(e.getMessage(), e);
+        }
+
+        TFeLockContentionsRes response = new TFeLockContentionsRes();
+        LockContentionProfiler profiler = GlobalStateMgr.getCurrentState().getLockManager().getContentionProfiler();
+        for (LockContentionProfiler.ContentionStats stats : profiler.getContentions()) {
+            TFeLockContentionsItem item = new TFeLockContentionsItem();
+            item.setLock_object(String.valueOf(stats.getRid()));
+            item.setLock_mode(stats.getLockType().toString());
+            item.setWait_count(stats.getWaits());
+            item.setFailed_wait_count(stats.getFailedWaits());
+            item.setTotal_wait_ms(stats.getTotalWaitMs());
+            item.setMax_wait_ms(stats.getMaxWaitMs());
+            item.setP50_wait_ms(stats.getWaitMsPercentile(0.5));
+            item.setP99_wait_ms(stats.getWaitMsPercentile(0.99));
+
+            JsonArray blockers = new JsonArray();
+            for (LockContentionProfiler.BlockerStats blocker : stats.getTopBlockers(TOP_BLOCKERS)) {
+                JsonObject blockerInfo = new JsonObject();
+                blockerInfo.addProperty("threadName", blocker.getThreadName());
+                blockerInfo.addProperty("blockedWaits", blocker.getBlockedWaits());
+                blockerInfo.addProperty("blockedWaitMs", blocker.getBlockedWaitMs());
+                if (blocker.getStack() != null) {
+                    blockerInfo.add("stack", JsonParser.parseString(blocker.getStack()));
+                }
+                blockers.add(blockerInfo);
+            }
+            item.setTop_blockers(blockers.toString());
+
+            response.addToItems(item);
+        }
+        return response;
+    }
+}
@@ -478,6 +478,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int meta_delay_toleration_second = 300;    // 5 min
 
+    /**
+     * With session variable enable_follower_read_your_writes, the max time for non-leader FE to wait for the
+     * journals written by the session to be replayed, before forwarding the read-only statement to leader.
+     */
+    @ConfField(mutable = true)
+    public static int follower_read_your_writes_timeout_ms = 3000;
+
     /**
      * Leader FE sync policy of bdbje.
      * If you only deploy one Follower FE, set this to 'SYNC'. If you deploy more than 3 Follower FE,
@@ -612,6 +619,43 @@ public class Config extends ConfigBase {
     @ConfField
     public static int profile_process_blocking_queue_size = profile_process_threads_num * 128;
 
+    /**
+     * Whether to keep the finished and running profiles unrendered until they are requested,
+     * which saves the CPU to render and compress the profiles never requested, at the cost of FE memory.
+     * An unrendered profile tree is many times larger than its compressed content, and up to
+     * profile_info_reserved_num of them are kept, so only enable it when the FE heap is large enough.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_profile_lazy_render = false;
+
+    /**
+     * Whether to persist the finished profiles to {@code profile_store_dir}, so they survive FE restart
+     * and are not kept in the heap. They can be queried by information_schema.query_profiles.
+     */
+    @ConfField
+    public static boolean enable_profile_store = false;
+
+    @ConfField
+    public static String profile_store_dir = StarRocksFE.STARROCKS_HOME_DIR + "/profile";
+
+    /**
+     * The size of each segment file of the profile store.
+     */
+    @ConfField(mutable = true)
+    public static long profile_store_segment_size_mb = 64;
+
+    /**
+     * The oldest segments of the profile store are removed when the total size exceeds this value.
+     */
+    @ConfField(mutable = true)
+    public static long profile_store_max_size_mb = 2048;
+
+    /**
+     * The segments of the profile store are removed when all the profiles in them are older than this value.
+     */
+    @ConfField(mutable = true)
+    public static long profile_store_retention_hours = 24;
+
     /**
      * max num of thread to handle agent task in agent task thread-pool.
      */
@@ -708,6 +752,19 @@ public class Config extends ConfigBase {
      */
     @ConfField(mutable = true)
     public static long query_queue_v2_cpu_costs_per_slot = 1_000_000_000;
+    /**
+     * Whether to admit the queries of query queue v2 by weighted fair queuing across resource groups,
+     * where the weight of a group is its cpu_weight.
+     * @see com.starrocks.qe.scheduler.slot.FairShareSlotSelectionStrategy
+     */
+    @ConfField
+    public static boolean query_queue_v2_enable_fair_share = false;
+    /**
+     * The ratio of the total memory of BEs which can be occupied by the estimated peak memory of the running queries,
+     * when {@code query_queue_v2_enable_fair_share} is true. The admission by memory is disabled if it is non-positive.
+     */
+    @ConfField(mutable = true)
+    public static double query_queue_v2_mem_admission_ratio = 0.9;
 
     /**
      * Number of worker threads for http server to deal with http requests which may do
@@ -861,6 +918,54 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_http_sql_service_task_threads_num = 4096;
 
+    /**
+     * Number of the direct buffers shared by all the mysql connections to send query results.
+     * A connection borrows one for a command and returns it after the command is finished,
+     * and it falls back to a heap buffer when all of them are borrowed.
+     */
+    @ConfField
+    public static int mysql_send_buffer_pool_num = 64;
+
+    /**
+     * Size in bytes of each pooled mysql send buffer.
+     */
+    @ConfField
+    public static int mysql_send_buffer_size = 2 * 1024 * 1024;
+
+    /**
+     * Max number of idle 16KB buffers kept to read packets from mysql clients, so the pool holds at most
+     * 16KB * mysql_read_buffer_pool_num bytes when idle. A connection borrows one only when a packet arrives
+     * and returns it after the command is finished. The idle buffers are created lazily.
+     */
+    @ConfField
+    public static int mysql_read_buffer_pool_num = 64;
+
+    /**
+     * Port of the Arrow Flight SQL service, which returns query results as Arrow record batches.
+     * The service is disabled if it's not positive.
+     */
+    @ConfField
+    public static int arrow_flight_port = -1;
+
+    /**
+     * Max number of Arrow Flight SQL sessions, the least recently used one is closed when it's exceeded.
+     */
+    @ConfField
+    public static int arrow_flight_max_sessions = 1024;
+
+    /**
+     * An Arrow Flight SQL session and its bearer token expire after being idle for this many seconds.
+     */
+    @ConfField
+    public static int arrow_flight_session_timeout_second = 3600;
+
+    /**
+     * Whether to fetch the next result batch from the backend while the current one is sent to the client.
+     * At most one batch is fetched ahead, so a slow client still holds back the backend.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_result_prefetch = true;
+
     /**
      * modifies the version string returned by following situations:
      * select version();
@@ -1323,6 +1428,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int skip_whole_phase_lock_mv_limit = 5;
 
+    /**
+     * Analyze the queries on olap tables without the db and table locks, and validate that none of them is written
+     * during analyzing by the versions of their write locks. The query is analyzed again with the locks if the
+     * validation fails.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_planner_optimistic_meta_read = true;
+
     @ConfField
     public static boolean enable_udf = false;
 
@@ -1702,6 +1815,52 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_schedule_insert_query_by_row_count = true;
 
+    /**
+     * Whether to prefer the workers with lower recent deploy latency, fragment execution time and resource usage
+     * when choosing among the eligible workers, instead of the static round-robin and least-assigned order.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_adaptive_worker_selection = false;
+
+    /**
+     * The time constant of the exponential decay of the worker health signals in adaptive worker selection.
+     * The penalty of a slow worker fades out if it hasn't been updated for several times of this value.
+     */
+    @ConfField(mutable = true)
+    public static long adaptive_worker_selection_decay_ms = 60000;
+
+    /**
+     * In adaptive worker selection, a worker whose score is higher than this value is treated as a straggler,
+     * and is skipped by the locality-aware selection of external scan ranges. The score is 1.0 if the worker
+     * behaves like the other candidates.
+     */
+    @ConfField(mutable = true)
+    public static double adaptive_worker_selection_straggler_ratio = 1.25;
+
+    /**
+     * Whether to detect the fragment instances of scan fragments which are far behind their siblings, and penalize
+     * their workers in adaptive worker selection before they finish.
+     * The detection runs when the instances of the query report their status, so its delay is bounded by the
+     * status_report_interval of the backends.
+     * The stragglers are only reported in the query profile, they aren't re-executed speculatively. It's off by
+     * default, since the skewed scan ranges of one query can penalize a healthy backend for all the queries.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_straggler_instance_detection = false;
+
+    /**
+     * A running instance is a straggler if at least half of its siblings have finished, and it has been running
+     * longer than this ratio of the median execution time of the finished siblings.
+     */
+    @ConfField(mutable = true)
+    public static double straggler_instance_detection_ratio = 3.0;
+
+    /**
+     * A running instance isn't a straggler if it has been running shorter than this time.
+     */
+    @ConfField(mutable = true)
+    public static long straggler_instance_detection_min_ms = 5000;
+
     /**
      * the max concurrent routine load task num of a single routine load job
      */
@@ -2010,6 +2169,13 @@ public class Config extends ConfigBase {
     @ConfField
     public static int slot_manager_response_thread_pool_size = 16;
 
+    /**
+     * The size of the thread-pool shared by all the queries to derive the statistics of the scans in parallel,
+     * see the session variable cbo_enable_parallel_derive_stats
+     */
+    @ConfField
+    public static int optimizer_derive_stats_thread_pool_size = 16;
+
     @ConfField
     public static long statistic_dict_columns = 100000;
 
@@ -2656,6 +2822,35 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int metadata_journal_max_batch_cnt = 100;
 
+    /**
+     * The maximum time in microseconds for the journal writer to wait for more journals after the queue is drained,
+     * so that the journals written concurrently can be committed together. The actual window is adapted to the recent
+     * batch size and commit latency. 0 to commit as soon as the queue is drained.
+     */
+    @ConfField(mutable = true)
+    public static long metadata_journal_group_commit_max_wait_us = 2000;
+
+    /**
+     * Number of threads on follower to decode the journals of transaction state ahead of replaying them,
+     * 0 to decode all journals in the replayer thread.
+     */
+    @ConfField
+    public static int metadata_journal_replay_decode_threads = 4;
+
+    /**
+     * The maximum number of journals read by the replayer ahead of replaying them.
+     */
+    @ConfField
+    public static int metadata_journal_replay_prefetch_num = 256;
+
+    /**
+     * Number of threads on follower to replay the journals of transaction state. The journals of the same database
+     * are replayed in order, and the journals of different databases are replayed concurrently. Other journals are
+     * replayed after all the journals before them. 1 to replay all journals in the replayer thread.
+     */
+    @ConfField
+    public static int metadata_journal_replay_apply_threads = 1;
+
     /**
      * Endpoint for exporting Jaeger gRPC spans.
      * Empty string disables span export.
@@ -2826,6 +3021,42 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean metadata_ignore_unknown_subtype = false;
 
+    /**
+     * Number of threads to load the meta blocks of image concurrently at FE startup,
+     * the image is loaded sequentially if it's set to 1 or the image has no footer recording the meta blocks.
+     */
+    @ConfField
+    public static int metadata_image_load_threads = 8;
+
+    /**
+     * Whether to write the image and the edit log of transaction state in the compact binary encoding
+     * instead of json text, which is smaller and faster to load. Both encodings can always be read,
+     * but FE can not roll back to the versions not supporting the binary encoding once it's enabled.
+     */
+    @ConfField(mutable = true)
+    public static boolean metadata_enable_binary_format = false;
+
+    /**
+     * Compress the edit log entries larger than metadata_journal_compression_threshold_bytes, to reduce the size
+     * of bdb log and the replication traffic to followers. Could be NO_COMPRESSION, LZ4 or ZSTD.
+     * Both compressed and uncompressed entries can always be read, but FE can not roll back to the versions
+     * not supporting the compression once it's enabled.
+     */
+    @ConfField(mutable = true)
+    public static String metadata_journal_compression_type = "NO_COMPRESSION";
+
+    @ConfField(mutable = true)
+    public static int metadata_journal_compression_threshold_bytes = 16384;
+
+    /**
+     * Whether checkpoint copies the meta blocks not changed by the replayed journals from the previous image,
+     * instead of serializing them again. Only the meta blocks written by the same FE version are copied.
+     * It's off by default, since a journal which changes a copied meta block but isn't tracked by
+     * ImageSectionTracker makes every later image keep the stale meta block.
+     */
+    @ConfField(mutable = true)
+    public static boolean metadata_enable_incremental_checkpoint = false;
+
     /**
      * Number of profile infos reserved by `ProfileManager` for recently executed query.
      * Default value: 500
@@ -3124,6 +3355,25 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long mv_plan_cache_max_size = 1000;
 
+    /**
+     * query plan cache expire interval in seconds, see session variable `enable_query_plan_cache`
+     */
+    @ConfField
+    public static long query_plan_cache_expire_interval_sec = 60L * 60L;
+
+    /**
+     * max number of plans in the query plan cache
+     */
+    @ConfField
+    public static long query_plan_cache_max_size = 10000;
+
+    /**
+     * the batch deploy request is compressed only if its size reaches this threshold,
+     * see session variable `batch_deploy_compression_type`
+     */
+    @ConfField(mutable = true)
+    public static long batch_deploy_compression_threshold_bytes = 64L * 1024L;
+
     @ConfField(mutable = true, comment = "Max materialized view rewrite cache size during one query's lifecycle " +
             "so can avoid repeating compute to reduce optimizer time in materialized view rewrite, " +
             "but may occupy some extra FE's memory. It's well-done when there are many relative " +
@@ -3176,6 +3426,28 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean lock_manager_enable_using_fine_granularity_lock = true;
 
+    /**
+     * Whether to lock partitions when publishing versions. The tables are locked by intention locks, so the loads
+     * into different partitions of a table can be published in parallel.
+     * Only takes effect when lock_manager_enable_using_fine_granularity_lock is true.
+     */
+    @ConfField
+    public static boolean lock_manager_enable_using_partition_lock = true;
+
+    /**
+     * Whether to profile the lock waits of LockManager, which can be queried in sys.fe_lock_contentions.
+     * Only the acquisitions that have to wait are recorded, so the overhead of uncontended locks is not affected.
+     */
+    @ConfField(mutable = true)
+    public static boolean lock_manager_enable_contention_profile = true;
+
+    /**
+     * The max number of resources whose lock waits are profiled, the resource with the least total wait time is
+     * evicted for a new one.
+     */
+    @ConfField(mutable = true)
+    public static int lock_manager_contention_profile_max_resources = 1024;
+
     @ConfField(mutable = true)
     public static long routine_load_unstable_threshold_second = 3600;
     /**
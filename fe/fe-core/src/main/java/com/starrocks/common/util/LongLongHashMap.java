@@ -0,0 +1,196 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from primitive long to primitive long, with linear probing.
+ * See {@link LongObjectHashMap}. It's not thread safe.
+ */
+public class LongLongHashMap {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // 0 marks a free slot, the value of key 0 is stored separately
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(0);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(LongObjectHashMap.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        maxFill = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of the key, or {@code defaultValue} if there is none.
+     */
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return containsZeroKey ? zeroValue : defaultValue;
+        }
+        int pos = LongObjectHashMap.mix(key) & mask;
+        long curr;
+        while ((curr = keys[pos]) != 0) {
+            if (curr == key) {
+                return values[pos];
+            }
+            pos = (pos + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return containsZeroKey;
+        }
+        int pos = LongObjectHashMap.mix(key) & mask;
+        long curr;
+        while ((curr = keys[pos]) != 0) {
+            if (curr == key) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    public void put(long key, long value) {
+        if (key == 0) {
+            if (!containsZeroKey) {
+                containsZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int pos = LongObjectHashMap.mix(key) & mask;
+        long curr;
+        while ((curr = keys[pos]) != 0) {
+            if (curr == key) {
+                values[pos] = value;
+                return;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size > maxFill) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Returns true if the key existed and has been removed.
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!containsZeroKey) {
+                return false;
+            }
+            containsZeroKey = false;
+            zeroValue = 0;
+            size--;
+            return true;
+        }
+        int pos = LongObjectHashMap.mix(key) & mask;
+        long curr;
+        while ((curr = keys[pos]) != 0) {
+            if (curr == key) {
+                size--;
+                shiftKeys(pos);
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    private void shiftKeys(int pos) {
+        int last;
+        long curr;
+        while (true) {
+            last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if ((curr = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = 0;
+                    return;
+                }
+                int slot = LongObjectHashMap.mix(curr) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = curr;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int pos = LongObjectHashMap.mix(key) & mask;
+                while (keys[pos] != 0) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        containsZeroKey = false;
+        zeroValue = 0;
+        size = 0;
+    }
+
+    /**
+     * Bytes of the key and value slots.
+     */
+    public long estimateSlotSize() {
+        return (long) keys.length * (Long.BYTES + Long.BYTES);
+    }
+}
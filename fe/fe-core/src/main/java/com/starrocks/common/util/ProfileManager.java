@@ -36,10 +36,12 @@ package com.starrocks.common.util;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.memory.MemoryTrackable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -50,6 +52,7 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -93,9 +96,39 @@ public class ProfileManager implements MemoryTrackable {
 
     public static class ProfileElement {
         public Map<String, String> infoStrings = Maps.newHashMap();
-        public byte[] profileContent;
+        private byte[] profileContent;
+        /**
+         * The profile pushed by {@link #pushProfileLazily}, which is rendered and compressed to {@link #profileContent}
+         * only when someone requests it.
+         */
+        private RuntimeProfile unrenderedProfile;
+        /**
+         * Set when the content has been persisted to the store and released from the heap.
+         */
+        private ProfileStore persistedStore;
         public ProfilingExecPlan plan;
 
+        public synchronized byte[] getProfileContent() {
+            if (unrenderedProfile != null) {
+                profileContent = compressProfileString(generateProfileString(unrenderedProfile));
+                unrenderedProfile = null;
+            }
+            if (profileContent == null && persistedStore != null) {
+                try {
+                    return persistedStore.get(infoStrings.get(QUERY_ID));
+                } catch (IOException e) {
+                    LOG.warn("Read profile from store failed, query id: {}", infoStrings.get(QUERY_ID), e);
+                }
+            }
+            return profileContent;
+        }
+
+        private synchronized void releaseContent(ProfileStore store) {
+            persistedStore = store;
+            profileContent = null;
+            unrenderedProfile = null;
+        }
+
         public List<String> toRow() {
             List<String> res = Lists.newArrayList();
             res.add(infoStrings.get(QUERY_ID));
@@ -117,6 +150,11 @@ public class ProfileManager implements MemoryTrackable {
     private final LinkedHashMap<String, ProfileElement> profileMap; // from QueryId to RuntimeProfile
     private final LinkedHashMap<String, ProfileElement> loadProfileMap; // from LoadId to RuntimeProfile
 
+    // Null if the profile store is disabled, or before it is opened by the executor.
+    private volatile ProfileStore profileStore;
+    // Null if the profile store is disabled.
+    private final ThreadPoolExecutor profileStoreExecutor;
+
     public static ProfileManager getInstance() {
         if (INSTANCE == null) {
             INSTANCE = new ProfileManager();
@@ -130,23 +168,51 @@ public class ProfileManager implements MemoryTrackable {
         writeLock = lock.writeLock();
         profileMap = new LinkedHashMap<>();
         loadProfileMap = new LinkedHashMap<>();
+
+        if (Config.enable_profile_store) {
+            profileStoreExecutor =
+                    ThreadPoolManager.newDaemonFixedThreadPool(1, Integer.MAX_VALUE, "profile-store-writer", false);
+            // Opening the store scans all the segments, don't block the caller of getInstance.
+            // The profiles pushed meanwhile are persisted after it, since the executor has only one thread.
+            profileStoreExecutor.submit(this::openProfileStore);
+        } else {
+            profileStoreExecutor = null;
+        }
+    }
+
+    private void openProfileStore() {
+        try {
+            profileStore = new ProfileStore(Config.profile_store_dir);
+        } catch (IOException e) {
+            LOG.warn("Open profile store in {} failed, profiles will not be persisted", Config.profile_store_dir, e);
+        }
     }
 
     public ProfileElement createElement(RuntimeProfile summaryProfile, String profileString) {
+        ProfileElement element = createElementWithoutContent(summaryProfile);
+        element.profileContent = compressProfileString(profileString);
+        return element;
+    }
+
+    private static ProfileElement createElementWithoutContent(RuntimeProfile summaryProfile) {
         ProfileElement element = new ProfileElement();
         for (String header : PROFILE_HEADERS) {
             element.infoStrings.put(header, summaryProfile.getInfoString(header));
         }
+        return element;
+    }
+
+    private static byte[] compressProfileString(String profileString) {
         try {
-            element.profileContent = CompressionUtils.gzipCompressString(profileString);
+            return CompressionUtils.gzipCompressString(profileString);
         } catch (IOException e) {
             LOG.warn("Compress profile string failed, length: {}, reason: {}",
                     profileString.length(), e.getMessage());
+            return null;
         }
-        return element;
     }
 
-    private String generateProfileString(RuntimeProfile profile) {
+    private static String generateProfileString(RuntimeProfile profile) {
         if (profile == null) {
             return "";
         }
@@ -171,6 +237,27 @@ public class ProfileManager implements MemoryTrackable {
         String profileString = generateProfileString(profile);
         ProfileElement element = createElement(profile.getChildList().get(0).first, profileString);
         element.plan = plan;
+        pushElement(element);
+        return profileString;
+    }
+
+    /**
+     * Push the profile without rendering it, the profile is rendered when it is requested the first time.
+     * Most of the profiles are never requested, especially the running profiles which are pushed periodically,
+     * so this saves the CPU to render and compress them.
+     */
+    public void pushProfileLazily(ProfilingExecPlan plan, RuntimeProfile profile) {
+        if (!Config.enable_profile_lazy_render) {
+            pushProfile(plan, profile);
+            return;
+        }
+        ProfileElement element = createElementWithoutContent(profile.getChildList().get(0).first);
+        element.unrenderedProfile = profile;
+        element.plan = plan;
+        pushElement(element);
+    }
+
+    private void pushElement(ProfileElement element) {
         String queryId = element.infoStrings.get(ProfileManager.QUERY_ID);
         String queryType = element.infoStrings.get(ProfileManager.QUERY_TYPE);
         // check when push in, which can ensure every element in the list has QUERY_ID column,
@@ -197,16 +284,75 @@ public class ProfileManager implements MemoryTrackable {
             writeLock.unlock();
         }
 
-        return profileString;
+        persistProfileAsync(queryId, element);
+    }
+
+    /**
+     * Persist the finished profile to the store, and then release its content from the heap.
+     */
+    private void persistProfileAsync(String queryId, ProfileElement element) {
+        if (profileStoreExecutor == null || Strings.isNullOrEmpty(queryId) ||
+                "Running".equals(element.infoStrings.get(QUERY_STATE))) {
+            return;
+        }
+        if (profileStoreExecutor.getQueue().size() > Config.profile_process_blocking_queue_size) {
+            LOG.warn("Too many profiles to persist, skip persisting the profile of {}", queryId);
+            return;
+        }
+        profileStoreExecutor.submit(() -> {
+            ProfileStore store = profileStore;
+            if (store == null) {
+                // Failed to open the store.
+                return;
+            }
+            try {
+                byte[] content = element.getProfileContent();
+                if (content == null) {
+                    return;
+                }
+                store.put(queryId, element.infoStrings, content);
+                element.releaseContent(store);
+            } catch (IOException e) {
+                LOG.warn("Persist profile failed, query id: {}", queryId, e);
+            }
+        });
     }
 
     public boolean hasProfile(String queryId) {
         readLock.lock();
         try {
-            return profileMap.containsKey(queryId) || loadProfileMap.containsKey(queryId);
+            if (profileMap.containsKey(queryId) || loadProfileMap.containsKey(queryId)) {
+                return true;
+            }
         } finally {
             readLock.unlock();
         }
+        ProfileStore store = profileStore;
+        return store != null && store.contains(queryId);
+    }
+
+    /**
+     * Get the info strings of all the profiles in the memory and the store, ordered by the time pushed.
+     */
+    public List<Map<String, String>> getAllProfileInfoStrings() {
+        Map<String, Map<String, String>> result = new LinkedHashMap<>();
+        ProfileStore store = profileStore;
+        if (store != null) {
+            for (ProfileStore.ProfileMeta meta : store.getProfiles()) {
+                result.put(meta.getQueryId(), meta.getInfoStrings());
+            }
+        }
+        readLock.lock();
+        try {
+            for (ProfileElement element : Iterables.concat(loadProfileMap.values(), profileMap.values())) {
+                String queryId = element.infoStrings.get(QUERY_ID);
+                result.remove(queryId);
+                result.put(queryId, element.infoStrings);
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return Lists.newArrayList(result.values());
     }
 
     public List<List<String>> getAllQueries() {
@@ -256,24 +402,37 @@ public class ProfileManager implements MemoryTrackable {
     }
 
     public String getProfile(String queryId) {
-        ProfileElement element = new ProfileElement();
-        readLock.lock();
-        try {
-            element = profileMap.get(queryId) == null ? loadProfileMap.get(queryId) : profileMap.get(queryId);
-            if (element == null) {
-                return null;
-            }
+        byte[] profileContent = getProfileContent(queryId);
+        if (profileContent == null) {
+            return null;
+        }
 
-            return CompressionUtils.gzipDecompressString(element.profileContent);
+        try {
+            return CompressionUtils.gzipDecompressString(profileContent);
         } catch (IOException e) {
             LOG.warn("Decompress profile content failed, length: {}, reason: {}",
-                    element.profileContent.length, e.getMessage());
+                    profileContent.length, e.getMessage());
             return null;
-        } finally {
-            readLock.unlock();
         }
     }
 
+    private byte[] getProfileContent(String queryId) {
+        ProfileElement element = getProfileElement(queryId);
+        if (element != null) {
+            // Render the profile out of the lock, since it may be not rendered yet.
+            return element.getProfileContent();
+        }
+        ProfileStore store = profileStore;
+        if (store != null) {
+            try {
+                return store.get(queryId);
+            } catch (IOException e) {
+                LOG.warn("Read profile from store failed, query id: {}", queryId, e);
+            }
+        }
+        return null;
+    }
+
     public ProfileElement getProfileElement(String queryId) {
         readLock.lock();
         try {
@@ -297,8 +456,10 @@ public class ProfileManager implements MemoryTrackable {
 
     @Override
     public Map<String, Long> estimateCount() {
+        ProfileStore store = profileStore;
         return ImmutableMap.of("QueryProfile", (long) profileMap.size(),
-                "LoadProfile", (long) loadProfileMap.size());
+                "LoadProfile", (long) loadProfileMap.size(),
+                "PersistedProfile", store == null ? 0L : (long) store.getProfiles().size());
     }
 
     @Override
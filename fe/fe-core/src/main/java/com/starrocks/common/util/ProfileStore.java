@@ -0,0 +1,369 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.io.Text;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A disk-backed store of the compressed profiles, so the profiles survive FE restart and don't occupy the heap.
+ *
+ * <p> The profiles are appended to segment files named {@code profile.<seq>} in {@link Config#profile_store_dir}.
+ * A new segment is created when the current one exceeds {@link Config#profile_store_segment_size_mb}. Each record is
+ * {@code | body length (int) | crc32 of body (long) | body |}, and the body is
+ * {@code | query id | time ms | info strings | content length (int) | content |}.
+ *
+ * <p> Only the location of the content and the short info strings of each profile are kept in memory, the long values
+ * like the sql statement are truncated to {@value #MAX_INDEXED_VALUE_LENGTH} chars. They are rebuilt by scanning the
+ * segments when the store is opened. The whole oldest segment is deleted when all its profiles are older
+ * than {@link Config#profile_store_retention_hours}, or the total size exceeds {@link Config#profile_store_max_size_mb}.
+ */
+public class ProfileStore {
+    private static final Logger LOG = LogManager.getLogger(ProfileStore.class);
+
+    private static final String SEGMENT_PREFIX = "profile.";
+    private static final int RECORD_HEADER_SIZE = 4 + 8;
+    private static final int MAX_INDEXED_VALUE_LENGTH = 128;
+
+    private final File dir;
+
+    // From segment seq to segment, ordered by seq.
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    // From query id to the profile, ordered by the time written.
+    private final LinkedHashMap<String, ProfileMeta> profiles = new LinkedHashMap<>();
+    private long totalBytes = 0;
+
+    private DataOutputStream activeOutput = null;
+
+    public ProfileStore(String dir) throws IOException {
+        this.dir = new File(dir);
+        if (!this.dir.exists() && !this.dir.mkdirs()) {
+            throw new IOException("failed to create profile store directory: " + dir);
+        }
+        load();
+    }
+
+    public static class ProfileMeta {
+        private final String queryId;
+        private final long timeMs;
+        private final Map<String, String> infoStrings;
+        private final long segmentSeq;
+        private final long contentOffset;
+        private final int contentLength;
+
+        private ProfileMeta(String queryId, long timeMs, Map<String, String> infoStrings, long segmentSeq,
+                            long contentOffset, int contentLength) {
+            this.queryId = queryId;
+            this.timeMs = timeMs;
+            this.infoStrings = infoStrings;
+            this.segmentSeq = segmentSeq;
+            this.contentOffset = contentOffset;
+            this.contentLength = contentLength;
+        }
+
+        public String getQueryId() {
+            return queryId;
+        }
+
+        public long getTimeMs() {
+            return timeMs;
+        }
+
+        public Map<String, String> getInfoStrings() {
+            return infoStrings;
+        }
+    }
+
+    private static class Segment {
+        private final long seq;
+        private final File file;
+        private long size;
+        private long maxTimeMs = 0;
+
+        private Segment(long seq, File file, long size) {
+            this.seq = seq;
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    public synchronized void put(String queryId, Map<String, String> infoStrings, byte[] content) throws IOException {
+        long nowMs = System.currentTimeMillis();
+        Segment segment = getActiveSegment();
+
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(content.length + 1024);
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+        Text.writeString(body, queryId);
+        body.writeLong(nowMs);
+        Map<String, String> nonNullInfoStrings = Maps.newHashMap();
+        infoStrings.forEach((key, value) -> {
+            if (key != null && value != null) {
+                nonNullInfoStrings.put(key, value);
+            }
+        });
+        body.writeInt(nonNullInfoStrings.size());
+        for (Map.Entry<String, String> entry : nonNullInfoStrings.entrySet()) {
+            Text.writeString(body, entry.getKey());
+            Text.writeString(body, entry.getValue());
+        }
+        body.writeInt(content.length);
+        long contentOffset = segment.size + RECORD_HEADER_SIZE + body.size();
+        body.write(content);
+        body.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bodyBytes.toByteArray(), 0, bodyBytes.size());
+        activeOutput.writeInt(bodyBytes.size());
+        activeOutput.writeLong(crc.getValue());
+        bodyBytes.writeTo(activeOutput);
+        activeOutput.flush();
+
+        long recordSize = RECORD_HEADER_SIZE + bodyBytes.size();
+        segment.size += recordSize;
+        segment.maxTimeMs = nowMs;
+        totalBytes += recordSize;
+
+        // Remove the previous one first to keep the profiles ordered by the time written.
+        profiles.remove(queryId);
+        profiles.put(queryId, new ProfileMeta(queryId, nowMs, toIndexedInfoStrings(nonNullInfoStrings),
+                segment.seq, contentOffset, content.length));
+
+        evict(nowMs);
+    }
+
+    /**
+     * Read the content of the profile, or return null if it doesn't exist or has been evicted.
+     */
+    public byte[] get(String queryId) throws IOException {
+        ProfileMeta meta;
+        File file;
+        synchronized (this) {
+            meta = profiles.get(queryId);
+            if (meta == null) {
+                return null;
+            }
+            file = segments.get(meta.segmentSeq).file;
+        }
+
+        // Read out of the lock, the segment may be deleted by the eviction meanwhile.
+        byte[] content = new byte[meta.contentLength];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(meta.contentOffset);
+            raf.readFully(content);
+        } catch (IOException e) {
+            if (!file.exists()) {
+                return null;
+            }
+            throw e;
+        }
+        return content;
+    }
+
+    /**
+     * The info strings kept in memory, the long values are truncated in the same way as
+     * {@link ProfileManager.ProfileElement#toRow()}, the whole ones are still in the segment.
+     */
+    private static Map<String, String> toIndexedInfoStrings(Map<String, String> infoStrings) {
+        Map<String, String> indexed = Maps.newHashMapWithExpectedSize(infoStrings.size());
+        infoStrings.forEach((key, value) -> indexed.put(key, value.length() <= MAX_INDEXED_VALUE_LENGTH ? value :
+                value.substring(0, MAX_INDEXED_VALUE_LENGTH - 4) + " ..."));
+        return Collections.unmodifiableMap(indexed);
+    }
+
+    public synchronized boolean contains(String queryId) {
+        return profiles.containsKey(queryId);
+    }
+
+    /**
+     * @return The profiles in the store, ordered by the time written.
+     */
+    public synchronized List<ProfileMeta> getProfiles() {
+        return Lists.newArrayList(profiles.values());
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getNumSegments() {
+        return segments.size();
+    }
+
+    public synchronized void close() {
+        closeActiveOutput();
+    }
+
+    @VisibleForTesting
+    synchronized void evict(long nowMs) {
+        final long retentionMs = Config.profile_store_retention_hours * 3600L * 1000L;
+        final long maxBytes = Config.profile_store_max_size_mb * 1024L * 1024L;
+        while (!segments.isEmpty()) {
+            Segment oldest = segments.firstEntry().getValue();
+            boolean expired = retentionMs > 0 && oldest.maxTimeMs < nowMs - retentionMs;
+            boolean oversize = maxBytes > 0 && totalBytes > maxBytes && segments.size() > 1;
+            if (!expired && !oversize) {
+                break;
+            }
+            removeSegment(oldest);
+        }
+    }
+
+    private void removeSegment(Segment segment) {
+        if (segment == segments.lastEntry().getValue()) {
+            closeActiveOutput();
+        }
+        segments.remove(segment.seq);
+        totalBytes -= segment.size;
+
+        Iterator<ProfileMeta> iter = profiles.values().iterator();
+        while (iter.hasNext()) {
+            ProfileMeta meta = iter.next();
+            if (meta.segmentSeq > segment.seq) {
+                break;
+            }
+            iter.remove();
+        }
+
+        if (!segment.file.delete()) {
+            LOG.warn("failed to delete profile segment {}", segment.file);
+        }
+        LOG.info("removed profile segment {}, size: {}", segment.file, segment.size);
+    }
+
+    private Segment getActiveSegment() throws IOException {
+        final long segmentBytes = Math.max(1, Config.profile_store_segment_size_mb) * 1024L * 1024L;
+        Segment active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active != null && active.size < segmentBytes && activeOutput != null) {
+            return active;
+        }
+
+        closeActiveOutput();
+        if (active == null || active.size >= segmentBytes) {
+            long seq = active == null ? 0 : active.seq + 1;
+            active = new Segment(seq, new File(dir, SEGMENT_PREFIX + seq), 0);
+            segments.put(seq, active);
+        }
+        activeOutput = new DataOutputStream(new FileOutputStream(active.file, true));
+        return active;
+    }
+
+    private void closeActiveOutput() {
+        if (activeOutput == null) {
+            return;
+        }
+        try {
+            activeOutput.close();
+        } catch (IOException e) {
+            LOG.warn("failed to close profile segment", e);
+        }
+        activeOutput = null;
+    }
+
+    private synchronized void load() throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX));
+        if (files == null) {
+            throw new IOException("failed to list profile store directory: " + dir);
+        }
+        for (File file : files) {
+            try {
+                long seq = Long.parseLong(file.getName().substring(SEGMENT_PREFIX.length()));
+                segments.put(seq, new Segment(seq, file, 0));
+            } catch (NumberFormatException e) {
+                LOG.warn("ignore unknown file {} in profile store directory", file);
+            }
+        }
+
+        for (Segment segment : segments.values()) {
+            loadSegment(segment);
+            totalBytes += segment.size;
+        }
+        evict(System.currentTimeMillis());
+        LOG.info("loaded {} profiles from {} segments in {}, size: {}", profiles.size(), segments.size(), dir, totalBytes);
+    }
+
+    private void loadSegment(Segment segment) throws IOException {
+        final long fileLength = segment.file.length();
+        long validSize = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+            while (true) {
+                int bodyLength;
+                try {
+                    bodyLength = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                long checksum = in.readLong();
+                if (bodyLength < 0 || validSize + RECORD_HEADER_SIZE + bodyLength > fileLength) {
+                    throw new IOException("invalid record length " + bodyLength);
+                }
+                byte[] bodyBytes = new byte[bodyLength];
+                in.readFully(bodyBytes);
+                CRC32 crc = new CRC32();
+                crc.update(bodyBytes, 0, bodyLength);
+                if (crc.getValue() != checksum) {
+                    throw new IOException("checksum mismatch");
+                }
+
+                DataInputStream body = new DataInputStream(new ByteArrayInputStream(bodyBytes));
+                String queryId = Text.readString(body);
+                long timeMs = body.readLong();
+                int numInfoStrings = body.readInt();
+                Map<String, String> infoStrings = Maps.newHashMapWithExpectedSize(numInfoStrings);
+                for (int i = 0; i < numInfoStrings; i++) {
+                    infoStrings.put(Text.readString(body), Text.readString(body));
+                }
+                int contentLength = body.readInt();
+                long contentOffset = validSize + RECORD_HEADER_SIZE + (bodyLength - contentLength);
+
+                profiles.remove(queryId);
+                profiles.put(queryId, new ProfileMeta(queryId, timeMs, toIndexedInfoStrings(infoStrings),
+                        segment.seq, contentOffset, contentLength));
+                segment.maxTimeMs = Math.max(segment.maxTimeMs, timeMs);
+                validSize += RECORD_HEADER_SIZE + bodyLength;
+            }
+        } catch (IOException | RuntimeException e) {
+            // The tail may be written partially when FE crashed, truncate it to append the new records after the valid ones.
+            LOG.warn("profile segment {} is broken at offset {}, truncate it", segment.file, validSize, e);
+            try (RandomAccessFile raf = new RandomAccessFile(segment.file, "rw")) {
+                raf.setLength(validSize);
+            }
+        }
+        segment.size = validSize;
+    }
+}
@@ -50,7 +50,6 @@ import com.starrocks.thrift.TRuntimeProfileTree;
 import com.starrocks.thrift.TUnit;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -647,21 +646,20 @@ public class RuntimeProfile {
         // Find all counters, although these profiles are expected to be isomorphic,
         // some counters are only attached to one of them
         List<Map<String, Pair<TUnit, String>>> allLevelCounters = Lists.newArrayList();
+        List<String> currentNames = new ArrayList<>();
+        List<String> nextNames = new ArrayList<>();
         for (RuntimeProfile profile : profiles) {
             // Level order traverse starts with root
-            Queue<String> nameQueue = Lists.newLinkedList();
-            nameQueue.offer(ROOT_COUNTER);
+            currentNames.clear();
+            currentNames.add(ROOT_COUNTER);
             int levelIdx = -1;
-            while (!nameQueue.isEmpty()) {
+            while (!currentNames.isEmpty()) {
                 levelIdx++;
-                List<String> currentNames = Lists.newArrayList(nameQueue);
-                nameQueue.clear();
+                nextNames.clear();
                 for (String name : currentNames) {
                     Set<String> childNames = profile.childCounterMap.get(name);
                     if (childNames != null) {
-                        for (String childName : childNames) {
-                            nameQueue.offer(childName);
-                        }
+                        nextNames.addAll(childNames);
                     }
 
                     if (Objects.equals(ROOT_COUNTER, name)) {
@@ -692,30 +690,27 @@ public class RuntimeProfile {
                         continue;
                     }
                 }
+                List<String> tmpNames = currentNames;
+                currentNames = nextNames;
+                nextNames = tmpNames;
             }
         }
 
-        List<Triple<TUnit, String, String>> levelOrderedCounters = Lists.newArrayList();
-        for (Map<String, Pair<TUnit, String>> levelCounters : allLevelCounters) {
-            for (Map.Entry<String, Pair<TUnit, String>> entry : levelCounters.entrySet()) {
-                String name = entry.getKey();
-                TUnit type = entry.getValue().first;
-                String parentName = entry.getValue().second;
-                levelOrderedCounters.add(Triple.of(type, name, parentName));
-            }
-        }
-
-        for (Triple<TUnit, String, String> triple : levelOrderedCounters) {
-            TUnit type = triple.getLeft();
-            String name = triple.getMiddle();
-            String parentName = triple.getRight();
+        // The list is reused by all the counters to merge, since there may be thousands of profiles and counters.
+        List<Counter> counters = new ArrayList<>(profiles.size());
+        for (Map.Entry<String, Pair<TUnit, String>> entry : allLevelCounters.stream()
+                .flatMap(levelCounters -> levelCounters.entrySet().stream())
+                .collect(Collectors.toList())) {
+            String name = entry.getKey();
+            TUnit type = entry.getValue().first;
+            String parentName = entry.getValue().second;
 
             // We don't need to calculate sum or average of counter's extra info (min value and max value) created by be
             if (name.startsWith(MERGED_INFO_PREFIX_MIN) || name.startsWith(MERGED_INFO_PREFIX_MAX)) {
                 continue;
             }
 
-            List<Counter> counters = Lists.newArrayList();
+            counters.clear();
             long minValue = Long.MAX_VALUE;
             long maxValue = Long.MIN_VALUE;
             boolean alreadyMerged = false;
@@ -812,7 +807,7 @@ public class RuntimeProfile {
             for (int i = 0; i < maxChildSize; i++) {
                 Pair<RuntimeProfile, Boolean> prototypeKv = profileWithFullChild.getChildList().get(i);
                 String childName = prototypeKv.first.getName();
-                List<RuntimeProfile> subProfiles = Lists.newArrayList();
+                List<RuntimeProfile> subProfiles = new ArrayList<>(profiles.size());
                 for (RuntimeProfile profile : profiles) {
                     RuntimeProfile child = profile.getChild(childName);
                     if (child == null) {
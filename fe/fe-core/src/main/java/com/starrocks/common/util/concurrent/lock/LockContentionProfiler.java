@@ -0,0 +1,333 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.starrocks.common.util.concurrent.lock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Profile the lock waits of {@link LockManager}.
+ * <p>
+ * Only the acquisitions that can't be granted at once are recorded. The wait time is aggregated per resource and
+ * lock type into a log2 histogram, and is attributed to the owners of the lock when the wait began, which are the
+ * blockers of the wait. The stacks of the blockers are sampled only when the wait is slow, see
+ * {@link Config#slow_lock_threshold_ms}, because getting the stack of another thread needs a safepoint.
+ * <p>
+ * The memory is bounded: when {@link Config#lock_manager_contention_profile_max_resources} resources are profiled,
+ * the one with the least total wait time is evicted for a new one, and only the
+ * {@value #MAX_BLOCKERS_PER_RESOURCE} blockers causing the most wait time are kept per resource.
+ */
+public class LockContentionProfiler {
+    // bucket i counts the waits in [2^(i-1), 2^i) ms, bucket 0 counts the waits less than 1ms
+    @VisibleForTesting
+    static final int HISTOGRAM_BUCKETS = 20;
+    private static final int MAX_BLOCKERS_PER_RESOURCE = 16;
+
+    private final Map<ContentionKey, ContentionStats> contentions = new ConcurrentHashMap<>();
+    private final LongAdder evictedResources = new LongAdder();
+
+    public boolean isEnabled() {
+        return Config.lock_manager_enable_contention_profile;
+    }
+
+    /**
+     * Begin a wait of the locker, called with the lock table mutex held, so the owners are the current blockers.
+     *
+     * @return null if the profiler is disabled
+     */
+    WaitEvent beginWait(long rid, LockType lockType, Collection<LockHolder> owners) {
+        if (!isEnabled()) {
+            return null;
+        }
+        List<String> blockers = new ArrayList<>(owners.size());
+        for (LockHolder owner : owners) {
+            blockers.add(owner.getLocker().getThreadName());
+        }
+        return new WaitEvent(rid, lockType, blockers);
+    }
+
+    /**
+     * End a wait, whether the lock is acquired or not (timeout, deadlock or interrupted).
+     */
+    void endWait(WaitEvent event, boolean acquired) {
+        long waitNanos = System.nanoTime() - event.startNanos;
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        if (MetricRepo.hasInit) {
+            MetricRepo.HISTO_LOCK_WAIT_LATENCY.update(waitMs);
+            MetricRepo.COUNTER_LOCK_WAIT.increase(1L);
+            if (!acquired) {
+                MetricRepo.COUNTER_LOCK_WAIT_FAILED.increase(1L);
+            }
+        }
+
+        ContentionKey key = new ContentionKey(event.rid, event.lockType);
+        ContentionStats stats = contentions.get(key);
+        if (stats == null) {
+            if (contentions.size() >= Config.lock_manager_contention_profile_max_resources) {
+                evictLeastWaited();
+            }
+            stats = contentions.computeIfAbsent(key, k -> new ContentionStats(k.rid, k.lockType));
+        }
+        stats.record(waitNanos, waitMs, acquired, event);
+    }
+
+    /**
+     * Evict the resource with the least total wait time, which is the least interesting one. Only called on the
+     * first wait of a resource when the profiler is full, the scan is bounded by the max resources.
+     */
+    private void evictLeastWaited() {
+        Map.Entry<ContentionKey, ContentionStats> leastWaited = null;
+        long leastWaitNanos = Long.MAX_VALUE;
+        for (Map.Entry<ContentionKey, ContentionStats> entry : contentions.entrySet()) {
+            long waitNanos = entry.getValue().totalWaitNanos.sum();
+            if (waitNanos < leastWaitNanos) {
+                leastWaited = entry;
+                leastWaitNanos = waitNanos;
+            }
+        }
+        if (leastWaited != null && contentions.remove(leastWaited.getKey(), leastWaited.getValue())) {
+            evictedResources.increment();
+        }
+    }
+
+    public List<ContentionStats> getContentions() {
+        return new ArrayList<>(contentions.values());
+    }
+
+    public long getEvictedResources() {
+        return evictedResources.sum();
+    }
+
+    public void reset() {
+        contentions.clear();
+        evictedResources.reset();
+    }
+
+    @VisibleForTesting
+    static int getBucket(long waitMs) {
+        if (waitMs <= 0) {
+            return 0;
+        }
+        return Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(waitMs));
+    }
+
+    static class WaitEvent {
+        private final long rid;
+        private final LockType lockType;
+        private final List<String> blockers;
+        private final long startNanos = System.nanoTime();
+        // blocker thread name -> stack, only sampled for the slow waits
+        private Map<String, String> blockerStacks;
+
+        private WaitEvent(long rid, LockType lockType, List<String> blockers) {
+            this.rid = rid;
+            this.lockType = lockType;
+            this.blockers = blockers;
+        }
+
+        void addBlockerStack(String blocker, String stack) {
+            if (blockerStacks == null) {
+                blockerStacks = new ConcurrentHashMap<>();
+            }
+            blockerStacks.put(blocker, stack);
+        }
+    }
+
+    private static class ContentionKey {
+        private final long rid;
+        private final LockType lockType;
+
+        private ContentionKey(long rid, LockType lockType) {
+            this.rid = rid;
+            this.lockType = lockType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ContentionKey that = (ContentionKey) o;
+            return rid == that.rid && lockType == that.lockType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rid, lockType);
+        }
+    }
+
+    public static class ContentionStats {
+        private final long rid;
+        private final LockType lockType;
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder failedWaits = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+        private final Map<String, BlockerStats> blockers = new ConcurrentHashMap<>();
+
+        private ContentionStats(long rid, LockType lockType) {
+            this.rid = rid;
+            this.lockType = lockType;
+        }
+
+        private void record(long waitNanos, long waitMs, boolean acquired, WaitEvent event) {
+            waits.increment();
+            if (!acquired) {
+                failedWaits.increment();
+            }
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            histogram.incrementAndGet(getBucket(waitMs));
+
+            for (String blocker : event.blockers) {
+                BlockerStats blockerStats = blockers.get(blocker);
+                if (blockerStats == null) {
+                    blockerStats = addBlocker(blocker, waitNanos);
+                    if (blockerStats == null) {
+                        continue;
+                    }
+                }
+                blockerStats.blockedWaits.increment();
+                blockerStats.blockedNanos.add(waitNanos);
+                if (event.blockerStacks != null && event.blockerStacks.containsKey(blocker)) {
+                    blockerStats.stack = event.blockerStacks.get(blocker);
+                }
+            }
+        }
+
+        /**
+         * Add a new blocker, if it's full, the new blocker replaces the one causing the least wait time only if the
+         * new wait is longer than that, so the blockers kept are the top ones by wait time.
+         *
+         * @return null if the new blocker is not kept
+         */
+        private synchronized BlockerStats addBlocker(String blocker, long waitNanos) {
+            BlockerStats blockerStats = blockers.get(blocker);
+            if (blockerStats != null) {
+                return blockerStats;
+            }
+            if (blockers.size() >= MAX_BLOCKERS_PER_RESOURCE) {
+                BlockerStats leastBlocker = blockers.values().stream()
+                        .min(Comparator.comparingLong(b -> b.blockedNanos.sum()))
+                        .orElse(null);
+                if (leastBlocker == null || leastBlocker.blockedNanos.sum() >= waitNanos) {
+                    return null;
+                }
+                blockers.remove(leastBlocker.threadName);
+            }
+            blockerStats = new BlockerStats(blocker);
+            blockers.put(blocker, blockerStats);
+            return blockerStats;
+        }
+
+        public long getRid() {
+            return rid;
+        }
+
+        public LockType getLockType() {
+            return lockType;
+        }
+
+        public long getWaits() {
+            return waits.sum();
+        }
+
+        public long getFailedWaits() {
+            return failedWaits.sum();
+        }
+
+        public long getTotalWaitMs() {
+            return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+        }
+
+        public long getMaxWaitMs() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+        }
+
+        /**
+         * The upper bound of the bucket which the percentile falls in.
+         */
+        public long getWaitMsPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                total += histogram.get(i);
+            }
+            long rank = (long) Math.ceil(total * percentile);
+            long count = 0;
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                count += histogram.get(i);
+                if (count >= rank && count > 0) {
+                    return 1L << i;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * The blockers sorted by the wait time they caused, descending.
+         */
+        public List<BlockerStats> getTopBlockers(int limit) {
+            return blockers.values().stream()
+                    .sorted(Comparator.comparingLong(BlockerStats::getBlockedWaitMs).reversed())
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public static class BlockerStats {
+        private final String threadName;
+        private final LongAdder blockedWaits = new LongAdder();
+        private final LongAdder blockedNanos = new LongAdder();
+        private volatile String stack;
+
+        private BlockerStats(String threadName) {
+            this.threadName = threadName;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public long getBlockedWaits() {
+            return blockedWaits.sum();
+        }
+
+        public long getBlockedWaitMs() {
+            return TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum());
+        }
+
+        public String getStack() {
+            return stack;
+        }
+    }
+}
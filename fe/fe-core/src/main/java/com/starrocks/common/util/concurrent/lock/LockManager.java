@@ -33,6 +33,7 @@ public class LockManager {
     private final int lockTablesSize;
     private final Object[] lockTableMutexes;
     private final Map<Long, Lock>[] lockTables;
+    private final LockContentionProfiler contentionProfiler = new LockContentionProfiler();
 
     public LockManager() {
         lockTablesSize = Config.lock_manager_lock_table_num;
@@ -60,155 +61,163 @@ public class LockManager {
         final long startTime = System.currentTimeMillis();
         locker.setLockRequestTimeMs(startTime);
 
-        synchronized (locker) {
-            int lockTableIdx = getLockTableIndex(rid);
-            synchronized (lockTableMutexes[lockTableIdx]) {
-                Map<Long, Lock> lockTable = lockTables[lockTableIdx];
-                Lock lock = lockTable.get(rid);
-
-                if (lock == null) {
-                    lock = new LightWeightLock();
-                    lockTable.put(rid, lock);
-                } else if (lock instanceof LightWeightLock) {
-                    List<LockHolder> owners = new ArrayList<>(lock.getOwners());
-                    assert !owners.isEmpty();
-                    /* Lock is already held by someone else so mutate. */
-                    lock = new MultiUserLock(owners.get(0));
-                    lockTable.put(rid, lock);
-                }
+        LockContentionProfiler.WaitEvent waitEvent = null;
+        try {
+            synchronized (locker) {
+                int lockTableIdx = getLockTableIndex(rid);
+                synchronized (lockTableMutexes[lockTableIdx]) {
+                    Map<Long, Lock> lockTable = lockTables[lockTableIdx];
+                    Lock lock = lockTable.get(rid);
+
+                    if (lock == null) {
+                        lock = new LightWeightLock();
+                        lockTable.put(rid, lock);
+                    } else if (lock instanceof LightWeightLock) {
+                        List<LockHolder> owners = new ArrayList<>(lock.getOwners());
+                        assert !owners.isEmpty();
+                        /* Lock is already held by someone else so mutate. */
+                        lock = new MultiUserLock(owners.get(0));
+                        lockTable.put(rid, lock);
+                    }
 
-                LockGrantType lockGrantType = lock.lock(locker, lockType);
-                if (lockGrantType == LockGrantType.NEW || lockGrantType == LockGrantType.EXISTING) {
-                    return;
+                    LockGrantType lockGrantType = lock.lock(locker, lockType);
+                    if (lockGrantType == LockGrantType.NEW || lockGrantType == LockGrantType.EXISTING) {
+                        return;
+                    }
+                    waitEvent = contentionProfiler.beginWait(rid, lockType, lock.getOwners());
                 }
-            }
 
-            locker.setWaitingFor(rid, lockType);
+                locker.setWaitingFor(rid, lockType);
 
-            /*
-             * Because deadlock detection also requires a significant cost, but at the first moment
-             * when a lock cannot be obtained, we cannot determine whether it is because the required
-             * lock is being used normally or if a deadlock has occurred.
-             * Therefore, based on the configuration parameter `slow_lock_threshold_ms`
-             * If this time is exceeded, we believe that the status of the acquire lock operation is abnormal,
-             * and we need to start deadlock detection.
-             * If a lock is obtained during this period, there is no need to perform deadlock detection.
-             * Avoid frequent and unnecessary deadlock detection due to lock contention
-             */
-            long deadLockDetectionDelayTimeMs = Config.slow_lock_threshold_ms;
-            if (deadLockDetectionDelayTimeMs > 0) {
-                if (timeout != 0) {
-                    deadLockDetectionDelayTimeMs = Math.min(deadLockDetectionDelayTimeMs, timeRemain(timeout, startTime));
+                /*
+                 * Because deadlock detection also requires a significant cost, but at the first moment
+                 * when a lock cannot be obtained, we cannot determine whether it is because the required
+                 * lock is being used normally or if a deadlock has occurred.
+                 * Therefore, based on the configuration parameter `slow_lock_threshold_ms`
+                 * If this time is exceeded, we believe that the status of the acquire lock operation is abnormal,
+                 * and we need to start deadlock detection.
+                 * If a lock is obtained during this period, there is no need to perform deadlock detection.
+                 * Avoid frequent and unnecessary deadlock detection due to lock contention
+                 */
+                long deadLockDetectionDelayTimeMs = Config.slow_lock_threshold_ms;
+                if (deadLockDetectionDelayTimeMs > 0) {
+                    if (timeout != 0) {
+                        deadLockDetectionDelayTimeMs = Math.min(deadLockDetectionDelayTimeMs, timeRemain(timeout, startTime));
+                    }
+
+                    try {
+                        locker.wait(Math.max(1, deadLockDetectionDelayTimeMs));
+                    } catch (InterruptedException ie) {
+                        removeFromWaiterList(rid, locker, lockType);
+                        throw new LockInterruptException(ie);
+                    }
+
+                    if (isOwner(rid, locker, lockType)) {
+                        locker.clearWaitingFor();
+                        return;
+                    }
                 }
 
-                try {
-                    locker.wait(Math.max(1, deadLockDetectionDelayTimeMs));
-                } catch (InterruptedException ie) {
+                /*
+                 * If the timeout time is less than dead_lock_detection_delay_time_ms,
+                 * there is no need to perform subsequent deadlock detection,
+                 * and it will be processed directly according to the lock timeout.*/
+                boolean lockTimeOut = (timeout != 0) && timeRemain(timeout, startTime) <= 0;
+                if (lockTimeOut) {
                     removeFromWaiterList(rid, locker, lockType);
-                    throw new LockInterruptException(ie);
-                }
 
-                if (isOwner(rid, locker, lockType)) {
-                    locker.clearWaitingFor();
-                    return;
+                    /* Failure to acquire lock within the timeout ms*/
+                    throw new LockTimeoutException("");
                 }
-            }
 
-            /*
-             * If the timeout time is less than dead_lock_detection_delay_time_ms,
-             * there is no need to perform subsequent deadlock detection,
-             * and it will be processed directly according to the lock timeout.*/
-            boolean lockTimeOut = (timeout != 0) && timeRemain(timeout, startTime) <= 0;
-            if (lockTimeOut) {
-                removeFromWaiterList(rid, locker, lockType);
-
-                /* Failure to acquire lock within the timeout ms*/
-                throw new LockTimeoutException("");
+                /*
+                 * After waiting, not acquire lock and entered the waiting period, with deadlock detection enabled
+                 */
+
+                logSlowLockTrace(rid, waitEvent);
             }
 
-            /*
-             * After waiting, not acquire lock and entered the waiting period, with deadlock detection enabled
-             */
+            while (true) {
+                Locker victim = null;
+                synchronized (locker) {
+                    while (true) {
+                        if (isOwner(rid, locker, lockType)) {
+                            break;
+                        }
 
-            logSlowLockTrace(rid);
-        }
+                        victim = checkAndHandleDeadLock(rid, locker, lockType);
+                        if (victim != null) {
+                            /* deadlock was detected. */
+                            break;
+                        }
 
-        while (true) {
-            Locker victim = null;
-            synchronized (locker) {
-                while (true) {
-                    if (isOwner(rid, locker, lockType)) {
-                        break;
-                    }
+                        try {
+                            if (timeout == 0) {
+                                locker.wait(0);
+                            } else {
+                                locker.wait(Math.max(1, timeRemain(timeout, startTime)));
+                            }
+                        } catch (InterruptedException ie) {
+                            removeFromWaiterList(rid, locker, lockType);
+                            throw new LockInterruptException(ie);
+                        }
 
-                    victim = checkAndHandleDeadLock(rid, locker, lockType);
-                    if (victim != null) {
-                        /* deadlock was detected. */
-                        break;
-                    }
+                        //locker is wakeup normally and becomes the owner
+                        if (isOwner(rid, locker, lockType)) {
+                            break;
+                        }
 
-                    try {
-                        if (timeout == 0) {
-                            locker.wait(0);
-                        } else {
-                            locker.wait(Math.max(1, timeRemain(timeout, startTime)));
+                        boolean lockTimeOut = (timeout != 0) && timeRemain(timeout, startTime) <= 0;
+                        if (lockTimeOut) {
+                            removeFromWaiterList(rid, locker, lockType);
+
+                            /* Failure to acquire lock within the timeout ms*/
+                            throw new LockTimeoutException("");
                         }
-                    } catch (InterruptedException ie) {
-                        removeFromWaiterList(rid, locker, lockType);
-                        throw new LockInterruptException(ie);
-                    }
 
-                    //locker is wakeup normally and becomes the owner
-                    if (isOwner(rid, locker, lockType)) {
-                        break;
+                        /*
+                         * There are two reasons for the loop below.
+                         *
+                         * 1. When another thread detects a deadlock and notifies this thread,
+                         * it will wake up before the timeout interval has expired. We must loop
+                         * again to perform deadlock detection. Normally, if the deadlock
+                         * detected by the other thread is still present, this locker will be
+                         * selected as the victim, and we will throw DeadLockException below.
+                         *
+                         * 2. spurious wakeup
+                         */
                     }
 
-                    boolean lockTimeOut = (timeout != 0) && timeRemain(timeout, startTime) <= 0;
-                    if (lockTimeOut) {
-                        removeFromWaiterList(rid, locker, lockType);
-
-                        /* Failure to acquire lock within the timeout ms*/
-                        throw new LockTimeoutException("");
+                    if (victim == null) {
+                        assert isOwner(rid, locker, lockType);
+                        locker.clearWaitingFor();
                     }
+                }
 
+                if (victim == null) {
+                    /* Locker owns the lock and no deadlock was detected. */
+                    return;
+                } else {
                     /*
-                     * There are two reasons for the loop below.
-                     *
-                     * 1. When another thread detects a deadlock and notifies this thread,
-                     * it will wake up before the timeout interval has expired. We must loop
-                     * again to perform deadlock detection. Normally, if the deadlock
-                     * detected by the other thread is still present, this locker will be
-                     * selected as the victim, and we will throw DeadLockException below.
-                     *
-                     * 2. spurious wakeup
+                     * A deadlock is detected and this locker is not the victim.
+                     * Notify the victim.
                      */
-                }
+                    boolean currentLockerIsOwner = notifyVictim(victim, locker, rid, lockType, timeout, startTime);
+                    if (currentLockerIsOwner) {
+                        synchronized (locker) {
+                            locker.clearWaitingFor();
+                        }
+                        return;
+                    }
 
-                if (victim == null) {
-                    assert isOwner(rid, locker, lockType);
-                    locker.clearWaitingFor();
+                    /*
+                     * After notify the victim, current locker still cannot get the lock and need to wait to be notified again
+                     */
                 }
             }
-
-            if (victim == null) {
-                /* Locker owns the lock and no deadlock was detected. */
-                return;
-            } else {
-                /*
-                 * A deadlock is detected and this locker is not the victim.
-                 * Notify the victim.
-                 */
-                boolean currentLockerIsOwner = notifyVictim(victim, locker, rid, lockType, timeout, startTime);
-                if (currentLockerIsOwner) {
-                    synchronized (locker) {
-                        locker.clearWaitingFor();
-                    }
-                    return;
-                }
-
-                /*
-                 * After notify the victim, current locker still cannot get the lock and need to wait to be notified again
-                 */
+        } finally {
+            if (waitEvent != null) {
+                contentionProfiler.endWait(waitEvent, isOwner(rid, locker, lockType));
             }
         }
     }
@@ -327,6 +336,10 @@ public class LockManager {
         }
     }
 
+    public LockContentionProfiler getContentionProfiler() {
+        return contentionProfiler;
+    }
+
     public List<LockInfo> dumpLockManager() {
         List<LockInfo> lockInfoList = new ArrayList<>();
         for (int i = 0; i < lockTablesSize; ++i) {
@@ -348,7 +361,7 @@ public class LockManager {
 
     private static final int DEFAULT_STACK_RESERVE_LEVELS = 20;
 
-    private void logSlowLockTrace(long rid) {
+    private void logSlowLockTrace(long rid, LockContentionProfiler.WaitEvent waitEvent) {
         long nowMs = System.currentTimeMillis();
         int lockTableIdx = getLockTableIndex(rid);
         List<LockHolder> owners;
@@ -374,8 +387,11 @@ public class LockManager {
             readerInfo.addProperty("heldFor", nowMs - owner.getLockAcquireTimeMs());
             readerInfo.addProperty("waitTime", owner.getLockAcquireTimeMs() - locker.getLockRequestTimeMs());
             readerInfo.addProperty("locker", locker.getLockerStackTrace());
-            readerInfo.add("stack", LogUtil.getStackTraceToJsonArray(
-                    locker.getLockerThread(), 0, DEFAULT_STACK_RESERVE_LEVELS));
+            JsonArray stack = LogUtil.getStackTraceToJsonArray(locker.getLockerThread(), 0, DEFAULT_STACK_RESERVE_LEVELS);
+            readerInfo.add("stack", stack);
+            if (waitEvent != null) {
+                waitEvent.addBlockerStack(locker.getThreadName(), stack.toString());
+            }
             ownerArray.add(readerInfo);
         }
         ownerInfo.add("owners", ownerArray);
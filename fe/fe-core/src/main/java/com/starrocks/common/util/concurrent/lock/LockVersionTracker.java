@@ -0,0 +1,69 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util.concurrent.lock;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Track the write locks taken by {@link Locker}, so that a reader can check whether a resource has been modified
+ * during a period without holding its lock, like a sequence lock.
+ * <p>
+ * The version of a resource is increased each time its write lock is released. The metadata read without lock is
+ * consistent if the resource is not write locked and its version is not changed from the start to the end of the
+ * read, see {@link #getStableVersion(long)}.
+ * <p>
+ * The resources are hashed into a fixed number of stripes, so the memory is bounded no matter how many databases,
+ * tables and partitions are locked. Resources sharing a stripe share the version, a write to one of them only makes
+ * the optimistic reads of the others fall back to the locks.
+ */
+public class LockVersionTracker {
+    public static final long UNSTABLE_VERSION = -1;
+
+    private static final int STRIPE_NUM = 4096;
+
+    private static final AtomicIntegerArray WRITERS = new AtomicIntegerArray(STRIPE_NUM);
+    private static final AtomicLongArray VERSIONS = new AtomicLongArray(STRIPE_NUM);
+
+    private LockVersionTracker() {
+    }
+
+    private static int stripe(long rid) {
+        return Long.hashCode(rid) & (STRIPE_NUM - 1);
+    }
+
+    static void onWriteLocked(long rid) {
+        WRITERS.incrementAndGet(stripe(rid));
+    }
+
+    static void onWriteUnlocked(long rid) {
+        int stripe = stripe(rid);
+        // increase the version before the writer leaves, so a reader always sees the change
+        VERSIONS.incrementAndGet(stripe);
+        WRITERS.decrementAndGet(stripe);
+    }
+
+    /**
+     * Get the version of the resource, or {@link #UNSTABLE_VERSION} if it's write locked now.
+     */
+    public static long getStableVersion(long rid) {
+        int stripe = stripe(rid);
+        // check the writers before the version, a writer coming in between will change the version when leaving
+        if (WRITERS.get(stripe) > 0) {
+            return UNSTABLE_VERSION;
+        }
+        return VERSIONS.get(stripe);
+    }
+}
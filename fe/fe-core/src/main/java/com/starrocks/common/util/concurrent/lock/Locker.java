@@ -81,6 +81,9 @@ public class Locker {
         LockManager lockManager = GlobalStateMgr.getCurrentState().getLockManager();
         LOG.debug(this + " | LockManager request lock : rid " + rid + ", lock type " + lockType);
         lockManager.lock(rid, this, lockType, timeout);
+        if (lockType == LockType.WRITE) {
+            LockVersionTracker.onWriteLocked(rid);
+        }
         LOG.debug(this + " | LockManager acquire lock : rid " + rid + ", lock type " + lockType);
     }
 
@@ -102,6 +105,10 @@ public class Locker {
         } catch (LockException e) {
             throw ErrorReportException.report(ErrorCode.ERR_LOCK_ERROR, e.getMessage());
         }
+        // only a released write lock leaves the tracker, the readers in between just see the resource still written
+        if (lockType == LockType.WRITE) {
+            LockVersionTracker.onWriteUnlocked(rid);
+        }
     }
 
     // --------------- Database locking API ---------------
@@ -127,6 +134,7 @@ public class Locker {
             QueryableReentrantReadWriteLock rwLock = database.getRwLock();
             if (lockType.isWriteLock()) {
                 LockUtils.dbWriteLock(rwLock, database.getId(), database.getFullName(), database.getSlowLockLogStats());
+                LockVersionTracker.onWriteLocked(database.getId());
             } else {
                 LockUtils.dbReadLock(rwLock, database.getId(), database.getFullName(), database.getSlowLockLogStats());
             }
@@ -143,6 +151,7 @@ public class Locker {
             if (lockType.isWriteLock()) {
                 LockUtils.dbWriteLock(database.getRwLock(), database.getId(),
                         database.getFullName(), database.getSlowLockLogStats());
+                LockVersionTracker.onWriteLocked(database.getId());
             } else {
                 LockUtils.dbReadLock(database.getRwLock(), database.getId(),
                         database.getFullName(), database.getSlowLockLogStats());
@@ -178,6 +187,9 @@ public class Locker {
                 if (lockType.isWriteLock()) {
                     acquired = LockUtils.tryDbWriteLock(rwLock, timeout, unit, database.getId(),
                             database.getFullName(), database.getSlowLockLogStats());
+                    if (acquired) {
+                        LockVersionTracker.onWriteLocked(database.getId());
+                    }
                 } else {
                     acquired = LockUtils.tryDbReadLock(rwLock, timeout, unit, database.getId(),
                             database.getFullName(), database.getSlowLockLogStats());
@@ -266,6 +278,7 @@ public class Locker {
             }
             QueryableReentrantReadWriteLock rwLock = database.getRwLock();
             if (lockType.isWriteLock()) {
+                LockVersionTracker.onWriteUnlocked(database.getId());
                 rwLock.exclusiveUnlock();
             } else {
                 rwLock.sharedUnlock();
@@ -412,6 +425,7 @@ public class Locker {
             if (lockType.isWriteLock()) {
                 LockUtils.dbWriteLock(database.getRwLock(), database.getId(),
                         database.getFullName(), database.getSlowLockLogStats());
+                LockVersionTracker.onWriteLocked(database.getId());
             } else {
                 LockUtils.dbReadLock(database.getRwLock(), database.getId(),
                         database.getFullName(), database.getSlowLockLogStats());
@@ -510,6 +524,94 @@ public class Locker {
         }
     }
 
+    // --------------- Partition locking API ---------------
+
+    private static boolean isPartitionLockEnabled() {
+        return Config.lock_manager_enabled && Config.lock_manager_enable_using_fine_granularity_lock &&
+                Config.lock_manager_enable_using_partition_lock;
+    }
+
+    /**
+     * Lock partitions with intensive db and table locks, so that the writes into different partitions of a table can
+     * run in parallel, while they are still excluded by the table lock. Fallback to lock the tables if partition lock
+     * is disabled.
+     *
+     * @param dbId              db for intensive db lock
+     * @param tableToPartitions table id -> ids of the (physical) partitions to be locked in it
+     * @param lockType          lock type of the partitions
+     */
+    public void lockPartitionsWithIntensiveDbLock(Long dbId, Map<Long, Set<Long>> tableToPartitions, LockType lockType) {
+        Preconditions.checkState(lockType.equals(LockType.READ) || lockType.equals(LockType.WRITE));
+        if (!isPartitionLockEnabled()) {
+            lockTablesWithIntensiveDbLock(dbId, new ArrayList<>(tableToPartitions.keySet()), lockType);
+            return;
+        }
+
+        LockType intentionLockType = lockType == LockType.WRITE ? LockType.INTENTION_EXCLUSIVE : LockType.INTENTION_SHARED;
+        try {
+            this.lock(dbId, intentionLockType, 0);
+            for (Long tableId : sortedTableIds(tableToPartitions)) {
+                this.lock(tableId, intentionLockType, 0);
+            }
+            for (Long partitionId : sortedPartitionIds(tableToPartitions)) {
+                this.lock(partitionId, lockType, 0);
+            }
+        } catch (LockException e) {
+            throw ErrorReportException.report(ErrorCode.ERR_LOCK_ERROR, e.getMessage());
+        }
+
+        // The table metadata changes under the partition write lock, let the optimistic readers of the table know it.
+        if (lockType == LockType.WRITE) {
+            for (Long tableId : tableToPartitions.keySet()) {
+                LockVersionTracker.onWriteLocked(tableId);
+            }
+        }
+    }
+
+    public void unLockPartitionsWithIntensiveDbLock(Long dbId, Map<Long, Set<Long>> tableToPartitions,
+                                                    LockType lockType) {
+        Preconditions.checkState(lockType.equals(LockType.READ) || lockType.equals(LockType.WRITE));
+        if (!isPartitionLockEnabled()) {
+            unLockTablesWithIntensiveDbLock(dbId, new ArrayList<>(tableToPartitions.keySet()), lockType);
+            return;
+        }
+
+        if (lockType == LockType.WRITE) {
+            for (Long tableId : tableToPartitions.keySet()) {
+                LockVersionTracker.onWriteUnlocked(tableId);
+            }
+        }
+        LockType intentionLockType = lockType == LockType.WRITE ? LockType.INTENTION_EXCLUSIVE : LockType.INTENTION_SHARED;
+        for (Long partitionId : sortedPartitionIds(tableToPartitions)) {
+            this.release(partitionId, lockType);
+        }
+        for (Long tableId : sortedTableIds(tableToPartitions)) {
+            this.release(tableId, intentionLockType);
+        }
+        this.release(dbId, intentionLockType);
+    }
+
+    public void lockPartitionWithIntensiveDbLock(Long dbId, Long tableId, Long partitionId, LockType lockType) {
+        lockPartitionsWithIntensiveDbLock(dbId, Map.of(tableId, Set.of(partitionId)), lockType);
+    }
+
+    public void unLockPartitionWithIntensiveDbLock(Long dbId, Long tableId, Long partitionId, LockType lockType) {
+        unLockPartitionsWithIntensiveDbLock(dbId, Map.of(tableId, Set.of(partitionId)), lockType);
+    }
+
+    private static List<Long> sortedTableIds(Map<Long, Set<Long>> tableToPartitions) {
+        List<Long> tableIds = new ArrayList<>(tableToPartitions.keySet());
+        Collections.sort(tableIds);
+        return tableIds;
+    }
+
+    private static List<Long> sortedPartitionIds(Map<Long, Set<Long>> tableToPartitions) {
+        List<Long> partitionIds = new ArrayList<>();
+        tableToPartitions.values().forEach(partitionIds::addAll);
+        Collections.sort(partitionIds);
+        return partitionIds;
+    }
+
     public Long getWaitingForRid() {
         return waitingForRid;
     }
@@ -220,6 +220,7 @@ public class MetaRecoveryDaemon extends FrontendDaemon {
                 long originNextVersion = physicalPartition.getNextVersion();
                 physicalPartition.setVisibleVersion(version.getVersion(), recoveryInfo.getRecoverTime());
                 physicalPartition.setNextVersion(version.getVersion() + 1);
+                ((OlapTable) table).increasePartitionsVersion();
                 for (MaterializedIndex index : physicalPartition.getMaterializedIndices(IndexExtState.VISIBLE)) {
                     for (Tablet tablet : index.getTablets()) {
                         if (!(tablet instanceof LocalTablet)) {
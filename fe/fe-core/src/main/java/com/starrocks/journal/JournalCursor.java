@@ -17,6 +17,8 @@
 
 package com.starrocks.journal;
 
+import java.util.concurrent.ExecutorService;
+
 // This class is like JDBC ResultSet.
 public interface JournalCursor {
 
@@ -36,4 +38,9 @@ public interface JournalCursor {
 
     // skip current log
     void skipNext();
+
+    // read at most prefetchNum journals ahead, and decode the ones which can be decoded in parallel by the executor,
+    // see JournalReplayPipeline
+    default void setDecodeExecutor(ExecutorService executor, int prefetchNum) {
+    }
 }
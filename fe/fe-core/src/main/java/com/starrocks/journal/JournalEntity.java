@@ -34,6 +34,7 @@
 
 package com.starrocks.journal;
 
+import com.github.luben.zstd.Zstd;
 import com.starrocks.alter.AlterJobV2;
 import com.starrocks.alter.BatchAlterJobPersistInfo;
 import com.starrocks.authentication.UserPropertyInfo;
@@ -47,8 +48,10 @@ import com.starrocks.catalog.FunctionSearchDesc;
 import com.starrocks.catalog.MetaVersion;
 import com.starrocks.catalog.Resource;
 import com.starrocks.common.Config;
+import com.starrocks.common.io.DataOutputBuffer;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
+import com.starrocks.common.util.CompressionUtils;
 import com.starrocks.common.util.SmallFileMgr.SmallFile;
 import com.starrocks.ha.LeaderInfo;
 import com.starrocks.journal.bdbje.Timestamp;
@@ -129,6 +132,7 @@ import com.starrocks.persist.TablePropertyInfo;
 import com.starrocks.persist.TransactionIdInfo;
 import com.starrocks.persist.TruncateTableInfo;
 import com.starrocks.persist.UserPrivilegeCollectionInfo;
+import com.starrocks.persist.gson.BinaryJson;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.plugin.PluginInfo;
 import com.starrocks.scheduler.Task;
@@ -153,20 +157,30 @@ import com.starrocks.storagevolume.StorageVolume;
 import com.starrocks.system.Backend;
 import com.starrocks.system.ComputeNode;
 import com.starrocks.system.Frontend;
+import com.starrocks.thrift.TCompressionType;
 import com.starrocks.transaction.TransactionState;
 import com.starrocks.transaction.TransactionStateBatch;
 import com.starrocks.warehouse.Warehouse;
+import net.jpountz.lz4.LZ4Factory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 
 // this is the value written to bdb or local edit files. key is an auto-increasing long.
+// The data larger than Config.metadata_journal_compression_threshold_bytes may be compressed, which is marked by the
+// high bit of the op code, and followed by the compression type, the original and compressed length of data.
 public class JournalEntity implements Writable {
     public static final Logger LOG = LogManager.getLogger(Checkpoint.class);
 
+    // all the valid op codes are positive
+    private static final int COMPRESSED_FLAG = 0x8000;
+
     private short opCode = OperationType.OP_INVALID;
     private Writable data;
 
@@ -190,14 +204,82 @@ public class JournalEntity implements Writable {
         return " opCode=" + opCode + " " + data;
     }
 
+    /**
+     * Get the op code from the first 2 bytes of a serialized entity, which may be marked as compressed.
+     */
+    public static short getOpCode(short header) {
+        return header == OperationType.OP_INVALID ? header : (short) (header & ~COMPRESSED_FLAG);
+    }
+
     @Override
     public void write(DataOutput out) throws IOException {
-        out.writeShort(opCode);
-        data.write(out);
+        TCompressionType compressionType = getCompressionType();
+        if (compressionType == null) {
+            out.writeShort(opCode);
+            data.write(out);
+            return;
+        }
+
+        DataOutputBuffer buffer = new DataOutputBuffer(Config.metadata_journal_compression_threshold_bytes);
+        data.write(buffer);
+        int length = buffer.getLength();
+        byte[] compressed = null;
+        if (length >= Config.metadata_journal_compression_threshold_bytes) {
+            if (compressionType == TCompressionType.LZ4) {
+                compressed = LZ4Factory.fastestInstance().fastCompressor().compress(buffer.getData(), 0, length);
+            } else {
+                compressed = Zstd.compress(Arrays.copyOf(buffer.getData(), length));
+            }
+        }
+        if (compressed != null && compressed.length < length) {
+            out.writeShort(opCode | COMPRESSED_FLAG);
+            out.writeByte(compressionType.getValue());
+            out.writeInt(length);
+            out.writeInt(compressed.length);
+            out.write(compressed);
+        } else {
+            out.writeShort(opCode);
+            out.write(buffer.getData(), 0, length);
+        }
+    }
+
+    // only LZ4 and ZSTD are supported, return null if the compression is disabled
+    private static TCompressionType getCompressionType() {
+        TCompressionType compressionType =
+                CompressionUtils.findTCompressionByName(Config.metadata_journal_compression_type);
+        if (compressionType == TCompressionType.LZ4 || compressionType == TCompressionType.ZSTD) {
+            return compressionType;
+        }
+        return null;
+    }
+
+    private static DataInput readCompressedData(DataInput in) throws IOException {
+        TCompressionType compressionType = TCompressionType.findByValue(in.readByte());
+        int length = in.readInt();
+        byte[] compressed = new byte[in.readInt()];
+        in.readFully(compressed);
+        byte[] data;
+        if (compressionType == TCompressionType.LZ4) {
+            data = LZ4Factory.fastestInstance().fastDecompressor().decompress(compressed, length);
+        } else if (compressionType == TCompressionType.ZSTD) {
+            data = Zstd.decompress(compressed, length);
+        } else {
+            throw new IOException("unsupported journal compression type " + compressionType);
+        }
+        return new DataInputStream(new ByteArrayInputStream(data));
     }
 
     public void readFields(DataInput in) throws IOException {
-        opCode = in.readShort();
+        short header = in.readShort();
+        opCode = getOpCode(header);
+        if (opCode != header) {
+            readData(readCompressedData(in));
+        } else {
+            readData(in);
+        }
+    }
+
+    private void readData(DataInput in) throws IOException {
         LOG.debug("get opcode: {}", opCode);
         switch (opCode) {
             case OperationType.OP_SAVE_NEXTID:
@@ -402,7 +484,7 @@ public class JournalEntity implements Writable {
                 break;
             }
             case OperationType.OP_UPSERT_TRANSACTION_STATE_V2: {
-                data = GsonUtils.GSON.fromJson(Text.readString(in), TransactionState.class);
+                data = BinaryJson.readJsonOrBinary(in, TransactionState.class);
                 break;
             }
             case OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH: {
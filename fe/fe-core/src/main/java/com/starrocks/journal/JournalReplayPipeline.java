@@ -0,0 +1,177 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.journal;
+
+import com.google.common.collect.ImmutableSet;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.OperationType;
+import com.starrocks.transaction.TransactionState;
+import com.starrocks.transaction.TransactionStateBatch;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Replay the journals of different databases concurrently on follower.
+ * <p>
+ * Only the journals which change nothing but the state of one database can be replayed in parallel, such as the
+ * transaction state of loads, which are most of the journals during bulk ingestion. The journals of the same database
+ * are replayed by the same worker in journal id order. The other journals must be replayed by the caller after all
+ * the journals submitted before them are finished, see {@link #waitAll()}.
+ * <p>
+ * The journals are finished in journal id order by {@link #poll(boolean)}, so the caller can advance the replayed
+ * journal id one by one as before.
+ */
+public class JournalReplayPipeline {
+    public static final long NO_REPLAY_KEY = -1;
+    // the journals which can be replayed in parallel, they can also be decoded ahead of replaying, since
+    // deserializing them does not depend on the state of GlobalStateMgr
+    private static final Set<Short> PARALLEL_OPS = ImmutableSet.of(
+            OperationType.OP_UPSERT_TRANSACTION_STATE_V2,
+            OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH);
+    private static final int MAX_REPLAYING_JOURNALS = 4096;
+
+    private final ExecutorService[] workers;
+    private final ArrayDeque<ReplayingJournal> replayingJournals = new ArrayDeque<>();
+
+    public JournalReplayPipeline(int numWorkers) {
+        workers = new ExecutorService[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            workers[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, MAX_REPLAYING_JOURNALS,
+                    "journal-replayer-" + i, false);
+        }
+    }
+
+    public static boolean canDecodeInParallel(short opCode) {
+        return PARALLEL_OPS.contains(opCode);
+    }
+
+    /**
+     * Return the id of the database changed by the journal, or {@link #NO_REPLAY_KEY} if the journal can not be
+     * replayed in parallel.
+     */
+    public static long getReplayKey(JournalEntity entity) {
+        switch (entity.getOpCode()) {
+            case OperationType.OP_UPSERT_TRANSACTION_STATE_V2:
+                return ((TransactionState) entity.getData()).getDbId();
+            case OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH:
+                return ((TransactionStateBatch) entity.getData()).getDbId();
+            default:
+                return NO_REPLAY_KEY;
+        }
+    }
+
+    public void submit(JournalEntity entity, long replayKey, JournalApplier applier) {
+        ExecutorService worker = workers[Math.floorMod(Long.hashCode(replayKey), workers.length)];
+        Future<?> future = worker.submit(() -> {
+            applier.apply(entity);
+            return null;
+        });
+        replayingJournals.add(new ReplayingJournal(entity, future));
+    }
+
+    public boolean isEmpty() {
+        return replayingJournals.isEmpty();
+    }
+
+    /**
+     * Whether the caller should wait for the journals submitted before submitting more.
+     */
+    public boolean isFull() {
+        return replayingJournals.size() >= MAX_REPLAYING_JOURNALS;
+    }
+
+    /**
+     * Return the first submitted journal if it's finished, or wait for it if {@code wait} is true.
+     * Return null if there is no submitted journal, or the first one is not finished.
+     */
+    public ReplayingJournal poll(boolean wait) throws InterruptedException {
+        ReplayingJournal journal = replayingJournals.peek();
+        if (journal == null || (!wait && !journal.future.isDone())) {
+            return null;
+        }
+        replayingJournals.poll();
+        try {
+            journal.future.get();
+        } catch (ExecutionException e) {
+            journal.error = e.getCause();
+        }
+        if (MetricRepo.hasInit) {
+            MetricRepo.HISTO_JOURNAL_REPLAY_APPLY_LATENCY.update((System.nanoTime() - journal.submitTimeNs) / 1000);
+        }
+        return journal;
+    }
+
+    /**
+     * Wait for all the submitted journals to be finished, without removing them.
+     */
+    public void waitAll() throws InterruptedException {
+        for (ReplayingJournal journal : replayingJournals) {
+            try {
+                journal.future.get();
+            } catch (ExecutionException e) {
+                // handled in poll()
+            }
+        }
+    }
+
+    /**
+     * Cancel the submitted journals which are not started yet, wait for the running ones and drop all of them.
+     * It's used when a journal fails to be replayed, so that the journals after it are not replayed.
+     */
+    public void cancelAll() throws InterruptedException {
+        for (ReplayingJournal journal : replayingJournals) {
+            journal.future.cancel(false);
+        }
+        replayingJournals.clear();
+        // each worker runs the journals in submission order, so the running ones are finished before a new task
+        for (ExecutorService worker : workers) {
+            try {
+                worker.submit(() -> { }).get();
+            } catch (ExecutionException e) {
+                // an empty task never fails
+            }
+        }
+    }
+
+    public interface JournalApplier {
+        void apply(JournalEntity entity) throws JournalInconsistentException;
+    }
+
+    public static class ReplayingJournal {
+        private final JournalEntity entity;
+        private final Future<?> future;
+        private final long submitTimeNs = System.nanoTime();
+        private Throwable error;
+
+        private ReplayingJournal(JournalEntity entity, Future<?> future) {
+            this.entity = entity;
+            this.future = future;
+        }
+
+        public JournalEntity getEntity() {
+            return entity;
+        }
+
+        // the exception thrown by replaying the journal, null if it's replayed successfully
+        public Throwable getError() {
+            return error;
+        }
+    }
+}
@@ -15,6 +15,7 @@
 
 package com.starrocks.journal;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.starrocks.common.Config;
 import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.Util;
@@ -25,12 +26,17 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An independent thread to write journals by batch asynchronously.
  * Each thread that needs to write a log can put the log in a blocking queue, while JournalWriter constantly gets as
  * many logs as possible from the queue and write them all in one batch.
  * After committing, JournalWriter will notify the caller thread for consistency.
+ * <p>
+ * When several threads are writing logs concurrently, JournalWriter may wait a short window for more logs after the
+ * queue is drained, so that they can share one commit. The window is adapted to the recent batch size and commit
+ * latency, see {@link #getGroupCommitWindowNanos()}.
  */
 public class JournalWriter {
     public static final Logger LOG = LogManager.getLogger(JournalWriter.class);
@@ -66,6 +72,13 @@ public class JournalWriter {
 
     private long lastSlowEditLogTimeNs = -1L;
 
+    // the journal got from the queue while waiting for the group commit window
+    private JournalTask polledJournal;
+    // moving averages of the latest batches, used to adapt the group commit window
+    private double avgBatchSize = 1;
+    private double avgCommitNanos = 0;
+    private long commitNanos;
+
     public JournalWriter(Journal journal, BlockingQueue<JournalTask> journalQueue) {
         this.journal = journal;
         this.journalQueue = journalQueue;
@@ -101,7 +114,7 @@ public class JournalWriter {
 
     protected void writeOneBatch() throws InterruptedException {
         // waiting if necessary until an element becomes available
-        currentJournal = journalQueue.take();
+        currentJournal = takeJournal();
         long nextJournalId = nextVisibleJournalId;
         initBatch();
 
@@ -117,7 +130,7 @@ public class JournalWriter {
                     break;
                 }
 
-                currentJournal = journalQueue.take();
+                currentJournal = takeJournal();
             }
         } catch (JournalException e) {
             // abort current task
@@ -126,7 +139,9 @@ public class JournalWriter {
         } finally {
             try {
                 // commit
+                long commitStartNano = System.nanoTime();
                 journal.batchWriteCommit();
+                commitNanos = System.nanoTime() - commitStartNano;
                 LOG.debug("batch write commit success, from {} - {}", nextVisibleJournalId, nextJournalId);
                 nextVisibleJournalId = nextJournalId;
                 markCurrentBatchSucceed();
@@ -148,9 +163,19 @@ public class JournalWriter {
         updateBatchMetrics();
     }
 
+    private JournalTask takeJournal() throws InterruptedException {
+        if (polledJournal != null) {
+            JournalTask task = polledJournal;
+            polledJournal = null;
+            return task;
+        }
+        return journalQueue.take();
+    }
+
     private void initBatch() {
         startTimeNano = System.nanoTime();
         uncommittedEstimatedBytes = 0;
+        commitNanos = 0;
         currentBatchTasks.clear();
     }
 
@@ -178,7 +203,7 @@ public class JournalWriter {
         System.exit(-1);
     }
 
-    private boolean shouldCommitNow() {
+    private boolean shouldCommitNow() throws InterruptedException {
         // 1. check if is an emergency journal
         if (currentJournal.getBetterCommitBeforeTimeInNano() > 0) {
             long delayNanos = System.nanoTime() - currentJournal.getBetterCommitBeforeTimeInNano();
@@ -209,8 +234,45 @@ public class JournalWriter {
             return true;
         }
 
-        // 4. no more journal in queue
-        return journalQueue.peek() == null;
+        // 4. no more journal in queue, and no one comes in the group commit window
+        return journalQueue.peek() == null && !waitForMoreJournal();
+    }
+
+    /**
+     * Wait at most the group commit window for the next journal, which will be returned by the next takeJournal().
+     */
+    private boolean waitForMoreJournal() throws InterruptedException {
+        long windowNanos = getGroupCommitWindowNanos();
+        // never delay the journal that expects to be committed soon
+        if (currentJournal.getBetterCommitBeforeTimeInNano() > 0) {
+            windowNanos = Math.min(windowNanos, currentJournal.getBetterCommitBeforeTimeInNano() - System.nanoTime());
+        }
+        if (windowNanos <= 0) {
+            return false;
+        }
+        polledJournal = journalQueue.poll(windowNanos, TimeUnit.NANOSECONDS);
+        return polledJournal != null;
+    }
+
+    /**
+     * If the journals were written one by one recently, there is no reason to wait. Otherwise, the window grows with
+     * the batch size, up to half of the commit latency, so a journal is never delayed more than the commit it saves.
+     * It is also limited by {@link Config#metadata_journal_group_commit_max_wait_us}.
+     */
+    protected long getGroupCommitWindowNanos() {
+        long maxWindowNanos = Config.metadata_journal_group_commit_max_wait_us * 1000L;
+        if (maxWindowNanos <= 0 || avgBatchSize < 2) {
+            return 0;
+        }
+        double scale = Math.min(1.0, (avgBatchSize - 1) / 4);
+        return Math.min(maxWindowNanos, (long) (avgCommitNanos / 2 * scale));
+    }
+
+    @VisibleForTesting
+    void updateGroupCommitStats(int batchSize, long batchCommitNanos) {
+        final double alpha = 0.2;
+        avgBatchSize = avgBatchSize * (1 - alpha) + batchSize * alpha;
+        avgCommitNanos = avgCommitNanos * (1 - alpha) + batchCommitNanos * alpha;
     }
 
     /**
@@ -220,6 +282,7 @@ public class JournalWriter {
         // Log slow edit log write if needed.
         long currentTimeNs = System.nanoTime();
         long durationMs = (currentTimeNs - startTimeNano) / 1000000;
+        updateGroupCommitStats(currentBatchTasks.size(), commitNanos);
         final long DEFAULT_EDIT_LOG_SLOW_LOGGING_INTERVAL_NS = 2000000000L; // 2 seconds
         if (durationMs > Config.edit_log_write_slow_log_threshold_ms &&
                 currentTimeNs - lastSlowEditLogTimeNs > DEFAULT_EDIT_LOG_SLOW_LOGGING_INTERVAL_NS) {
@@ -233,10 +296,14 @@ public class JournalWriter {
             MetricRepo.HISTO_JOURNAL_WRITE_LATENCY.update(durationMs);
             MetricRepo.HISTO_JOURNAL_WRITE_BATCH.update(currentBatchTasks.size());
             MetricRepo.HISTO_JOURNAL_WRITE_BYTES.update(uncommittedEstimatedBytes);
+            MetricRepo.HISTO_JOURNAL_COMMIT_LATENCY.update(commitNanos / 1000);
             MetricRepo.GAUGE_STACKED_JOURNAL_NUM.setValue((long) journalQueue.size());
 
             for (JournalTask e : currentBatchTasks) {
                 MetricRepo.COUNTER_EDIT_LOG_SIZE_BYTES.increase(e.estimatedSizeByte());
+                // time from the journal is submitted to the batch it belongs to starts
+                MetricRepo.HISTO_JOURNAL_WRITE_WAIT_LATENCY.update(
+                        Math.max(0, startTimeNano - e.getStartTimeNano()) / 1000);
             }
         }
         if (journalQueue.size() > Config.metadata_journal_max_batch_cnt) {
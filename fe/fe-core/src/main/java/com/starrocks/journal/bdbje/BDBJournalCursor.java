@@ -46,12 +46,18 @@ import com.starrocks.journal.JournalCursor;
 import com.starrocks.journal.JournalEntity;
 import com.starrocks.journal.JournalException;
 import com.starrocks.journal.JournalInconsistentException;
+import com.starrocks.journal.JournalReplayPipeline;
+import com.starrocks.metric.MetricRepo;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class BDBJournalCursor implements JournalCursor {
     private static final Logger LOG = LogManager.getLogger(BDBJournalCursor.class);
@@ -68,6 +74,10 @@ public class BDBJournalCursor implements JournalCursor {
     // the database of current log
     protected CloseSafeDatabase database = null;
     private final String prefix;
+    // decode the journals ahead of replaying them, null to decode in the replayer thread
+    private ExecutorService decodeExecutor = null;
+    private int prefetchNum = 1;
+    private final ArrayDeque<PrefetchedJournal> prefetchedJournals = new ArrayDeque<>();
 
     /**
      * handle DatabaseException carefully
@@ -242,6 +252,10 @@ public class BDBJournalCursor implements JournalCursor {
     }
 
     protected JournalEntity deserializeData(DatabaseEntry data) throws JournalException {
+        return deserializeData(nextKey, data);
+    }
+
+    private JournalEntity deserializeData(long key, DatabaseEntry data) throws JournalException {
         DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.getData()));
         JournalEntity ret = new JournalEntity();
         try {
@@ -249,7 +263,7 @@ public class BDBJournalCursor implements JournalCursor {
         } catch (Throwable t) {
             // bad data, will not retry
             String errMsg = String.format("fail to read journal entity key=%s, data=%s",
-                    nextKey, data);
+                    key, data);
             LOG.error(errMsg, t);
             JournalException exception = new JournalException(ret.getOpCode(), errMsg);
             exception.initCause(t);
@@ -258,14 +272,70 @@ public class BDBJournalCursor implements JournalCursor {
         return ret;
     }
 
+    @Override
+    public void setDecodeExecutor(ExecutorService executor, int prefetchNum) {
+        this.decodeExecutor = executor;
+        this.prefetchNum = Math.max(prefetchNum, 1);
+    }
+
     @Override
     public JournalEntity next() throws InterruptedException, JournalException, JournalInconsistentException {
-        // EOF
-        if (toKey > 0 && nextKey > toKey) {
-            LOG.info("cursor reaches the end: next key {} > to key {}", nextKey, toKey);
+        if (prefetchedJournals.isEmpty()) {
+            prefetch();
+        }
+        PrefetchedJournal journal = prefetchedJournals.poll();
+        if (journal == null) {
             return null;
         }
+        try {
+            return journal.get();
+        } catch (JournalException e) {
+            // read the journals after the bad one again, so that the bad one can be skipped by skipNext()
+            clearPrefetchedJournals();
+            nextKey = journal.key;
+            throw e;
+        }
+    }
+
+    /**
+     * Read at most prefetchNum journals from the current database. The journals are not read across databases,
+     * so that nextKey can be reset to any of them.
+     */
+    private void prefetch() throws InterruptedException, JournalException, JournalInconsistentException {
+        for (int i = 0; i < prefetchNum; i++) {
+            // EOF
+            if (toKey > 0 && nextKey > toKey) {
+                if (i == 0) {
+                    LOG.info("cursor reaches the end: next key {} > to key {}", nextKey, toKey);
+                }
+                return;
+            }
+            if (i > 0 && shouldOpenDatabase()) {
+                return;
+            }
+
+            DatabaseEntry data;
+            try {
+                data = read();
+            } catch (JournalException e) {
+                if (i > 0) {
+                    // return the journals read, and the failure will be raised by the next read
+                    return;
+                }
+                throw e;
+            }
+            if (data == null) {
+                return;
+            }
+            prefetchedJournals.add(new PrefetchedJournal(nextKey, data));
+            nextKey++;
+        }
+    }
 
+    /**
+     * Read the data of nextKey, return null when there is no more journals, or if we need to retry from outside.
+     */
+    private DatabaseEntry read() throws InterruptedException, JournalException, JournalInconsistentException {
         // if current db does not contain any more data, then we go to search the next db
         openDatabaseIfNecessary();
 
@@ -288,10 +358,7 @@ public class BDBJournalCursor implements JournalCursor {
                 OperationStatus operationStatus = database.get(null, theKey, theData, LockMode.READ_COMMITTED);
 
                 if (operationStatus == OperationStatus.SUCCESS) {
-                    // 3. serialized
-                    JournalEntity entity = deserializeData(theData);
-                    nextKey++;
-                    return entity;
+                    return theData;
                 } else if (operationStatus == OperationStatus.NOTFOUND) {
                     // read until there is no more log exists, return
                     if (toKey == JournalCursor.CURSOR_END_KEY) {
@@ -327,8 +394,18 @@ public class BDBJournalCursor implements JournalCursor {
         throw exception;
     }
 
+    private void clearPrefetchedJournals() {
+        for (PrefetchedJournal journal : prefetchedJournals) {
+            if (journal.future != null) {
+                journal.future.cancel(false);
+            }
+        }
+        prefetchedJournals.clear();
+    }
+
     @Override
     public void close() {
+        clearPrefetchedJournals();
         if (database != null) {
             database.close();
         }
@@ -339,4 +416,53 @@ public class BDBJournalCursor implements JournalCursor {
         LOG.error("!!! DANGER: CURSOR SKIP {} !!!", nextKey);
         nextKey++;
     }
+
+    private class PrefetchedJournal {
+        private final long key;
+        private final DatabaseEntry data;
+        // not null if the journal is decoded by decodeExecutor
+        private final Future<JournalEntity> future;
+
+        PrefetchedJournal(long key, DatabaseEntry data) {
+            this.key = key;
+            this.data = data;
+            if (decodeExecutor != null && JournalReplayPipeline.canDecodeInParallel(getOpCode(data))) {
+                this.future = decodeExecutor.submit(() -> {
+                    long startNs = System.nanoTime();
+                    JournalEntity entity = deserializeData(key, data);
+                    if (MetricRepo.hasInit) {
+                        MetricRepo.HISTO_JOURNAL_REPLAY_DECODE_LATENCY.update((System.nanoTime() - startNs) / 1000);
+                    }
+                    return entity;
+                });
+            } else {
+                this.future = null;
+            }
+        }
+
+        JournalEntity get() throws InterruptedException, JournalException {
+            if (future == null) {
+                return deserializeData(key, data);
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof JournalException) {
+                    throw (JournalException) e.getCause();
+                }
+                JournalException exception = new JournalException(
+                        String.format("fail to decode journal entity key=%s", key));
+                exception.initCause(e.getCause());
+                throw exception;
+            }
+        }
+
+        private short getOpCode(DatabaseEntry data) {
+            byte[] bytes = data.getData();
+            if (bytes == null || bytes.length < 2) {
+                return -1;
+            }
+            return JournalEntity.getOpCode((short) (((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF)));
+        }
+    }
 }
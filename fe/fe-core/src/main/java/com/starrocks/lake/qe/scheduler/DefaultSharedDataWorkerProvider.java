@@ -25,6 +25,8 @@ import com.starrocks.common.ErrorReportException;
 import com.starrocks.common.FeConstants;
 import com.starrocks.qe.SessionVariableConstants.ComputationFragmentSchedulingPolicy;
 import com.starrocks.qe.SimpleScheduler;
+import com.starrocks.qe.scheduler.AdaptiveWorkerSelector;
+import com.starrocks.qe.scheduler.DefaultWorkerProvider;
 import com.starrocks.qe.scheduler.NonRecoverableException;
 import com.starrocks.qe.scheduler.WorkerProvider;
 import com.starrocks.server.GlobalStateMgr;
@@ -41,6 +43,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
@@ -108,6 +111,10 @@ public class DefaultSharedDataWorkerProvider implements WorkerProvider {
     private ImmutableList<Long> allComputeNodeIds;
 
     private final Set<Long> selectedWorkerIds;
+    /**
+     * The number of times each worker is returned by {@link #selectNextWorker()}, as the load of the adaptive selection.
+     */
+    private final Map<Long, Integer> numNextSelectedPerWorker = new ConcurrentHashMap<>();
 
     @VisibleForTesting
     public DefaultSharedDataWorkerProvider(ImmutableMap<Long, ComputeNode> id2ComputeNode,
@@ -122,7 +129,11 @@ public class DefaultSharedDataWorkerProvider implements WorkerProvider {
     @Override
     public long selectNextWorker() throws NonRecoverableException {
         ComputeNode worker;
-        worker = getNextWorker(availableID2ComputeNode, DefaultSharedDataWorkerProvider::getNextComputeNodeIndex);
+        if (AdaptiveWorkerSelector.isEnabled()) {
+            worker = DefaultWorkerProvider.selectWorkerAdaptively(availableID2ComputeNode, numNextSelectedPerWorker);
+        } else {
+            worker = getNextWorker(availableID2ComputeNode, DefaultSharedDataWorkerProvider::getNextComputeNodeIndex);
+        }
 
         if (worker == null) {
             reportWorkerNotFoundException();
@@ -578,158 +578,156 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
         }
 
         TabletInvertedIndex tabletInvertedIndex = GlobalStateMgr.getCurrentState().getTabletInvertedIndex();
-        tabletInvertedIndex.readLock();
         long start = System.currentTimeMillis();
-        try {
-            LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
-            // backingReplicaMetaTable.row(backendId) won't return null
-            Map<Long, Replica> replicaMetaWithBackend = tabletInvertedIndex.getReplicaMetaWithBackend(backendId);
-            // traverse replicas in meta with this backend
-            for (Map.Entry<Long, Replica> entry : replicaMetaWithBackend.entrySet()) {
-                long tabletId = entry.getKey();
-                TabletMeta tabletMeta = tabletInvertedIndex.getTabletMeta(tabletId);
-                Preconditions.checkState(tabletMeta != null);
-
-                if (tabletMeta.isLakeTablet()) {
-                    continue;
-                }
+        LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
+        // a snapshot of the replicas on this backend, the inverted index is not locked during the diff
+        Map<Long, Replica> replicaMetaWithBackend = tabletInvertedIndex.getReplicaMetaWithBackend(backendId);
+        // traverse replicas in meta with this backend
+        for (Map.Entry<Long, Replica> entry : replicaMetaWithBackend.entrySet()) {
+            long tabletId = entry.getKey();
+            TabletMeta tabletMeta = tabletInvertedIndex.getTabletMeta(tabletId);
+            if (tabletMeta == null) {
+                // the tablet has been deleted after the snapshot is taken
+                continue;
+            }
 
-                if (backendTablets.containsKey(tabletId)) {
-                    TTablet backendTablet = backendTablets.get(tabletId);
-                    Replica replica = entry.getValue();
-                    for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
-                        if (backendTabletInfo.isSetIs_error_state()) {
-                            replica.setIsErrorState(backendTabletInfo.is_error_state);
+            if (tabletMeta.isLakeTablet()) {
+                continue;
+            }
+
+            if (backendTablets.containsKey(tabletId)) {
+                TTablet backendTablet = backendTablets.get(tabletId);
+                Replica replica = entry.getValue();
+                for (TTabletInfo backendTabletInfo : backendTablet.getTablet_infos()) {
+                    if (backendTabletInfo.isSetIs_error_state()) {
+                        replica.setIsErrorState(backendTabletInfo.is_error_state);
+                    }
+                    if (backendTabletInfo.isSetMax_rowset_creation_time()) {
+                        replica.setMaxRowsetCreationTime(backendTabletInfo.max_rowset_creation_time);
+                    }
+                    if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
+                        foundTabletsWithValidSchema.add(tabletId);
+                        // 1. (intersection)
+                        if (needSync(replica, backendTabletInfo)) {
+                            // need sync
+                            tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
                         }
-                        if (backendTabletInfo.isSetMax_rowset_creation_time()) {
-                            replica.setMaxRowsetCreationTime(backendTabletInfo.max_rowset_creation_time);
+
+                        // check and set path,
+                        // path info of replica is only saved in Leader FE
+                        if (backendTabletInfo.isSetPath_hash() &&
+                                replica.getPathHash() != backendTabletInfo.getPath_hash()) {
+                            replica.setPathHash(backendTabletInfo.getPath_hash());
                         }
-                        if (tabletMeta.containsSchemaHash(backendTabletInfo.getSchema_hash())) {
-                            foundTabletsWithValidSchema.add(tabletId);
-                            // 1. (intersection)
-                            if (needSync(replica, backendTabletInfo)) {
-                                // need sync
-                                tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
-                            }
 
-                            // check and set path,
-                            // path info of replica is only saved in Leader FE
-                            if (backendTabletInfo.isSetPath_hash() &&
-                                    replica.getPathHash() != backendTabletInfo.getPath_hash()) {
-                                replica.setPathHash(backendTabletInfo.getPath_hash());
-                            }
+                        if (backendTabletInfo.isSetSchema_hash() && replica.getState() == ReplicaState.NORMAL
+                                && replica.getSchemaHash() != backendTabletInfo.getSchema_hash()) {
+                            // update the schema hash only when replica is normal
+                            replica.setSchemaHash(backendTabletInfo.getSchema_hash());
+                        }
 
-                            if (backendTabletInfo.isSetSchema_hash() && replica.getState() == ReplicaState.NORMAL
-                                    && replica.getSchemaHash() != backendTabletInfo.getSchema_hash()) {
-                                // update the schema hash only when replica is normal
-                                replica.setSchemaHash(backendTabletInfo.getSchema_hash());
-                            }
+                        if (!isRestoreReplica(replica, tabletMeta) &&
+                                needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
+                            LOG.warn("replica {} of tablet {} on backend {} need recovery. "
+                                            + "replica in FE: {}, report version {}, report schema hash: {},"
+                                            + " is bad: {}",
+                                    replica.getId(), tabletId, backendId,
+                                    replica, backendTabletInfo.getVersion(), backendTabletInfo.getSchema_hash(),
+                                    backendTabletInfo.isSetUsed() ? backendTabletInfo.isUsed() : "unknown");
+                            tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
+                        }
 
-                            if (!isRestoreReplica(replica, tabletMeta) &&
-                                    needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
-                                LOG.warn("replica {} of tablet {} on backend {} need recovery. "
-                                                + "replica in FE: {}, report version {}, report schema hash: {},"
-                                                + " is bad: {}",
-                                        replica.getId(), tabletId, backendId,
-                                        replica, backendTabletInfo.getVersion(), backendTabletInfo.getSchema_hash(),
-                                        backendTabletInfo.isSetUsed() ? backendTabletInfo.isUsed() : "unknown");
-                                tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
+                        replica.setLastReportVersion(backendTabletInfo.getVersion());
+
+                        // check if tablet needs migration
+                        long partitionId = tabletMeta.getPartitionId();
+                        TStorageMedium storageMedium = storageMediumMap.get(partitionId);
+                        if (storageMedium != null && backendTabletInfo.isSetStorage_medium()) {
+                            if (storageMedium != backendTabletInfo.getStorage_medium()) {
+                                // If storage medium is less than 1, there is no need to send migration tasks to BE.
+                                // Because BE will ignore this request.
+                                if (backendStorageTypeCnt <= 1) {
+                                    LOG.debug("available storage medium type count is less than 1, " +
+                                                    "no need to send migrate task. tabletId={}, backendId={}.",
+                                            tabletMeta, backendId);
+                                } else {
+                                    tabletMigrationMap.put(storageMedium, tabletId);
+                                }
                             }
-
-                            replica.setLastReportVersion(backendTabletInfo.getVersion());
-
-                            // check if tablet needs migration
-                            long partitionId = tabletMeta.getPartitionId();
-                            TStorageMedium storageMedium = storageMediumMap.get(partitionId);
-                            if (storageMedium != null && backendTabletInfo.isSetStorage_medium()) {
-                                if (storageMedium != backendTabletInfo.getStorage_medium()) {
-                                    // If storage medium is less than 1, there is no need to send migration tasks to BE.
-                                    // Because BE will ignore this request.
-                                    if (backendStorageTypeCnt <= 1) {
-                                        LOG.debug("available storage medium type count is less than 1, " +
-                                                        "no need to send migrate task. tabletId={}, backendId={}.",
-                                                tabletMeta, backendId);
+                            if (storageMedium != tabletMeta.getStorageMedium()) {
+                                tabletMeta.setStorageMedium(storageMedium);
+                            }
+                        }
+                        // check if we should clear transactions
+                        if (backendTabletInfo.isSetTransaction_ids()) {
+                            List<Long> transactionIds = backendTabletInfo.getTransaction_ids();
+                            GlobalTransactionMgr transactionMgr =
+                                    GlobalStateMgr.getCurrentState().getGlobalTransactionMgr();
+                            for (Long transactionId : transactionIds) {
+                                TransactionState transactionState =
+                                        transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
+                                if (transactionState == null ||
+                                        transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
+                                    transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
+                                    LOG.debug("transaction id [{}] is not valid any more, "
+                                            + "clear it from backend [{}]", transactionId, backendId);
+                                } else if (transactionState.getTransactionStatus() ==
+                                        TransactionStatus.VISIBLE) {
+                                    TableCommitInfo tableCommitInfo =
+                                            transactionState.getTableCommitInfo(tabletMeta.getTableId());
+                                    PartitionCommitInfo partitionCommitInfo =
+                                            tableCommitInfo.getPartitionCommitInfo(partitionId);
+                                    if (partitionCommitInfo == null) {
+                                        /*
+                                         * This may happen as follows:
+                                         * 1. txn is committed on BE, and report commit info to FE
+                                         * 2. FE received report and begin to assemble partitionCommitInfos.
+                                         * 3. At the same time, some partitions have been dropped, so
+                                         *    partitionCommitInfos does not contain these partitions.
+                                         * 4. So we will not able to get partitionCommitInfo here.
+                                         *
+                                         * Just print a log to observe
+                                         */
+                                        LOG.info(
+                                                "failed to find partition commit info. table: {}, " +
+                                                        "partition: {}, tablet: {}, txn_id: {}",
+                                                tabletMeta.getTableId(), partitionId, tabletId,
+                                                transactionState.getTransactionId());
                                     } else {
-                                        tabletMigrationMap.put(storageMedium, tabletId);
+                                        TPartitionVersionInfo versionInfo =
+                                                new TPartitionVersionInfo(tabletMeta.getPartitionId(),
+                                                        partitionCommitInfo.getVersion(), 0);
+                                        versionInfo.setGtid(transactionState.getGlobalTransactionId());
+                                        Map<Long, Map<Long, TPartitionVersionInfo>> txnMap =
+                                                transactionsToPublish.computeIfAbsent(
+                                                        transactionState.getDbId(), k -> Maps.newHashMap());
+                                        Map<Long, TPartitionVersionInfo> partitionMap =
+                                                txnMap.computeIfAbsent(transactionId, k -> Maps.newHashMap());
+                                        partitionMap.put(versionInfo.getPartition_id(), versionInfo);
+                                        transactionsToCommitTime.put(transactionId,
+                                                transactionState.getCommitTime());
                                     }
                                 }
-                                if (storageMedium != tabletMeta.getStorageMedium()) {
-                                    tabletMeta.setStorageMedium(storageMedium);
-                                }
                             }
-                            // check if we should clear transactions
-                            if (backendTabletInfo.isSetTransaction_ids()) {
-                                List<Long> transactionIds = backendTabletInfo.getTransaction_ids();
-                                GlobalTransactionMgr transactionMgr =
-                                        GlobalStateMgr.getCurrentState().getGlobalTransactionMgr();
-                                for (Long transactionId : transactionIds) {
-                                    TransactionState transactionState =
-                                            transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
-                                    if (transactionState == null ||
-                                            transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
-                                        transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
-                                        LOG.debug("transaction id [{}] is not valid any more, "
-                                                + "clear it from backend [{}]", transactionId, backendId);
-                                    } else if (transactionState.getTransactionStatus() ==
-                                            TransactionStatus.VISIBLE) {
-                                        TableCommitInfo tableCommitInfo =
-                                                transactionState.getTableCommitInfo(tabletMeta.getTableId());
-                                        PartitionCommitInfo partitionCommitInfo =
-                                                tableCommitInfo.getPartitionCommitInfo(partitionId);
-                                        if (partitionCommitInfo == null) {
-                                            /*
-                                             * This may happen as follows:
-                                             * 1. txn is committed on BE, and report commit info to FE
-                                             * 2. FE received report and begin to assemble partitionCommitInfos.
-                                             * 3. At the same time, some partitions have been dropped, so
-                                             *    partitionCommitInfos does not contain these partitions.
-                                             * 4. So we will not able to get partitionCommitInfo here.
-                                             *
-                                             * Just print a log to observe
-                                             */
-                                            LOG.info(
-                                                    "failed to find partition commit info. table: {}, " +
-                                                            "partition: {}, tablet: {}, txn_id: {}",
-                                                    tabletMeta.getTableId(), partitionId, tabletId,
-                                                    transactionState.getTransactionId());
-                                        } else {
-                                            TPartitionVersionInfo versionInfo =
-                                                    new TPartitionVersionInfo(tabletMeta.getPartitionId(),
-                                                            partitionCommitInfo.getVersion(), 0);
-                                            versionInfo.setGtid(transactionState.getGlobalTransactionId());
-                                            Map<Long, Map<Long, TPartitionVersionInfo>> txnMap =
-                                                    transactionsToPublish.computeIfAbsent(
-                                                            transactionState.getDbId(), k -> Maps.newHashMap());
-                                            Map<Long, TPartitionVersionInfo> partitionMap =
-                                                    txnMap.computeIfAbsent(transactionId, k -> Maps.newHashMap());
-                                            partitionMap.put(versionInfo.getPartition_id(), versionInfo);
-                                            transactionsToCommitTime.put(transactionId,
-                                                    transactionState.getCommitTime());
-                                        }
-                                    }
-                                }
-                            } // end for txn id
+                        } // end for txn id
 
-                            // update replica's version count
-                            // no need to write log, and no need to get db lock.
-                            if (backendTabletInfo.isSetVersion_count()) {
-                                replica.setVersionCount(backendTabletInfo.getVersion_count());
-                            }
-                        } else {
-                            // tablet with invalid schema hash
-                            foundTabletsWithInvalidSchema.put(tabletId, backendTabletInfo);
-                        } // end for be tablet info
-                    }
-                } else {
-                    // 2. (meta - be)
-                    // may need delete from meta
-                    LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
-                    tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
+                        // update replica's version count
+                        // no need to write log, and no need to get db lock.
+                        if (backendTabletInfo.isSetVersion_count()) {
+                            replica.setVersionCount(backendTabletInfo.getVersion_count());
+                        }
+                    } else {
+                        // tablet with invalid schema hash
+                        foundTabletsWithInvalidSchema.put(tabletId, backendTabletInfo);
+                    } // end for be tablet info
                 }
-            } // end for replicaMetaWithBackend
-        } finally {
-            tabletInvertedIndex.readUnlock();
-        }
+            } else {
+                // 2. (meta - be)
+                // may need delete from meta
+                LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
+                tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
+            }
+        } // end for replicaMetaWithBackend
 
         long end = System.currentTimeMillis();
         LOG.info("finished to do tablet diff with backend[{}]. sync: {}. metaDel: {}. foundValid: {}. foundInvalid: {}."
@@ -40,7 +40,6 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.annotations.SerializedName;
@@ -68,7 +67,6 @@ import com.starrocks.catalog.MaterializedIndexMeta;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.PartitionInfo;
-import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.PartitionType;
 import com.starrocks.catalog.PhysicalPartition;
 import com.starrocks.catalog.PrimitiveType;
@@ -339,11 +337,10 @@ public class DeleteMgr implements Writable, MemoryTrackable {
         RangePartitionInfo rangePartitionInfo = (RangePartitionInfo) partitionInfo;
         Map<String, PartitionColumnFilter> columnFilters = extractColumnFilter(olapTable,
                 rangePartitionInfo, conditions);
-        Map<Long, Range<PartitionKey>> keyRangeById = rangePartitionInfo.getIdToRange(false);
         if (columnFilters.isEmpty()) {
             partitionNames.addAll(olapTable.getPartitionNames());
         } else {
-            RangePartitionPruner pruner = new RangePartitionPruner(keyRangeById,
+            RangePartitionPruner pruner = new RangePartitionPruner(rangePartitionInfo.getRangeIndex(),
                     rangePartitionInfo.getPartitionColumns(olapTable.getIdToColumn()), columnFilters);
             Collection<Long> selectedPartitionIds = pruner.prune();
 
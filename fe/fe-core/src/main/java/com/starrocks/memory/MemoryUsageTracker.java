@@ -22,9 +22,11 @@ import com.starrocks.common.util.ProfileManager;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.monitor.unit.ByteSizeValue;
 import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.qe.ConnectScheduler;
 import com.starrocks.qe.QeProcessor;
 import com.starrocks.qe.QeProcessorImpl;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.service.ExecuteEnv;
 import com.starrocks.sql.optimizer.statistics.CacheDictManager;
 import com.starrocks.sql.optimizer.statistics.CachedStatisticStorage;
 import com.starrocks.sql.optimizer.statistics.IDictManager;
@@ -72,6 +74,10 @@ public class MemoryUsageTracker extends FrontendDaemon {
         registerMemoryTracker("LocalMetastore", currentState.getLocalMetastore());
 
         registerMemoryTracker("Query", new QueryTracker());
+        ConnectScheduler connectScheduler = ExecuteEnv.getInstance().getScheduler();
+        if (connectScheduler != null) {
+            registerMemoryTracker("Connection", connectScheduler);
+        }
         registerMemoryTracker("Profile", ProfileManager.getInstance());
         registerMemoryTracker("Agent", new AgentTaskTracker());
         if (currentState.getStatisticStorage() instanceof CachedStatisticStorage) {
@@ -162,13 +162,20 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
     public static LongCounterMetric COUNTER_SHORTCIRCUIT_QUERY;
     public static LongCounterMetric COUNTER_SHORTCIRCUIT_RPC;
+    public static LongCounterMetric COUNTER_LOCK_WAIT;
+    public static LongCounterMetric COUNTER_LOCK_WAIT_FAILED;
 
     public static Histogram HISTO_QUERY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
+    public static Histogram HISTO_JOURNAL_WRITE_WAIT_LATENCY;
+    public static Histogram HISTO_JOURNAL_COMMIT_LATENCY;
+    public static Histogram HISTO_JOURNAL_REPLAY_DECODE_LATENCY;
+    public static Histogram HISTO_JOURNAL_REPLAY_APPLY_LATENCY;
     public static Histogram HISTO_SHORTCIRCUIT_RPC_LATENCY;
+    public static Histogram HISTO_LOCK_WAIT_LATENCY;
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
@@ -452,6 +459,13 @@ public final class MetricRepo {
         COUNTER_SHORTCIRCUIT_RPC = new LongCounterMetric("shortcircuit_rpc", MetricUnit.REQUESTS, "total shortcircuit rpc");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SHORTCIRCUIT_RPC);
 
+        COUNTER_LOCK_WAIT = new LongCounterMetric("lock_wait", MetricUnit.REQUESTS,
+                "counter of the lock acquisitions that have to wait");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOCK_WAIT);
+        COUNTER_LOCK_WAIT_FAILED = new LongCounterMetric("lock_wait_failed", MetricUnit.REQUESTS,
+                "counter of the lock waits that end without the lock, because of timeout, deadlock or interruption");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOCK_WAIT_FAILED);
+
         COUNTER_QUERY_ANALYSIS_ERR = new LongCounterMetric("query_analysis_err", MetricUnit.REQUESTS,
                                                            "total analysis error query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_ANALYSIS_ERR);
@@ -513,7 +527,16 @@ public final class MetricRepo {
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "batch"));
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
+        HISTO_JOURNAL_WRITE_WAIT_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "wait", "latency", "us"));
+        HISTO_JOURNAL_COMMIT_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("journal", "commit", "latency", "us"));
+        HISTO_JOURNAL_REPLAY_DECODE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("journal", "replay", "decode", "latency", "us"));
+        HISTO_JOURNAL_REPLAY_APPLY_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("journal", "replay", "apply", "latency", "us"));
         HISTO_SHORTCIRCUIT_RPC_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("shortcircuit", "latency", "ms"));
+        HISTO_LOCK_WAIT_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("lock", "wait", "latency", "ms"));
 
         // init system metrics
         initSystemMetrics();
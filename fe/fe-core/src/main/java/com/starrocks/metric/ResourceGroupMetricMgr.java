@@ -35,6 +35,7 @@ public class ResourceGroupMetricMgr {
     private static final String QUERY_RESOURCE_GROUP = "query_resource_group";
     private static final String QUERY_RESOURCE_GROUP_ERR = "query_resource_group_err";
     private static final String QUERY_RESOURCE_GROUP_LATENCY = "query_resource_group_latency";
+    private static final String RESOURCE_GROUP_QUERY_QUEUE_WAIT_LATENCY = "resource_group_query_queue_wait_latency";
 
     private static final String RESOURCE_GROUP_QUERY_QUEUE_TOTAL = "resource_group_query_queue_total";
     private static final String RESOURCE_GROUP_QUERY_QUEUE_PENDING = "resource_group_query_queue_pending";
@@ -47,6 +48,9 @@ public class ResourceGroupMetricMgr {
     private static final ConcurrentHashMap<String, QueryResourceGroupLatencyMetrics> RESOURCE_GROUP_QUERY_LATENCY_MAP
             = new ConcurrentHashMap<>();
 
+    private static final ConcurrentHashMap<String, QueryResourceGroupLatencyMetrics> RESOURCE_GROUP_QUERY_QUEUE_WAIT_LATENCY_MAP
+            = new ConcurrentHashMap<>();
+
     private static final ConcurrentHashMap<String, LongCounterMetric> RESOURCE_GROUP_QUERY_QUEUE_TOTAL_MAP
             = new ConcurrentHashMap<>();
 
@@ -100,6 +104,9 @@ public class ResourceGroupMetricMgr {
             QueryResourceGroupLatencyMetrics metrics = RESOURCE_GROUP_QUERY_LATENCY_MAP.get(resourceGroupName);
             metrics.update();
         }
+        for (QueryResourceGroupLatencyMetrics metrics : RESOURCE_GROUP_QUERY_QUEUE_WAIT_LATENCY_MAP.values()) {
+            metrics.update();
+        }
     }
 
     /**
@@ -110,6 +117,16 @@ public class ResourceGroupMetricMgr {
         metrics.histogram.update(elapseMs);
     }
 
+    /**
+     * For the metric {@code starrocks_fe_resource_group_query_queue_wait_latency}.
+     */
+    public static void updateQueryQueueWaitLatency(String groupName, long waitMs) {
+        QueryResourceGroupLatencyMetrics metrics = RESOURCE_GROUP_QUERY_QUEUE_WAIT_LATENCY_MAP.computeIfAbsent(groupName,
+                currGroupName -> new QueryResourceGroupLatencyMetrics(RESOURCE_GROUP_QUERY_QUEUE_WAIT_LATENCY, currGroupName,
+                        "resource group query queue wait latency"));
+        metrics.histogram.update(waitMs);
+    }
+
     private static LongCounterMetric createQueryResourceGroupMetrics(Map<String, LongCounterMetric> cacheMap, String metricsName,
                                                                      String metricsMsg, ConnectContext ctx) {
         String groupName = getGroupName(ctx);
@@ -141,7 +158,8 @@ public class ResourceGroupMetricMgr {
     private static QueryResourceGroupLatencyMetrics createQueryResourceGroupLatencyMetrics(ConnectContext ctx) {
         String groupName = getGroupName(ctx);
         return RESOURCE_GROUP_QUERY_LATENCY_MAP.computeIfAbsent(groupName,
-                currGroupName -> new QueryResourceGroupLatencyMetrics(QUERY_RESOURCE_GROUP_LATENCY, currGroupName));
+                currGroupName -> new QueryResourceGroupLatencyMetrics(QUERY_RESOURCE_GROUP_LATENCY, currGroupName,
+                        "resource group query latency"));
     }
 
     private static final class QueryResourceGroupLatencyMetrics {
@@ -153,19 +171,19 @@ public class ResourceGroupMetricMgr {
         private final List<GaugeMetricImpl<Double>> metricsList;
         private final String metricName;
 
-        private QueryResourceGroupLatencyMetrics(String metricName, String resourceGroupName) {
+        private QueryResourceGroupLatencyMetrics(String metricName, String resourceGroupName, String metricMsg) {
             this.metricName = metricName;
             this.metricRegistry = new MetricRegistry();
             initHistogram(metricName);
             this.metricsList = new ArrayList<>();
             for (String label : QUERY_LATENCY_LABELS) {
                 GaugeMetricImpl<Double> metrics = new GaugeMetricImpl<>(
-                        metricName, Metric.MetricUnit.MILLISECONDS, label + " of resource group query latency");
+                        metricName, Metric.MetricUnit.MILLISECONDS, label + " of " + metricMsg);
                 metrics.addLabel(new MetricLabel("type", label));
                 metrics.addLabel(new MetricLabel("name", resourceGroupName));
                 metrics.setValue(0.0);
                 MetricRepo.addMetric(metrics);
-                LOG.info("Add {} metric, resource group name is {}", QUERY_RESOURCE_GROUP_LATENCY, resourceGroupName);
+                LOG.info("Add {} metric, resource group name is {}", metricName, resourceGroupName);
                 this.metricsList.add(metrics);
             }
         }
@@ -64,8 +64,8 @@ public class MysqlChannel {
     protected SocketChannel channel;
     // used to receive/send header, avoiding new this many time.
     protected ByteBuffer headerByteBuffer = ByteBuffer.allocate(PACKET_HEADER_LEN);
-    // default packet byte buffer for most packet
-    protected ByteBuffer defaultBuffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+    // default packet byte buffer for most packet, borrowed from ReadBufferPool when a packet arrives
+    protected ByteBuffer defaultBuffer;
     protected ByteBuffer sendBuffer;
 
     private SSLChannel sslChannel;
@@ -180,8 +180,7 @@ public class MysqlChannel {
     // NOTE: all of the following code is assumed that the channel is in block mode.
     public ByteBuffer fetchOnePacket() throws IOException {
         int readLen;
-        ByteBuffer result = defaultBuffer;
-        result.clear();
+        ByteBuffer result = null;
 
         while (true) {
             headerByteBuffer.clear();
@@ -197,6 +196,14 @@ public class MysqlChannel {
                 throw new IOException("Bad packet sequence.");
             }
             int packetLen = packetLen();
+            if (result == null) {
+                // borrow the read buffer after the header arrives, so that idle connections don't hold it
+                if (defaultBuffer == null) {
+                    defaultBuffer = ReadBufferPool.getInstance().borrow();
+                }
+                result = defaultBuffer;
+                result.clear();
+            }
             if ((result.capacity() - result.position()) < packetLen) {
                 // byte buffer is not enough, new one packet
                 ByteBuffer tmp;
@@ -269,8 +276,55 @@ public class MysqlChannel {
             // The buffer size shouldn't too large or shouldn't too small
             bufferSize = Math.min(bufferSize, 2 * 1024 * 1024);
             bufferSize = Math.max(bufferSize, 256 * 1024);
-            this.sendBuffer = ByteBuffer.allocate(bufferSize);
+            this.sendBuffer = SendBufferPool.getInstance().borrow(bufferSize);
+        }
+    }
+
+    /**
+     * Give the send buffer back to the pool after a command is finished, so that idle connections don't hold it.
+     * Must be called by the thread executing the command, after the last packet is flushed.
+     */
+    public void releaseSendBuffer() {
+        if (this.sendBuffer != null) {
+            ByteBuffer buffer = this.sendBuffer;
+            this.sendBuffer = null;
+            SendBufferPool.getInstance().giveBack(buffer);
+        }
+    }
+
+    /**
+     * Give the read buffer back to the pool after a command is finished, the packet got from
+     * {@link #fetchOnePacket()} must not be used any more.
+     * Must be called by the thread executing the command.
+     */
+    public void releaseReadBuffer() {
+        if (this.defaultBuffer != null) {
+            ByteBuffer buffer = this.defaultBuffer;
+            this.defaultBuffer = null;
+            ReadBufferPool.getInstance().giveBack(buffer);
+        }
+    }
+
+    public void releaseBuffers() {
+        releaseReadBuffer();
+        releaseSendBuffer();
+    }
+
+    /**
+     * Heap bytes of the buffers held by this connection. The direct buffers borrowed from {@link SendBufferPool}
+     * are not included.
+     */
+    public long estimateHeapBufferSize() {
+        ByteBuffer readBuffer = defaultBuffer;
+        ByteBuffer writeBuffer = sendBuffer;
+        long size = PACKET_HEADER_LEN;
+        if (readBuffer != null) {
+            size += readBuffer.capacity();
+        }
+        if (writeBuffer != null && !writeBuffer.isDirect()) {
+            size += writeBuffer.capacity();
         }
+        return size;
     }
 
     public boolean isSendBufferNull() {
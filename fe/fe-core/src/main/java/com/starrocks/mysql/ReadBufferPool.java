@@ -0,0 +1,89 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.mysql;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of the heap buffers to read packets from mysql clients.
+ * <p>
+ * The read buffer used to be allocated with the connection and kept for its whole life, which is most of the memory
+ * of an idle connection. Now a connection borrows one only when a packet arrives and gives it back after the command
+ * is finished, and at most {@code Config.mysql_read_buffer_pool_num} idle buffers are kept for reuse.
+ */
+public class ReadBufferPool {
+    private static final ReadBufferPool INSTANCE =
+            new ReadBufferPool(Config.mysql_read_buffer_pool_num, MysqlChannel.DEFAULT_BUFFER_SIZE);
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> idleBuffers;
+    private final AtomicInteger borrowedBuffers = new AtomicInteger(0);
+
+    @VisibleForTesting
+    ReadBufferPool(int maxIdleBuffers, int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.idleBuffers = new ArrayBlockingQueue<>(Math.max(maxIdleBuffers, 1));
+    }
+
+    public static ReadBufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrow a cleared big-endian buffer of {@link #getBufferSize()} bytes.
+     */
+    public ByteBuffer borrow() {
+        ByteBuffer buffer = idleBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(bufferSize);
+        }
+        borrowedBuffers.incrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer got from {@link #borrow()}, the caller must not touch it any more.
+     * The buffer is dropped if the pool is full.
+     */
+    public void giveBack(ByteBuffer buffer) {
+        borrowedBuffers.decrementAndGet();
+        // keep the idle memory bounded by the pool size, in case a caller gives back a buffer of another size
+        if (buffer.capacity() != bufferSize) {
+            return;
+        }
+        // the command processor may change the byte order to parse the packet.
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        idleBuffers.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getIdleBufferNum() {
+        return idleBuffers.size();
+    }
+
+    public int getBorrowedBufferNum() {
+        return borrowedBuffers.get();
+    }
+}
@@ -0,0 +1,89 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.mysql;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of direct buffers to send packets to mysql clients.
+ * <p>
+ * Writing a heap buffer to a socket copies it into a temporary direct buffer first, and keeping a large heap buffer
+ * in every connection wastes heap on idle connections. So connections borrow a direct buffer from this pool while
+ * executing a command. At most {@code Config.mysql_send_buffer_pool_num} direct buffers are allocated, and a heap
+ * buffer of the requested size is returned when all of them are borrowed.
+ */
+public class SendBufferPool {
+    private static final SendBufferPool INSTANCE =
+            new SendBufferPool(Config.mysql_send_buffer_pool_num, Config.mysql_send_buffer_size);
+
+    private final int maxBuffers;
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> idleBuffers;
+    private final AtomicInteger allocatedBuffers = new AtomicInteger(0);
+
+    @VisibleForTesting
+    SendBufferPool(int maxBuffers, int bufferSize) {
+        this.maxBuffers = Math.max(maxBuffers, 0);
+        this.bufferSize = bufferSize;
+        this.idleBuffers = new ArrayBlockingQueue<>(Math.max(this.maxBuffers, 1));
+    }
+
+    public static SendBufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrow a cleared buffer. {@code heapBufferSize} is the size of the heap buffer returned if the pool is exhausted.
+     */
+    public ByteBuffer borrow(int heapBufferSize) {
+        ByteBuffer buffer = idleBuffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        while (true) {
+            int allocated = allocatedBuffers.get();
+            if (allocated >= maxBuffers) {
+                return ByteBuffer.allocate(heapBufferSize);
+            }
+            if (allocatedBuffers.compareAndSet(allocated, allocated + 1)) {
+                return ByteBuffer.allocateDirect(bufferSize);
+            }
+        }
+    }
+
+    /**
+     * Return a buffer got from {@link #borrow(int)}, the caller must not touch it any more.
+     */
+    public void giveBack(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        buffer.clear();
+        idleBuffers.offer(buffer);
+    }
+
+    public int getIdleBufferNum() {
+        return idleBuffers.size();
+    }
+
+    public int getAllocatedBufferNum() {
+        return allocatedBuffers.get();
+    }
+}
@@ -116,6 +116,7 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
                             MysqlProto.sendResponsePacket(context);
                             throw new AfterConnectedException(registerResult.second);
                         }
+                        context.getMysqlChannel().releaseBuffers();
                         context.setStartTime();
                         ConnectProcessor processor = new ConnectProcessor(context);
                         context.startAcceptQuery(processor);
@@ -74,6 +74,7 @@ import com.starrocks.load.loadv2.LoadJobFinalOperation;
 import com.starrocks.load.routineload.RoutineLoadJob;
 import com.starrocks.load.streamload.StreamLoadTask;
 import com.starrocks.metric.MetricRepo;
+import com.starrocks.persist.gson.BinaryJson;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.plugin.PluginInfo;
 import com.starrocks.privilege.RolePrivilegeCollectionV2;
@@ -1473,11 +1474,19 @@ public class EditLog {
 
     // for TransactionState
     public void logInsertTransactionState(TransactionState transactionState) {
-        logJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_V2, transactionState);
+        logCompactJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_V2, transactionState);
+    }
+
+    /**
+     * Submit the transaction state without waiting, the caller must wait the returned task by
+     * {@link #waitInfinity(JournalTask)} before making the state visible to the client.
+     */
+    public JournalTask logInsertTransactionStateNoWait(TransactionState transactionState) {
+        return submitCompactJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_V2, transactionState);
     }
 
     public void logInsertTransactionStateBatch(TransactionStateBatch stateBatch) {
-        logJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH, stateBatch);
+        logCompactJsonObject(OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH, stateBatch);
     }
 
     public void logBackupJob(BackupJob job) {
@@ -1880,6 +1889,27 @@ public class EditLog {
         logEdit(op, out -> Text.writeString(out, GsonUtils.GSON.toJson(obj)));
     }
 
+    /**
+     * Same as {@link #logJsonObject(short, Object)}, but in {@link BinaryJson} if
+     * {@link Config#metadata_enable_binary_format} is enabled. The log must be read by
+     * {@link BinaryJson#readJsonOrBinary(java.io.DataInput, java.lang.reflect.Type)}.
+     */
+    public void logCompactJsonObject(short op, Object obj) {
+        if (Config.metadata_enable_binary_format) {
+            logEdit(op, out -> BinaryJson.writeWithMarker(out, obj));
+        } else {
+            logJsonObject(op, obj);
+        }
+    }
+
+    private JournalTask submitCompactJsonObject(short op, Object obj) {
+        if (Config.metadata_enable_binary_format) {
+            return submitLog(op, out -> BinaryJson.writeWithMarker(out, obj), -1);
+        } else {
+            return submitLog(op, out -> Text.writeString(out, GsonUtils.GSON.toJson(obj)), -1);
+        }
+    }
+
     public void logModifyTableAddOrDrop(TableAddOrDropColumnsInfo info) {
         logEdit(OperationType.OP_MODIFY_TABLE_ADD_OR_DROP_COLUMNS, info);
     }
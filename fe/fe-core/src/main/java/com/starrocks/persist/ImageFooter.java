@@ -0,0 +1,170 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.persist;
+
+import com.google.common.reflect.TypeToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.common.Version;
+import com.starrocks.persist.gson.BinaryJson;
+import com.starrocks.persist.gson.BinaryJsonReader;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.persist.metablock.PrimitiveObject;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The footer of image v2, which records the position of every meta block in the image,
+ * so that the meta blocks can be loaded concurrently.
+ * <p>
+ * The footer is the last meta block of the image, with id {@link SRMetaBlockID#IMAGE_FOOTER} and 2 jsons:
+ * <pre>
+ * +------------------+
+ * |     header       | {"i": 33, "nj": 2}
+ * +------------------+
+ * |     sections     | {"s": [{"i": 1, "o": 23, "l": 100}, ...]}
+ * +------------------+
+ * |  footer offset   | {"v": "0000000000000012345"}
+ * +------------------+
+ * </pre>
+ * The last json has a fixed length, in either json text or {@link BinaryJson}, so the footer can be found by reading
+ * the tail of the image. The older versions skip the footer as an unknown meta block.
+ * <p>
+ * The footer also records the version of FE and the encoding writing the image, so that the next checkpoint can
+ * decide whether the unchanged meta blocks can be copied, see {@link ImageSectionTracker}.
+ */
+public class ImageFooter {
+    private static final String OFFSET_FORMAT = "%019d";
+    private static final Type OFFSET_TYPE = new TypeToken<PrimitiveObject<String>>() {}.getType();
+    private static final int JSON_TAIL_LENGTH = GsonUtils.GSON.toJson(new PrimitiveObject<>(formatOffset(0)))
+            .getBytes(StandardCharsets.UTF_8).length;
+    private static final int BINARY_TAIL_LENGTH = binaryLength(new PrimitiveObject<>(formatOffset(0)));
+
+    public static final int TAIL_LENGTH = Math.max(JSON_TAIL_LENGTH, BINARY_TAIL_LENGTH);
+
+    @SerializedName("s")
+    private List<Section> sections = new ArrayList<>();
+    @SerializedName("v")
+    private String writerVersion;
+    @SerializedName("b")
+    private boolean binary;
+
+    public ImageFooter() {
+    }
+
+    public ImageFooter(boolean binary) {
+        this.writerVersion = getCurrentWriterVersion();
+        this.binary = binary;
+    }
+
+    public static String getCurrentWriterVersion() {
+        return Version.STARROCKS_VERSION + "-" + Version.STARROCKS_COMMIT_HASH;
+    }
+
+    public List<Section> getSections() {
+        return sections;
+    }
+
+    public void addSection(Section section) {
+        sections.add(section);
+    }
+
+    public String getWriterVersion() {
+        return writerVersion;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public static String formatOffset(long offset) {
+        return String.format(OFFSET_FORMAT, offset);
+    }
+
+    /**
+     * Parse the offset of the footer from the last {@link #TAIL_LENGTH} bytes of the image, return -1 if the tail
+     * is not written by {@link #formatOffset(long)}, e.g. the image is written by an older version.
+     */
+    public static long parseOffset(byte[] tail) {
+        PrimitiveObject<String> object;
+        try {
+            if ((tail[tail.length - BINARY_TAIL_LENGTH] & 0xFF) == BinaryJson.MAGIC) {
+                byte[] bytes = Arrays.copyOfRange(tail, tail.length - BINARY_TAIL_LENGTH, tail.length);
+                object = new BinaryJsonReader(new DataInputStream(new ByteArrayInputStream(bytes))).next(OFFSET_TYPE);
+            } else {
+                String json = new String(tail, tail.length - JSON_TAIL_LENGTH, JSON_TAIL_LENGTH, StandardCharsets.UTF_8);
+                object = GsonUtils.GSON.fromJson(json, OFFSET_TYPE);
+            }
+        } catch (IOException | JsonParseException e) {
+            return -1;
+        }
+
+        if (object == null || object.getValue() == null || object.getValue().length() != formatOffset(0).length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(object.getValue());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int binaryLength(Object object) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            BinaryJson.toBinary(object, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.size();
+    }
+
+    public static class Section {
+        @SerializedName("i")
+        private SRMetaBlockID id;
+        @SerializedName("o")
+        private long offset;
+        @SerializedName("l")
+        private long length;
+
+        public Section(SRMetaBlockID id, long offset, long length) {
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public SRMetaBlockID getId() {
+            return id;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+}
@@ -14,7 +14,11 @@
 
 package com.starrocks.persist;
 
+import com.google.common.io.ByteStreams;
 import com.google.gson.stream.JsonReader;
+import com.starrocks.persist.gson.BinaryJson;
+import com.starrocks.persist.gson.BinaryJsonReader;
+import com.starrocks.persist.metablock.SRMetaBlockID;
 import com.starrocks.persist.metablock.SRMetaBlockReader;
 import com.starrocks.persist.metablock.SRMetaBlockReaderV1;
 import com.starrocks.persist.metablock.SRMetaBlockReaderV2;
@@ -22,10 +26,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -40,6 +46,7 @@ public class ImageLoader {
     private final File imageFile;
     private final long imageJournalId;
     private JsonReader jsonReader;
+    private BinaryJsonReader binaryJsonReader;
     private CheckedInputStream checkedInputStream;
     private BufferedInputStream bufferedInputStream;
 
@@ -73,9 +80,6 @@ public class ImageLoader {
     public void setInputStream(InputStream inputStream) {
         this.bufferedInputStream = new BufferedInputStream(inputStream);
         this.checkedInputStream = new CheckedInputStream(inputStream, new CRC32());
-        if (imageFormatVersion == ImageFormatVersion.v2) {
-            this.jsonReader = new JsonReader(new InputStreamReader(this.checkedInputStream, StandardCharsets.UTF_8));
-        }
     }
 
     public CheckedInputStream getCheckedInputStream() {
@@ -86,10 +90,98 @@ public class ImageLoader {
         if (imageFormatVersion == ImageFormatVersion.v1) {
             return new SRMetaBlockReaderV1(bufferedInputStream);
         } else {
+            if (jsonReader == null && binaryJsonReader == null) {
+                // the meta blocks are after the image header, which is read from checked input stream directly
+                BufferedInputStream in = new BufferedInputStream(checkedInputStream);
+                if (BinaryJson.isBinary(in)) {
+                    binaryJsonReader = new BinaryJsonReader(new DataInputStream(in));
+                } else {
+                    jsonReader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            }
+            if (binaryJsonReader != null) {
+                return new SRMetaBlockReaderV2(binaryJsonReader);
+            }
             return new SRMetaBlockReaderV2(jsonReader);
         }
     }
 
+    /**
+     * Read the {@link ImageFooter} from the tail of the image, return null if the image has no footer,
+     * e.g. it's written by an older version.
+     */
+    public ImageFooter readFooter() {
+        if (imageFormatVersion != ImageFormatVersion.v2) {
+            return null;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(imageFile, "r")) {
+            long fileLength = file.length();
+            if (fileLength < ImageFooter.TAIL_LENGTH) {
+                return null;
+            }
+            byte[] tail = new byte[ImageFooter.TAIL_LENGTH];
+            file.seek(fileLength - tail.length);
+            file.readFully(tail);
+            long footerOffset = ImageFooter.parseOffset(tail);
+            if (footerOffset < 0 || footerOffset >= fileLength) {
+                return null;
+            }
+
+            ImageFooter.Section section = new ImageFooter.Section(SRMetaBlockID.IMAGE_FOOTER, footerOffset,
+                    fileLength - footerOffset);
+            try (BufferedInputStream in = openSection(section)) {
+                SRMetaBlockReader reader = getBlockReader(in);
+                if (!SRMetaBlockID.IMAGE_FOOTER.equals(reader.getHeader().getSrMetaBlockID())) {
+                    return null;
+                }
+                ImageFooter footer = reader.readJson(ImageFooter.class);
+                reader.close();
+                return footer;
+            }
+        } catch (Exception e) {
+            LOG.warn("read footer of image {} failed", imageFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Open an input stream on the meta block of section, which is independent of the other sections.
+     */
+    public BufferedInputStream openSection(ImageFooter.Section section) throws IOException {
+        InputStream in = Files.newInputStream(imageFile.toPath());
+        try {
+            ByteStreams.skipFully(in, section.getOffset());
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BufferedInputStream(ByteStreams.limit(in, section.getLength()));
+    }
+
+    /**
+     * Get the v2 block reader on the input stream returned by {@link #openSection(ImageFooter.Section)}.
+     */
+    public SRMetaBlockReader getBlockReader(BufferedInputStream sectionInputStream) throws IOException {
+        if (BinaryJson.isBinary(sectionInputStream)) {
+            return new SRMetaBlockReaderV2(new BinaryJsonReader(new DataInputStream(sectionInputStream)));
+        }
+        return new SRMetaBlockReaderV2(new JsonReader(new InputStreamReader(sectionInputStream, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Compute the checksum of the whole image, used when the image is not read through
+     * {@link #getCheckedInputStream()}.
+     */
+    public long computeChecksum() throws IOException {
+        try (CheckedInputStream in = new CheckedInputStream(Files.newInputStream(imageFile.toPath()), new CRC32())) {
+            byte[] bytes = new byte[65536];
+            while (in.read(bytes) != -1) {
+            }
+            return in.getChecksum().getValue();
+        }
+    }
+
     public void readTheRemainingBytes() {
         if (imageFormatVersion == ImageFormatVersion.v2) {
             byte[] bytes = new byte[8192];
@@ -103,10 +195,15 @@ public class ImageLoader {
     }
 
     public void checkCheckSum() throws IOException {
+        if (imageFormatVersion == ImageFormatVersion.v2) {
+            checkCheckSum(checkedInputStream.getChecksum().getValue());
+        }
+    }
+
+    public void checkCheckSum(long realCheckSum) throws IOException {
         if (imageFormatVersion == ImageFormatVersion.v2) {
             Path checksumPath = Path.of(imageDir, "v2", Storage.CHECKSUM + "." + imageJournalId);
             long expectedCheckSum = Long.parseLong(Files.readString(checksumPath));
-            long realCheckSum = checkedInputStream.getChecksum().getValue();
             if (expectedCheckSum != realCheckSum) {
                 throw new IOException(String.format("checksum mismatch! expect %d actual %d",
                         expectedCheckSum, realCheckSum));
@@ -0,0 +1,128 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.starrocks.common.Config;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Track the meta blocks not changed since the image loaded by checkpoint, so that checkpoint can copy them from
+ * the loaded image instead of serializing them again.
+ * <p>
+ * Only the meta blocks which are changed by nothing but the journals listed in {@link #REUSABLE_BLOCKS} are tracked,
+ * and such a meta block becomes dirty once one of its journals is replayed. A meta block can be reused only if the
+ * loaded image is written by the same FE version in the same encoding, see {@link ImageFooter}.
+ */
+public class ImageSectionTracker {
+    private static final Set<Short> AUTH_OPS = ImmutableSet.of(
+            OperationType.OP_CREATE_USER_V2,
+            OperationType.OP_UPDATE_USER_PRIVILEGE_V2,
+            OperationType.OP_ALTER_USER_V2,
+            OperationType.OP_UPDATE_USER_PROP_V3,
+            OperationType.OP_DROP_USER_V3,
+            OperationType.OP_UPDATE_ROLE_PRIVILEGE_V2,
+            OperationType.OP_DROP_ROLE_V2);
+
+    private static final Map<SRMetaBlockID, Set<Short>> REUSABLE_BLOCKS =
+            ImmutableMap.<SRMetaBlockID, Set<Short>>builder()
+                    .put(SRMetaBlockID.RESOURCE_MGR,
+                            ImmutableSet.of(OperationType.OP_CREATE_RESOURCE, OperationType.OP_DROP_RESOURCE))
+                    .put(SRMetaBlockID.SMALL_FILE_MGR,
+                            ImmutableSet.of(OperationType.OP_CREATE_SMALL_FILE_V2, OperationType.OP_DROP_SMALL_FILE_V2))
+                    .put(SRMetaBlockID.RESOURCE_GROUP_MGR, ImmutableSet.of(OperationType.OP_RESOURCE_GROUP))
+                    // users and privileges are changed together
+                    .put(SRMetaBlockID.AUTHENTICATION_MGR, AUTH_OPS)
+                    .put(SRMetaBlockID.AUTHORIZATION_MGR, AUTH_OPS)
+                    // creating or dropping a resource creates or drops its mapping catalog
+                    .put(SRMetaBlockID.CATALOG_MGR, ImmutableSet.of(OperationType.OP_CREATE_CATALOG,
+                            OperationType.OP_DROP_CATALOG, OperationType.OP_ALTER_CATALOG,
+                            OperationType.OP_CREATE_RESOURCE, OperationType.OP_DROP_RESOURCE))
+                    .put(SRMetaBlockID.GLOBAL_FUNCTION_MGR,
+                            ImmutableSet.of(OperationType.OP_ADD_FUNCTION_V2, OperationType.OP_DROP_FUNCTION_V2))
+                    .put(SRMetaBlockID.KEY_MGR, ImmutableSet.of(OperationType.OP_ADD_KEY))
+                    .build();
+
+    private static final Map<Short, List<SRMetaBlockID>> OP_TO_BLOCKS = REUSABLE_BLOCKS.entrySet().stream()
+            .flatMap(entry -> entry.getValue().stream().map(op -> Map.entry(op, entry.getKey())))
+            .collect(Collectors.groupingBy(Map.Entry::getKey,
+                    Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+    /**
+     * Return the journals which change the meta block, or null if the meta block isn't tracked.
+     */
+    @VisibleForTesting
+    static Set<Short> getTrackedOps(SRMetaBlockID id) {
+        return REUSABLE_BLOCKS.get(id);
+    }
+
+    private File baseImageFile;
+    private Map<SRMetaBlockID, ImageFooter.Section> baseSections;
+    private boolean baseBinary;
+    private final Set<SRMetaBlockID> dirtyBlocks = new HashSet<>();
+
+    /**
+     * Set the image loaded by checkpoint, the journals replayed before are not tracked.
+     */
+    public void setBaseImage(File imageFile, ImageFooter footer) {
+        if (!ImageFooter.getCurrentWriterVersion().equals(footer.getWriterVersion())) {
+            return;
+        }
+        baseImageFile = imageFile;
+        baseSections = new HashMap<>();
+        for (ImageFooter.Section section : footer.getSections()) {
+            baseSections.put(section.getId(), section);
+        }
+        baseBinary = footer.isBinary();
+        dirtyBlocks.clear();
+    }
+
+    public void onReplay(short opCode) {
+        if (baseImageFile == null) {
+            return;
+        }
+        List<SRMetaBlockID> blocks = OP_TO_BLOCKS.get(opCode);
+        if (blocks != null) {
+            dirtyBlocks.addAll(blocks);
+        }
+    }
+
+    public File getBaseImageFile() {
+        return baseImageFile;
+    }
+
+    /**
+     * Return the section of the meta block in the base image if it can be copied to the new image,
+     * otherwise return null.
+     */
+    public ImageFooter.Section getReusableSection(SRMetaBlockID id) {
+        if (baseImageFile == null || !Config.metadata_enable_incremental_checkpoint ||
+                baseBinary != Config.metadata_enable_binary_format ||
+                !REUSABLE_BLOCKS.containsKey(id) || dirtyBlocks.contains(id)) {
+            return null;
+        }
+        return baseSections.get(id);
+    }
+}
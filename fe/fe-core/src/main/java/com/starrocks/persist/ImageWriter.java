@@ -14,20 +14,31 @@
 
 package com.starrocks.persist;
 
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 import com.google.gson.stream.JsonWriter;
+import com.starrocks.common.Config;
+import com.starrocks.persist.gson.BinaryJsonWriter;
 import com.starrocks.persist.metablock.SRMetaBlockException;
 import com.starrocks.persist.metablock.SRMetaBlockID;
 import com.starrocks.persist.metablock.SRMetaBlockWriter;
 import com.starrocks.persist.metablock.SRMetaBlockWriterV1;
 import com.starrocks.persist.metablock.SRMetaBlockWriterV2;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedOutputStream;
 
@@ -37,9 +48,13 @@ public class ImageWriter {
     private final long imageJournalId;
 
     private OutputStream outputStream;
+    private CountingOutputStream countingOutputStream;
     private CheckedOutputStream checkedOutputStream;
     private JsonWriter jsonWriter;
     private DataOutputStream dataOutputStream;
+    // meta block id and its offset in the image, for v2 only
+    private final List<SRMetaBlockID> blockIds = new ArrayList<>();
+    private final List<Long> blockOffsets = new ArrayList<>();
 
     public ImageWriter(String imageDir, ImageFormatVersion imageFormatVersion, long imageJournalId) {
         this.imageDir = imageDir;
@@ -49,19 +64,72 @@ public class ImageWriter {
 
     public void setOutputStream(OutputStream outputStream) {
         this.outputStream = outputStream;
-        this.checkedOutputStream = new CheckedOutputStream(outputStream, new CRC32());
+        this.countingOutputStream = new CountingOutputStream(outputStream);
+        this.checkedOutputStream = new CheckedOutputStream(countingOutputStream, new CRC32());
         this.dataOutputStream = new DataOutputStream(checkedOutputStream);
-        this.jsonWriter = new JsonWriter(new OutputStreamWriter(checkedOutputStream, StandardCharsets.UTF_8));
+        if (imageFormatVersion == ImageFormatVersion.v2 && Config.metadata_enable_binary_format) {
+            this.jsonWriter = new BinaryJsonWriter(new BufferedOutputStream(checkedOutputStream));
+        } else {
+            this.jsonWriter = new JsonWriter(new OutputStreamWriter(checkedOutputStream, StandardCharsets.UTF_8));
+        }
+    }
+
+    public ImageFormatVersion getImageFormatVersion() {
+        return imageFormatVersion;
     }
 
     public SRMetaBlockWriter getBlockWriter(SRMetaBlockID id, int numJson) throws SRMetaBlockException {
         if (imageFormatVersion == ImageFormatVersion.v1) {
             return new SRMetaBlockWriterV1(outputStream, id, numJson);
         } else {
+            // the previous meta block has been flushed when closing its writer
+            blockIds.add(id);
+            blockOffsets.add(countingOutputStream.getCount());
             return new SRMetaBlockWriterV2(jsonWriter, id, numJson);
         }
     }
 
+    /**
+     * Copy a meta block from the image written before, instead of serializing it again, for v2 only.
+     * The image must be written in the same encoding.
+     */
+    public void copySection(File imageFile, ImageFooter.Section section) throws IOException {
+        Preconditions.checkState(imageFormatVersion == ImageFormatVersion.v2);
+        jsonWriter.flush();
+        blockIds.add(section.getId());
+        blockOffsets.add(countingOutputStream.getCount());
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(imageFile.toPath()))) {
+            ByteStreams.skipFully(in, section.getOffset());
+            long copied = ByteStreams.copy(ByteStreams.limit(in, section.getLength()), checkedOutputStream);
+            if (copied != section.getLength()) {
+                throw new IOException(String.format("copy meta block %s from %s failed, expect %d bytes, copied %d",
+                        section.getId(), imageFile, section.getLength(), copied));
+            }
+        }
+    }
+
+    /**
+     * Write the {@link ImageFooter} after all meta blocks are written, for v2 only.
+     */
+    public void saveFooter() throws IOException, SRMetaBlockException {
+        if (imageFormatVersion != ImageFormatVersion.v2) {
+            return;
+        }
+
+        jsonWriter.flush();
+        long footerOffset = countingOutputStream.getCount();
+        ImageFooter footer = new ImageFooter(jsonWriter instanceof BinaryJsonWriter);
+        for (int i = 0; i < blockIds.size(); i++) {
+            long end = i + 1 < blockIds.size() ? blockOffsets.get(i + 1) : footerOffset;
+            footer.addSection(new ImageFooter.Section(blockIds.get(i), blockOffsets.get(i), end - blockOffsets.get(i)));
+        }
+
+        SRMetaBlockWriter writer = new SRMetaBlockWriterV2(jsonWriter, SRMetaBlockID.IMAGE_FOOTER, 2);
+        writer.writeJson(footer);
+        writer.writeString(ImageFooter.formatOffset(footerOffset));
+        writer.close();
+    }
+
     public DataOutputStream getDataOutputStream() {
         return dataOutputStream;
     }
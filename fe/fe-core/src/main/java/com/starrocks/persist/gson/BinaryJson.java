@@ -0,0 +1,127 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist.gson;
+
+import com.starrocks.common.io.Text;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * A compact binary encoding of json, which is used to persist the meta by the gson type adapters without the
+ * cost of json text: numbers are varints instead of decimal text, and the object field names, as well as the short
+ * string values, are written once per top-level value and referenced by index afterwards. For a table with millions
+ * of tablets and replicas, the field names of Partition, MaterializedIndex, LocalTablet and Replica are written
+ * only once.
+ * <p>
+ * Every top-level value is self-contained:
+ * <pre>
+ * +---------+---------+---------+
+ * |  magic  | version |  value  |
+ * +---------+---------+---------+
+ * </pre>
+ * A value starts with a tag byte:
+ * <ul>
+ *   <li>NULL, TRUE, FALSE</li>
+ *   <li>LONG: followed by a zigzag varint</li>
+ *   <li>DOUBLE: followed by 8 bytes of the ieee754 bits</li>
+ *   <li>STRING: followed by the varint length and the utf-8 bytes</li>
+ *   <li>STRING_REF: followed by the varint index of a previous STRING in the same top-level value</li>
+ *   <li>NUMBER: a number which is neither integral nor floating, e.g. BigDecimal, written as STRING</li>
+ *   <li>ARRAY: followed by the elements and END</li>
+ *   <li>OBJECT: followed by the fields and a 0 varint. Each field starts with a varint, which is
+ *   {@code (index + 1) << 1} to reference a previous name, or {@code length << 1 | 1} followed by the utf-8 bytes
+ *   to define a new name</li>
+ * </ul>
+ * The magic byte can never be the first byte of json text, so json and binary values can be told apart.
+ */
+public final class BinaryJson {
+    public static final int MAGIC = 0xB7;
+    public static final int VERSION = 1;
+
+    // Written before the binary value in the edit log. It's negative, so it can never be the length of
+    // json text written by Text.writeString().
+    public static final int LOG_MARKER = 0xB7B7B7B7;
+
+    static final int END = 0;
+    static final int NULL = 1;
+    static final int TRUE = 2;
+    static final int FALSE = 3;
+    static final int LONG = 4;
+    static final int DOUBLE = 5;
+    static final int STRING = 6;
+    static final int STRING_REF = 7;
+    static final int NUMBER = 8;
+    static final int ARRAY = 9;
+    static final int OBJECT = 10;
+
+    // Only the short names and strings are referenced, and at most MAX_REFS of them per top-level value,
+    // to bound the memory of the dictionaries.
+    static final int MAX_REF_LENGTH = 64;
+    static final int MAX_REFS = 1 << 16;
+
+    private BinaryJson() {
+    }
+
+    /**
+     * Check whether the next value of input stream is binary, without consuming it.
+     */
+    public static boolean isBinary(BufferedInputStream in) throws IOException {
+        in.mark(1);
+        int b = in.read();
+        in.reset();
+        return b == MAGIC;
+    }
+
+    /**
+     * Write the object as {@link #LOG_MARKER} followed by the binary value, which can be read by
+     * {@link #readJsonOrBinary(DataInput, Type)}.
+     */
+    public static void writeWithMarker(DataOutput out, Object object) throws IOException {
+        out.writeInt(LOG_MARKER);
+        if (out instanceof OutputStream) {
+            toBinary(object, (OutputStream) out);
+        } else {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            toBinary(object, bytes);
+            out.write(bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Read an object written by either {@link #writeWithMarker(DataOutput, Object)} or
+     * {@code Text.writeString(out, GsonUtils.GSON.toJson(object))}.
+     */
+    public static <T> T readJsonOrBinary(DataInput in, Type type) throws IOException {
+        int lengthOrMarker = in.readInt();
+        if (lengthOrMarker == LOG_MARKER) {
+            return new BinaryJsonReader(in).next(type);
+        }
+        byte[] bytes = new byte[lengthOrMarker];
+        in.readFully(bytes);
+        return GsonUtils.GSON.fromJson(Text.decode(bytes), type);
+    }
+
+    public static void toBinary(Object object, OutputStream out) throws IOException {
+        BinaryJsonWriter writer = new BinaryJsonWriter(out);
+        GsonUtils.GSON.toJson(object, object.getClass(), writer);
+        writer.flush();
+    }
+}
@@ -0,0 +1,273 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist.gson;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read the values written by {@link BinaryJsonWriter}. The binary is transcoded to json text token by token while
+ * the gson type adapters read it, so a big value, e.g. an array of millions of replicas, is read in a streaming way
+ * instead of being built as a json tree in memory first.
+ * <p>
+ * The text of a top-level value is produced only when it's read, so the input is never read beyond the end of the
+ * value, and other readers can go on reading the input after it.
+ */
+public class BinaryJsonReader extends JsonReader {
+
+    public BinaryJsonReader(DataInput in) {
+        super(new TextReader(in));
+        // the top-level values follow each other
+        setLenient(true);
+    }
+
+    /**
+     * Read the next top-level value as an object of the type, throw EOFException if there is no more value.
+     */
+    public <T> T next(Type type) throws IOException {
+        checkNotEnd();
+        return GsonUtils.GSON.fromJson(this, type);
+    }
+
+    /**
+     * Skip the next top-level value, throw EOFException if there is no more value.
+     */
+    @Override
+    public void skipValue() throws IOException {
+        checkNotEnd();
+        super.skipValue();
+    }
+
+    private void checkNotEnd() throws IOException {
+        if (peek() == JsonToken.END_DOCUMENT) {
+            throw new EOFException("no more binary json value");
+        }
+    }
+
+    private static class TextReader extends Reader {
+        private static final int ARRAY_FIRST = 0;
+        private static final int ARRAY_NEXT = 1;
+        private static final int OBJECT_FIRST = 2;
+        private static final int OBJECT_NEXT = 3;
+
+        private final DataInput in;
+        // names and strings referenced by index in the current top-level value
+        private final List<String> names = new ArrayList<>();
+        private final List<String> strings = new ArrayList<>();
+        // states of the arrays and objects being read, the innermost one is at the end
+        private int[] containers = new int[16];
+        private int depth = 0;
+        // the text of the last transcoded token which is not read yet
+        private final StringBuilder text = new StringBuilder();
+        private int textPos = 0;
+
+        TextReader(DataInput in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (textPos == text.length()) {
+                text.setLength(0);
+                textPos = 0;
+                if (!transcodeNextToken()) {
+                    return -1;
+                }
+            }
+            int n = Math.min(length, text.length() - textPos);
+            text.getChars(textPos, textPos + n, buffer, offset);
+            textPos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /**
+         * Transcode the next token of the binary to text, return false if there is no more top-level value.
+         */
+        private boolean transcodeNextToken() throws IOException {
+            if (depth == 0) {
+                int magic;
+                try {
+                    magic = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    return false;
+                }
+                if (magic != BinaryJson.MAGIC) {
+                    throw new IOException(String.format("invalid binary json magic: %x", magic));
+                }
+                int version = in.readUnsignedByte();
+                if (version > BinaryJson.VERSION) {
+                    throw new IOException(String.format("unsupported binary json version %d, current version is %d",
+                            version, BinaryJson.VERSION));
+                }
+                names.clear();
+                strings.clear();
+                transcodeValue(in.readUnsignedByte());
+            } else {
+                int state = containers[depth - 1];
+                if (state == ARRAY_FIRST || state == ARRAY_NEXT) {
+                    int tag = in.readUnsignedByte();
+                    if (tag == BinaryJson.END) {
+                        depth--;
+                        text.append(']');
+                    } else {
+                        containers[depth - 1] = ARRAY_NEXT;
+                        if (state == ARRAY_NEXT) {
+                            text.append(',');
+                        }
+                        transcodeValue(tag);
+                    }
+                } else {
+                    long header = readVarint();
+                    if (header == 0) {
+                        depth--;
+                        text.append('}');
+                    } else {
+                        containers[depth - 1] = OBJECT_NEXT;
+                        if (state == OBJECT_NEXT) {
+                            text.append(',');
+                        }
+                        appendString(readName(header));
+                        text.append(':');
+                        transcodeValue(in.readUnsignedByte());
+                    }
+                }
+            }
+            if (depth == 0) {
+                // ends a top-level number or literal without reading the next value
+                text.append('\n');
+            }
+            return true;
+        }
+
+        private void transcodeValue(int tag) throws IOException {
+            switch (tag) {
+                case BinaryJson.NULL:
+                    text.append("null");
+                    break;
+                case BinaryJson.TRUE:
+                    text.append("true");
+                    break;
+                case BinaryJson.FALSE:
+                    text.append("false");
+                    break;
+                case BinaryJson.LONG: {
+                    long value = readVarint();
+                    text.append((value >>> 1) ^ -(value & 1));
+                    break;
+                }
+                case BinaryJson.DOUBLE:
+                    // NaN and Infinity are accepted by the lenient json reader
+                    text.append(Double.longBitsToDouble(in.readLong()));
+                    break;
+                case BinaryJson.STRING: {
+                    byte[] bytes = readBytes();
+                    String value = new String(bytes, StandardCharsets.UTF_8);
+                    if (bytes.length <= BinaryJson.MAX_REF_LENGTH && strings.size() < BinaryJson.MAX_REFS) {
+                        strings.add(value);
+                    }
+                    appendString(value);
+                    break;
+                }
+                case BinaryJson.STRING_REF:
+                    appendString(strings.get((int) readVarint()));
+                    break;
+                case BinaryJson.NUMBER:
+                    text.append(new String(readBytes(), StandardCharsets.UTF_8));
+                    break;
+                case BinaryJson.ARRAY:
+                    pushContainer(ARRAY_FIRST);
+                    text.append('[');
+                    break;
+                case BinaryJson.OBJECT:
+                    pushContainer(OBJECT_FIRST);
+                    text.append('{');
+                    break;
+                default:
+                    throw new IOException("invalid binary json tag: " + tag);
+            }
+        }
+
+        private void pushContainer(int state) {
+            if (depth == containers.length) {
+                int[] newContainers = new int[depth * 2];
+                System.arraycopy(containers, 0, newContainers, 0, depth);
+                containers = newContainers;
+            }
+            containers[depth++] = state;
+        }
+
+        private String readName(long header) throws IOException {
+            if ((header & 1) == 0) {
+                return names.get((int) (header >>> 1) - 1);
+            }
+            byte[] bytes = new byte[(int) (header >>> 1)];
+            in.readFully(bytes);
+            String name = new String(bytes, StandardCharsets.UTF_8);
+            if (bytes.length <= BinaryJson.MAX_REF_LENGTH && names.size() < BinaryJson.MAX_REFS) {
+                names.add(name);
+            }
+            return name;
+        }
+
+        private void appendString(String value) {
+            text.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    text.append('\\').append(c);
+                } else if (c < 0x20) {
+                    text.append(String.format("\\u%04x", (int) c));
+                } else {
+                    text.append(c);
+                }
+            }
+            text.append('"');
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[(int) readVarint()];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("malformed varint");
+        }
+    }
+}
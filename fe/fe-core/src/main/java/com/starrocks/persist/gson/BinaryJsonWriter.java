@@ -0,0 +1,255 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist.gson;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link JsonWriter} which writes the {@link BinaryJson} encoding instead of json text, so the gson type
+ * adapters can write the meta in binary directly. Like JsonWriter, it's not thread safe.
+ */
+public class BinaryJsonWriter extends JsonWriter {
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private final OutputStream out;
+    // names and strings referenced by index in the current top-level value
+    private final Map<String, Integer> names = new HashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int depth = 0;
+    private String deferredName;
+
+    public BinaryJsonWriter(OutputStream out) {
+        super(UNWRITABLE_WRITER);
+        this.out = out;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write(BinaryJson.ARRAY);
+        depth++;
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        out.write(BinaryJson.END);
+        depth--;
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write(BinaryJson.OBJECT);
+        depth++;
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        if (deferredName != null) {
+            throw new IllegalStateException("Dangling name: " + deferredName);
+        }
+        writeVarint(0);
+        depth--;
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        if (deferredName != null || depth == 0) {
+            throw new IllegalStateException();
+        }
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        Integer index = strings.get(value);
+        if (index != null) {
+            out.write(BinaryJson.STRING_REF);
+            writeVarint(index);
+            return this;
+        }
+        out.write(BinaryJson.STRING);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeBytes(bytes);
+        if (bytes.length <= BinaryJson.MAX_REF_LENGTH && strings.size() < BinaryJson.MAX_REFS) {
+            strings.put(value, strings.size());
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null && !getSerializeNulls()) {
+            // skip the name and the null value, as JsonWriter does
+            deferredName = null;
+            return this;
+        }
+        beforeValue();
+        out.write(BinaryJson.NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? BinaryJson.TRUE : BinaryJson.FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        beforeValue();
+        out.write(BinaryJson.DOUBLE);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(BinaryJson.LONG);
+        writeVarint((value << 1) ^ (value >> 63));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong) {
+            return value(value.longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return value(value.doubleValue());
+        }
+        String text = value.toString();
+        if (!isLenient() && (text.equals("-Infinity") || text.equals("Infinity") || text.equals("NaN"))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        beforeValue();
+        out.write(BinaryJson.NUMBER);
+        writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (depth != 0) {
+            throw new IOException("Incomplete document");
+        }
+    }
+
+    private void beforeValue() throws IOException {
+        if (deferredName != null) {
+            writeName(deferredName);
+            deferredName = null;
+        } else if (depth == 0) {
+            names.clear();
+            strings.clear();
+            out.write(BinaryJson.MAGIC);
+            out.write(BinaryJson.VERSION);
+        }
+    }
+
+    private void writeName(String name) throws IOException {
+        Integer index = names.get(name);
+        if (index != null) {
+            writeVarint((index + 1L) << 1);
+            return;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        writeVarint(((long) bytes.length << 1) | 1);
+        out.write(bytes);
+        if (bytes.length <= BinaryJson.MAX_REF_LENGTH && names.size() < BinaryJson.MAX_REFS) {
+            names.put(name, names.size());
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -97,6 +97,11 @@ public class SRMetaBlockID {
 
     public static final SRMetaBlockID PIPE_MGR = new SRMetaBlockID(32);
 
+    /**
+     * The footer of image v2, see {@link com.starrocks.persist.ImageFooter}
+     */
+    public static final SRMetaBlockID IMAGE_FOOTER = new SRMetaBlockID(33);
+
     /**
      * NOTICE: SRMetaBlockID cannot use a value exceeding 20000, please follow the above sequence number
      */
@@ -20,6 +20,7 @@ import com.google.gson.internal.Primitives;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.starrocks.common.Config;
+import com.starrocks.persist.gson.BinaryJsonReader;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.persist.gson.SubtypeNotFoundException;
 import org.apache.logging.log4j.LogManager;
@@ -44,21 +45,32 @@ import java.lang.reflect.Type;
  * |     Json 10      |
  * +------------------+
  *
- * The format of json is json str, starting with "{" and ending with "}
+ * The format of json is json str, starting with "{" and ending with "}",
+ * or the binary encoding of {@link com.starrocks.persist.gson.BinaryJson} if it's read by {@link BinaryJsonReader}.
  *
  */
 public class SRMetaBlockReaderV2 implements SRMetaBlockReader {
     private static final Logger LOG = LogManager.getLogger(SRMetaBlockReaderV1.class);
 
     private final JsonReader jsonReader;
+    private final BinaryJsonReader binaryJsonReader;
     private int numJsonRead;
     private SRMetaBlockHeader header;
 
     public SRMetaBlockReaderV2(JsonReader jsonReader) throws IOException {
+        this(jsonReader, null);
+    }
+
+    public SRMetaBlockReaderV2(BinaryJsonReader binaryJsonReader) throws IOException {
+        this(null, binaryJsonReader);
+    }
+
+    private SRMetaBlockReaderV2(JsonReader jsonReader, BinaryJsonReader binaryJsonReader) throws IOException {
         this.numJsonRead = 0;
         this.jsonReader = jsonReader;
+        this.binaryJsonReader = binaryJsonReader;
         try {
-            header = GsonUtils.GSON.fromJson(jsonReader, SRMetaBlockHeader.class);
+            header = fromJson(SRMetaBlockHeader.class);
         } catch (JsonSyntaxException e) {
             handleJsonSyntaxException(e);
         }
@@ -127,7 +139,7 @@ public class SRMetaBlockReaderV2 implements SRMetaBlockReader {
     public <T> T readJson(Type returnType) throws IOException, SRMetaBlockEOFException {
         checkEOF();
         try {
-            T t = GsonUtils.GSON.fromJson(jsonReader, returnType);
+            T t = fromJson(returnType);
             numJsonRead++;
             return t;
         } catch (JsonSyntaxException e) {
@@ -156,7 +168,7 @@ public class SRMetaBlockReaderV2 implements SRMetaBlockReader {
         while (size-- > 0) {
             T t = null;
             try {
-                t = GsonUtils.GSON.fromJson(jsonReader, classType);
+                t = fromJson(classType);
                 numJsonRead++;
                 action.accept(t);
             } catch (SubtypeNotFoundException e) {
@@ -211,53 +223,51 @@ public class SRMetaBlockReaderV2 implements SRMetaBlockReader {
         }
     }
 
-    private <T> T readMapElement(Type typeOfT) {
+    private <T> T fromJson(Type typeOfT) throws IOException {
+        if (binaryJsonReader != null) {
+            return binaryJsonReader.next(typeOfT);
+        }
+        return GsonUtils.GSON.fromJson(jsonReader, typeOfT);
+    }
+
+    private <T> T readMapElement(Type typeOfT) throws IOException {
         if (typeOfT == byte.class || typeOfT == Byte.class) {
-            PrimitiveObject<Byte> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Byte>>() {}.getType());
+            PrimitiveObject<Byte> object = fromJson(new TypeToken<PrimitiveObject<Byte>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == short.class || typeOfT == Short.class) {
-            PrimitiveObject<Short> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Short>>() {}.getType());
+            PrimitiveObject<Short> object = fromJson(new TypeToken<PrimitiveObject<Short>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == int.class || typeOfT == Integer.class) {
-            PrimitiveObject<Integer> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Integer>>() {}.getType());
+            PrimitiveObject<Integer> object = fromJson(new TypeToken<PrimitiveObject<Integer>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == Long.class || typeOfT == long.class) {
-            PrimitiveObject<Long> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Long>>() {}.getType());
+            PrimitiveObject<Long> object = fromJson(new TypeToken<PrimitiveObject<Long>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == Double.class || typeOfT == double.class) {
-            PrimitiveObject<Double> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Double>>() {}.getType());
+            PrimitiveObject<Double> object = fromJson(new TypeToken<PrimitiveObject<Double>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == Float.class || typeOfT == float.class) {
-            PrimitiveObject<Float> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Float>>() {}.getType());
+            PrimitiveObject<Float> object = fromJson(new TypeToken<PrimitiveObject<Float>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == Character.class || typeOfT == char.class) {
-            PrimitiveObject<Character> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Character>>() {}.getType());
+            PrimitiveObject<Character> object = fromJson(new TypeToken<PrimitiveObject<Character>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == Boolean.class || typeOfT == boolean.class) {
-            PrimitiveObject<Boolean> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<Boolean>>() {}.getType());
+            PrimitiveObject<Boolean> object = fromJson(new TypeToken<PrimitiveObject<Boolean>>() {}.getType());
             return (T) object.getValue();
         }
         if (typeOfT == String.class) {
-            PrimitiveObject<String> object = GsonUtils.GSON.fromJson(jsonReader,
-                    new TypeToken<PrimitiveObject<String>>() {}.getType());
+            PrimitiveObject<String> object = fromJson(new TypeToken<PrimitiveObject<String>>() {}.getType());
             return (T) object.getValue();
         }
-        return GsonUtils.GSON.fromJson(jsonReader, typeOfT);
+        return fromJson(typeOfT);
     }
 
     @Override
@@ -268,16 +278,22 @@ public class SRMetaBlockReaderV2 implements SRMetaBlockReader {
             int rest = header.getNumJson() - numJsonRead;
             LOG.warn("Meta block for {} read {} json < total {} json, will skip the rest {} json",
                     header.getSrMetaBlockID(), numJsonRead, header.getNumJson(), rest);
-            jsonReader.setLenient(true);
+            if (jsonReader != null) {
+                jsonReader.setLenient(true);
+            }
             for (int i = 0; i != rest; ++i) {
-                jsonReader.skipValue();
+                if (binaryJsonReader != null) {
+                    binaryJsonReader.skipValue();
+                } else {
+                    jsonReader.skipValue();
+                }
                 LOG.warn("skip {}th json", i);
             }
         }
     }
 
     private void handleJsonSyntaxException(JsonSyntaxException e) throws IOException, JsonSyntaxException {
-        if (jsonReader.peek() == JsonToken.END_DOCUMENT) {
+        if (jsonReader != null && jsonReader.peek() == JsonToken.END_DOCUMENT) {
             throw new EOFException(e.getMessage());
         } else {
             throw e;
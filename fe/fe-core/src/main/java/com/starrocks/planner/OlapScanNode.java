@@ -380,18 +380,18 @@ public class OlapScanNode extends ScanNode {
 
     private List<Long> partitionPrune(RangePartitionInfo partitionInfo, PartitionNames partitionNames)
             throws AnalysisException {
-        Map<Long, Range<PartitionKey>> keyRangeById = null;
-        if (partitionNames != null) {
-            keyRangeById = Maps.newHashMap();
-            for (String partName : partitionNames.getPartitionNames()) {
-                Partition part = olapTable.getPartition(partName, partitionNames.isTemp());
-                if (part == null) {
-                    ErrorReport.reportAnalysisException(ErrorCode.ERR_NO_SUCH_PARTITION, partName);
-                }
-                keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
+        if (partitionNames == null) {
+            return new RangePartitionPruner(partitionInfo.getRangeIndex(),
+                    partitionInfo.getPartitionColumns(olapTable.getIdToColumn()),
+                    columnFilters).prune();
+        }
+        Map<Long, Range<PartitionKey>> keyRangeById = Maps.newHashMap();
+        for (String partName : partitionNames.getPartitionNames()) {
+            Partition part = olapTable.getPartition(partName, partitionNames.isTemp());
+            if (part == null) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_NO_SUCH_PARTITION, partName);
             }
-        } else {
-            keyRangeById = partitionInfo.getIdToRange(false);
+            keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
         }
         PartitionPruner partitionPruner = new RangePartitionPruner(
                 keyRangeById,
@@ -62,6 +62,8 @@ public class RangePartitionPruner implements PartitionPruner {
     private static final Logger LOG = LogManager.getLogger(RangePartitionPruner.class);
 
     private Map<Long, Range<PartitionKey>> partitionRangeMap;
+    // prebuilt sorted ranges of partitions, see RangePartitionInfo#getRangeIndex
+    private RangeMap<PartitionKey, Long> partitionRangeIndex;
     private List<Column> partitionColumns;
     private Map<String, PartitionColumnFilter> partitionColumnFilters;
 
@@ -73,6 +75,14 @@ public class RangePartitionPruner implements PartitionPruner {
         partitionColumnFilters = filters;
     }
 
+    public RangePartitionPruner(RangeMap<PartitionKey, Long> rangeIndex,
+                                List<Column> columns,
+                                Map<String, PartitionColumnFilter> filters) {
+        partitionRangeIndex = rangeIndex;
+        partitionColumns = columns;
+        partitionColumnFilters = filters;
+    }
+
     private List<Long> prune(RangeMap<PartitionKey, Long> rangeMap,
                              int columnIdx,
                              PartitionKey minKey,
@@ -219,10 +229,13 @@ public class RangePartitionPruner implements PartitionPruner {
     public List<Long> prune() throws AnalysisException {
         PartitionKey minKey = new PartitionKey();
         PartitionKey maxKey = new PartitionKey();
-        // Map to RangeMapTree
-        RangeMap<PartitionKey, Long> rangeMap = TreeRangeMap.create();
-        for (Map.Entry<Long, Range<PartitionKey>> entry : partitionRangeMap.entrySet()) {
-            rangeMap.put(entry.getValue(), entry.getKey());
+        RangeMap<PartitionKey, Long> rangeMap = partitionRangeIndex;
+        if (rangeMap == null) {
+            // Map to RangeMapTree
+            rangeMap = TreeRangeMap.create();
+            for (Map.Entry<Long, Range<PartitionKey>> entry : partitionRangeMap.entrySet()) {
+                rangeMap.put(entry.getValue(), entry.getKey());
+            }
         }
         return prune(rangeMap, 0, minKey, maxKey, 1);
     }
@@ -118,6 +118,10 @@ public class ConnectContext {
     // such as Insert, export requests
     protected UUID lastQueryId;
 
+    // The max journal id returned by leader for the forwarded statements, which covers all the writes of this session.
+    // In read-your-writes mode, a follower must replay up to it before answering the read-only statements.
+    protected volatile long lastSeenJournalId = 0;
+
     // The queryId is used to track a user's request. A user request will only have one queryId
     // in the entire StarRocks system. in some scenarios, a user request may be forwarded to multiple
     // nodes for processing or be processed repeatedly, but each execution instance will have
@@ -722,6 +726,14 @@ public class ConnectContext {
         this.lastQueryId = queryId;
     }
 
+    public long getLastSeenJournalId() {
+        return lastSeenJournalId;
+    }
+
+    public void updateLastSeenJournalId(long journalId) {
+        this.lastSeenJournalId = Math.max(lastSeenJournalId, journalId);
+    }
+
     public String getCustomQueryId() {
         return sessionVariable != null ? sessionVariable.getCustomQueryId() : "";
     }
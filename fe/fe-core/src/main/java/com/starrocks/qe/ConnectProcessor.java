@@ -886,22 +886,27 @@ public class ConnectProcessor {
         // reset sequence id of MySQL protocol
         final MysqlChannel channel = ctx.getMysqlChannel();
         channel.setSequenceId(0);
-        // read packet from channel
         try {
-            packetBuf = channel.fetchOnePacket();
-            if (packetBuf == null) {
-                throw new RpcException(ctx.getRemoteIP(), "Error happened when receiving packet.");
+            // read packet from channel
+            try {
+                packetBuf = channel.fetchOnePacket();
+                if (packetBuf == null) {
+                    throw new RpcException(ctx.getRemoteIP(), "Error happened when receiving packet.");
+                }
+            } catch (AsynchronousCloseException e) {
+                // when this happened, timeout checker close this channel
+                // killed flag in ctx has been already set, just return
+                return;
             }
-        } catch (AsynchronousCloseException e) {
-            // when this happened, timeout checker close this channel
-            // killed flag in ctx has been already set, just return
-            return;
-        }
 
-        // dispatch
-        dispatch();
-        // finalize
-        finalizeCommand();
+            // dispatch
+            dispatch();
+            // finalize
+            finalizeCommand();
+        } finally {
+            packetBuf = null;
+            channel.releaseBuffers();
+        }
 
         ctx.setCommand(MysqlCommand.COM_SLEEP);
     }
@@ -35,6 +35,7 @@
 package com.starrocks.qe;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.common.Config;
@@ -42,16 +43,20 @@ import com.starrocks.common.Pair;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.util.LogUtil;
 import com.starrocks.http.HttpConnectContext;
+import com.starrocks.memory.MemoryTrackable;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.NegotiateState;
+import com.starrocks.mysql.ReadBufferPool;
+import com.starrocks.mysql.SendBufferPool;
 import com.starrocks.mysql.nio.NConnectContext;
 import com.starrocks.privilege.AccessDeniedException;
 import com.starrocks.privilege.PrivilegeType;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.sql.analyzer.Authorizer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -62,24 +67,36 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class ConnectScheduler {
+public class ConnectScheduler implements MemoryTrackable {
     private static final Logger LOG = LogManager.getLogger(ConnectScheduler.class);
+    // must be a power of 2
+    private static final int CONNECTION_SHARD_NUM = 64;
+    private static final int MEMORY_SAMPLE_NUM = 20;
+
     private final AtomicInteger maxConnections;
     private final AtomicInteger numberConnection;
     private final AtomicInteger nextConnectionId;
 
-    private final Map<Long, ConnectContext> connectionMap = Maps.newConcurrentMap();
+    // Connections are sharded by connection id. The connection limits are checked by atomic counters instead of
+    // a global lock, so registering and unregistering connections only contend within a shard, and iterating the
+    // connections (timeout checking, show processlist) doesn't block them.
+    private final Map<Long, ConnectContext>[] connectionShards;
     private final Map<String, AtomicInteger> connCountByUser = Maps.newConcurrentMap();
-    private final ReentrantLock connStatsLock = new ReentrantLock();
     private final ExecutorService executor = ThreadPoolManager
             .newDaemonCacheThreadPool(Config.max_connection_scheduler_threads_num, "connect-scheduler-pool", true);
 
+    @SuppressWarnings("unchecked")
     public ConnectScheduler(int maxConnections) {
         this.maxConnections = new AtomicInteger(maxConnections);
         numberConnection = new AtomicInteger(0);
         nextConnectionId = new AtomicInteger(0);
+        connectionShards = new Map[CONNECTION_SHARD_NUM];
+        for (int i = 0; i < CONNECTION_SHARD_NUM; i++) {
+            connectionShards[i] = Maps.newConcurrentMap();
+        }
         // Use a thread to check whether connection is timeout. Because
         // 1. If use a scheduler, the task maybe a huge number when query is messy.
         //    Let timeout is 10m, and 5000 qps, then there are up to 3000000 tasks in scheduler.
@@ -94,14 +111,10 @@ public class ConnectScheduler {
         public void run() {
             try {
                 long now = System.currentTimeMillis();
-                synchronized (ConnectScheduler.this) {
-                    //Because unregisterConnection will be callback in NMysqlChannel's close,
-                    //unregisterConnection will remove connectionMap (in the same thread)
-                    //This will result in a concurrentModifyException.
-                    //So here we copied the connectionIds to avoid removing iterator during operate iterator
-                    ArrayList<Long> connectionIds = new ArrayList<>(connectionMap.keySet());
-                    for (Long connectId : connectionIds) {
-                        ConnectContext connectContext = connectionMap.get(connectId);
+                // unregisterConnection may be called back in NMysqlChannel's close in the same thread,
+                // which is fine because the iterators of the shards are weakly consistent.
+                for (Map<Long, ConnectContext> shard : connectionShards) {
+                    for (ConnectContext connectContext : shard.values()) {
                         connectContext.checkTimeout(now);
                     }
                 }
@@ -122,8 +135,9 @@ public class ConnectScheduler {
 
         context.setConnectionId(nextConnectionId.getAndAdd(1));
         context.resetConnectionStartTime();
-        // no necessary for nio or Http.
-        if (context instanceof NConnectContext || context instanceof HttpConnectContext) {
+        // no necessary for nio, Http or Arrow Flight SQL.
+        if (context instanceof NConnectContext || context instanceof HttpConnectContext
+                || context instanceof ArrowFlightSqlConnectContext) {
             return true;
         }
         if (executor.submit(new LoopHandler(context)) == null) {
@@ -140,68 +154,84 @@ public class ConnectScheduler {
      * @return a pair, first is success or not, second is error message(if any)
      */
     public Pair<Boolean, String> registerConnection(ConnectContext ctx) {
-        try {
-            connStatsLock.lock();
-            if (numberConnection.get() >= maxConnections.get()) {
-                return new Pair<>(false, "Reach cluster-wide connection limit, qe_max_connection=" + maxConnections +
-                        ", connectionMap.size=" + connectionMap.size() +
-                        ", node=" + ctx.getGlobalStateMgr().getNodeMgr().getSelfNode());
+        if (!tryIncrease(numberConnection, maxConnections.get())) {
+            return new Pair<>(false, "Reach cluster-wide connection limit, qe_max_connection=" + maxConnections +
+                    ", connectionMap.size=" + getConnectionMapSize() +
+                    ", node=" + ctx.getGlobalStateMgr().getNodeMgr().getSelfNode());
+        }
+        // Check user
+        AtomicInteger currentConnAtomic =
+                connCountByUser.computeIfAbsent(ctx.getQualifiedUser(), k -> new AtomicInteger(0));
+        long currentUserMaxConn = ctx.getGlobalStateMgr().getAuthenticationMgr().getMaxConn(ctx.getCurrentUserIdentity());
+        if (!tryIncrease(currentConnAtomic, currentUserMaxConn)) {
+            numberConnection.decrementAndGet();
+            String userErrMsg = "Reach user-level(qualifiedUser: " + ctx.getQualifiedUser() +
+                    ", currUserIdentity: " + ctx.getCurrentUserIdentity() + ") connection limit, " +
+                    "currentUserMaxConn=" + currentUserMaxConn + ", connectionMap.size=" + getConnectionMapSize() +
+                    ", connByUser.totConn=" + connCountByUser.values().stream().mapToInt(AtomicInteger::get).sum() +
+                    ", user.currConn=" + currentConnAtomic.get() +
+                    ", node=" + ctx.getGlobalStateMgr().getNodeMgr().getSelfNode();
+            LOG.info(userErrMsg + ", details: connectionId={}, connByUser={}",
+                    ctx.getConnectionId(), connCountByUser);
+            return new Pair<>(false, userErrMsg);
+        }
+        getConnectionShard(ctx.getConnectionId()).put((long) ctx.getConnectionId(), ctx);
+        return new Pair<>(true, null);
+    }
+
+    /**
+     * Increase the counter by 1 if it's less than the limit.
+     */
+    private static boolean tryIncrease(AtomicInteger counter, long limit) {
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) {
+                return false;
             }
-            // Check user
-            connCountByUser.computeIfAbsent(ctx.getQualifiedUser(), k -> new AtomicInteger(0));
-            AtomicInteger currentConnAtomic = connCountByUser.get(ctx.getQualifiedUser());
-            int currentConn = currentConnAtomic.get();
-            long currentUserMaxConn = ctx.getGlobalStateMgr().getAuthenticationMgr().getMaxConn(ctx.getCurrentUserIdentity());
-            if (currentConn >= currentUserMaxConn) {
-                String userErrMsg = "Reach user-level(qualifiedUser: " + ctx.getQualifiedUser() +
-                        ", currUserIdentity: " + ctx.getCurrentUserIdentity() + ") connection limit, " +
-                        "currentUserMaxConn=" + currentUserMaxConn + ", connectionMap.size=" + connectionMap.size() +
-                        ", connByUser.totConn=" + connCountByUser.values().stream().mapToInt(AtomicInteger::get).sum() +
-                        ", user.currConn=" + currentConn +
-                        ", node=" + ctx.getGlobalStateMgr().getNodeMgr().getSelfNode();
-                LOG.info(userErrMsg + ", details: connectionId={}, connByUser={}",
-                        ctx.getConnectionId(), connCountByUser);
-                return new Pair<>(false, userErrMsg);
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
             }
-            numberConnection.incrementAndGet();
-            currentConnAtomic.incrementAndGet();
-            connectionMap.put((long) ctx.getConnectionId(), ctx);
-            return new Pair<>(true, null);
-        } finally {
-            connStatsLock.unlock();
         }
     }
 
     public void unregisterConnection(ConnectContext ctx) {
-        boolean removed;
-        try {
-            connStatsLock.lock();
-            removed = connectionMap.remove((long) ctx.getConnectionId()) != null;
-            if (removed) {
-                numberConnection.decrementAndGet();
-                AtomicInteger conns = connCountByUser.get(ctx.getQualifiedUser());
-                if (conns != null) {
-                    conns.decrementAndGet();
-                }
-                LOG.info("Connection closed. remote={}, connectionId={}, qualifiedUser={}, user.currConn={}",
-                        ctx.getMysqlChannel().getRemoteHostPortString(), ctx.getConnectionId(),
-                        ctx.getQualifiedUser(), conns != null ? Integer.toString(conns.get()) : "nil");
+        boolean removed = getConnectionShard(ctx.getConnectionId()).remove((long) ctx.getConnectionId()) != null;
+        if (removed) {
+            numberConnection.decrementAndGet();
+            AtomicInteger conns = connCountByUser.get(ctx.getQualifiedUser());
+            if (conns != null) {
+                conns.decrementAndGet();
             }
-        } finally {
-            connStatsLock.unlock();
+            LOG.info("Connection closed. remote={}, connectionId={}, qualifiedUser={}, user.currConn={}",
+                    ctx.getMysqlChannel().getRemoteHostPortString(), ctx.getConnectionId(),
+                    ctx.getQualifiedUser(), conns != null ? Integer.toString(conns.get()) : "nil");
+            ctx.cleanTemporaryTable();
         }
+    }
 
-        if (removed) {
-            ctx.cleanTemporaryTable();
+    private Map<Long, ConnectContext> getConnectionShard(long connectionId) {
+        // connection ids are allocated in sequence, so the low bits spread them evenly
+        return connectionShards[(int) (connectionId & (CONNECTION_SHARD_NUM - 1))];
+    }
+
+    private int getConnectionMapSize() {
+        int size = 0;
+        for (Map<Long, ConnectContext> shard : connectionShards) {
+            size += shard.size();
         }
+        return size;
+    }
+
+    private Stream<ConnectContext> allConnections() {
+        return Arrays.stream(connectionShards).flatMap(shard -> shard.values().stream());
     }
 
     public ConnectContext getContext(long connectionId) {
-        return connectionMap.get(connectionId);
+        return getConnectionShard(connectionId).get(connectionId);
     }
 
     public ConnectContext findContextByQueryId(String queryId) {
-        return connectionMap.values().stream().filter(
+        return allConnections().filter(
                         (Predicate<ConnectContext>) c ->
                                 c.getQueryId() != null
                                 && queryId.equals(c.getQueryId().toString())
@@ -210,7 +240,7 @@ public class ConnectScheduler {
     }
 
     public ConnectContext findContextByCustomQueryId(String customQueryId) {
-        return connectionMap.values().stream().filter(
+        return allConnections().filter(
                 (Predicate<ConnectContext>) c -> customQueryId.equals(c.getCustomQueryId())).findFirst().orElse(null);
     }
 
@@ -227,24 +257,34 @@ public class ConnectScheduler {
                                                                        String forUser) {
         List<ConnectContext.ThreadInfo> infos = Lists.newArrayList();
         ConnectContext currContext = connectContext == null ? ConnectContext.get() : connectContext;
+        // checked once at the first connection of the other users
+        Boolean canOperate = null;
 
-        for (ConnectContext ctx : connectionMap.values()) {
-            // Check authorization first.
-            if (!ctx.getQualifiedUser().equals(currUser)) {
-                try {
-                    Authorizer.checkSystemAction(currContext.getCurrentUserIdentity(),
-                            currContext.getCurrentRoleIds(), PrivilegeType.OPERATE);
-                } catch (AccessDeniedException e) {
+        for (Map<Long, ConnectContext> shard : connectionShards) {
+            for (ConnectContext ctx : shard.values()) {
+                // Check authorization first.
+                if (!ctx.getQualifiedUser().equals(currUser)) {
+                    if (canOperate == null) {
+                        try {
+                            Authorizer.checkSystemAction(currContext.getCurrentUserIdentity(),
+                                    currContext.getCurrentRoleIds(), PrivilegeType.OPERATE);
+                            canOperate = true;
+                        } catch (AccessDeniedException e) {
+                            canOperate = false;
+                        }
+                    }
+                    if (!canOperate) {
+                        continue;
+                    }
+                }
+
+                // Check whether it's the connection for the specified user.
+                if (forUser != null && !ctx.getQualifiedUser().equals(forUser)) {
                     continue;
                 }
-            }
 
-            // Check whether it's the connection for the specified user.
-            if (forUser != null && !ctx.getQualifiedUser().equals(forUser)) {
-                continue;
+                infos.add(ctx.toThreadInfo());
             }
-
-            infos.add(ctx.toThreadInfo());
         }
         return infos;
     }
@@ -259,10 +299,43 @@ public class ConnectScheduler {
 
     public Set<UUID> listAllSessionsId() {
         Set<UUID> sessionIds = new HashSet<>();
-        connectionMap.values().forEach(ctx -> sessionIds.add(ctx.getSessionId()));
+        allConnections().forEach(ctx -> sessionIds.add(ctx.getSessionId()));
         return sessionIds;
     }
 
+    /**
+     * The heap memory of the connections, including the session variables and the buffers they hold,
+     * and the idle buffers pooled for them.
+     */
+    @Override
+    public long estimateSize() {
+        long bufferSize = (long) ReadBufferPool.getInstance().getIdleBufferNum() *
+                ReadBufferPool.getInstance().getBufferSize();
+        for (Map<Long, ConnectContext> shard : connectionShards) {
+            for (ConnectContext ctx : shard.values()) {
+                bufferSize += ctx.getMysqlChannel().estimateHeapBufferSize();
+            }
+        }
+        return MemoryTrackable.super.estimateSize() + bufferSize;
+    }
+
+    @Override
+    public Map<String, Long> estimateCount() {
+        return ImmutableMap.of("Connection", (long) getConnectionNum(),
+                "ReadBuffer", (long) ReadBufferPool.getInstance().getBorrowedBufferNum(),
+                "DirectSendBuffer", (long) SendBufferPool.getInstance().getAllocatedBufferNum());
+    }
+
+    @Override
+    public List<Pair<List<Object>, Long>> getSamples() {
+        // ConnectContext refers to GlobalStateMgr, so only the session variables are sampled.
+        List<Object> samples = allConnections()
+                .limit(MEMORY_SAMPLE_NUM)
+                .map(ConnectContext::getSessionVariable)
+                .collect(Collectors.toList());
+        return Lists.newArrayList(Pair.create(samples, (long) getConnectionNum()));
+    }
+
     private class LoopHandler implements Runnable {
         ConnectContext context;
 
@@ -293,6 +366,7 @@ public class ConnectScheduler {
                         return;
                     }
                 } finally {
+                    context.getMysqlChannel().releaseBuffers();
                     // Ignore the NegotiateState.READ_FIRST_AUTH_PKG_FAILED connections,
                     // because this maybe caused by port probe.
                     if (result != null && result.getState() != NegotiateState.READ_FIRST_AUTH_PKG_FAILED) {
@@ -66,9 +66,11 @@ import com.starrocks.planner.StreamLoadPlanner;
 import com.starrocks.privilege.PrivilegeBuiltinConstants;
 import com.starrocks.proto.PPlanFragmentCancelReason;
 import com.starrocks.proto.PQueryStatistics;
+import com.starrocks.qe.scheduler.AdaptiveWorkerSelector;
 import com.starrocks.qe.scheduler.Coordinator;
 import com.starrocks.qe.scheduler.Deployer;
 import com.starrocks.qe.scheduler.QueryRuntimeProfile;
+import com.starrocks.qe.scheduler.StragglerDetector;
 import com.starrocks.qe.scheduler.dag.AllAtOnceExecutionSchedule;
 import com.starrocks.qe.scheduler.dag.ExecutionDAG;
 import com.starrocks.qe.scheduler.dag.ExecutionFragment;
@@ -144,6 +146,7 @@ public class DefaultCoordinator extends Coordinator {
     private PQueryStatistics auditStatistics;
 
     private final QueryRuntimeProfile queryProfile;
+    private final StragglerDetector stragglerDetector = new StragglerDetector();
 
     private ResultReceiver receiver;
     private int numReceivedRows = 0;
@@ -1072,11 +1075,49 @@ public class DefaultCoordinator extends Coordinator {
             }
 
             queryProfile.finishInstance(params.getFragment_instance_id());
+            if (status.ok()) {
+                stragglerDetector.onInstanceFinished(execState, System.currentTimeMillis());
+            }
+        }
+
+        if (Config.enable_straggler_instance_detection) {
+            detectStragglers();
         }
 
         updateJobProgress(params);
     }
 
+    private void detectStragglers() {
+        long nowMs = System.currentTimeMillis();
+        List<FragmentInstanceExecState> stragglers = stragglerDetector.detect(executionDAG.getExecutions(), nowMs);
+        if (stragglers.isEmpty()) {
+            return;
+        }
+
+        List<String> descriptions = Lists.newArrayList();
+        for (FragmentInstanceExecState straggler : stragglers) {
+            long runningTimeMs = nowMs - straggler.getDeployStartTimeMs();
+            // Penalize the worker now, instead of when the straggler finishes.
+            long medianMs = stragglerDetector.getMedianExecTimeMs(straggler.getFragmentId());
+            if (medianMs > 0) {
+                AdaptiveWorkerSelector.getInstance().recordRelativeExecTime(straggler.getWorker().getId(),
+                        (double) runningTimeMs / medianMs);
+            }
+            descriptions.add(String.format("%s(host=%s, running=%dms)", DebugUtil.printId(straggler.getInstanceId()),
+                    straggler.getAddress().getHostname(), runningTimeMs));
+        }
+        LOG.warn("detect straggler instances of query {}: {}", DebugUtil.printId(jobSpec.getQueryId()), descriptions);
+
+        RuntimeProfile profile = queryProfile.getQueryProfile();
+        synchronized (profile) {
+            String previous = profile.getInfoString("StragglerInstances");
+            if (previous != null) {
+                descriptions.add(0, previous);
+            }
+            profile.addInfoString("StragglerInstances", String.join(",", descriptions));
+        }
+    }
+
     @Override
     public synchronized void updateAuditStatistics(TReportAuditStatisticsParams params) {
         PQueryStatistics newAuditStatistics = AuditStatisticsUtil.toProtobuf(params.audit_statistics);
@@ -38,6 +38,7 @@ import com.starrocks.planner.IcebergScanNode;
 import com.starrocks.planner.OdpsScanNode;
 import com.starrocks.planner.PaimonScanNode;
 import com.starrocks.planner.ScanNode;
+import com.starrocks.qe.scheduler.AdaptiveWorkerSelector;
 import com.starrocks.qe.scheduler.NonRecoverableException;
 import com.starrocks.qe.scheduler.WorkerProvider;
 import com.starrocks.sql.plan.HDFSScanNodePredicates;
@@ -175,6 +176,9 @@ public class HDFSBackendSelector implements BackendSelector {
                 getHdfsBackendSelectorForceRebalance() : false;
         boolean enableDataCache = ConnectContext.get() != null ? ConnectContext.get().getSessionVariable().
                 isEnableScanDataCache() : false;
+        if (AdaptiveWorkerSelector.isEnabled()) {
+            backends = skipStragglers(backends);
+        }
         // If force-rebalancing is not specified and cache is used, skip the rebalancing directly.
         if (!forceReBalance && enableDataCache) {
             return backends.get(0);
@@ -195,6 +199,26 @@ public class HDFSBackendSelector implements BackendSelector {
         return node;
     }
 
+    // Move the stragglers to the end of the candidates, so that they are chosen only if the others are overloaded.
+    // The order of the other candidates is kept for the cache affinity.
+    private static List<ComputeNode> skipStragglers(List<ComputeNode> backends) {
+        boolean[] isStraggler = AdaptiveWorkerSelector.getInstance().findStragglers(backends);
+        List<ComputeNode> healthy = new ArrayList<>(backends.size());
+        List<ComputeNode> stragglers = new ArrayList<>();
+        for (int i = 0; i < backends.size(); i++) {
+            if (isStraggler[i]) {
+                stragglers.add(backends.get(i));
+            } else {
+                healthy.add(backends.get(i));
+            }
+        }
+        if (stragglers.isEmpty() || healthy.isEmpty()) {
+            return backends;
+        }
+        healthy.addAll(stragglers);
+        return healthy;
+    }
+
     class ComputeNodeFunnel implements Funnel<ComputeNode> {
         @Override
         public void funnel(ComputeNode computeNode, PrimitiveSink primitiveSink) {
@@ -113,6 +113,7 @@ public class LeaderOpExecutor {
     public void execute() throws Exception {
         forward();
         LOG.info("forwarding to master get result max journal id: {}", result.maxJournalId);
+        ctx.updateLastSeenJournalId(result.maxJournalId);
         ctx.getGlobalStateMgr().getJournalObservable().waitOn(result.maxJournalId, waitTimeoutMs);
 
         if (result.state != null) {
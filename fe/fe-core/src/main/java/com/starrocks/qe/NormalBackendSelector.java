@@ -19,7 +19,9 @@ import com.google.common.collect.Maps;
 import com.starrocks.common.Config;
 import com.starrocks.common.UserException;
 import com.starrocks.planner.ScanNode;
+import com.starrocks.qe.scheduler.AdaptiveWorkerSelector;
 import com.starrocks.qe.scheduler.WorkerProvider;
+import com.starrocks.system.ComputeNode;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TScanRangeLocation;
 import com.starrocks.thrift.TScanRangeLocations;
@@ -30,6 +32,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NormalBackendSelector implements BackendSelector {
     private static final Logger LOG = LogManager.getLogger(NormalBackendSelector.class);
@@ -75,6 +78,7 @@ public class NormalBackendSelector implements BackendSelector {
             // assign this scan range to the host w/ the fewest assigned row count
             Long minRowCount = Long.MAX_VALUE;
             TScanRangeLocation minLocation = null;
+            List<TScanRangeLocation> availableLocations = new ArrayList<>();
             List<TScanRangeLocation> backupLocations = new ArrayList<>();
 
             for (final TScanRangeLocation location : scanRangeLocations.getLocations()) {
@@ -93,6 +97,7 @@ public class NormalBackendSelector implements BackendSelector {
                     continue;
                 }
 
+                availableLocations.add(location);
                 Long assignedBytes = assignedRowCountPerHost.getOrDefault(location.server, 0L);
                 if (assignedBytes < minRowCount) {
                     minRowCount = assignedBytes;
@@ -102,6 +107,7 @@ public class NormalBackendSelector implements BackendSelector {
 
             // give a try of the backupLocations if minLocation is null
             if (minLocation == null && !backupLocations.isEmpty()) {
+                availableLocations = backupLocations;
                 for (TScanRangeLocation location : backupLocations) {
                     Long assignedBytes = assignedRowCountPerHost.getOrDefault(location.server, 0L);
                     if (assignedBytes < minRowCount) {
@@ -117,6 +123,11 @@ public class NormalBackendSelector implements BackendSelector {
             }
             Preconditions.checkNotNull(minLocation);
 
+            if (AdaptiveWorkerSelector.isEnabled() && availableLocations.size() > 1) {
+                minLocation = selectAdaptively(availableLocations, assignedRowCountPerHost);
+                minRowCount = assignedRowCountPerHost.getOrDefault(minLocation.server, 0L);
+            }
+
             // only enable for load now, The insert into select performance problem caused by data skew is the most serious
             long curRowCount;
             if (isEnableScheduleByRowCnt(scanRangeLocations)) {
@@ -135,4 +146,19 @@ public class NormalBackendSelector implements BackendSelector {
             LOG.debug("assignedRowCountPerHost: {}", assignedRowCountPerHost);
         }
     }
+
+    /**
+     * Choose the replica by both the assigned row count and the recent health of the workers,
+     * so that a slow worker gets less scan ranges than the others.
+     */
+    private TScanRangeLocation selectAdaptively(List<TScanRangeLocation> candidates,
+                                                Map<TNetworkAddress, Long> assignedRowCountPerHost) {
+        List<ComputeNode> workers = new ArrayList<>(candidates.size());
+        for (TScanRangeLocation location : candidates) {
+            workers.add(workerProvider.getWorkerById(location.getBackend_id()));
+        }
+        int index = AdaptiveWorkerSelector.getInstance().select(workers,
+                i -> assignedRowCountPerHost.getOrDefault(candidates.get(i).server, 0L));
+        return candidates.get(index);
+    }
 }
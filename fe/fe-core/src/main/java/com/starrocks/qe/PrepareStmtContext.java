@@ -14,21 +14,35 @@
 
 package com.starrocks.qe;
 
+import com.google.common.collect.Lists;
 import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.sql.QueryPlanCache;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
 import com.starrocks.sql.analyzer.QueryAnalyzer;
 import com.starrocks.sql.ast.PrepareStmt;
 import com.starrocks.sql.ast.QueryStatement;
-import com.starrocks.sql.ast.SelectRelation;
 import com.starrocks.sql.ast.TableRelation;
 import com.starrocks.sql.plan.ExecPlan;
 
+import java.util.List;
+
+/**
+ * Per connection state of a prepared statement.
+ * The analyzed statement is kept by {@link PrepareStmt}, and the generic plan (a plan whose literals are re-bound
+ * on every execution) is kept here together with the versions of the tables it reads. Once the statement turns out
+ * not to support a generic plan, all the following executions plan a custom plan with the bound values.
+ */
 public class PrepareStmtContext {
     private final PrepareStmt stmt;
     private final ConnectContext connectContext;
     private ExecPlan execPlan;
     private boolean isCached = false;
-    private long lastSchemaUpdateTime = -1;
-    private long tableId = -1;
+    // id, schema update time and partitions version of the tables of the cached plan
+    private List<Long> tableVersions = null;
+    private boolean genericPlanUnsupported = false;
+    private long genericPlanExecutions = 0;
+    private long customPlanExecutions = 0;
 
     public PrepareStmtContext(PrepareStmt stmt, ConnectContext connectContext, ExecPlan execPlan) {
         this.stmt = stmt;
@@ -56,13 +70,11 @@ public class PrepareStmtContext {
         return isCached;
     }
 
-    public void updateLastSchemaUpdateTime(QueryStatement stmt, ConnectContext session) {
-        SelectRelation selectRelation = (SelectRelation) (stmt.getQueryRelation());
-        TableRelation tableRelation = (TableRelation) selectRelation.getRelation();
-        QueryAnalyzer queryAnalyzer = new QueryAnalyzer(session);
-        OlapTable table = (OlapTable) queryAnalyzer.resolveTable(tableRelation);
-        this.lastSchemaUpdateTime = table.lastSchemaUpdateTime.get();
-        this.tableId = table.getId();
+    /**
+     * Record the versions of the tables read by an analyzed and planned statement.
+     */
+    public void updateTableVersions(QueryStatement stmt) {
+        this.tableVersions = QueryPlanCache.collectTableVersions(AnalyzerUtils.collectAllTable(stmt).values());
     }
 
     public void cachePlan(ExecPlan execPlan) {
@@ -70,26 +82,58 @@ public class PrepareStmtContext {
         this.isCached = true;
     }
 
+    /**
+     * The cached plan must be rebuilt if any table of the statement has been changed since it's planned,
+     * including schema changes, partition changes and new visible versions. Only a few atomic versions of each
+     * table are compared, so it doesn't take any catalog lock on the execution path.
+     */
     public boolean needReAnalyze(QueryStatement stmt, ConnectContext session) {
-        SelectRelation selectRelation = (SelectRelation) (stmt.getQueryRelation());
-        TableRelation tableRelation = (TableRelation) selectRelation.getRelation();
-        QueryAnalyzer queryAnalyzer = new QueryAnalyzer(session);
-        OlapTable table = (OlapTable) queryAnalyzer.resolveTable(tableRelation);
-        long lastSchemaUpdateTime = table.lastSchemaUpdateTime.get();
-        long tableId = table.getId();
-        if (lastSchemaUpdateTime > this.lastSchemaUpdateTime) {
+        if (tableVersions == null) {
             return true;
         }
-        if (tableId != this.tableId) {
-            return true;
+        QueryAnalyzer queryAnalyzer = new QueryAnalyzer(session);
+        List<Table> tables = Lists.newArrayList();
+        for (TableRelation tableRelation : AnalyzerUtils.collectTableRelations(stmt)) {
+            Table table = queryAnalyzer.resolveTable(tableRelation);
+            if (!(table instanceof OlapTable)) {
+                return true;
+            }
+            tables.add(table);
         }
-        return false;
+        return !tableVersions.equals(QueryPlanCache.collectTableVersions(tables));
+    }
+
+    public boolean isGenericPlanUnsupported() {
+        return genericPlanUnsupported;
+    }
+
+    /**
+     * Drop the generic plan and use custom plans for all the following executions.
+     */
+    public void disableGenericPlan() {
+        reset();
+        this.genericPlanUnsupported = true;
+    }
+
+    public void incGenericPlanExecutions() {
+        genericPlanExecutions++;
+    }
+
+    public void incCustomPlanExecutions() {
+        customPlanExecutions++;
+    }
+
+    public long getGenericPlanExecutions() {
+        return genericPlanExecutions;
+    }
+
+    public long getCustomPlanExecutions() {
+        return customPlanExecutions;
     }
 
     public void reset() {
         this.isCached = false;
-        this.lastSchemaUpdateTime = -1;
-        this.tableId = -1;
+        this.tableVersions = null;
         this.execPlan = null;
     }
 }
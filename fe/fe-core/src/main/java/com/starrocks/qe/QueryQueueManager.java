@@ -131,9 +131,10 @@ public class QueryQueueManager {
         }
 
         int numSlots = estimateNumSlots(context, coord);
+        long memBytes = (long) context.getAuditEventBuilder().build().planMemCosts;
 
         return new LogicalSlot(coord.getQueryId(), frontend.getNodeName(), groupId, numSlots, expiredPendingTimeMs,
-                expiredAllocatedTimeMs, frontend.getStartTime(), numFragments, pipelineDop);
+                expiredAllocatedTimeMs, frontend.getStartTime(), numFragments, pipelineDop, memBytes);
     }
 
     private int estimateNumSlots(ConnectContext context, DefaultCoordinator coord) {
@@ -34,6 +34,7 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.Status;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.metric.MetricRepo;
@@ -67,6 +68,9 @@ public class ResultReceiver {
     private final PUniqueId finstId;
     private final Long backendId;
     private Thread currentThread;
+    // the request fetching the next batch ahead, while the current batch is being sent to the client
+    private PFetchDataRequest prefetchRequest;
+    private Future<PFetchDataResult> prefetchFuture;
 
     public ResultReceiver(TUniqueId tid, Long backendId, TNetworkAddress address, int timeoutMs) {
         this.finstId = new PUniqueId();
@@ -84,9 +88,18 @@ public class ResultReceiver {
         final RowBatch rowBatch = new RowBatch();
         try {
             while (!isDone && !isCancel) {
-                PFetchDataRequest request = new PFetchDataRequest(finstId);
-
-                Future<PFetchDataResult> future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+                PFetchDataRequest request;
+                Future<PFetchDataResult> future;
+                synchronized (this) {
+                    request = prefetchRequest;
+                    future = prefetchFuture;
+                    prefetchRequest = null;
+                    prefetchFuture = null;
+                }
+                if (future == null) {
+                    request = new PFetchDataRequest(finstId);
+                    future = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+                }
                 PFetchDataResult pResult = null;
                 while (pResult == null) {
                     long currentTs = System.currentTimeMillis();
@@ -120,6 +133,9 @@ public class ResultReceiver {
 
                 packetIdx++;
                 isDone = pResult.eos;
+                if (!isDone && Config.enable_result_prefetch) {
+                    prefetch();
+                }
 
                 byte[] serialResult = request.getSerializedResult();
                 if (serialResult != null && serialResult.length > 0) {
@@ -161,7 +177,33 @@ public class ResultReceiver {
         return rowBatch;
     }
 
+    // The backend only sends the next batch when it's requested, so fetching at most one batch ahead
+    // keeps the memory bounded and still lets a slow client hold back the backend.
+    private synchronized void prefetch() {
+        if (isCancel) {
+            return;
+        }
+        PFetchDataRequest request = new PFetchDataRequest(finstId);
+        try {
+            prefetchFuture = BackendServiceClient.getInstance().fetchDataAsync(address, request);
+            prefetchRequest = request;
+        } catch (RpcException e) {
+            // don't fail the fetched batch, the next getNext will fetch it again and report the error
+            LOG.warn("prefetch result rpc exception, finstId={}", DebugUtil.printId(finstId), e);
+            prefetchFuture = null;
+            prefetchRequest = null;
+        }
+    }
+
     public void cancel() {
         isCancel = true;
+        // stop the batch fetched ahead and drop the result it may already hold
+        synchronized (this) {
+            if (prefetchFuture != null) {
+                prefetchFuture.cancel(true);
+            }
+            prefetchFuture = null;
+            prefetchRequest = null;
+        }
     }
 }
@@ -340,6 +340,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_ENABLE_LOCAL_COST_PRUNE = "cbo_enable_local_cost_prune";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String ALWAYS_COLLECT_LOW_CARD_DICT = "always_collect_low_card_dict";
@@ -376,6 +377,9 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String CBO_ENABLE_PARALLEL_PREPARE_METADATA = "enable_parallel_prepare_metadata";
 
+    public static final String CBO_ENABLE_PARALLEL_DERIVE_STATS = "cbo_enable_parallel_derive_stats";
+    public static final String CBO_DERIVE_STATS_THREAD_POOL_SIZE = "cbo_derive_stats_thread_pool_size";
+
     public static final String SKEW_JOIN_RAND_RANGE = "skew_join_rand_range";
     public static final String ENABLE_STATS_TO_OPTIMIZE_SKEW_JOIN = "enable_stats_to_optimize_skew_join";
     public static final String SKEW_JOIN_OPTIMIZE_USE_MCV_COUNT = "skew_join_use_mcv_count";
@@ -548,6 +552,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String ENABLE_PIPELINE_LEVEL_SHUFFLE = "enable_pipeline_level_shuffle";
 
     public static final String ENABLE_PLAN_SERIALIZE_CONCURRENTLY = "enable_plan_serialize_concurrently";
+    public static final String ENABLE_BATCH_DEPLOY_FRAGMENTS = "enable_batch_deploy_fragments";
+    public static final String BATCH_DEPLOY_COMPRESSION_TYPE = "batch_deploy_compression_type";
 
     public static final String ENABLE_STRICT_ORDER_BY = "enable_strict_order_by";
     private static final String ENABLE_FINE_GRAINED_RANGE_PREDICATE = "enable_fine_grained_range_predicate";
@@ -576,6 +582,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String FOLLOWER_QUERY_FORWARD_MODE = "follower_query_forward_mode";
 
+    public static final String ENABLE_FOLLOWER_READ_YOUR_WRITES = "enable_follower_read_your_writes";
+
     public static final String ENABLE_ARRAY_DISTINCT_AFTER_AGG_OPT = "enable_array_distinct_after_agg_opt";
 
     public enum MaterializedViewRewriteMode {
@@ -764,6 +772,8 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String ENABLE_PREPARE_STMT = "enable_prepare_stmt";
 
+    public static final String ENABLE_QUERY_PLAN_CACHE = "enable_query_plan_cache";
+
     public static final String ENABLE_HYPERSCAN_VEC = "enable_hyperscan_vec";
 
     // whether rewrite bitmap_union(to_bitmap(x)) to bitmap_agg(x) directly.
@@ -1291,6 +1301,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_MAX_REORDER_NODE_USE_DP)
     private long cboMaxReorderNodeUseDP = 10;
 
+    // prune a physical expression before optimizing its children if its local cost exceeds the upper bound
+    @VariableMgr.VarAttr(name = CBO_ENABLE_LOCAL_COST_PRUNE, flag = VariableMgr.INVISIBLE)
+    private boolean cboEnableLocalCostPrune = true;
+
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
@@ -2062,6 +2076,13 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = ENABLE_PREPARE_STMT)
     private boolean enablePrepareStmt = true;
 
+    // reuse the optimized plan of queries with the same shape, see QueryPlanCache
+    @VariableMgr.VarAttr(name = ENABLE_QUERY_PLAN_CACHE)
+    private boolean enableQueryPlanCache = false;
+
+    // see getPlanCacheFingerprint
+    private transient volatile String planCacheFingerprint = null;
+
     @VarAttr(name = JIT_LEVEL)
     private int jitLevel = 1;
 
@@ -2088,6 +2109,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = CBO_ENABLE_PARALLEL_PREPARE_METADATA)
     private boolean enableParallelPrepareMetadata = false;
 
+    // derive the statistics of the scan groups in memo concurrently before exploring the memo
+    @VarAttr(name = CBO_ENABLE_PARALLEL_DERIVE_STATS)
+    private boolean cboEnableParallelDeriveStats = false;
+
+    // the max number of threads of the shared pool used by one query, see Config.optimizer_derive_stats_thread_pool_size
+    @VarAttr(name = CBO_DERIVE_STATS_THREAD_POOL_SIZE)
+    private int cboDeriveStatsThreadPoolSize = 8;
+
     // To set ANN tuning parameters for user.
     // Since the session variables does not support map variables,
     // it needs to be passed in the form of a JSON string.
@@ -2116,6 +2145,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.enableParallelPrepareMetadata = enableParallelPrepareMetadata;
     }
 
+    public boolean isCboEnableParallelDeriveStats() {
+        return cboEnableParallelDeriveStats;
+    }
+
+    public void setCboEnableParallelDeriveStats(boolean cboEnableParallelDeriveStats) {
+        this.cboEnableParallelDeriveStats = cboEnableParallelDeriveStats;
+    }
+
+    public int getCboDeriveStatsThreadPoolSize() {
+        return cboDeriveStatsThreadPoolSize;
+    }
+
+    public void setCboDeriveStatsThreadPoolSize(int cboDeriveStatsThreadPoolSize) {
+        this.cboDeriveStatsThreadPoolSize = cboDeriveStatsThreadPoolSize;
+    }
+
     public String getHiveTempStagingDir() {
         return hiveTempStagingDir;
     }
@@ -2292,12 +2337,26 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = ENABLE_PLAN_SERIALIZE_CONCURRENTLY)
     private boolean enablePlanSerializeConcurrently = true;
 
+    // Deploy the instances of a fragment on the same worker by one exec_batch_plan_fragments RPC,
+    // which carries the common params only once.
+    @VarAttr(name = ENABLE_BATCH_DEPLOY_FRAGMENTS)
+    private boolean enableBatchDeployFragments = false;
+
+    // Compression of the batch deploy request, NO_COMPRESSION, LZ4 or ZSTD.
+    @VarAttr(name = BATCH_DEPLOY_COMPRESSION_TYPE)
+    private String batchDeployCompressionType = "NO_COMPRESSION";
+
     @VarAttr(name = ORC_USE_COLUMN_NAMES)
     private boolean orcUseColumnNames = false;
 
     @VarAttr(name = FOLLOWER_QUERY_FORWARD_MODE, flag = VariableMgr.INVISIBLE | VariableMgr.DISABLE_FORWARD_TO_LEADER)
     private String followerForwardMode = "";
 
+    // On follower, wait for the journals written by this session to be replayed before answering the queries and
+    // show statements, so that the session always reads its own writes.
+    @VarAttr(name = ENABLE_FOLLOWER_READ_YOUR_WRITES, flag = VariableMgr.DISABLE_FORWARD_TO_LEADER)
+    private boolean enableFollowerReadYourWrites = false;
+
     @VarAttr(name = ENABLE_STRICT_ORDER_BY)
     private boolean enableStrictOrderBy = true;
 
@@ -2344,6 +2403,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return Optional.of(followerForwardMode.equalsIgnoreCase(FollowerQueryForwardMode.LEADER.toString()));
     }
 
+    public boolean isEnableFollowerReadYourWrites() {
+        return enableFollowerReadYourWrites;
+    }
+
+    public void setEnableFollowerReadYourWrites(boolean enableFollowerReadYourWrites) {
+        this.enableFollowerReadYourWrites = enableFollowerReadYourWrites;
+    }
+
     @VarAttr(name = ENABLE_PIPELINE_LEVEL_SHUFFLE, flag = VariableMgr.INVISIBLE)
     private boolean enablePipelineLevelShuffle = true;
 
@@ -3001,6 +3068,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboMaxReorderNodeUseDP;
     }
 
+    public boolean isCboEnableLocalCostPrune() {
+        return cboEnableLocalCostPrune;
+    }
+
+    public void setCboEnableLocalCostPrune(boolean cboEnableLocalCostPrune) {
+        this.cboEnableLocalCostPrune = cboEnableLocalCostPrune;
+    }
+
     public boolean isCboEnableGreedyJoinReorder() {
         return cboEnableGreedyJoinReorder;
     }
@@ -4101,6 +4176,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.enablePrepareStmt = enablePrepareStmt;
     }
 
+    public boolean isEnableQueryPlanCache() {
+        return enableQueryPlanCache;
+    }
+
+    public void setEnableQueryPlanCache(boolean enableQueryPlanCache) {
+        this.enableQueryPlanCache = enableQueryPlanCache;
+    }
+
     public void setLargeDecimalUnderlyingType(String type) {
         if (type.equalsIgnoreCase(SessionVariableConstants.PANIC) ||
                 type.equalsIgnoreCase(SessionVariableConstants.DECIMAL) ||
@@ -4124,6 +4207,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return enablePlanSerializeConcurrently;
     }
 
+    public boolean isEnableBatchDeployFragments() {
+        return enableBatchDeployFragments;
+    }
+
+    public void setEnableBatchDeployFragments(boolean enableBatchDeployFragments) {
+        this.enableBatchDeployFragments = enableBatchDeployFragments;
+    }
+
+    public String getBatchDeployCompressionType() {
+        return batchDeployCompressionType;
+    }
+
+    public void setBatchDeployCompressionType(String batchDeployCompressionType) {
+        this.batchDeployCompressionType = batchDeployCompressionType;
+    }
+
     public long getCrossJoinCostPenalty() {
         return crossJoinCostPenalty;
     }
@@ -4422,6 +4521,24 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return tResult;
     }
 
+    /**
+     * A fingerprint of all the variables, used as a part of the key of {@link com.starrocks.sql.QueryPlanCache}.
+     * It's cached until a variable is set through {@link VariableMgr} or replayed, so the variables changed by
+     * their setters directly are not reflected, which is only done to the clones of the session variables.
+     */
+    public String getPlanCacheFingerprint() throws IOException {
+        String fingerprint = planCacheFingerprint;
+        if (fingerprint == null) {
+            fingerprint = getJsonString();
+            planCacheFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    public void invalidatePlanCacheFingerprint() {
+        planCacheFingerprint = null;
+    }
+
     public String getJsonString() throws IOException {
         JSONObject root = new JSONObject();
         try {
@@ -4465,6 +4582,7 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     }
 
     public void replayFromJson(String json) throws IOException {
+        invalidatePlanCacheFingerprint();
         JSONObject root = new JSONObject(json);
         try {
             for (Field field : SessionVariable.class.getDeclaredFields()) {
@@ -4556,7 +4674,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @Override
     public Object clone() {
         try {
-            return super.clone();
+            SessionVariable sessionVariable = (SessionVariable) super.clone();
+            // the clone is usually changed by the setters
+            sessionVariable.invalidatePlanCacheFingerprint();
+            return sessionVariable;
         } catch (CloneNotSupportedException e) {
             throw new RuntimeException(e);
         }
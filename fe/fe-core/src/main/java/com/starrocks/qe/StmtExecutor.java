@@ -130,6 +130,7 @@ import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.RunMode;
 import com.starrocks.server.WarehouseManager;
 import com.starrocks.service.ExecuteEnv;
+import com.starrocks.service.arrow.flight.sql.ArrowFlightSqlConnectContext;
 import com.starrocks.sql.ExplainAnalyzer;
 import com.starrocks.sql.PrepareStmtPlanner;
 import com.starrocks.sql.StatementPlanner;
@@ -417,7 +418,11 @@ public class StmtExecutor {
             // When FollowerQueryForwardMode is not default, forward it to leader or follower by default.
             if (context != null && context.getSessionVariable() != null &&
                     context.getSessionVariable().isFollowerForwardToLeaderOpt().isPresent()) {
-                return context.getSessionVariable().isFollowerForwardToLeaderOpt().get();
+                if (context.getSessionVariable().isFollowerForwardToLeaderOpt().get()) {
+                    return true;
+                }
+                // answered by this follower as required, it still must have seen the writes of this session
+                return !catchUpLastSeenJournal();
             }
 
             if (!GlobalStateMgr.getCurrentState().canRead()) {
@@ -425,10 +430,38 @@ public class StmtExecutor {
             }
         }
 
-        if (redirectStatus == null) {
+        if (redirectStatus != null && redirectStatus.isForwardToLeader()) {
+            return true;
+        }
+
+        // the read-only statement is answered by this follower, which must have seen the writes of this session
+        if (parsedStmt instanceof QueryStatement || parsedStmt instanceof ShowStmt) {
+            return !catchUpLastSeenJournal();
+        }
+        return false;
+    }
+
+    /**
+     * If read-your-writes is enabled, wait for this follower to replay the journals the session has seen,
+     * return false if it can't catch up in {@link Config#follower_read_your_writes_timeout_ms}.
+     */
+    private boolean catchUpLastSeenJournal() {
+        if (context == null || context.getSessionVariable() == null ||
+                !context.getSessionVariable().isEnableFollowerReadYourWrites()) {
+            return true;
+        }
+        long lastSeenJournalId = context.getLastSeenJournalId();
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        if (lastSeenJournalId <= globalStateMgr.getReplayedJournalId()) {
+            return true;
+        }
+        try {
+            globalStateMgr.getJournalObservable().waitOn(lastSeenJournalId, Config.follower_read_your_writes_timeout_ms);
+            return true;
+        } catch (DdlException e) {
+            LOG.warn("replayed journal {} is behind the last seen journal {} of the session, forward the statement " +
+                    "to leader", globalStateMgr.getReplayedJournalId(), lastSeenJournalId);
             return false;
-        } else {
-            return redirectStatus.isForwardToLeader();
         }
     }
 
@@ -974,9 +1007,11 @@ public class StmtExecutor {
             } else {
                 profilingPlan = plan == null ? null : plan.getProfilingPlan();
             }
-            String profileContent = ProfileManager.getInstance().pushProfile(profilingPlan, profile);
             if (queryDetail != null) {
+                String profileContent = ProfileManager.getInstance().pushProfile(profilingPlan, profile);
                 queryDetail.setProfile(profileContent);
+            } else {
+                ProfileManager.getInstance().pushProfileLazily(profilingPlan, profile);
             }
             QeProcessorImpl.INSTANCE.unMonitorQuery(executionId);
             QeProcessorImpl.INSTANCE.unregisterQuery(executionId);
@@ -1229,6 +1264,8 @@ public class StmtExecutor {
         RowBatch batch;
         if (context instanceof HttpConnectContext) {
             batch = httpResultSender.sendQueryResult(coord, execPlan, parsedStmt.getOrigStmt().getOrigStmt());
+        } else if (context instanceof ArrowFlightSqlConnectContext) {
+            batch = ((ArrowFlightSqlConnectContext) context).sendQueryResult(coord, execPlan);
         } else {
             boolean needSendResult = !isPlanAdvisorAnalyze && !isExplainAnalyze
                     && !context.getSessionVariable().isEnableExecutionOnly();
@@ -1255,7 +1292,7 @@ public class StmtExecutor {
                     if (!isProxy && channel.isSendBufferNull()) {
                         int bufferSize = 0;
                         for (ByteBuffer row : batch.getBatch().getRows()) {
-                            bufferSize += (row.position() - row.limit());
+                            bufferSize += row.remaining();
                         }
                         // +8 for header size
                         channel.initBuffer(bufferSize + 8);
@@ -1408,6 +1445,11 @@ public class StmtExecutor {
         String queryId = analyzeProfileStmt.getQueryId();
         List<Integer> planNodeIds = analyzeProfileStmt.getPlanNodeIds();
         ProfileManager.ProfileElement profileElement = ProfileManager.getInstance().getProfileElement(queryId);
+        // The plan is kept only in memory, the profile store persists the content of the profile without it.
+        if (profileElement == null && ProfileManager.getInstance().hasProfile(queryId)) {
+            throw new UserException("the plan of query " + queryId + " has been evicted from memory, " +
+                    "you can get its profile by using get_query_profile('" + queryId + "')");
+        }
         Preconditions.checkNotNull(profileElement, "query not exists");
         // For short circuit query, 'ProfileElement#plan' is null
         if (profileElement.plan == null && profileElement.infoStrings.get(ProfileManager.QUERY_TYPE) != null &&
@@ -1417,7 +1459,7 @@ public class StmtExecutor {
                             "you can set it off by using  set enable_short_circuit=false");
         }
         handleExplainStmt(ExplainAnalyzer.analyze(profileElement.plan,
-                RuntimeProfileParser.parseFrom(CompressionUtils.gzipDecompressString(profileElement.profileContent)),
+                RuntimeProfileParser.parseFrom(CompressionUtils.gzipDecompressString(profileElement.getProfileContent())),
                 planNodeIds));
     }
 
@@ -248,6 +248,9 @@ public class VariableMgr {
         } catch (IllegalAccessException e) {
             ErrorReport.reportDdlException(ErrorCode.ERR_WRONG_VALUE_FOR_VAR, variableName, value);
         }
+        if (obj instanceof SessionVariable) {
+            ((SessionVariable) obj).invalidatePlanCacheFingerprint();
+        }
 
         return true;
     }
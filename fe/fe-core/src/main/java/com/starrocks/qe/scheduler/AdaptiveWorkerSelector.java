@@ -0,0 +1,244 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.system.ComputeNode;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Tracks the recent health of each worker, and prefers the healthy ones when choosing among the eligible workers.
+ *
+ * <p> The health signals of a worker are the moving averages of the deploy RPC latency and the relative execution time
+ * of its fragment instances, and the CPU and memory usage reported by heartbeat. The execution time of an instance is
+ * relative to the mean of its sibling instances of the same fragment, since the fragments of different queries cost
+ * very differently. When comparing the candidates, each
+ * signal is normalized by its mean over the candidates, so the score of a worker is 1.0 if it behaves like the others,
+ * and a straggler gets a higher score. The penalty decays exponentially towards 1.0 if the worker hasn't been updated
+ * for a while, so that a recovered worker gets its share back.
+ *
+ * <p> The selection uses the power of two choices: pick two random candidates and choose the one with the lower load
+ * weighted by the score, which avoids herding all the fragments to the single best worker. If there are only a few
+ * candidates, like the replicas of a tablet, all of them are compared.
+ *
+ * <p> All the methods are thread-safe.
+ */
+public class AdaptiveWorkerSelector {
+    private static final double NEUTRAL_SCORE = 1.0;
+    // The weight of a new sample in the moving average.
+    private static final double EWMA_ALPHA = 0.2;
+    // Compare all the candidates if there are no more than this, the usual number of replicas.
+    private static final int MAX_CANDIDATES_TO_COMPARE_ALL = 3;
+
+    private static class SingletonHolder {
+        private static final AdaptiveWorkerSelector INSTANCE = new AdaptiveWorkerSelector();
+    }
+
+    public static AdaptiveWorkerSelector getInstance() {
+        return SingletonHolder.INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return Config.enable_adaptive_worker_selection;
+    }
+
+    private static class Ewma {
+        // The readers don't lock, since a slightly stale pair of value and time is harmless.
+        private volatile double value = -1;
+        private volatile long lastUpdateTimeMs = 0;
+
+        private synchronized void update(double sample, long nowMs) {
+            value = value < 0 ? sample : EWMA_ALPHA * sample + (1 - EWMA_ALPHA) * value;
+            lastUpdateTimeMs = nowMs;
+        }
+    }
+
+    private static class WorkerStat {
+        private final Ewma deployLatencyMs = new Ewma();
+        private final Ewma relativeExecTime = new Ewma();
+    }
+
+    private final ConcurrentHashMap<Long, WorkerStat> workerStats = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    AdaptiveWorkerSelector() {
+    }
+
+    public void recordDeployLatency(long workerId, long latencyMs) {
+        getOrCreateStat(workerId).deployLatencyMs.update(latencyMs, System.currentTimeMillis());
+    }
+
+    /**
+     * @param relativeExecTime The execution time of an instance divided by the mean of its sibling instances.
+     */
+    public void recordRelativeExecTime(long workerId, double relativeExecTime) {
+        getOrCreateStat(workerId).relativeExecTime.update(relativeExecTime, System.currentTimeMillis());
+    }
+
+    /**
+     * Record the execution time of each instance of a fragment relative to the mean of them.
+     *
+     * @param workerExecTimesMs The pairs of the worker id and the execution time of each instance.
+     */
+    public void recordFragmentExecTimes(List<Pair<Long, Long>> workerExecTimesMs) {
+        if (workerExecTimesMs.size() < 2) {
+            return;
+        }
+        double meanMs = workerExecTimesMs.stream().mapToLong(pair -> pair.second).average().orElse(0);
+        if (meanMs <= 0) {
+            return;
+        }
+        for (Pair<Long, Long> workerExecTimeMs : workerExecTimesMs) {
+            recordRelativeExecTime(workerExecTimeMs.first, workerExecTimeMs.second / meanMs);
+        }
+    }
+
+    public void removeWorker(long workerId) {
+        workerStats.remove(workerId);
+    }
+
+    /**
+     * Select a worker from the candidates by the power of two choices.
+     *
+     * @param candidates The eligible workers, must not be empty.
+     * @param loadFn     The load already assigned to the candidate at the given index by the caller,
+     *                   e.g. the number of scan ranges.
+     * @return The index of the chosen worker in {@code candidates}.
+     */
+    public int select(List<? extends ComputeNode> candidates, IntToLongFunction loadFn) {
+        if (candidates.size() == 1) {
+            return 0;
+        }
+        long nowMs = System.currentTimeMillis();
+        if (candidates.size() <= MAX_CANDIDATES_TO_COMPARE_ALL) {
+            double[] scores = computeScores(candidates, nowMs);
+            int best = 0;
+            double bestCost = Double.MAX_VALUE;
+            for (int i = 0; i < candidates.size(); i++) {
+                double cost = (loadFn.applyAsLong(i) + 1) * scores[i];
+                if (cost < bestCost) {
+                    best = i;
+                    bestCost = cost;
+                }
+            }
+            return best;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        double[] scores = computeScores(List.of(candidates.get(first), candidates.get(second)), nowMs);
+        double firstCost = (loadFn.applyAsLong(first) + 1) * scores[0];
+        double secondCost = (loadFn.applyAsLong(second) + 1) * scores[1];
+        return secondCost < firstCost ? second : first;
+    }
+
+    /**
+     * @return Whether each candidate is much slower than the others.
+     */
+    public boolean[] findStragglers(List<? extends ComputeNode> candidates) {
+        boolean[] stragglers = new boolean[candidates.size()];
+        if (candidates.size() <= 1) {
+            return stragglers;
+        }
+        double[] scores = computeScores(candidates, System.currentTimeMillis());
+        for (int i = 0; i < candidates.size(); i++) {
+            stragglers[i] = scores[i] > Config.adaptive_worker_selection_straggler_ratio;
+        }
+        return stragglers;
+    }
+
+    /**
+     * The score of each candidate is the average of its normalized signals, where 1.0 means as healthy as the others.
+     */
+    @VisibleForTesting
+    double[] computeScores(List<? extends ComputeNode> candidates, long nowMs) {
+        int n = candidates.size();
+        double[] deployLatencies = new double[n];
+        long[] deployUpdateTimes = new long[n];
+        double[] execTimes = new double[n];
+        long[] execUpdateTimes = new long[n];
+        double[] cpuUsages = new double[n];
+        double[] memUsages = new double[n];
+        for (int i = 0; i < n; i++) {
+            ComputeNode worker = candidates.get(i);
+            WorkerStat stat = workerStats.get(worker.getId());
+            if (stat != null) {
+                deployLatencies[i] = stat.deployLatencyMs.value;
+                deployUpdateTimes[i] = stat.deployLatencyMs.lastUpdateTimeMs;
+                execTimes[i] = stat.relativeExecTime.value;
+                execUpdateTimes[i] = stat.relativeExecTime.lastUpdateTimeMs;
+            } else {
+                deployLatencies[i] = -1;
+                execTimes[i] = -1;
+            }
+            cpuUsages[i] = worker.getCpuUsedPermille() / 1000.0;
+            memUsages[i] = worker.getMemLimitBytes() > 0 ? worker.getMemUsedPct() : -1;
+        }
+
+        double[] scores = new double[n];
+        addNormalizedSignal(scores, deployLatencies, deployUpdateTimes, nowMs);
+        addNormalizedSignal(scores, execTimes, execUpdateTimes, nowMs);
+        addNormalizedSignal(scores, cpuUsages, null, nowMs);
+        addNormalizedSignal(scores, memUsages, null, nowMs);
+        for (int i = 0; i < n; i++) {
+            scores[i] /= 4;
+        }
+        return scores;
+    }
+
+    /**
+     * Add the value of each candidate divided by the mean of the candidates to the scores.
+     * A negative value means absent, which is treated as neutral.
+     */
+    private static void addNormalizedSignal(double[] scores, double[] values, long[] updateTimesMs, long nowMs) {
+        double sum = 0;
+        int num = 0;
+        for (double value : values) {
+            if (value >= 0) {
+                sum += value;
+                num++;
+            }
+        }
+        double mean = num == 0 ? 0 : sum / num;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < 0 || mean <= 0) {
+                scores[i] += NEUTRAL_SCORE;
+                continue;
+            }
+            double ratio = values[i] / mean;
+            if (updateTimesMs != null && Config.adaptive_worker_selection_decay_ms > 0) {
+                long elapsedMs = Math.max(0, nowMs - updateTimesMs[i]);
+                ratio = NEUTRAL_SCORE +
+                        (ratio - NEUTRAL_SCORE) * Math.exp(-(double) elapsedMs / Config.adaptive_worker_selection_decay_ms);
+            }
+            scores[i] += ratio;
+        }
+    }
+
+    private WorkerStat getOrCreateStat(long workerId) {
+        return workerStats.computeIfAbsent(workerId, k -> new WorkerStat());
+    }
+}
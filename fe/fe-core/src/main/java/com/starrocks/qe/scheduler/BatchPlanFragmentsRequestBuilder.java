@@ -0,0 +1,144 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.github.luben.zstd.Zstd;
+import com.google.common.collect.ImmutableSet;
+import com.starrocks.common.Config;
+import com.starrocks.rpc.PExecBatchPlanFragmentsRequest;
+import com.starrocks.thrift.TCompressionType;
+import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
+import com.starrocks.thrift.TExecPlanFragmentParams;
+import net.jpountz.lz4.LZ4Factory;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TList;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TIOStreamTransport;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Build the exec_batch_plan_fragments request, which deploys several instances of a fragment to a worker.
+ *
+ * <p> The attachment is a binary encoded {@link TExecBatchPlanFragmentsParams}. The common params are serialized once
+ * per fragment and the bytes are spliced into the request to every worker, so only the unique params are serialized
+ * per instance. The attachment can be compressed by LZ4 or ZSTD, which are decoded by the block compression codec
+ * of BE.
+ */
+public class BatchPlanFragmentsRequestBuilder {
+    public static final Set<TCompressionType> SUPPORTED_COMPRESSION_TYPES =
+            ImmutableSet.of(TCompressionType.NO_COMPRESSION, TCompressionType.LZ4, TCompressionType.ZSTD);
+
+    private static final TStruct BATCH_PARAMS_STRUCT = new TStruct("TExecBatchPlanFragmentsParams");
+    private static final TField COMMON_PARAM_FIELD = new TField("common_param", TType.STRUCT,
+            TExecBatchPlanFragmentsParams._Fields.COMMON_PARAM.getThriftFieldId());
+    private static final TField UNIQUE_PARAMS_FIELD = new TField("unique_param_per_instance", TType.LIST,
+            TExecBatchPlanFragmentsParams._Fields.UNIQUE_PARAM_PER_INSTANCE.getThriftFieldId());
+
+    private BatchPlanFragmentsRequestBuilder() {
+    }
+
+    /**
+     * BE always decodes the batch request by the binary protocol, regardless of the plan protocol of the query.
+     */
+    public static byte[] serialize(TExecPlanFragmentParams params) throws TException {
+        return new TSerializer(new TBinaryProtocol.Factory()).serialize(params);
+    }
+
+    /**
+     * Concatenate the serialized common params and unique params into a serialized
+     * {@link TExecBatchPlanFragmentsParams}, without serializing them again.
+     */
+    public static byte[] build(byte[] serializedCommonParam, List<byte[]> serializedUniqueParams) throws TException {
+        int size = serializedCommonParam.length + serializedUniqueParams.stream().mapToInt(b -> b.length).sum() + 16;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        TProtocol protocol = new TBinaryProtocol(new TIOStreamTransport(out));
+
+        protocol.writeStructBegin(BATCH_PARAMS_STRUCT);
+
+        protocol.writeFieldBegin(COMMON_PARAM_FIELD);
+        out.write(serializedCommonParam, 0, serializedCommonParam.length);
+        protocol.writeFieldEnd();
+
+        protocol.writeFieldBegin(UNIQUE_PARAMS_FIELD);
+        protocol.writeListBegin(new TList(TType.STRUCT, serializedUniqueParams.size()));
+        for (byte[] uniqueParam : serializedUniqueParams) {
+            out.write(uniqueParam, 0, uniqueParam.length);
+        }
+        protocol.writeListEnd();
+        protocol.writeFieldEnd();
+
+        protocol.writeFieldStop();
+        protocol.writeStructEnd();
+        return out.toByteArray();
+    }
+
+    /**
+     * Create the request with the serialized batch params as attachment, which is compressed
+     * if it reaches {@link Config#batch_deploy_compression_threshold_bytes}.
+     */
+    public static PExecBatchPlanFragmentsRequest createRequest(byte[] serializedBatchParams,
+                                                               TCompressionType compressionType) {
+        PExecBatchPlanFragmentsRequest request = new PExecBatchPlanFragmentsRequest();
+        if (compressionType == null || compressionType == TCompressionType.NO_COMPRESSION ||
+                serializedBatchParams.length < Config.batch_deploy_compression_threshold_bytes) {
+            request.setRequest(serializedBatchParams);
+            return request;
+        }
+
+        byte[] compressed;
+        switch (compressionType) {
+            case LZ4:
+                compressed = LZ4Factory.fastestInstance().fastCompressor().compress(serializedBatchParams);
+                break;
+            case ZSTD:
+                compressed = Zstd.compress(serializedBatchParams);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported batch deploy compression type: " + compressionType);
+        }
+        request.setRequest(compressed);
+        request.setAttachmentCompressionType(compressionType.getValue());
+        request.setAttachmentUncompressedSize((long) serializedBatchParams.length);
+        return request;
+    }
+
+    /**
+     * Get the serialized batch params of the request, decompressing it if needed.
+     */
+    public static byte[] getSerializedBatchParams(PExecBatchPlanFragmentsRequest request) {
+        Integer compression = request.getAttachmentCompressionType();
+        if (compression == null || compression == TCompressionType.NO_COMPRESSION.getValue()) {
+            return request.getSerializedRequest();
+        }
+
+        int uncompressedSize = request.getAttachmentUncompressedSize().intValue();
+        TCompressionType compressionType = TCompressionType.findByValue(compression);
+        if (compressionType == TCompressionType.LZ4) {
+            return LZ4Factory.fastestInstance().fastDecompressor().decompress(request.getSerializedRequest(),
+                    uncompressedSize);
+        } else if (compressionType == TCompressionType.ZSTD) {
+            return Zstd.decompress(request.getSerializedRequest(), uncompressedSize);
+        }
+        throw new IllegalArgumentException("Unsupported batch deploy compression type: " + compressionType);
+    }
+}
@@ -40,6 +40,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
@@ -75,6 +76,10 @@ public class DefaultWorkerProvider implements WorkerProvider {
      * They are updated when calling {@code chooseXXX} methods.
      */
     private final Set<Long> selectedWorkerIds;
+    /**
+     * The number of times each worker is returned by {@link #selectNextWorker()}, as the load of the adaptive selection.
+     */
+    private final Map<Long, Integer> numNextSelectedPerWorker = new ConcurrentHashMap<>();
 
     /**
      * Indicates whether there are available compute nodes.
@@ -144,7 +149,10 @@ public class DefaultWorkerProvider implements WorkerProvider {
     @Override
     public long selectNextWorker() throws NonRecoverableException {
         ComputeNode worker;
-        if (usedComputeNode) {
+        if (AdaptiveWorkerSelector.isEnabled()) {
+            worker = selectWorkerAdaptively(usedComputeNode ? availableID2ComputeNode : availableID2Backend,
+                    numNextSelectedPerWorker);
+        } else if (usedComputeNode) {
             worker = getNextWorker(availableID2ComputeNode, DefaultWorkerProvider::getNextComputeNodeIndex);
         } else {
             worker = getNextWorker(availableID2Backend, DefaultWorkerProvider::getNextBackendIndex);
@@ -156,6 +164,7 @@ public class DefaultWorkerProvider implements WorkerProvider {
         Preconditions.checkNotNull(worker);
 
         selectWorkerUnchecked(worker.getId());
+        numNextSelectedPerWorker.merge(worker.getId(), 1, Integer::sum);
         return worker.getId();
     }
 
@@ -375,6 +384,22 @@ public class DefaultWorkerProvider implements WorkerProvider {
         return workers.values().asList().get(index);
     }
 
+    /**
+     * Select a worker by the power of two choices on the recent health, instead of round-robin.
+     *
+     * @param numSelectedPerWorker The number of instances already assigned to each worker by the caller.
+     */
+    public static <C extends ComputeNode> C selectWorkerAdaptively(ImmutableMap<Long, C> workers,
+                                                                   Map<Long, Integer> numSelectedPerWorker) {
+        if (workers.isEmpty()) {
+            return null;
+        }
+        List<C> candidates = workers.values().asList();
+        int index = AdaptiveWorkerSelector.getInstance().select(candidates,
+                i -> numSelectedPerWorker.getOrDefault(candidates.get(i).getId(), 0));
+        return candidates.get(index);
+    }
+
     public static boolean isWorkerAvailable(ComputeNode worker) {
         return worker.isAlive() && !SimpleScheduler.isInBlocklist(worker.getId());
     }
@@ -17,10 +17,17 @@ package com.starrocks.qe.scheduler;
 import com.google.api.client.util.Sets;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
 import com.starrocks.common.Status;
 import com.starrocks.common.UserException;
 import com.starrocks.common.profile.Timer;
 import com.starrocks.common.profile.Tracers;
+import com.starrocks.common.util.CompressionUtils;
+import com.starrocks.planner.ExportSink;
+import com.starrocks.planner.MultiCastPlanFragment;
+import com.starrocks.planner.PlanFragment;
+import com.starrocks.proto.PExecBatchPlanFragmentsResult;
+import com.starrocks.proto.PExecPlanFragmentResult;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.scheduler.dag.ExecutionDAG;
 import com.starrocks.qe.scheduler.dag.ExecutionFragment;
@@ -28,7 +35,10 @@ import com.starrocks.qe.scheduler.dag.FragmentInstance;
 import com.starrocks.qe.scheduler.dag.FragmentInstanceExecState;
 import com.starrocks.qe.scheduler.dag.JobSpec;
 import com.starrocks.qe.scheduler.slot.DeployState;
+import com.starrocks.rpc.BackendServiceClient;
+import com.starrocks.rpc.PExecBatchPlanFragmentsRequest;
 import com.starrocks.rpc.RpcException;
+import com.starrocks.thrift.TCompressionType;
 import com.starrocks.thrift.TDescriptorTable;
 import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TNetworkAddress;
@@ -36,13 +46,17 @@ import com.starrocks.thrift.TQueryOptions;
 import com.starrocks.thrift.TStatusCode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TException;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.starrocks.qe.scheduler.dag.FragmentInstanceExecState.DeploymentResult;
@@ -60,6 +74,8 @@ public class Deployer {
     private final TDescriptorTable emptyDescTable;
     private final long deliveryTimeoutMs;
     private boolean enablePlanSerializeConcurrently;
+    private final boolean enableBatchDeploy;
+    private final TCompressionType batchDeployCompressionType;
 
     private final FailureHandler failureHandler;
     private final boolean needDeploy;
@@ -86,6 +102,13 @@ public class Deployer {
         this.failureHandler = failureHandler;
         this.needDeploy = needDeploy;
         this.enablePlanSerializeConcurrently = context.getSessionVariable().getEnablePlanSerializeConcurrently();
+        // BE only executes the batch request by the pipeline engine.
+        this.enableBatchDeploy = context.getSessionVariable().isEnableBatchDeployFragments() && jobSpec.isEnablePipeline();
+        TCompressionType compressionType =
+                CompressionUtils.findTCompressionByName(context.getSessionVariable().getBatchDeployCompressionType());
+        this.batchDeployCompressionType =
+                BatchPlanFragmentsRequestBuilder.SUPPORTED_COMPRESSION_TYPES.contains(compressionType) ?
+                        compressionType : TCompressionType.NO_COMPRESSION;
     }
 
     public DeployState createFragmentExecStates(List<ExecutionFragment> concurrentFragments) {
@@ -109,13 +132,17 @@ public class Deployer {
             try (Timer ignored = Tracers.watchScope(Tracers.Module.SCHEDULER, "DeploySerializeConcurrencyTime")) {
                 threeStageExecutionsToDeploy.stream().parallel().forEach(
                         executions -> executions.stream().parallel()
+                                .filter(execution -> !execution.isBatchDeploy())
                                 .forEach(FragmentInstanceExecState::serializeRequest));
             }
         }
 
         for (List<FragmentInstanceExecState> executions : threeStageExecutionsToDeploy) {
             try (Timer ignored = Tracers.watchScope(Tracers.Module.SCHEDULER, "DeployStageByStageTime")) {
-                executions.forEach(FragmentInstanceExecState::deployAsync);
+                executions.stream()
+                        .filter(execution -> !execution.isBatchDeploy())
+                        .forEach(FragmentInstanceExecState::deployAsync);
+                batchDeployAsync(executions);
             }
             try (Timer ignored = Tracers.watchScope(Tracers.Module.SCHEDULER, "DeployWaitTime")) {
                 waitForDeploymentCompletion(executions);
@@ -123,6 +150,55 @@ public class Deployer {
         }
     }
 
+    /**
+     * Deploy the instances of a fragment on the same worker by one exec_batch_plan_fragments RPC.
+     * The serialized common request is shared by these instances, and only their unique requests are serialized.
+     */
+    private void batchDeployAsync(List<FragmentInstanceExecState> executions) {
+        // worker id -> serialized common request -> executions sharing the common request.
+        Map<Long, Map<byte[], List<FragmentInstanceExecState>>> workerToBatches = new HashMap<>();
+        for (FragmentInstanceExecState execution : executions) {
+            if (execution.isBatchDeploy()) {
+                workerToBatches.computeIfAbsent(execution.getWorker().getId(), k -> new IdentityHashMap<>())
+                        .computeIfAbsent(execution.getSerializedCommonRequest(), k -> new ArrayList<>())
+                        .add(execution);
+            }
+        }
+
+        workerToBatches.values().forEach(batches -> batches.forEach(this::batchDeployAsync));
+    }
+
+    private void batchDeployAsync(byte[] serializedCommonRequest, List<FragmentInstanceExecState> executions) {
+        Future<PExecPlanFragmentResult> deployFuture;
+        try {
+            List<byte[]> serializedUniqueRequests = new ArrayList<>(executions.size());
+            for (FragmentInstanceExecState execution : executions) {
+                serializedUniqueRequests.add(execution.serializeUniqueRequest());
+            }
+            PExecBatchPlanFragmentsRequest request = BatchPlanFragmentsRequestBuilder.createRequest(
+                    BatchPlanFragmentsRequestBuilder.build(serializedCommonRequest, serializedUniqueRequests),
+                    batchDeployCompressionType);
+
+            TNetworkAddress brpcAddress = executions.get(0).getWorker().getBrpcAddress();
+            deployFuture = Futures.lazyTransform(
+                    BackendServiceClient.getInstance().execBatchPlanFragmentsAsync(brpcAddress, request),
+                    Deployer::toExecPlanFragmentResult);
+        } catch (RpcException | TException e) {
+            // DO NOT throw exception here, the following logic will cancel the fragments by the failed future.
+            deployFuture = FragmentInstanceExecState.failedDeployFuture(e);
+        }
+
+        for (FragmentInstanceExecState execution : executions) {
+            execution.deployAsync(deployFuture);
+        }
+    }
+
+    private static PExecPlanFragmentResult toExecPlanFragmentResult(PExecBatchPlanFragmentsResult batchResult) {
+        PExecPlanFragmentResult result = new PExecPlanFragmentResult();
+        result.status = batchResult.status;
+        return result;
+    }
+
     public interface FailureHandler {
         void apply(Status status, FragmentInstanceExecState execution, Throwable failure) throws RpcException, UserException;
     }
@@ -177,6 +253,13 @@ public class Deployer {
         Preconditions.checkState(totalTableSinkDop >= 0,
                 "tableSinkTotalDop = %d should be >= 0", totalTableSinkDop);
 
+        // The fragment whose output sink differs between instances is deployed instance by instance.
+        PlanFragment planFragment = fragment.getPlanFragment();
+        boolean batchDeploy = enableBatchDeploy && !(planFragment instanceof MultiCastPlanFragment) &&
+                !(planFragment.getSink() instanceof ExportSink);
+        // desc table -> number of instances on the worker -> serialized common request.
+        Map<TDescriptorTable, Map<Integer, byte[]>> serializedCommonRequests = new IdentityHashMap<>();
+
         int accTabletSinkDop = 0;
         for (int stageIndex = 0; stageIndex < threeStageInstancesToDeploy.size(); stageIndex++) {
             List<FragmentInstance> stageInstances = threeStageInstancesToDeploy.get(stageIndex);
@@ -192,8 +275,18 @@ public class Deployer {
             }
 
             for (FragmentInstance instance : stageInstances) {
-                TExecPlanFragmentParams request =
-                        tFragmentInstanceFactory.create(instance, curDescTable, accTabletSinkDop, totalTableSinkDop);
+                byte[] serializedCommonRequest = null;
+                if (batchDeploy) {
+                    serializedCommonRequest = getSerializedCommonRequest(serializedCommonRequests, fragment,
+                            curDescTable, totalTableSinkDop, instance.getWorkerId());
+                }
+
+                TExecPlanFragmentParams request;
+                if (serializedCommonRequest != null) {
+                    request = tFragmentInstanceFactory.createUnique(instance, accTabletSinkDop);
+                } else {
+                    request = tFragmentInstanceFactory.create(instance, curDescTable, accTabletSinkDop, totalTableSinkDop);
+                }
                 if (enablePipelineTableSinkDop) {
                     accTabletSinkDop += instance.getTableSinkDop();
                 }
@@ -205,6 +298,7 @@ public class Deployer {
                         request,
                         instance.getWorker());
                 execution.setFragmentInstance(instance);
+                execution.setSerializedCommonRequest(serializedCommonRequest);
 
                 threeStageExecutionsToDeploy.get(stageIndex).add(execution);
 
@@ -222,6 +316,30 @@ public class Deployer {
         }
     }
 
+    /**
+     * The common request only depends on the desc table and the number of instances on the worker,
+     * so it is serialized once and shared by the workers with the same number of instances.
+     */
+    private byte[] getSerializedCommonRequest(Map<TDescriptorTable, Map<Integer, byte[]>> serializedCommonRequests,
+                                              ExecutionFragment fragment,
+                                              TDescriptorTable descTable,
+                                              int totalTableSinkDop,
+                                              long workerId) {
+        int numInstances = executionDAG.getNumInstancesOfWorkerId(workerId);
+        return serializedCommonRequests.computeIfAbsent(descTable, k -> new HashMap<>())
+                .computeIfAbsent(numInstances, k -> {
+                    try {
+                        return BatchPlanFragmentsRequestBuilder.serialize(
+                                tFragmentInstanceFactory.createCommon(fragment, descTable, totalTableSinkDop, workerId));
+                    } catch (TException e) {
+                        // deploy the instances one by one if failing to serialize the common request.
+                        LOG.warn("failed to serialize the common request of fragment {}",
+                                fragment.getFragmentId(), e);
+                        return null;
+                    }
+                });
+    }
+
     private void waitForDeploymentCompletion(List<FragmentInstanceExecState> executions) throws RpcException, UserException {
         if (executions.isEmpty()) {
             return;
@@ -334,11 +334,20 @@ public class QueryRuntimeProfile {
                 // Interval * 0.95 * 1000 to allow a certain range of deviation
                 now - lastTime > (connectContext.getSessionVariable().getRuntimeProfileReportInterval() * 950L) &&
                 lastRuntimeProfileUpdateTime.compareAndSet(lastTime, now)) {
+            // The top profile gets information from the context, so it must be built synchronously.
             RuntimeProfile profile = topProfileSupplier.get();
-            profile.addChild(buildQueryProfile(connectContext.needMergeProfile() || jobSpec.isBrokerLoad()));
+            boolean needMerge = connectContext.needMergeProfile() || jobSpec.isBrokerLoad();
             ProfilingExecPlan profilingPlan = plan.getProfilingPlan();
-            saveRunningProfile(profilingPlan, profile);
-            LOG.debug("update profile, profilingPlan: {}, profile: {}", profilingPlan, profile);
+            // Merge the instance profiles in the profile workers instead of the thread handling the report of BE.
+            // The running profile is best-effort, so just skip this round if the workers are busy.
+            if (EXECUTOR.getQueue().size() > Config.profile_process_blocking_queue_size) {
+                return;
+            }
+            EXECUTOR.submit(() -> {
+                profile.addChild(buildQueryProfile(needMerge));
+                saveRunningProfile(profilingPlan, profile);
+                LOG.debug("update profile, profilingPlan: {}, profile: {}", profilingPlan, profile);
+            });
         }
     }
 
@@ -348,7 +357,7 @@ public class QueryRuntimeProfile {
         if (topProfileSupplier == null) {
             return;
         }
-        ProfileManager.getInstance().pushProfile(profilingPlan, profile);
+        ProfileManager.getInstance().pushProfileLazily(profilingPlan, profile);
     }
 
     public void finalizeProfile() {
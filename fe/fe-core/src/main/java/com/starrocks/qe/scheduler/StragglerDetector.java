@@ -0,0 +1,146 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.planner.PlanFragmentId;
+import com.starrocks.qe.scheduler.dag.ExecutionFragment;
+import com.starrocks.qe.scheduler.dag.FragmentInstanceExecState;
+import com.starrocks.thrift.TUniqueId;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Detects the fragment instances of a query which are far behind their siblings of the same scan fragment.
+ *
+ * <p> A running instance is a straggler if at least half of the instances of its fragment have finished, and it has
+ * been running longer than {@link Config#straggler_instance_detection_ratio} times the median execution time of the
+ * finished siblings. Only the fragments with scan nodes are checked, because the work of their instances is
+ * partitioned by scan ranges and expected to be balanced.
+ *
+ * <p> The stragglers are not re-executed speculatively, because the exchange receivers count their senders by the
+ * fixed number of instances and cannot drop the output of a duplicate instance. Instead, the workers of the stragglers
+ * are penalized in {@link AdaptiveWorkerSelector} before the stragglers finish, so that the following queries avoid
+ * the slow workers.
+ *
+ * <p> It also feeds the execution times of the instances to {@link AdaptiveWorkerSelector} once all the instances of a
+ * fragment have finished, relative to the mean of the fragment. The detected stragglers are excluded from it and from
+ * the median, since their workers have been penalized on detection.
+ *
+ * <p> The detection is driven by the status reports of the instances rather than a timer, so a straggler is detected
+ * at the first report of any instance of the query after it crosses the threshold, i.e. within about the report
+ * interval of the backends ({@code status_report_interval}) when the query is still running.
+ *
+ * <p> All the methods are thread-safe.
+ */
+public class StragglerDetector {
+    // Detect at most once per interval, since it's called for each report of the instances.
+    private static final long DETECT_INTERVAL_MS = 1000;
+
+    // From fragment id to the worker id and the execution time of the finished instances.
+    private final Map<PlanFragmentId, List<Pair<Long, Long>>> fragmentToFinishedTimesMs = Maps.newHashMap();
+    private final Map<PlanFragmentId, Integer> fragmentToNumFinishedStragglers = Maps.newHashMap();
+    private final Set<TUniqueId> detectedInstanceIds = Sets.newHashSet();
+    private long lastDetectTimeMs = 0;
+
+    public synchronized void onInstanceFinished(FragmentInstanceExecState execution, long nowMs) {
+        if (execution.getDeployStartTimeMs() <= 0 || execution.getFragmentId() == null ||
+                execution.getWorker() == null) {
+            return;
+        }
+        List<Pair<Long, Long>> finishedTimesMs =
+                fragmentToFinishedTimesMs.computeIfAbsent(execution.getFragmentId(), k -> Lists.newArrayList());
+        int numFinishedStragglers;
+        if (detectedInstanceIds.contains(execution.getInstanceId())) {
+            numFinishedStragglers = fragmentToNumFinishedStragglers.merge(execution.getFragmentId(), 1, Integer::sum);
+        } else {
+            numFinishedStragglers = fragmentToNumFinishedStragglers.getOrDefault(execution.getFragmentId(), 0);
+            finishedTimesMs.add(Pair.create(execution.getWorker().getId(), nowMs - execution.getDeployStartTimeMs()));
+        }
+
+        if (execution.getFragmentInstance() != null && finishedTimesMs.size() + numFinishedStragglers ==
+                execution.getFragmentInstance().getExecFragment().getInstances().size()) {
+            AdaptiveWorkerSelector.getInstance().recordFragmentExecTimes(finishedTimesMs);
+        }
+    }
+
+    /**
+     * @return The median execution time of the finished instances of the fragment except the detected stragglers,
+     * or -1 if none has finished.
+     */
+    public synchronized long getMedianExecTimeMs(PlanFragmentId fragmentId) {
+        List<Pair<Long, Long>> finishedTimesMs = fragmentToFinishedTimesMs.get(fragmentId);
+        if (finishedTimesMs == null || finishedTimesMs.isEmpty()) {
+            return -1;
+        }
+        List<Long> sortedTimesMs = finishedTimesMs.stream().map(pair -> pair.second).sorted().collect(Collectors.toList());
+        return sortedTimesMs.get(sortedTimesMs.size() / 2);
+    }
+
+    /**
+     * @return The newly detected stragglers, each instance is returned at most once.
+     */
+    public synchronized List<FragmentInstanceExecState> detect(Collection<FragmentInstanceExecState> executions,
+                                                               long nowMs) {
+        if (fragmentToFinishedTimesMs.isEmpty() || nowMs - lastDetectTimeMs < DETECT_INTERVAL_MS) {
+            return Collections.emptyList();
+        }
+        lastDetectTimeMs = nowMs;
+
+        Map<PlanFragmentId, Long> fragmentToThresholdMs = Maps.newHashMap();
+        List<FragmentInstanceExecState> stragglers = Lists.newArrayList();
+        for (FragmentInstanceExecState execution : executions) {
+            if (!execution.hasBeenDeployed() || execution.isFinished() || execution.getDeployStartTimeMs() <= 0 ||
+                    execution.getFragmentInstance() == null || detectedInstanceIds.contains(execution.getInstanceId())) {
+                continue;
+            }
+            Long thresholdMs = fragmentToThresholdMs.computeIfAbsent(execution.getFragmentId(),
+                    k -> computeThresholdMs(execution.getFragmentInstance().getExecFragment()));
+            if (thresholdMs < 0) {
+                continue;
+            }
+            if (nowMs - execution.getDeployStartTimeMs() > thresholdMs) {
+                detectedInstanceIds.add(execution.getInstanceId());
+                stragglers.add(execution);
+            }
+        }
+        return stragglers;
+    }
+
+    /**
+     * @return The running time threshold of the stragglers, or -1 if the fragment isn't ready to check.
+     */
+    private long computeThresholdMs(ExecutionFragment fragment) {
+        List<Pair<Long, Long>> finishedTimesMs = fragmentToFinishedTimesMs.get(fragment.getFragmentId());
+        int numInstances = fragment.getInstances().size();
+        if (finishedTimesMs == null || fragment.getScanNodes().isEmpty() || numInstances < 2 ||
+                finishedTimesMs.size() * 2 < numInstances) {
+            return -1;
+        }
+
+        long medianMs = getMedianExecTimeMs(fragment.getFragmentId());
+        return Math.max((long) (medianMs * Config.straggler_instance_detection_ratio),
+                Config.straggler_instance_detection_min_ms);
+    }
+}
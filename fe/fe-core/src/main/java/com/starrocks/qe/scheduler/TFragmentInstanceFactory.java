@@ -36,6 +36,7 @@ import com.starrocks.thrift.TPlanFragmentExecParams;
 import com.starrocks.thrift.TPredicateTreeParams;
 import com.starrocks.thrift.TQueryOptions;
 import com.starrocks.thrift.TQueryQueueOptions;
+import com.starrocks.thrift.TUniqueId;
 import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.ArrayList;
@@ -186,21 +187,45 @@ public class TFragmentInstanceFactory {
         }
     }
 
+    /**
+     * Create the common params shared by the instances of the fragment on the worker, which is used by
+     * the batch deployment together with {@link #createUnique}.
+     */
+    public TExecPlanFragmentParams createCommon(ExecutionFragment execFragment,
+                                                TDescriptorTable descTable,
+                                                int totalTableSinkDop,
+                                                long workerId) {
+        TExecPlanFragmentParams result = new TExecPlanFragmentParams();
+        toThriftFromCommonParams(result, execFragment, descTable, totalTableSinkDop);
+        result.params.setInstances_number(executionDAG.getNumInstancesOfWorkerId(workerId));
+        // the instance fields are taken from the unique params, but they are required by thrift
+        result.params.setFragment_instance_id(new TUniqueId(0, 0));
+        result.params.setPer_node_scan_ranges(new HashMap<>());
+        return result;
+    }
+
+    /**
+     * Create the unique params of the instance, which is used by the batch deployment.
+     * It doesn't contain the output sink, so the fragment whose output sink differs between instances
+     * cannot be deployed in batch.
+     */
+    public TExecPlanFragmentParams createUnique(FragmentInstance instance, int accTabletSinkDop) {
+        TExecPlanFragmentParams result = new TExecPlanFragmentParams();
+        result.setProtocol_version(InternalServiceVersion.V1);
+        result.setParams(new TPlanFragmentExecParams());
+        // the common fields are taken from the common params, but they are required by thrift
+        result.params.setQuery_id(jobSpec.getQueryId());
+        result.params.setPer_exch_num_senders(new HashMap<>());
+        toThriftForInstanceParams(result, instance, accTabletSinkDop);
+        return result;
+    }
+
     private void toThriftForUniqueParams(TExecPlanFragmentParams result,
                                          FragmentInstance instance,
                                          int accTabletSinkDop) {
         ExecutionFragment execFragment = instance.getExecFragment();
         PlanFragment fragment = execFragment.getPlanFragment();
 
-        boolean isEnablePipeline = jobSpec.isEnablePipeline();
-        boolean isEnablePipelineTableSinkDop = isEnablePipeline && fragment.hasTableSink();
-
-        result.setBackend_num(instance.getIndexInJob());
-        if (isEnablePipeline) {
-            result.setPipeline_dop(instance.getPipelineDop());
-            result.setGroup_execution_scan_dop(instance.getGroupExecutionScanDop());
-        }
-
         // Add instance number in file name prefix when export job.
         if (fragment.getSink() instanceof ExportSink) {
             ExportSink exportSink = (ExportSink) fragment.getSink();
@@ -228,6 +253,24 @@ public class TFragmentInstanceFactory {
         }
 
         result.params.setInstances_number(executionDAG.getNumInstancesOfWorkerId(instance.getWorkerId()));
+        toThriftForInstanceParams(result, instance, accTabletSinkDop);
+    }
+
+    private void toThriftForInstanceParams(TExecPlanFragmentParams result,
+                                           FragmentInstance instance,
+                                           int accTabletSinkDop) {
+        ExecutionFragment execFragment = instance.getExecFragment();
+        PlanFragment fragment = execFragment.getPlanFragment();
+
+        boolean isEnablePipeline = jobSpec.isEnablePipeline();
+        boolean isEnablePipelineTableSinkDop = isEnablePipeline && fragment.hasTableSink();
+
+        result.setBackend_num(instance.getIndexInJob());
+        if (isEnablePipeline) {
+            result.setPipeline_dop(instance.getPipelineDop());
+            result.setGroup_execution_scan_dop(instance.getGroupExecutionScanDop());
+        }
+
         result.params.setFragment_instance_id(instance.getInstanceId());
         result.params.setPer_node_scan_ranges(instance.getNode2ScanRanges());
         result.params.setNode_to_per_driver_seq_scan_ranges(instance.getNode2DriverSeqToScanRanges());
@@ -25,6 +25,8 @@ import com.starrocks.proto.PPlanFragmentCancelReason;
 import com.starrocks.proto.StatusPB;
 import com.starrocks.qe.QueryStatisticsItem;
 import com.starrocks.qe.SimpleScheduler;
+import com.starrocks.qe.scheduler.AdaptiveWorkerSelector;
+import com.starrocks.qe.scheduler.BatchPlanFragmentsRequestBuilder;
 import com.starrocks.rpc.AttachmentRequest;
 import com.starrocks.rpc.BackendServiceClient;
 import com.starrocks.rpc.RpcException;
@@ -86,7 +88,13 @@ public class FragmentInstanceExecState {
      */
     private TExecPlanFragmentParams requestToDeploy;
     private byte[] serializedRequest;
+    /**
+     * The serialized common params shared by the instances of the fragment on the same worker, if the instance is
+     * deployed in batch. In this case, requestToDeploy only contains the unique params of this instance.
+     */
+    private byte[] serializedCommonRequest;
     private Future<PExecPlanFragmentResult> deployFuture = null;
+    private volatile long deployStartTimeMs = 0;
 
     private final int fragmentIndex;
     private final RuntimeProfile profile;
@@ -170,12 +178,32 @@ public class FragmentInstanceExecState {
         }
     }
 
+    public boolean isBatchDeploy() {
+        return serializedCommonRequest != null;
+    }
+
+    public byte[] getSerializedCommonRequest() {
+        return serializedCommonRequest;
+    }
+
+    public void setSerializedCommonRequest(byte[] serializedCommonRequest) {
+        this.serializedCommonRequest = serializedCommonRequest;
+    }
+
+    /**
+     * Serialize the unique params of the instance deployed in batch by the binary protocol.
+     */
+    public byte[] serializeUniqueRequest() throws TException {
+        return BatchPlanFragmentsRequestBuilder.serialize(requestToDeploy);
+    }
+
     /**
      * Deploy the fragment instance to the worker asynchronously.
      * The state transitions to DEPLOYING.
      */
     public void deployAsync() {
         transitionState(State.DEPLOYING);
+        deployStartTimeMs = System.currentTimeMillis();
 
         TNetworkAddress brpcAddress = worker.getBrpcAddress();
         try {
@@ -190,44 +218,59 @@ public class FragmentInstanceExecState {
         } catch (RpcException | TException e) {
             // DO NOT throw exception here, return a complete future with error code,
             // so that the following logic will cancel the fragment.
-            deployFuture = new Future<PExecPlanFragmentResult>() {
-                @Override
-                public boolean cancel(boolean mayInterruptIfRunning) {
-                    return false;
-                }
+            deployFuture = failedDeployFuture(e);
+        }
+    }
 
-                @Override
-                public boolean isCancelled() {
-                    return false;
-                }
+    /**
+     * Deploy the fragment instance by a batch request shared with the other instances on the same worker.
+     * The request has been sent by the caller, so the state just transitions to DEPLOYING.
+     */
+    public void deployAsync(Future<PExecPlanFragmentResult> batchDeployFuture) {
+        transitionState(State.DEPLOYING);
+        deployStartTimeMs = System.currentTimeMillis();
+        requestToDeploy = null;
+        deployFuture = batchDeployFuture;
+    }
 
-                @Override
-                public boolean isDone() {
-                    return true;
-                }
+    public static Future<PExecPlanFragmentResult> failedDeployFuture(Exception e) {
+        return new Future<PExecPlanFragmentResult>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false;
+            }
 
-                @Override
-                public PExecPlanFragmentResult get() {
-                    PExecPlanFragmentResult result = new PExecPlanFragmentResult();
-                    StatusPB pStatus = new StatusPB();
-                    pStatus.errorMsgs = Lists.newArrayList();
-                    pStatus.errorMsgs.add(e.getMessage());
-                    if (e instanceof RpcException) {
-                        // use THRIFT_RPC_ERROR so that this BE will be added to the blacklist later.
-                        pStatus.statusCode = TStatusCode.THRIFT_RPC_ERROR.getValue();
-                    } else {
-                        pStatus.statusCode = TStatusCode.INTERNAL_ERROR.getValue();
-                    }
-                    result.status = pStatus;
-                    return result;
-                }
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public boolean isDone() {
+                return true;
+            }
 
-                @Override
-                public PExecPlanFragmentResult get(long timeout, @NotNull TimeUnit unit) {
-                    return get();
+            @Override
+            public PExecPlanFragmentResult get() {
+                PExecPlanFragmentResult result = new PExecPlanFragmentResult();
+                StatusPB pStatus = new StatusPB();
+                pStatus.errorMsgs = Lists.newArrayList();
+                pStatus.errorMsgs.add(e.getMessage());
+                if (e instanceof RpcException) {
+                    // use THRIFT_RPC_ERROR so that this BE will be added to the blacklist later.
+                    pStatus.statusCode = TStatusCode.THRIFT_RPC_ERROR.getValue();
+                } else {
+                    pStatus.statusCode = TStatusCode.INTERNAL_ERROR.getValue();
                 }
-            };
-        }
+                result.status = pStatus;
+                return result;
+            }
+
+            @Override
+            public PExecPlanFragmentResult get(long timeout, @NotNull TimeUnit unit) {
+                return get();
+            }
+        };
     }
 
     public static class DeploymentResult {
@@ -292,6 +335,8 @@ public class FragmentInstanceExecState {
 
         if (code == TStatusCode.OK) {
             transitionState(State.DEPLOYING, State.EXECUTING);
+            AdaptiveWorkerSelector.getInstance().recordDeployLatency(worker.getId(),
+                    System.currentTimeMillis() - deployStartTimeMs);
         } else {
             transitionState(State.DEPLOYING, State.FAILED);
 
@@ -382,6 +427,13 @@ public class FragmentInstanceExecState {
         return state.hasBeenDeployed();
     }
 
+    /**
+     * @return The time when the deployment starts, or 0 if it hasn't been deployed.
+     */
+    public long getDeployStartTimeMs() {
+        return deployStartTimeMs;
+    }
+
     public boolean isFinished() {
         return state.isTerminal();
     }
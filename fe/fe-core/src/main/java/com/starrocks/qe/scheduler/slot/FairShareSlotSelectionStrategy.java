@@ -0,0 +1,313 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.slot;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.metric.ResourceGroupMetricMgr;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.thrift.TUniqueId;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Admit the requiring slots by weighted fair queuing across resource groups.
+ *
+ * <p> Each resource group has its own FIFO queue, and the weight of a group is its cpu_weight (or the exclusive cpu cores).
+ * The group to admit the next slot is the one with the minimum virtual time, and the virtual time of a group increases
+ * {@code numPhysicalSlots / weight} each time a slot of it is admitted. A group which becomes non-empty again starts from
+ * the current system virtual time, so an idle group cannot accumulate credits.
+ *
+ * <p> A slot is admitted only if both the physical slots and the estimated peak memory of the running queries are enough.
+ * The memory limit is {@link Config#query_queue_v2_mem_admission_ratio} of the total memory of BEs.
+ *
+ * <p> Short queries, which require only one slot, bypass the group queues and are allocated from the small extra slots
+ * first, the same as {@link SlotSelectionStrategyV2}, but still limited by the memory.
+ *
+ * <p> The category of the query queue metrics is the name of the resource group.
+ */
+public class FairShareSlotSelectionStrategy implements SlotSelectionStrategy {
+    private static final long UPDATE_OPTIONS_INTERVAL_MS = 1000;
+
+    private final LongFunction<ResourceGroup> groupGetter;
+
+    private long lastUpdateOptionsTime = 0;
+    private QueryQueueOptions opts = null;
+
+    private final Map<TUniqueId, SlotContext> slotContexts = Maps.newHashMap();
+    private final Map<Long, GroupQueue> groupQueues = Maps.newHashMap();
+    private double systemVirtualTime = 0;
+
+    private final LinkedHashMap<TUniqueId, SlotContext> requiringSmallSlots = new LinkedHashMap<>();
+    private int numAllocatedSmallSlots = 0;
+    private long allocatedMemBytes = 0;
+
+    public FairShareSlotSelectionStrategy() {
+        this(groupId -> GlobalStateMgr.getCurrentState().getResourceGroupMgr().getResourceGroup(groupId));
+    }
+
+    @VisibleForTesting
+    FairShareSlotSelectionStrategy(LongFunction<ResourceGroup> groupGetter) {
+        this.groupGetter = groupGetter;
+    }
+
+    @Override
+    public void onRequireSlot(LogicalSlot slot) {
+        updateOptionsPeriodically();
+
+        GroupQueue groupQueue = groupQueues.computeIfAbsent(slot.getGroupId(), this::createGroupQueue);
+        SlotContext slotContext = new SlotContext(slot, groupQueue.name, System.currentTimeMillis());
+        slotContexts.put(slot.getSlotId(), slotContext);
+        if (isSmallSlot(slot)) {
+            requiringSmallSlots.put(slot.getSlotId(), slotContext);
+        }
+        groupQueue.add(slotContext);
+
+        MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(slotContext.category)
+                .increase((long) slot.getNumPhysicalSlots());
+    }
+
+    @Override
+    public void onAllocateSlot(LogicalSlot slot) {
+        updateOptionsPeriodically();
+
+        SlotContext slotContext = slotContexts.get(slot.getSlotId());
+        if (slotContext == null) {
+            return;
+        }
+
+        requiringSmallSlots.remove(slot.getSlotId());
+        if (slotContext.allocatedAsSmallSlot) {
+            numAllocatedSmallSlots += slot.getNumPhysicalSlots();
+        }
+        allocatedMemBytes += slot.getMemBytes();
+
+        GroupQueue groupQueue = groupQueues.get(slot.getGroupId());
+        if (groupQueue != null) {
+            groupQueue.remove(slotContext);
+            if (MetricRepo.hasInit) {
+                ResourceGroupMetricMgr.updateQueryQueueWaitLatency(groupQueue.name,
+                        System.currentTimeMillis() - slotContext.requireTimeMs);
+            }
+        }
+
+        String category = slotContext.category;
+        MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(category).increase((long) -slot.getNumPhysicalSlots());
+        MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_RUNNING.getMetric(category).increase((long) slot.getNumPhysicalSlots());
+        MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_ALLOCATED_TOTAL.getMetric(category)
+                .increase((long) slot.getNumPhysicalSlots());
+    }
+
+    @Override
+    public void onReleaseSlot(LogicalSlot slot) {
+        updateOptionsPeriodically();
+
+        SlotContext slotContext = slotContexts.remove(slot.getSlotId());
+        if (slotContext == null) {
+            return;
+        }
+
+        requiringSmallSlots.remove(slot.getSlotId());
+        GroupQueue groupQueue = groupQueues.get(slot.getGroupId());
+        if (groupQueue == null || !groupQueue.remove(slotContext)) {
+            // The slot has been allocated.
+            if (slotContext.allocatedAsSmallSlot) {
+                numAllocatedSmallSlots -= slot.getNumPhysicalSlots();
+            }
+            allocatedMemBytes -= slot.getMemBytes();
+            MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_RUNNING.getMetric(slotContext.category)
+                    .increase((long) -slot.getNumPhysicalSlots());
+        } else {
+            MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(slotContext.category)
+                    .increase((long) -slot.getNumPhysicalSlots());
+        }
+    }
+
+    @Override
+    public List<LogicalSlot> peakSlotsToAllocate(SlotTracker slotTracker) {
+        updateOptionsPeriodically();
+
+        List<LogicalSlot> slotsToAllocate = Lists.newArrayList();
+
+        int curNumAllocatedSmallSlots = numAllocatedSmallSlots;
+        long curAllocatedMemBytes = allocatedMemBytes;
+        for (SlotContext slotContext : requiringSmallSlots.values()) {
+            LogicalSlot slot = slotContext.slot;
+            if (curNumAllocatedSmallSlots + slot.getNumPhysicalSlots() > opts.v2().getTotalSmallSlots() ||
+                    !isMemAvailable(curAllocatedMemBytes, slot)) {
+                break;
+            }
+
+            groupQueues.get(slot.getGroupId()).remove(slotContext);
+
+            slotsToAllocate.add(slot);
+            slotContext.allocatedAsSmallSlot = true;
+            curNumAllocatedSmallSlots += slot.getNumPhysicalSlots();
+            curAllocatedMemBytes += slot.getMemBytes();
+        }
+
+        int numAllocatedSlots = slotTracker.getNumAllocatedSlots() - numAllocatedSmallSlots;
+        while (true) {
+            GroupQueue groupQueue = peakGroupQueue();
+            if (groupQueue == null) {
+                break;
+            }
+
+            // Do not skip the head slot to avoid starving the large queries.
+            LogicalSlot slot = groupQueue.peak().slot;
+            if (!isGlobalSlotAvailable(numAllocatedSlots, slot) || !isMemAvailable(curAllocatedMemBytes, slot)) {
+                break;
+            }
+
+            groupQueue.poll();
+            systemVirtualTime = groupQueue.virtualTime;
+            groupQueue.virtualTime += (double) slot.getNumPhysicalSlots() / groupQueue.weight;
+
+            slotsToAllocate.add(slot);
+            numAllocatedSlots += slot.getNumPhysicalSlots();
+            curAllocatedMemBytes += slot.getMemBytes();
+        }
+
+        return slotsToAllocate;
+    }
+
+    private GroupQueue peakGroupQueue() {
+        GroupQueue minQueue = null;
+        for (GroupQueue queue : groupQueues.values()) {
+            if (queue.isEmpty()) {
+                continue;
+            }
+            if (minQueue == null || queue.virtualTime < minQueue.virtualTime ||
+                    (queue.virtualTime == minQueue.virtualTime && queue.groupId < minQueue.groupId)) {
+                minQueue = queue;
+            }
+        }
+        return minQueue;
+    }
+
+    private void updateOptionsPeriodically() {
+        long now = System.currentTimeMillis();
+        if (now - lastUpdateOptionsTime < UPDATE_OPTIONS_INTERVAL_MS) {
+            return;
+        }
+
+        lastUpdateOptionsTime = now;
+        opts = QueryQueueOptions.createFromEnv();
+
+        // The weights of groups may be altered, and the dropped groups without any requiring slot can be removed.
+        groupQueues.values().removeIf(queue -> queue.isEmpty() && queue.virtualTime <= systemVirtualTime);
+        groupQueues.values().forEach(queue -> queue.weight = getGroupWeight(groupGetter.apply(queue.groupId)));
+    }
+
+    private boolean isGlobalSlotAvailable(int numAllocatedSlots, LogicalSlot slot) {
+        final int numTotalSlots = opts.v2().getTotalSlots();
+        return numAllocatedSlots == 0 || numAllocatedSlots + slot.getNumPhysicalSlots() <= numTotalSlots;
+    }
+
+    private boolean isMemAvailable(long curAllocatedMemBytes, LogicalSlot slot) {
+        final double ratio = Config.query_queue_v2_mem_admission_ratio;
+        final long totalMemBytes = opts.v2().getTotalMemBytes();
+        if (ratio <= 0 || totalMemBytes == Long.MAX_VALUE) {
+            return true;
+        }
+        return curAllocatedMemBytes == 0 || curAllocatedMemBytes + slot.getMemBytes() <= totalMemBytes * ratio;
+    }
+
+    private GroupQueue createGroupQueue(long groupId) {
+        ResourceGroup group = groupGetter.apply(groupId);
+        String name = group == null ? ResourceGroup.DEFAULT_RESOURCE_GROUP_NAME : group.getName();
+        return new GroupQueue(groupId, name, getGroupWeight(group));
+    }
+
+    private static int getGroupWeight(ResourceGroup group) {
+        if (group == null) {
+            return 1;
+        }
+        if (group.getNormalizedExclusiveCpuCores() > 0) {
+            return group.getNormalizedExclusiveCpuCores();
+        }
+        return Math.max(1, group.geNormalizedCpuWeight());
+    }
+
+    private static boolean isSmallSlot(LogicalSlot slot) {
+        return slot.getNumPhysicalSlots() <= 1;
+    }
+
+    @VisibleForTesting
+    double getGroupVirtualTime(long groupId) {
+        GroupQueue queue = groupQueues.get(groupId);
+        return queue == null ? 0 : queue.virtualTime;
+    }
+
+    private class GroupQueue {
+        private final long groupId;
+        private final String name;
+        private int weight;
+        private double virtualTime = 0;
+        private final LinkedHashMap<TUniqueId, SlotContext> slots = new LinkedHashMap<>();
+
+        public GroupQueue(long groupId, String name, int weight) {
+            this.groupId = groupId;
+            this.name = name;
+            this.weight = weight;
+        }
+
+        public boolean isEmpty() {
+            return slots.isEmpty();
+        }
+
+        public void add(SlotContext slotContext) {
+            if (slots.isEmpty()) {
+                virtualTime = Math.max(virtualTime, systemVirtualTime);
+            }
+            slots.put(slotContext.slot.getSlotId(), slotContext);
+        }
+
+        public boolean remove(SlotContext slotContext) {
+            return slots.remove(slotContext.slot.getSlotId()) != null;
+        }
+
+        public SlotContext peak() {
+            return slots.values().iterator().next();
+        }
+
+        public SlotContext poll() {
+            SlotContext slotContext = peak();
+            remove(slotContext);
+            return slotContext;
+        }
+    }
+
+    private static class SlotContext {
+        private final LogicalSlot slot;
+        // The group may be renamed or dropped while the slot is running, keep the category of the metrics unchanged.
+        private final String category;
+        private final long requireTimeMs;
+        private boolean allocatedAsSmallSlot = false;
+
+        public SlotContext(LogicalSlot slot, String category, long requireTimeMs) {
+            this.slot = slot;
+            this.category = category;
+            this.requireTimeMs = requireTimeMs;
+        }
+    }
+}
@@ -51,12 +51,23 @@ public class LogicalSlot {
     private final long startTimeMs;
     private final int numFragments;
     private int pipelineDop;
+    /**
+     * The estimated peak memory of the query, or 0 if it is unknown.
+     */
+    private final long memBytes;
 
     private State state = State.CREATED;
 
     public LogicalSlot(TUniqueId slotId, String requestFeName, long groupId, int numPhysicalSlots,
                        long expiredPendingTimeMs, long expiredAllocatedTimeMs, long feStartTimeMs,
                        int numFragments, int pipelineDop) {
+        this(slotId, requestFeName, groupId, numPhysicalSlots, expiredPendingTimeMs, expiredAllocatedTimeMs, feStartTimeMs,
+                numFragments, pipelineDop, 0);
+    }
+
+    public LogicalSlot(TUniqueId slotId, String requestFeName, long groupId, int numPhysicalSlots,
+                       long expiredPendingTimeMs, long expiredAllocatedTimeMs, long feStartTimeMs,
+                       int numFragments, int pipelineDop, long memBytes) {
         this.slotId = slotId;
         this.requestFeName = requestFeName;
         this.groupId = groupId;
@@ -67,6 +78,7 @@ public class LogicalSlot {
         this.startTimeMs = System.currentTimeMillis();
         this.numFragments = numFragments;
         this.pipelineDop = pipelineDop;
+        this.memBytes = Math.max(memBytes, 0);
     }
 
     public State getState() {
@@ -103,7 +115,8 @@ public class LogicalSlot {
                 .setExpired_allocated_time_ms(expiredAllocatedTimeMs)
                 .setFe_start_time_ms(feStartTimeMs)
                 .setNum_fragments(numFragments)
-                .setPipeline_dop(pipelineDop);
+                .setPipeline_dop(pipelineDop)
+                .setMem_bytes(memBytes);
 
         return tslot;
     }
@@ -111,7 +124,7 @@ public class LogicalSlot {
     public static LogicalSlot fromThrift(TResourceLogicalSlot tslot) {
         return new LogicalSlot(tslot.getSlot_id(), tslot.getRequest_fe_name(), tslot.getGroup_id(), tslot.getNum_slots(),
                 tslot.getExpired_pending_time_ms(), tslot.getExpired_allocated_time_ms(), tslot.getFe_start_time_ms(),
-                tslot.getNum_fragments(), tslot.getPipeline_dop());
+                tslot.getNum_fragments(), tslot.getPipeline_dop(), tslot.getMem_bytes());
     }
 
     public TUniqueId getSlotId() {
@@ -174,6 +187,10 @@ public class LogicalSlot {
         this.pipelineDop = pipelineDop;
     }
 
+    public long getMemBytes() {
+        return memBytes;
+    }
+
     @Override
     public String toString() {
         return "LogicalSlot{" +
@@ -181,6 +198,7 @@ public class LogicalSlot {
                 ", requestFeName='" + requestFeName + '\'' +
                 ", groupId=" + groupId +
                 ", numPhysicalSlots=" + numPhysicalSlots +
+                ", memBytes=" + memBytes +
                 ", expiredPendingTimeMs=" + TimeUtils.longToTimeString(expiredPendingTimeMs) +
                 ", expiredAllocatedTimeMs=" + TimeUtils.longToTimeString(expiredAllocatedTimeMs) +
                 ", feStartTimeMs=" + TimeUtils.longToTimeString(feStartTimeMs) +
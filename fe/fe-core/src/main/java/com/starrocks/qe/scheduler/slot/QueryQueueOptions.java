@@ -87,6 +87,7 @@ public class QueryQueueOptions {
 
         private final int totalSlots;
         private final long memBytesPerSlot;
+        private final long totalMemBytes;
         private final long cpuCostsPerSlot;
         private final int totalSmallSlots;
 
@@ -114,6 +115,8 @@ public class QueryQueueOptions {
             this.totalSmallSlots = normNumCoresPerWorker;
             this.memBytesPerSlot = isAnyZero(memLimitBytesPerWorker, numCoresPerWorker) ? Long.MAX_VALUE :
                     memLimitBytesPerWorker / totalSlotsPerWorker;
+            this.totalMemBytes = isAnyZero(memLimitBytesPerWorker, numCoresPerWorker) ? Long.MAX_VALUE :
+                    memLimitBytesPerWorker * normNumWorkers;
             this.cpuCostsPerSlot = normCpuCostsPerSlot;
         }
 
@@ -133,6 +136,10 @@ public class QueryQueueOptions {
             return memBytesPerSlot;
         }
 
+        public long getTotalMemBytes() {
+            return totalMemBytes;
+        }
+
         public int getTotalSmallSlots() {
             return totalSmallSlots;
         }
@@ -151,13 +158,14 @@ public class QueryQueueOptions {
             }
             V2 v2 = (V2) o;
             return numWorkers == v2.numWorkers && numRowsPerSlot == v2.numRowsPerSlot && totalSlots == v2.totalSlots &&
-                    memBytesPerSlot == v2.memBytesPerSlot && totalSmallSlots == v2.totalSmallSlots &&
-                    cpuCostsPerSlot == v2.cpuCostsPerSlot;
+                    memBytesPerSlot == v2.memBytesPerSlot && totalMemBytes == v2.totalMemBytes &&
+                    totalSmallSlots == v2.totalSmallSlots && cpuCostsPerSlot == v2.cpuCostsPerSlot;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(numWorkers, numRowsPerSlot, totalSlots, memBytesPerSlot, totalSmallSlots, cpuCostsPerSlot);
+            return Objects.hash(numWorkers, numRowsPerSlot, totalSlots, memBytesPerSlot, totalMemBytes, totalSmallSlots,
+                    cpuCostsPerSlot);
         }
     }
 
@@ -127,7 +127,9 @@ public class SlotManager {
     public SlotManager(ResourceUsageMonitor resourceUsageMonitor) {
         resourceUsageMonitor.registerResourceAvailableListener(this::notifyResourceUsageAvailable);
 
-        if (Config.enable_query_queue_v2) {
+        if (Config.enable_query_queue_v2 && Config.query_queue_v2_enable_fair_share) {
+            this.slotSelectionStrategy = new FairShareSlotSelectionStrategy();
+        } else if (Config.enable_query_queue_v2) {
             this.slotSelectionStrategy = new SlotSelectionStrategyV2();
         } else {
             this.slotSelectionStrategy = new DefaultSlotSelectionStrategy(
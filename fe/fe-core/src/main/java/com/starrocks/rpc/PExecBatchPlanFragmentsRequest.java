@@ -15,8 +15,31 @@
 
 package com.starrocks.rpc;
 
+import com.baidu.bjf.remoting.protobuf.annotation.Protobuf;
 import com.baidu.bjf.remoting.protobuf.annotation.ProtobufClass;
 
 @ProtobufClass
 public class PExecBatchPlanFragmentsRequest extends AttachmentRequest {
+    // value of CompressionTypePB, the attachment is not compressed if absent
+    @Protobuf(order = 1, required = false)
+    Integer attachmentCompressionType;
+
+    @Protobuf(order = 2, required = false)
+    Long attachmentUncompressedSize;
+
+    public Integer getAttachmentCompressionType() {
+        return attachmentCompressionType;
+    }
+
+    public void setAttachmentCompressionType(Integer attachmentCompressionType) {
+        this.attachmentCompressionType = attachmentCompressionType;
+    }
+
+    public Long getAttachmentUncompressedSize() {
+        return attachmentUncompressedSize;
+    }
+
+    public void setAttachmentUncompressedSize(Long attachmentUncompressedSize) {
+        this.attachmentUncompressedSize = attachmentUncompressedSize;
+    }
 }
@@ -37,7 +37,9 @@ package com.starrocks.server;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.alter.AlterJobMgr;
@@ -124,6 +126,7 @@ import com.starrocks.journal.JournalEntity;
 import com.starrocks.journal.JournalException;
 import com.starrocks.journal.JournalFactory;
 import com.starrocks.journal.JournalInconsistentException;
+import com.starrocks.journal.JournalReplayPipeline;
 import com.starrocks.journal.JournalTask;
 import com.starrocks.journal.JournalWriter;
 import com.starrocks.journal.bdbje.Timestamp;
@@ -159,9 +162,11 @@ import com.starrocks.memory.ProcProfileCollector;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.persist.BackendIdsUpdateInfo;
 import com.starrocks.persist.EditLog;
+import com.starrocks.persist.ImageFooter;
 import com.starrocks.persist.ImageFormatVersion;
 import com.starrocks.persist.ImageHeader;
 import com.starrocks.persist.ImageLoader;
+import com.starrocks.persist.ImageSectionTracker;
 import com.starrocks.persist.ImageWriter;
 import com.starrocks.persist.OperationType;
 import com.starrocks.persist.Storage;
@@ -172,6 +177,7 @@ import com.starrocks.persist.metablock.SRMetaBlockException;
 import com.starrocks.persist.metablock.SRMetaBlockID;
 import com.starrocks.persist.metablock.SRMetaBlockLoader;
 import com.starrocks.persist.metablock.SRMetaBlockReader;
+import com.starrocks.persist.metablock.SRMetaBlockSaver;
 import com.starrocks.plugin.PluginMgr;
 import com.starrocks.privilege.AccessControlProvider;
 import com.starrocks.privilege.AuthorizationMgr;
@@ -236,6 +242,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -252,11 +259,16 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 public class GlobalStateMgr {
     private static final Logger LOG = LogManager.getLogger(GlobalStateMgr.class);
@@ -268,6 +280,25 @@ public class GlobalStateMgr {
     private static final long REPLAYER_MAX_MS_PER_LOOP = 1000L;
     private static final long REPLAYER_MAX_LOGS_PER_LOOP = 100000L;
 
+    // The meta blocks which neither link to the catalog nor to the other meta blocks when loading,
+    // they can be loaded concurrently with the others.
+    private static final Set<SRMetaBlockID> INDEPENDENT_META_BLOCKS = ImmutableSet.of(
+            SRMetaBlockID.VARIABLE_MGR,
+            SRMetaBlockID.RESOURCE_MGR,
+            SRMetaBlockID.EXPORT_MGR,
+            SRMetaBlockID.ROUTINE_LOAD_MGR,
+            SRMetaBlockID.LOAD_MGR,
+            SRMetaBlockID.SMALL_FILE_MGR,
+            SRMetaBlockID.RESOURCE_GROUP_MGR,
+            SRMetaBlockID.AUTHENTICATION_MGR,
+            SRMetaBlockID.AUTHORIZATION_MGR,
+            SRMetaBlockID.TASK_MGR,
+            SRMetaBlockID.STREAM_LOAD_MGR,
+            SRMetaBlockID.GLOBAL_FUNCTION_MGR,
+            SRMetaBlockID.STORAGE_VOLUME_MGR,
+            SRMetaBlockID.KEY_MGR,
+            SRMetaBlockID.WAREHOUSE_MGR);
+
     /**
      * Meta and Image context
      */
@@ -314,6 +345,10 @@ public class GlobalStateMgr {
     private FrontendDaemon tableKeeper;   // Maintain internal history tables
     private JournalWriter journalWriter; // leader only: write journal log
     private Daemon replayer;
+    // replay the journals of different databases concurrently, null to replay all journals in the replayer thread
+    private JournalReplayPipeline journalReplayPipeline;
+    // decode the journals ahead of replaying them, null to decode them in the replayer thread
+    private ExecutorService journalDecodeExecutor;
     private Daemon timePrinter;
     private final EsRepository esRepository;  // it is a daemon, so add it here
     private final MetastoreEventsProcessor metastoreEventsProcessor;
@@ -482,6 +517,8 @@ public class GlobalStateMgr {
     private final GlobalLoadJobListenerBus operationListenerBus = new GlobalLoadJobListenerBus();
 
     private final DictionaryMgr dictionaryMgr = new DictionaryMgr();
+    // meta blocks not changed since the image loaded by checkpoint
+    private final ImageSectionTracker imageSectionTracker = new ImageSectionTracker();
     private final RefreshDictionaryCacheTaskDaemon refreshDictionaryCacheTaskDaemon;
 
     private MemoryUsageTracker memoryUsageTracker;
@@ -1522,6 +1559,39 @@ public class GlobalStateMgr {
                     .put(SRMetaBlockID.WAREHOUSE_MGR, warehouseMgr::load)
                     .build();
 
+        // the threads of checkpoint cannot be used to load meta, see GlobalStateMgr.getCurrentState()
+        ImageFooter footer = null;
+        if (Config.metadata_image_load_threads > 1 && !GlobalStateMgr.isCheckpointThread()) {
+            footer = imageLoader.readFooter();
+        }
+        if (footer != null) {
+            loadImageInParallel(imageLoader, footer, loadImages);
+        } else {
+            loadImageSequentially(imageLoader, loadImages);
+        }
+
+        if (GlobalStateMgr.isCheckpointThread() && Config.metadata_enable_incremental_checkpoint &&
+                imageLoader.getImageFormatVersion() == ImageFormatVersion.v2) {
+            ImageFooter baseFooter = footer != null ? footer : imageLoader.readFooter();
+            if (baseFooter != null) {
+                imageSectionTracker.setBaseImage(curFile, baseFooter);
+            }
+        }
+
+        try {
+            postLoadImage();
+        } catch (Exception t) {
+            LOG.warn("there is an exception during processing after load image. exception:", t);
+        }
+
+        long loadImageEndTime = System.currentTimeMillis();
+        this.imageJournalId = imageLoader.getImageJournalId();
+        LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms");
+    }
+
+    private void loadImageSequentially(ImageLoader imageLoader, Map<SRMetaBlockID, SRMetaBlockLoader> loadImages)
+            throws IOException {
+        File curFile = imageLoader.getImageFile();
         Set<SRMetaBlockID> metaMgrMustExists = new HashSet<>(loadImages.keySet());
         InputStream in = Files.newInputStream(curFile.toPath());
         try {
@@ -1580,16 +1650,117 @@ public class GlobalStateMgr {
         }
 
         imageLoader.checkCheckSum();
+    }
 
+    /**
+     * Load the meta blocks recorded in the image footer concurrently.
+     * The meta blocks in {@link #INDEPENDENT_META_BLOCKS} are loaded by different threads, while the others, which
+     * may link to the catalog or to each other, are loaded one by one by a single thread in the image order.
+     */
+    private void loadImageInParallel(ImageLoader imageLoader, ImageFooter footer,
+                                     Map<SRMetaBlockID, SRMetaBlockLoader> loadImages) throws IOException {
+        try (InputStream in = Files.newInputStream(imageLoader.getImageFile().toPath())) {
+            loadHeader(new DataInputStream(new BufferedInputStream(in)));
+        }
+
+        List<ImageFooter.Section> dependentSections = new ArrayList<>();
+        List<ImageFooter.Section> independentSections = new ArrayList<>();
+        for (ImageFooter.Section section : footer.getSections()) {
+            if (INDEPENDENT_META_BLOCKS.contains(section.getId())) {
+                independentSections.add(section);
+            } else {
+                dependentSections.add(section);
+            }
+        }
+
+        Set<SRMetaBlockID> metaMgrMustExists = ConcurrentHashMap.newKeySet();
+        metaMgrMustExists.addAll(loadImages.keySet());
+        int threadNum = Math.min(Config.metadata_image_load_threads, independentSections.size() + 2);
+        ThreadPoolExecutor executor = ThreadPoolManager.newDaemonFixedThreadPool(threadNum,
+                independentSections.size() + 2, "image-loader", false);
         try {
-            postLoadImage();
-        } catch (Exception t) {
-            LOG.warn("there is an exception during processing after load image. exception:", t);
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (ImageFooter.Section section : dependentSections) {
+                    loadImageSection(imageLoader, section, loadImages, metaMgrMustExists);
+                }
+                return null;
+            }));
+            for (ImageFooter.Section section : independentSections) {
+                futures.add(executor.submit(() -> {
+                    loadImageSection(imageLoader, section, loadImages, metaMgrMustExists);
+                    return null;
+                }));
+            }
+            Future<Long> checksum = executor.submit(imageLoader::computeChecksum);
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            imageLoader.checkCheckSum(checksum.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("load image interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            LOG.error("load meta block failed ", cause);
+            throw new IOException("load meta block failed ", cause);
+        } finally {
+            executor.shutdownNow();
         }
 
-        long loadImageEndTime = System.currentTimeMillis();
-        this.imageJournalId = imageLoader.getImageJournalId();
-        LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms");
+        // a meta block recorded in the footer must be loaded, only the ones the image doesn't have can be missing
+        List<SRMetaBlockID> notLoaded = footer.getSections().stream().map(ImageFooter.Section::getId)
+                .filter(metaMgrMustExists::contains).collect(Collectors.toList());
+        if (!notLoaded.isEmpty()) {
+            throw new IOException("meta block [" + Joiner.on(",").join(notLoaded) + "] in the image is not loaded");
+        }
+        if (!metaMgrMustExists.isEmpty()) {
+            LOG.warn("Miss meta block [" + Joiner.on(",").join(new ArrayList<>(metaMgrMustExists)) + "], " +
+                        "This may not be a fatal error. It may be because there are new features in the version " +
+                        "you upgraded this time, but there is no relevant metadata.");
+        } else {
+            LOG.info("Load meta-image in parallel, successful loading all requires meta module");
+        }
+    }
+
+    private void loadImageSection(ImageLoader imageLoader, ImageFooter.Section section,
+                                  Map<SRMetaBlockID, SRMetaBlockLoader> loadImages,
+                                  Set<SRMetaBlockID> metaMgrMustExists) throws IOException, SRMetaBlockException {
+        SRMetaBlockID srMetaBlockID = section.getId();
+        SRMetaBlockLoader metaBlockLoader = loadImages.get(srMetaBlockID);
+        if (metaBlockLoader == null) {
+            LOG.warn(String.format("Ignore this invalid meta block, sr meta block id mismatch" +
+                        "(expect sr meta block id %s)", srMetaBlockID));
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try (BufferedInputStream in = imageLoader.openSection(section)) {
+            SRMetaBlockReader reader = imageLoader.getBlockReader(in);
+            try {
+                metaBlockLoader.apply(reader);
+                LOG.info("Success load StarRocks meta block {} from image in {} ms", srMetaBlockID,
+                        System.currentTimeMillis() - startTime);
+                metaMgrMustExists.remove(srMetaBlockID);
+            } catch (SRMetaBlockEOFException srMetaBlockEOFException) {
+                // fewer json in the image than expected, the same as loading the image sequentially
+                metaMgrMustExists.remove(srMetaBlockID);
+                LOG.warn("Got EOF exception, ignore, ", srMetaBlockEOFException);
+            } catch (Throwable t) {
+                LOG.warn("load meta block {} failed", srMetaBlockID, t);
+                throw t;
+            } finally {
+                reader.close();
+            }
+        }
     }
 
     private void postLoadImage() {
@@ -1683,42 +1854,22 @@ public class GlobalStateMgr {
         LOG.info("start save image to {}. is ckpt: {}", curFile.getAbsolutePath(), GlobalStateMgr.isCheckpointThread());
 
         long saveImageStartTime = System.currentTimeMillis();
+        int reusedSections = 0;
         try (OutputStream outputStream = Files.newOutputStream(curFile.toPath())) {
             imageWriter.setOutputStream(outputStream);
             try {
                 saveHeader(imageWriter.getDataOutputStream());
-                nodeMgr.save(imageWriter);
-                localMetastore.save(imageWriter);
-                alterJobMgr.save(imageWriter);
-                recycleBin.save(imageWriter);
-                variableMgr.save(imageWriter);
-                resourceMgr.saveResourcesV2(imageWriter);
-                exportMgr.saveExportJobV2(imageWriter);
-                backupHandler.saveBackupHandlerV2(imageWriter);
-                globalTransactionMgr.saveTransactionStateV2(imageWriter);
-                colocateTableIndex.saveColocateTableIndexV2(imageWriter);
-                routineLoadMgr.saveRoutineLoadJobsV2(imageWriter);
-                loadMgr.saveLoadJobsV2JsonFormat(imageWriter);
-                smallFileMgr.saveSmallFilesV2(imageWriter);
-                pluginMgr.save(imageWriter);
-                deleteMgr.save(imageWriter);
-                analyzeMgr.save(imageWriter);
-                resourceGroupMgr.save(imageWriter);
-                authenticationMgr.saveV2(imageWriter);
-                authorizationMgr.saveV2(imageWriter);
-                taskManager.saveTasksV2(imageWriter);
-                catalogMgr.save(imageWriter);
-                insertOverwriteJobMgr.save(imageWriter);
-                compactionMgr.save(imageWriter);
-                streamLoadMgr.save(imageWriter);
-                materializedViewMgr.save(imageWriter);
-                globalFunctionMgr.save(imageWriter);
-                storageVolumeMgr.save(imageWriter);
-                dictionaryMgr.save(imageWriter);
-                replicationMgr.save(imageWriter);
-                keyMgr.save(imageWriter);
-                pipeManager.getRepo().save(imageWriter);
-                warehouseMgr.save(imageWriter);
+                for (Map.Entry<SRMetaBlockID, SRMetaBlockSaver> entry : getImageSavers().entrySet()) {
+                    ImageFooter.Section section = imageWriter.getImageFormatVersion() == ImageFormatVersion.v2 ?
+                            imageSectionTracker.getReusableSection(entry.getKey()) : null;
+                    if (section != null) {
+                        imageWriter.copySection(imageSectionTracker.getBaseImageFile(), section);
+                        reusedSections++;
+                    } else {
+                        entry.getValue().apply(imageWriter);
+                    }
+                }
+                imageWriter.saveFooter();
             } catch (SRMetaBlockException e) {
                 LOG.error("Save meta block failed ", e);
                 throw new IOException("Save meta block failed ", e);
@@ -1727,9 +1878,47 @@ public class GlobalStateMgr {
             imageWriter.saveChecksum();
 
             long saveImageEndTime = System.currentTimeMillis();
-            LOG.info("Finished save meta block {} in {} ms.",
-                        curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime));
-        }
+            LOG.info("Finished save meta block {} in {} ms, {} meta blocks copied from the previous image.",
+                        curFile.getAbsolutePath(), (saveImageEndTime - saveImageStartTime), reusedSections);
+        }
+    }
+
+    // in the order of meta blocks in image
+    private Map<SRMetaBlockID, SRMetaBlockSaver> getImageSavers() {
+        return ImmutableMap.<SRMetaBlockID, SRMetaBlockSaver>builder()
+                    .put(SRMetaBlockID.NODE_MGR, nodeMgr::save)
+                    .put(SRMetaBlockID.LOCAL_META_STORE, localMetastore::save)
+                    .put(SRMetaBlockID.ALTER_MGR, alterJobMgr::save)
+                    .put(SRMetaBlockID.CATALOG_RECYCLE_BIN, recycleBin::save)
+                    .put(SRMetaBlockID.VARIABLE_MGR, variableMgr::save)
+                    .put(SRMetaBlockID.RESOURCE_MGR, resourceMgr::saveResourcesV2)
+                    .put(SRMetaBlockID.EXPORT_MGR, exportMgr::saveExportJobV2)
+                    .put(SRMetaBlockID.BACKUP_MGR, backupHandler::saveBackupHandlerV2)
+                    .put(SRMetaBlockID.GLOBAL_TRANSACTION_MGR, globalTransactionMgr::saveTransactionStateV2)
+                    .put(SRMetaBlockID.COLOCATE_TABLE_INDEX, colocateTableIndex::saveColocateTableIndexV2)
+                    .put(SRMetaBlockID.ROUTINE_LOAD_MGR, routineLoadMgr::saveRoutineLoadJobsV2)
+                    .put(SRMetaBlockID.LOAD_MGR, loadMgr::saveLoadJobsV2JsonFormat)
+                    .put(SRMetaBlockID.SMALL_FILE_MGR, smallFileMgr::saveSmallFilesV2)
+                    .put(SRMetaBlockID.PLUGIN_MGR, pluginMgr::save)
+                    .put(SRMetaBlockID.DELETE_MGR, deleteMgr::save)
+                    .put(SRMetaBlockID.ANALYZE_MGR, analyzeMgr::save)
+                    .put(SRMetaBlockID.RESOURCE_GROUP_MGR, resourceGroupMgr::save)
+                    .put(SRMetaBlockID.AUTHENTICATION_MGR, authenticationMgr::saveV2)
+                    .put(SRMetaBlockID.AUTHORIZATION_MGR, authorizationMgr::saveV2)
+                    .put(SRMetaBlockID.TASK_MGR, taskManager::saveTasksV2)
+                    .put(SRMetaBlockID.CATALOG_MGR, catalogMgr::save)
+                    .put(SRMetaBlockID.INSERT_OVERWRITE_JOB_MGR, insertOverwriteJobMgr::save)
+                    .put(SRMetaBlockID.COMPACTION_MGR, compactionMgr::save)
+                    .put(SRMetaBlockID.STREAM_LOAD_MGR, streamLoadMgr::save)
+                    .put(SRMetaBlockID.MATERIALIZED_VIEW_MGR, materializedViewMgr::save)
+                    .put(SRMetaBlockID.GLOBAL_FUNCTION_MGR, globalFunctionMgr::save)
+                    .put(SRMetaBlockID.STORAGE_VOLUME_MGR, storageVolumeMgr::save)
+                    .put(SRMetaBlockID.DICTIONARY_MGR, dictionaryMgr::save)
+                    .put(SRMetaBlockID.REPLICATION_MGR, replicationMgr::save)
+                    .put(SRMetaBlockID.KEY_MGR, keyMgr::save)
+                    .put(SRMetaBlockID.PIPE_MGR, pipeManager.getRepo()::save)
+                    .put(SRMetaBlockID.WAREHOUSE_MGR, warehouseMgr::save)
+                    .build();
     }
 
     public void saveHeader(DataOutputStream dos) throws IOException {
@@ -1780,6 +1969,14 @@ public class GlobalStateMgr {
     }
 
     public void createReplayer() {
+        if (journalReplayPipeline == null && Config.metadata_journal_replay_apply_threads > 1) {
+            journalReplayPipeline = new JournalReplayPipeline(Config.metadata_journal_replay_apply_threads);
+        }
+        if (journalDecodeExecutor == null && Config.metadata_journal_replay_decode_threads > 0) {
+            journalDecodeExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
+                    Config.metadata_journal_replay_decode_threads, Config.metadata_journal_replay_prefetch_num,
+                    "journal-decoder", true);
+        }
         replayer = new Daemon("replayer", REPLAY_INTERVAL_MS) {
             private JournalCursor cursor = null;
             // avoid numerous 'meta out of date' log
@@ -1795,6 +1992,9 @@ public class GlobalStateMgr {
                         // 1. set replay to the end
                         LOG.info("start to replay from {}", replayedJournalId.get());
                         cursor = journal.read(replayedJournalId.get() + 1, JournalCursor.CURSOR_END_KEY);
+                        if (journalDecodeExecutor != null) {
+                            cursor.setDecodeExecutor(journalDecodeExecutor, Config.metadata_journal_replay_prefetch_num);
+                        }
                     } else {
                         cursor.refresh();
                     }
@@ -1811,6 +2011,11 @@ public class GlobalStateMgr {
                     LOG.error("replayer thread catch an exception when replay journal {}.",
                                 replayedJournalId.get() + 1, e);
                     metaReplayState.setException(e);
+                    // the cursor has moved beyond the failed journal, read again from it in the next cycle
+                    if (cursor != null) {
+                        cursor.close();
+                        cursor = null;
+                    }
                     try {
                         Thread.sleep(5000);
                     } catch (InterruptedException e1) {
@@ -1928,9 +2133,12 @@ public class GlobalStateMgr {
         long startReplayId = replayedJournalId.get();
         long startTime = System.currentTimeMillis();
         long lineCnt = 0;
+        // the threads of checkpoint cannot be used to replay journals, see GlobalStateMgr.getCurrentState()
+        boolean parallel = journalReplayPipeline != null && !isCheckpointThread();
         while (true) {
             JournalEntity entity = null;
             boolean readSucc = false;
+            boolean submitted = false;
             try {
                 entity = cursor.next();
 
@@ -1942,8 +2150,23 @@ public class GlobalStateMgr {
                 readSucc = true;
 
                 // apply
-                editLog.loadJournal(this, entity);
+                imageSectionTracker.onReplay(entity.getOpCode());
+                long replayKey = parallel ? JournalReplayPipeline.getReplayKey(entity) :
+                        JournalReplayPipeline.NO_REPLAY_KEY;
+                if (replayKey != JournalReplayPipeline.NO_REPLAY_KEY) {
+                    journalReplayPipeline.submit(entity, replayKey, journal -> editLog.loadJournal(this, journal));
+                    submitted = true;
+                } else {
+                    if (parallel) {
+                        // the journals before must be replayed first
+                        journalReplayPipeline.waitAll();
+                    }
+                    editLog.loadJournal(this, entity);
+                }
             } catch (Throwable e) {
+                if (parallel) {
+                    finishReplayingJournals(true);
+                }
                 if (canSkipBadReplayedJournal(e)) {
                     LOG.error("!!! DANGER: SKIP JOURNAL, id: {}, data: {} !!!",
                                 replayedJournalId.incrementAndGet(), journalEntityToReadableString(entity), e);
@@ -1958,15 +2181,12 @@ public class GlobalStateMgr {
                 throw e;
             }
 
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-
-            if (feType != FrontendNodeType.LEADER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
+            if (parallel) {
+                // wait for the journals submitted before if there are too many
+                finishReplayingJournals(!submitted || journalReplayPipeline.isFull());
             }
-            if (MetricRepo.hasInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+            if (!submitted) {
+                onJournalReplayed();
             }
 
             if (flowControl) {
@@ -1985,6 +2205,9 @@ public class GlobalStateMgr {
             }
 
         }
+        if (parallel) {
+            finishReplayingJournals(true);
+        }
         if (replayedJournalId.get() - startReplayId > 0) {
             LOG.debug("replayed journal from {} - {}", startReplayId, replayedJournalId);
             return true;
@@ -1992,6 +2215,45 @@ public class GlobalStateMgr {
         return false;
     }
 
+    private void onJournalReplayed() {
+        replayedJournalId.incrementAndGet();
+        LOG.debug("journal {} replayed.", replayedJournalId);
+
+        if (feType != FrontendNodeType.LEADER) {
+            journalObservable.notifyObservers(replayedJournalId.get());
+        }
+        if (MetricRepo.hasInit) {
+            // Metric repo may not init after this replay thread start
+            MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+        }
+    }
+
+    /**
+     * Advance replayedJournalId for the journals finished by {@link #journalReplayPipeline} in journal id order,
+     * and wait for all of them to be finished if {@code wait} is true.
+     */
+    private void finishReplayingJournals(boolean wait) throws InterruptedException, JournalInconsistentException {
+        JournalReplayPipeline.ReplayingJournal journal;
+        while ((journal = journalReplayPipeline.poll(wait)) != null) {
+            Throwable e = journal.getError();
+            if (e == null) {
+                onJournalReplayed();
+            } else if (canSkipBadReplayedJournal(e)) {
+                LOG.error("!!! DANGER: SKIP JOURNAL, id: {}, data: {} !!!",
+                            replayedJournalId.incrementAndGet(), journalEntityToReadableString(journal.getEntity()), e);
+            } else {
+                LOG.warn("catch exception when replaying journal, id: {}, data: {},",
+                            replayedJournalId.get() + 1, journalEntityToReadableString(journal.getEntity()), e);
+                // stop at the first failure, replayedJournalId stays at the last replayed journal,
+                // and the journals after it are replayed again from the failed one
+                journalReplayPipeline.cancelAll();
+                Throwables.throwIfInstanceOf(e, JournalInconsistentException.class);
+                Throwables.throwIfUnchecked(e);
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
     private String journalEntityToReadableString(JournalEntity entity) {
         if (entity == null) {
             return "null";
@@ -4708,6 +4708,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
             long visibleVersionTime = System.currentTimeMillis();
             physicalPartition.setVisibleVersion(stmt.getVersion(), visibleVersionTime);
             physicalPartition.setNextVersion(stmt.getVersion() + 1);
+            olapTable.increasePartitionsVersion();
 
             PartitionVersion partitionVersion = new PartitionVersion(database.getId(), table.getId(),
                     physicalPartition.getId(), stmt.getVersion());
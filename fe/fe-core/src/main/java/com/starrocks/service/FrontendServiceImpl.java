@@ -71,6 +71,7 @@ import com.starrocks.catalog.system.information.TaskRunsSystemTable;
 import com.starrocks.catalog.system.information.TasksSystemTable;
 import com.starrocks.catalog.system.sys.GrantsTo;
 import com.starrocks.catalog.system.sys.RoleEdges;
+import com.starrocks.catalog.system.sys.SysFeLockContentions;
 import com.starrocks.catalog.system.sys.SysFeLocks;
 import com.starrocks.catalog.system.sys.SysFeMemoryUsage;
 import com.starrocks.catalog.system.sys.SysObjectDependencies;
@@ -181,6 +182,8 @@ import com.starrocks.thrift.TDescribeTableParams;
 import com.starrocks.thrift.TDescribeTableResult;
 import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TExprNode;
+import com.starrocks.thrift.TFeLockContentionsReq;
+import com.starrocks.thrift.TFeLockContentionsRes;
 import com.starrocks.thrift.TFeLocksReq;
 import com.starrocks.thrift.TFeLocksRes;
 import com.starrocks.thrift.TFeMemoryReq;
@@ -208,6 +211,8 @@ import com.starrocks.thrift.TGetPartitionsMetaRequest;
 import com.starrocks.thrift.TGetPartitionsMetaResponse;
 import com.starrocks.thrift.TGetProfileRequest;
 import com.starrocks.thrift.TGetProfileResponse;
+import com.starrocks.thrift.TGetQueryProfilesInfoRequest;
+import com.starrocks.thrift.TGetQueryProfilesInfoResponse;
 import com.starrocks.thrift.TGetQueryStatisticsRequest;
 import com.starrocks.thrift.TGetQueryStatisticsResponse;
 import com.starrocks.thrift.TGetRoleEdgesRequest;
@@ -686,6 +691,11 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         return SysFeLocks.listLocks(params, true);
     }
 
+    @Override
+    public TFeLockContentionsRes listFeLockContentions(TFeLockContentionsReq params) throws TException {
+        return SysFeLockContentions.listLockContentions(params, true);
+    }
+
     @Override
     public TFeMemoryRes listFeMemoryUsage(TFeMemoryReq request) throws TException {
         return SysFeMemoryUsage.listFeMemoryUsage(request);
@@ -2895,6 +2905,11 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         return InformationSchemaDataSource.generateTemporaryTablesInfoResponse(request);
     }
 
+    @Override
+    public TGetQueryProfilesInfoResponse getQueryProfilesInfo(TGetQueryProfilesInfoRequest request) throws TException {
+        return InformationSchemaDataSource.generateQueryProfilesInfoResponse(request);
+    }
+
     @Override
     public TReportFragmentFinishResponse reportFragmentFinish(TReportFragmentFinishParams request) throws TException {
         return QeProcessorImpl.INSTANCE.reportFragmentFinish(request);
@@ -36,6 +36,7 @@ import com.starrocks.cluster.ClusterNamespace;
 import com.starrocks.common.CaseSensibility;
 import com.starrocks.common.PatternMatcher;
 import com.starrocks.common.proc.PartitionsProcDir;
+import com.starrocks.common.util.ProfileManager;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.lake.DataCacheInfo;
@@ -44,6 +45,7 @@ import com.starrocks.lake.compaction.PartitionStatistics;
 import com.starrocks.lake.compaction.Quantiles;
 import com.starrocks.monitor.unit.ByteSizeValue;
 import com.starrocks.privilege.AccessDeniedException;
+import com.starrocks.privilege.PrivilegeType;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.MetadataMgr;
 import com.starrocks.server.TemporaryTableMgr;
@@ -53,6 +55,8 @@ import com.starrocks.sql.ast.UserIdentity;
 import com.starrocks.thrift.TAuthInfo;
 import com.starrocks.thrift.TGetPartitionsMetaRequest;
 import com.starrocks.thrift.TGetPartitionsMetaResponse;
+import com.starrocks.thrift.TGetQueryProfilesInfoRequest;
+import com.starrocks.thrift.TGetQueryProfilesInfoResponse;
 import com.starrocks.thrift.TGetTablesConfigRequest;
 import com.starrocks.thrift.TGetTablesConfigResponse;
 import com.starrocks.thrift.TGetTablesInfoRequest;
@@ -60,6 +64,7 @@ import com.starrocks.thrift.TGetTablesInfoResponse;
 import com.starrocks.thrift.TGetTemporaryTablesInfoRequest;
 import com.starrocks.thrift.TGetTemporaryTablesInfoResponse;
 import com.starrocks.thrift.TPartitionMetaInfo;
+import com.starrocks.thrift.TQueryProfileInfo;
 import com.starrocks.thrift.TTableConfigInfo;
 import com.starrocks.thrift.TTableInfo;
 import org.apache.logging.log4j.LogManager;
@@ -69,6 +74,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -576,6 +582,52 @@ public class InformationSchemaDataSource {
         return response;
     }
 
+    // Users can only see their own profiles unless they have the OPERATE privilege.
+    public static TGetQueryProfilesInfoResponse generateQueryProfilesInfoResponse(TGetQueryProfilesInfoRequest request)
+            throws TException {
+        TAuthInfo authInfo = request.getAuth_info();
+        UserIdentity currentUser;
+        if (authInfo.isSetCurrent_user_ident()) {
+            currentUser = UserIdentity.fromThrift(authInfo.current_user_ident);
+        } else {
+            currentUser = UserIdentity.createAnalyzedUserIdentWithIp(authInfo.user, authInfo.user_ip);
+        }
+        boolean canSeeAll = true;
+        try {
+            Authorizer.checkSystemAction(currentUser, null, PrivilegeType.OPERATE);
+        } catch (AccessDeniedException e) {
+            canSeeAll = false;
+        }
+
+        List<Map<String, String>> allInfoStrings = ProfileManager.getInstance().getAllProfileInfoStrings();
+        // the latest profiles first
+        Collections.reverse(allInfoStrings);
+        List<TQueryProfileInfo> profiles = new ArrayList<>();
+        for (Map<String, String> infoStrings : allInfoStrings) {
+            if (!canSeeAll && !currentUser.getUser().equals(infoStrings.get(ProfileManager.USER))) {
+                continue;
+            }
+            TQueryProfileInfo info = new TQueryProfileInfo();
+            info.setQuery_id(infoStrings.get(ProfileManager.QUERY_ID));
+            info.setUser(infoStrings.get(ProfileManager.USER));
+            info.setDefault_db(infoStrings.get(ProfileManager.DEFAULT_DB));
+            info.setSql_statement(infoStrings.get(ProfileManager.SQL_STATEMENT));
+            info.setQuery_type(infoStrings.get(ProfileManager.QUERY_TYPE));
+            info.setStart_time(infoStrings.get(ProfileManager.START_TIME));
+            info.setEnd_time(infoStrings.get(ProfileManager.END_TIME));
+            info.setTotal_time(infoStrings.get(ProfileManager.TOTAL_TIME));
+            info.setQuery_state(infoStrings.get(ProfileManager.QUERY_STATE));
+            profiles.add(info);
+            if (request.isSetLimit() && profiles.size() >= request.getLimit()) {
+                break;
+            }
+        }
+
+        TGetQueryProfilesInfoResponse response = new TGetQueryProfilesInfoResponse();
+        response.setProfiles(profiles);
+        return response;
+    }
+
 
     public static TTableInfo genNormalTableInfo(BasicTable table, TTableInfo info) {
 
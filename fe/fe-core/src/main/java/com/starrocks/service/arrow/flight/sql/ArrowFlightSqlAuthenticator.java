@@ -0,0 +1,92 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.server.GlobalStateMgr;
+import org.apache.arrow.flight.CallHeaders;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.auth2.Auth2Constants;
+import org.apache.arrow.flight.auth2.AuthUtilities;
+import org.apache.arrow.flight.auth2.CallHeaderAuthenticator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Authenticate a Flight call by the basic credentials of a StarRocks user, which reuse the session of the same
+ * credentials or create a new one, or by the bearer token of an existing session. The token is sent back in the
+ * headers of every call.
+ */
+public class ArrowFlightSqlAuthenticator implements CallHeaderAuthenticator {
+    // Flight doesn't expose the address of the peer to the authenticator,
+    // so the password is checked against the users allowed to connect from any host
+    static final String REMOTE_HOST = "%";
+
+    private final ArrowFlightSqlSessionManager sessionManager;
+
+    public ArrowFlightSqlAuthenticator(ArrowFlightSqlSessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public AuthResult authenticate(CallHeaders incomingHeaders) {
+        String token = AuthUtilities.getValueFromAuthHeader(incomingHeaders, Auth2Constants.BEARER_PREFIX);
+        if (token != null) {
+            // throws if the session doesn't exist
+            sessionManager.getSession(token);
+            return createAuthResult(token);
+        }
+
+        String credentials = AuthUtilities.getValueFromAuthHeader(incomingHeaders, Auth2Constants.BASIC_PREFIX);
+        if (credentials == null) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("Missing credentials").toRuntimeException();
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(credentials), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("Malformed basic credentials").toRuntimeException();
+        }
+        int colon = decoded.indexOf(':');
+        if (colon < 0) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("Malformed basic credentials").toRuntimeException();
+        }
+        String user = decoded.substring(0, colon);
+        String password = decoded.substring(colon + 1);
+        UserIdentity userIdentity = GlobalStateMgr.getCurrentState().getAuthenticationMgr()
+                .checkPlainPassword(user, REMOTE_HOST, password);
+        if (userIdentity == null) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("Access denied for user " + user).toRuntimeException();
+        }
+        return createAuthResult(sessionManager.getOrCreateSession(credentials, user, userIdentity, REMOTE_HOST));
+    }
+
+    private static AuthResult createAuthResult(String token) {
+        return new AuthResult() {
+            @Override
+            public String getPeerIdentity() {
+                return token;
+            }
+
+            @Override
+            public void appendToOutgoingHeaders(CallHeaders outgoingHeaders) {
+                if (AuthUtilities.getValueFromAuthHeader(outgoingHeaders, Auth2Constants.BEARER_PREFIX) == null) {
+                    outgoingHeaders.insert(Auth2Constants.AUTHORIZATION_HEADER, Auth2Constants.BEARER_PREFIX + token);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.RowBatch;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.qe.scheduler.Coordinator;
+import com.starrocks.sql.plan.ExecPlan;
+import org.apache.arrow.flight.FlightProducer;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One Arrow Flight SQL session, identified by its bearer token.
+ * Queries of the session are executed by {@link StmtExecutor} like the ones of a mysql connection, only the results
+ * are sent to the Flight stream of the current query as Arrow record batches.
+ */
+public class ArrowFlightSqlConnectContext extends ConnectContext {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlConnectContext.class);
+
+    // at most this many queries can be prepared by GetFlightInfo and not yet fetched by DoGet
+    private static final int MAX_PENDING_QUERIES = 64;
+
+    private final String token;
+    private final BufferAllocator allocator;
+
+    // statements of a session are analyzed and executed one by one, like the ones of a mysql connection
+    private final Object executeLock = new Object();
+
+    // statement handle -> sql
+    private final Map<String, String> pendingQueries = new ConcurrentHashMap<>();
+
+    // the sender of the running query, only set while a query is streaming its result
+    private volatile ArrowFlightSqlResultSender resultSender;
+
+    public ArrowFlightSqlConnectContext(String token, BufferAllocator allocator) {
+        super();
+        this.token = token;
+        this.allocator = allocator;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public BufferAllocator getAllocator() {
+        return allocator;
+    }
+
+    public Object getExecuteLock() {
+        return executeLock;
+    }
+
+    /**
+     * Keep a query until its result is fetched, and return the handle to fetch it.
+     */
+    public String addPendingQuery(String sql) {
+        if (pendingQueries.size() >= MAX_PENDING_QUERIES) {
+            throw new IllegalStateException("Too many queries are waiting to be fetched in the session");
+        }
+        String handle = UUID.randomUUID().toString();
+        pendingQueries.put(handle, sql);
+        return handle;
+    }
+
+    public String takePendingQuery(String handle) {
+        return pendingQueries.remove(handle);
+    }
+
+    public void setResultListener(FlightProducer.ServerStreamListener listener) {
+        this.resultSender = listener == null ? null : new ArrowFlightSqlResultSender(this, listener);
+    }
+
+    public ArrowFlightSqlResultSender getResultSender() {
+        return resultSender;
+    }
+
+    public RowBatch sendQueryResult(Coordinator coord, ExecPlan execPlan) throws Exception {
+        return resultSender.sendQueryResult(coord, execPlan);
+    }
+
+    @Override
+    public void kill(boolean killConnection, String cancelledMessage) {
+        LOG.warn("kill query of arrow flight sql session {}, kill connection: {}", getConnectionId(), killConnection);
+        StmtExecutor executorRef = executor;
+        if (killConnection) {
+            // the session is removed when it's accessed next time
+            isKilled = true;
+        }
+        if (executorRef != null) {
+            executorRef.cancel(cancelledMessage);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.starrocks.common.UserException;
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.ConnectProcessor;
+import com.starrocks.qe.QueryState;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.sql.ast.StatementBase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// inherit ConnectProcessor to record the audit log and Query Detail
+public class ArrowFlightSqlConnectProcessor extends ConnectProcessor {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlConnectProcessor.class);
+
+    private StatementBase statement;
+
+    public ArrowFlightSqlConnectProcessor(ArrowFlightSqlConnectContext context) {
+        super(context);
+    }
+
+    /**
+     * Execute one statement in the session, the result of a query is sent by the result sender of the session.
+     * The state of the session tells whether it succeeds.
+     */
+    public void execute(StatementBase statement) {
+        this.statement = statement;
+        ctx.getState().reset();
+        executor = null;
+        ctx.setQueryId(UUIDUtil.genUUID());
+        ctx.setCommand(MysqlCommand.COM_QUERY);
+        ctx.setStartTime();
+        ctx.setResourceGroup(null);
+        ctx.resetErrorCode();
+        ctx.setThreadLocalInfo();
+        try {
+            handleQuery();
+        } finally {
+            ctx.getMysqlChannel().releaseSendBuffer();
+            // set command as sleep, so timeCheck will close the session when it's idle for a long time
+            ctx.setCommand(MysqlCommand.COM_SLEEP);
+            ConnectContext.remove();
+        }
+    }
+
+    @Override
+    protected void handleQuery() {
+        if (MetricRepo.hasInit) {
+            MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
+        }
+        ctx.getAuditEventBuilder().reset();
+        ctx.getAuditEventBuilder()
+                .setTimestamp(System.currentTimeMillis())
+                .setClientIp(ctx.getRemoteIP())
+                .setUser(ctx.getQualifiedUser())
+                .setAuthorizedUser(
+                        ctx.getCurrentUserIdentity() == null ? "null" : ctx.getCurrentUserIdentity().toString())
+                .setDb(ctx.getDatabase())
+                .setCatalog(ctx.getCurrentCatalog());
+        Tracers.register(ctx);
+        Tracers.init(ctx, Tracers.Mode.TIMER, null);
+
+        String sql = statement.getOrigStmt().originStmt;
+        executor = new StmtExecutor(ctx, statement);
+        ctx.setExecutor(executor);
+        ctx.setIsLastStmt(true);
+
+        try {
+            if (executor.isForwardToLeader()) {
+                ctx.getState().setError("The statement can only be executed by the leader FE, " +
+                        "please connect the arrow flight sql client to the leader");
+                ctx.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+                return;
+            }
+            executor.addRunningQueryDetail(statement);
+            executor.execute();
+        } catch (UserException e) {
+            LOG.warn("Process one query failed. SQL: " + sql + ", because.", e);
+            ctx.getState().setError(e.getMessage());
+            // set is as ANALYSIS_ERR so that it won't be treated as a query failure.
+            ctx.getState().setErrType(QueryState.ErrType.ANALYSIS_ERR);
+        } catch (Throwable e) {
+            // Catch all throwable.
+            // If reach here, maybe StarRocks bug.
+            LOG.warn("Process one query failed. SQL: " + sql + ", because unknown reason: ", e);
+            ctx.getState().setError("Unexpected exception: " + e.getMessage());
+            ctx.getState().setErrType(QueryState.ErrType.INTERNAL_ERR);
+        } finally {
+            Tracers.close();
+        }
+
+        auditAfterExec(sql, executor.getParsedStmt(), executor.getQueryStatisticsForAuditLog());
+        executor.addFinishedQueryDetail();
+    }
+}
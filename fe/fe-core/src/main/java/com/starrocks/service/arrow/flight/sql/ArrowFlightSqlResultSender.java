@@ -0,0 +1,316 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.analysis.Expr;
+import com.starrocks.catalog.PrimitiveType;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Type;
+import com.starrocks.qe.RowBatch;
+import com.starrocks.qe.scheduler.Coordinator;
+import com.starrocks.sql.plan.ExecPlan;
+import org.apache.arrow.flight.FlightProducer;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Convert the result rows of a query, which are in the mysql text protocol, to Arrow record batches,
+ * and send them to the Flight stream of the query. One record batch is sent for each fetched result batch.
+ */
+public class ArrowFlightSqlResultSender {
+    private static final DateTimeFormatter DATETIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendFraction(ChronoField.MICRO_OF_SECOND, 0, 6, true)
+            .optionalEnd()
+            .toFormatter();
+
+    // the first byte of a NULL column in the mysql text protocol
+    private static final int NULL_VALUE = 0xfb;
+
+    private final ArrowFlightSqlConnectContext context;
+    private final FlightProducer.ServerStreamListener listener;
+    private boolean started = false;
+    private final Object readyLock = new Object();
+
+    public ArrowFlightSqlResultSender(ArrowFlightSqlConnectContext context,
+                                      FlightProducer.ServerStreamListener listener) {
+        this.context = context;
+        this.listener = listener;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public RowBatch sendQueryResult(Coordinator coord, ExecPlan execPlan) throws Exception {
+        List<Type> types = execPlan.getOutputExprs().stream().map(Expr::getType).collect(Collectors.toList());
+        Schema schema = buildSchema(execPlan.getColNames(), types);
+        listener.setOnReadyHandler(this::signalReady);
+        listener.setOnCancelHandler(this::signalReady);
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, context.getAllocator())) {
+            listener.start(root);
+            started = true;
+            RowBatch batch;
+            do {
+                batch = coord.getNext();
+                if (batch.getBatch() != null) {
+                    // the client reads slower than the backend produces, stop fetching until it catches up
+                    if (!awaitReady()) {
+                        coord.cancel("arrow flight client cancelled the stream");
+                        return batch;
+                    }
+                    List<ByteBuffer> rows = batch.getBatch().getRows();
+                    fillRows(root, rows);
+                    listener.putNext();
+                    context.updateReturnRows(rows.size());
+                }
+            } while (!batch.isEos());
+            return batch;
+        }
+    }
+
+    // the listener calls back when the stream becomes ready or is cancelled, instead of polling it
+    private void signalReady() {
+        synchronized (readyLock) {
+            readyLock.notifyAll();
+        }
+    }
+
+    /**
+     * Wait until the stream is ready to take the next batch. Returns false if the client cancelled the stream.
+     */
+    private boolean awaitReady() throws InterruptedException {
+        synchronized (readyLock) {
+            while (!listener.isReady()) {
+                if (listener.isCancelled()) {
+                    return false;
+                }
+                readyLock.wait();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Send an empty result with the schema, for a query sending no result at all.
+     */
+    public void sendEmptyResult(Schema schema) {
+        if (started) {
+            return;
+        }
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, context.getAllocator())) {
+            listener.start(root);
+            started = true;
+        }
+    }
+
+    public static Schema buildSchema(List<String> colNames, List<Type> types) {
+        List<Field> fields = new ArrayList<>(colNames.size());
+        for (int i = 0; i < colNames.size(); i++) {
+            fields.add(new Field(colNames.get(i), FieldType.nullable(toArrowType(types.get(i))), null));
+        }
+        return new Schema(fields);
+    }
+
+    /**
+     * Types without an exact Arrow counterpart, such as LARGEINT and the complex types, are sent as strings.
+     */
+    @VisibleForTesting
+    static ArrowType toArrowType(Type type) {
+        if (!type.isScalarType()) {
+            return ArrowType.Utf8.INSTANCE;
+        }
+        PrimitiveType primitiveType = type.getPrimitiveType();
+        switch (primitiveType) {
+            case BOOLEAN:
+                return ArrowType.Bool.INSTANCE;
+            case TINYINT:
+                return new ArrowType.Int(8, true);
+            case SMALLINT:
+                return new ArrowType.Int(16, true);
+            case INT:
+                return new ArrowType.Int(32, true);
+            case BIGINT:
+                return new ArrowType.Int(64, true);
+            case FLOAT:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case DOUBLE:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case DECIMALV2:
+            case DECIMAL32:
+            case DECIMAL64:
+            case DECIMAL128:
+                ScalarType scalarType = (ScalarType) type;
+                return new ArrowType.Decimal(scalarType.getScalarPrecision(), scalarType.getScalarScale(), 128);
+            case DATE:
+                return new ArrowType.Date(DateUnit.DAY);
+            case DATETIME:
+                return new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+            case BINARY:
+            case VARBINARY:
+                return ArrowType.Binary.INSTANCE;
+            default:
+                return ArrowType.Utf8.INSTANCE;
+        }
+    }
+
+    @VisibleForTesting
+    static void fillRows(VectorSchemaRoot root, List<ByteBuffer> rows) {
+        List<FieldVector> vectors = root.getFieldVectors();
+        root.allocateNew();
+        for (int i = 0; i < rows.size(); i++) {
+            ByteBuffer row = rows.get(i);
+            int pos = row.position();
+            for (FieldVector vector : vectors) {
+                int first = row.get(pos) & 0xff;
+                if (first == NULL_VALUE) {
+                    // the validity bit is cleared by allocateNew, so a skipped value is null
+                    pos++;
+                    continue;
+                }
+                long length;
+                if (first < 0xfb) {
+                    length = first;
+                    pos += 1;
+                } else if (first == 0xfc) {
+                    length = readLittleEndian(row, pos + 1, 2);
+                    pos += 3;
+                } else if (first == 0xfd) {
+                    length = readLittleEndian(row, pos + 1, 3);
+                    pos += 4;
+                } else {
+                    length = readLittleEndian(row, pos + 1, 8);
+                    pos += 9;
+                }
+                setValue(vector, i, row, pos, (int) length);
+                pos += (int) length;
+            }
+        }
+        root.setRowCount(rows.size());
+    }
+
+    private static long readLittleEndian(ByteBuffer buffer, int pos, int bytes) {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value |= ((long) (buffer.get(pos + i) & 0xff)) << (8 * i);
+        }
+        return value;
+    }
+
+    private static void setValue(FieldVector vector, int index, ByteBuffer row, int pos, int length) {
+        if (vector instanceof VarCharVector || vector instanceof VarBinaryVector) {
+            byte[] bytes;
+            int offset;
+            if (row.hasArray()) {
+                bytes = row.array();
+                offset = row.arrayOffset() + pos;
+            } else {
+                bytes = copyBytes(row, pos, length);
+                offset = 0;
+            }
+            if (vector instanceof VarCharVector) {
+                ((VarCharVector) vector).setSafe(index, bytes, offset, length);
+            } else {
+                ((VarBinaryVector) vector).setSafe(index, bytes, offset, length);
+            }
+            return;
+        }
+
+        String text = new String(copyBytes(row, pos, length), StandardCharsets.UTF_8);
+        if (vector instanceof BitVector) {
+            ((BitVector) vector).setSafe(index, "0".equals(text) || "false".equalsIgnoreCase(text) ? 0 : 1);
+        } else if (vector instanceof TinyIntVector) {
+            ((TinyIntVector) vector).setSafe(index, Byte.parseByte(text));
+        } else if (vector instanceof SmallIntVector) {
+            ((SmallIntVector) vector).setSafe(index, Short.parseShort(text));
+        } else if (vector instanceof IntVector) {
+            ((IntVector) vector).setSafe(index, Integer.parseInt(text));
+        } else if (vector instanceof BigIntVector) {
+            ((BigIntVector) vector).setSafe(index, Long.parseLong(text));
+        } else if (vector instanceof Float4Vector) {
+            ((Float4Vector) vector).setSafe(index, (float) parseDouble(text));
+        } else if (vector instanceof Float8Vector) {
+            ((Float8Vector) vector).setSafe(index, parseDouble(text));
+        } else if (vector instanceof DecimalVector) {
+            DecimalVector decimalVector = (DecimalVector) vector;
+            decimalVector.setSafe(index, new BigDecimal(text).setScale(decimalVector.getScale(), RoundingMode.HALF_UP));
+        } else if (vector instanceof DateDayVector) {
+            ((DateDayVector) vector).setSafe(index, (int) LocalDate.parse(text).toEpochDay());
+        } else if (vector instanceof TimeStampMicroVector) {
+            LocalDateTime dateTime = LocalDateTime.parse(text, DATETIME_FORMATTER);
+            long micros = dateTime.toEpochSecond(ZoneOffset.UTC) * 1000_000L + dateTime.getNano() / 1000;
+            ((TimeStampMicroVector) vector).setSafe(index, micros);
+        } else {
+            throw new IllegalStateException("Unsupported arrow vector " + vector.getClass().getSimpleName());
+        }
+    }
+
+    private static byte[] copyBytes(ByteBuffer buffer, int pos, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(pos);
+        duplicate.get(bytes, 0, length);
+        return bytes;
+    }
+
+    // the backend prints the special values of float and double like "inf" and "nan"
+    private static double parseDouble(String text) {
+        switch (text) {
+            case "inf":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(text);
+        }
+    }
+}
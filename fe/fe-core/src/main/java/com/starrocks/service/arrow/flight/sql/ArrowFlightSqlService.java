@@ -0,0 +1,77 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import org.apache.arrow.flight.FlightServer;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+
+/**
+ * Arrow Flight SQL service of the frontend, next to the mysql service {@link com.starrocks.qe.QeService}.
+ * Clients get query results as Arrow record batches instead of mysql text rows.
+ */
+public class ArrowFlightSqlService {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlService.class);
+
+    private final int port;
+    private BufferAllocator allocator;
+    private ArrowFlightSqlSessionManager sessionManager;
+    private FlightServer flightServer;
+
+    public ArrowFlightSqlService(int port) {
+        this.port = port;
+    }
+
+    public void start() throws IOException {
+        allocator = new RootAllocator();
+        sessionManager = new ArrowFlightSqlSessionManager(allocator);
+        flightServer = FlightServer.builder(allocator, Location.forGrpcInsecure("0.0.0.0", port),
+                        new ArrowFlightSqlServiceImpl(sessionManager, allocator))
+                .headerAuthenticator(new ArrowFlightSqlAuthenticator(sessionManager))
+                .build();
+        flightServer.start();
+        LOG.info("Arrow Flight SQL service start, port: {}", flightServer.getPort());
+    }
+
+    public void stop() {
+        try {
+            if (flightServer != null) {
+                flightServer.shutdown();
+                flightServer.awaitTermination();
+            }
+            if (sessionManager != null) {
+                sessionManager.closeAll();
+            }
+            if (allocator != null) {
+                allocator.close();
+            }
+        } catch (Exception e) {
+            LOG.warn("failed to stop arrow flight sql service", e);
+        }
+    }
+
+    public int getPort() {
+        return flightServer.getPort();
+    }
+
+    public ArrowFlightSqlSessionManager getSessionManager() {
+        return sessionManager;
+    }
+}
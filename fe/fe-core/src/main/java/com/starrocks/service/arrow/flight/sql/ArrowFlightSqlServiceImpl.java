@@ -0,0 +1,211 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.starrocks.catalog.Type;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.OriginStatement;
+import com.starrocks.qe.QueryState;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.analyzer.Authorizer;
+import com.starrocks.sql.analyzer.Field;
+import com.starrocks.sql.analyzer.PlannerMetaLocker;
+import com.starrocks.sql.ast.QueryRelation;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.ShowStmt;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightEndpoint;
+import org.apache.arrow.flight.FlightInfo;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.flight.PutResult;
+import org.apache.arrow.flight.SchemaResult;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.flight.sql.NoOpFlightSqlProducer;
+import org.apache.arrow.flight.sql.impl.FlightSql;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The Flight SQL statements supported by the frontend.
+ * <ul>
+ *     <li>A query is analyzed by GetFlightInfo to return its schema and a ticket, and executed by DoGet with the
+ *     ticket, which streams the result as Arrow record batches.</li>
+ *     <li>Other statements, like DML and DDL, are executed by DoPut, which returns the number of affected rows.</li>
+ * </ul>
+ * The endpoint of a query has no location, so the client fetches the result from this frontend.
+ */
+public class ArrowFlightSqlServiceImpl extends NoOpFlightSqlProducer {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlServiceImpl.class);
+
+    private final ArrowFlightSqlSessionManager sessionManager;
+    private final BufferAllocator allocator;
+
+    public ArrowFlightSqlServiceImpl(ArrowFlightSqlSessionManager sessionManager, BufferAllocator allocator) {
+        this.sessionManager = sessionManager;
+        this.allocator = allocator;
+    }
+
+    @Override
+    public FlightInfo getFlightInfoStatement(FlightSql.CommandStatementQuery command, CallContext callContext,
+                                             FlightDescriptor descriptor) {
+        ArrowFlightSqlConnectContext context = sessionManager.getSession(callContext.peerIdentity());
+        Schema schema = analyzeQuerySchema(context, command.getQuery());
+        String handle;
+        try {
+            handle = context.addPendingQuery(command.getQuery());
+        } catch (IllegalStateException e) {
+            throw CallStatus.RESOURCE_EXHAUSTED.withDescription(e.getMessage()).toRuntimeException();
+        }
+        FlightSql.TicketStatementQuery ticket = FlightSql.TicketStatementQuery.newBuilder()
+                .setStatementHandle(ByteString.copyFromUtf8(handle))
+                .build();
+        FlightEndpoint endpoint = new FlightEndpoint(new Ticket(Any.pack(ticket).toByteArray()));
+        return new FlightInfo(schema, descriptor, Collections.singletonList(endpoint), -1, -1);
+    }
+
+    @Override
+    public SchemaResult getSchemaStatement(FlightSql.CommandStatementQuery command, CallContext callContext,
+                                           FlightDescriptor descriptor) {
+        ArrowFlightSqlConnectContext context = sessionManager.getSession(callContext.peerIdentity());
+        return new SchemaResult(analyzeQuerySchema(context, command.getQuery()));
+    }
+
+    @Override
+    public void getStreamStatement(FlightSql.TicketStatementQuery ticket, CallContext callContext,
+                                   ServerStreamListener listener) {
+        try {
+            ArrowFlightSqlConnectContext context = sessionManager.getSession(callContext.peerIdentity());
+            String sql = context.takePendingQuery(ticket.getStatementHandle().toStringUtf8());
+            if (sql == null) {
+                throw CallStatus.NOT_FOUND.withDescription("Unknown statement handle").toRuntimeException();
+            }
+            synchronized (context.getExecuteLock()) {
+                StatementBase statement = parseStatement(context, sql);
+                context.setResultListener(listener);
+                try {
+                    new ArrowFlightSqlConnectProcessor(context).execute(statement);
+                    if (context.getState().getStateType() == QueryState.MysqlStateType.ERR) {
+                        throw CallStatus.INTERNAL.withDescription(context.getState().getErrorMessage())
+                                .toRuntimeException();
+                    }
+                    context.getResultSender().sendEmptyResult(new Schema(Collections.emptyList()));
+                    listener.completed();
+                } finally {
+                    context.setResultListener(null);
+                }
+            }
+        } catch (FlightRuntimeException e) {
+            listener.error(e);
+        }
+    }
+
+    @Override
+    public Runnable acceptPutStatement(FlightSql.CommandStatementUpdate command, CallContext callContext,
+                                       FlightStream flightStream, StreamListener<PutResult> ackStream) {
+        return () -> {
+            try {
+                ArrowFlightSqlConnectContext context = sessionManager.getSession(callContext.peerIdentity());
+                long affectedRows;
+                synchronized (context.getExecuteLock()) {
+                    StatementBase statement = parseStatement(context, command.getQuery());
+                    if (statement instanceof QueryStatement || statement instanceof ShowStmt) {
+                        throw CallStatus.INVALID_ARGUMENT.withDescription(
+                                "Statements returning results must be executed as queries").toRuntimeException();
+                    }
+                    new ArrowFlightSqlConnectProcessor(context).execute(statement);
+                    if (context.getState().getStateType() == QueryState.MysqlStateType.ERR) {
+                        throw CallStatus.INTERNAL.withDescription(context.getState().getErrorMessage())
+                                .toRuntimeException();
+                    }
+                    affectedRows = context.getState().getAffectedRows();
+                }
+                FlightSql.DoPutUpdateResult result = FlightSql.DoPutUpdateResult.newBuilder()
+                        .setRecordCount(affectedRows)
+                        .build();
+                try (ArrowBuf buffer = allocator.buffer(result.getSerializedSize())) {
+                    buffer.writeBytes(result.toByteArray());
+                    ackStream.onNext(PutResult.metadata(buffer));
+                }
+                ackStream.onCompleted();
+            } catch (FlightRuntimeException e) {
+                ackStream.onError(e);
+            }
+        };
+    }
+
+    private Schema analyzeQuerySchema(ArrowFlightSqlConnectContext context, String sql) {
+        synchronized (context.getExecuteLock()) {
+            context.setThreadLocalInfo();
+            try {
+                StatementBase statement = parseStatement(context, sql);
+                if (!(statement instanceof QueryStatement) || statement.isExplain()
+                        || ((QueryStatement) statement).hasOutFileClause()) {
+                    throw CallStatus.INVALID_ARGUMENT.withDescription(
+                            "Only a SELECT statement can be executed as a query").toRuntimeException();
+                }
+                PlannerMetaLocker locker = new PlannerMetaLocker(context, statement);
+                locker.lock();
+                try {
+                    Analyzer.analyze(statement, context);
+                    // don't expose the schema of the tables the user can't query
+                    Authorizer.check(statement, context);
+                } finally {
+                    locker.unlock();
+                }
+                QueryRelation queryRelation = ((QueryStatement) statement).getQueryRelation();
+                List<Type> types = queryRelation.getRelationFields().getAllFields().stream()
+                        .map(Field::getType)
+                        .collect(Collectors.toList());
+                return ArrowFlightSqlResultSender.buildSchema(queryRelation.getColumnOutputNames(), types);
+            } catch (FlightRuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                LOG.info("analyze arrow flight sql query failed, sql: {}", sql, e);
+                throw CallStatus.INVALID_ARGUMENT.withDescription(e.getMessage()).withCause(e).toRuntimeException();
+            } finally {
+                ConnectContext.remove();
+            }
+        }
+    }
+
+    private static StatementBase parseStatement(ArrowFlightSqlConnectContext context, String sql) {
+        List<StatementBase> statements;
+        try {
+            statements = SqlParser.parse(sql, context.getSessionVariable());
+        } catch (Exception e) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription(e.getMessage()).withCause(e).toRuntimeException();
+        }
+        if (statements.size() != 1) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("Only one statement can be executed at a time")
+                    .toRuntimeException();
+        }
+        StatementBase statement = statements.get(0);
+        statement.setOrigStmt(new OriginStatement(sql));
+        return statement;
+    }
+}
@@ -0,0 +1,139 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.hash.Hashing;
+import com.starrocks.analysis.UserIdentity;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.qe.ConnectScheduler;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.service.ExecuteEnv;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arrow Flight SQL sessions by bearer token. A session is registered to the {@link ConnectScheduler} like a mysql
+ * connection, so that it's shown by SHOW PROCESSLIST and can be killed. It's closed when it's idle for
+ * {@code Config.arrow_flight_session_timeout_second} or evicted by {@code Config.arrow_flight_max_sessions}.
+ */
+public class ArrowFlightSqlSessionManager {
+    private static final Logger LOG = LogManager.getLogger(ArrowFlightSqlSessionManager.class);
+
+    private final BufferAllocator allocator;
+    private final Cache<String, ArrowFlightSqlConnectContext> sessions;
+    // digest of basic credentials -> token, for the clients sending the basic credentials on every call
+    private final Cache<String, String> basicAuthTokens;
+
+    public ArrowFlightSqlSessionManager(BufferAllocator allocator) {
+        this.allocator = allocator;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(Config.arrow_flight_max_sessions)
+                .expireAfterAccess(Config.arrow_flight_session_timeout_second, TimeUnit.SECONDS)
+                .removalListener((String token, ArrowFlightSqlConnectContext context, RemovalCause cause) ->
+                        onSessionRemoved(context, cause))
+                .build();
+        this.basicAuthTokens = Caffeine.newBuilder()
+                .maximumSize(Config.arrow_flight_max_sessions)
+                .expireAfterAccess(Config.arrow_flight_session_timeout_second, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Return the token of the live session created by the same basic credentials, or create a new session,
+     * so that a client authenticating every call by basic credentials doesn't use up the sessions.
+     */
+    public String getOrCreateSession(String credentials, String userName, UserIdentity userIdentity, String remoteIp) {
+        String key = Hashing.sha256().hashString(credentials, StandardCharsets.UTF_8).toString();
+        return basicAuthTokens.asMap().compute(key, (k, token) -> {
+            ArrowFlightSqlConnectContext context = token == null ? null : sessions.getIfPresent(token);
+            if (context != null && !context.isKilled()) {
+                return token;
+            }
+            return createSession(userName, userIdentity, remoteIp);
+        });
+    }
+
+    /**
+     * Create a session for an authenticated user, and return its token.
+     */
+    public String createSession(String userName, UserIdentity userIdentity, String remoteIp) {
+        String token = UUIDUtil.genUUID().toString();
+        ArrowFlightSqlConnectContext context = new ArrowFlightSqlConnectContext(token, allocator);
+        context.setGlobalStateMgr(GlobalStateMgr.getCurrentState());
+        context.setQualifiedUser(userName);
+        context.setCurrentUserIdentity(userIdentity);
+        context.setCurrentRoleIds(userIdentity);
+        context.setRemoteIP(remoteIp);
+
+        ConnectScheduler connectScheduler = ExecuteEnv.getInstance().getScheduler();
+        connectScheduler.submit(context);
+        context.setConnectScheduler(connectScheduler);
+        Pair<Boolean, String> result = connectScheduler.registerConnection(context);
+        if (!result.first) {
+            throw CallStatus.UNAVAILABLE.withDescription(result.second).toRuntimeException();
+        }
+        context.setStartTime();
+        sessions.put(token, context);
+        LOG.info("create arrow flight sql session {} for user {}", context.getConnectionId(), userIdentity);
+        return token;
+    }
+
+    public ArrowFlightSqlConnectContext getSession(String token) {
+        ArrowFlightSqlConnectContext context = token == null ? null : sessions.getIfPresent(token);
+        if (context == null) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("Invalid or expired token").toRuntimeException();
+        }
+        if (context.isKilled()) {
+            sessions.invalidate(token);
+            throw CallStatus.UNAUTHENTICATED.withDescription("Session has been killed").toRuntimeException();
+        }
+        return context;
+    }
+
+    public void closeSession(String token) {
+        sessions.invalidate(token);
+    }
+
+    public void closeAll() {
+        basicAuthTokens.invalidateAll();
+        sessions.invalidateAll();
+        sessions.cleanUp();
+    }
+
+    public long getSessionNum() {
+        return sessions.estimatedSize();
+    }
+
+    private void onSessionRemoved(ArrowFlightSqlConnectContext context, RemovalCause cause) {
+        if (context == null) {
+            return;
+        }
+        LOG.info("close arrow flight sql session {}, cause: {}", context.getConnectionId(), cause);
+        context.kill(true, "arrow flight sql session is closed");
+        if (context.getConnectScheduler() != null) {
+            context.getConnectScheduler().unregisterConnection(context);
+        }
+    }
+}
@@ -14,19 +14,25 @@
 
 package com.starrocks.sql;
 
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.common.profile.Timer;
+import com.starrocks.common.profile.Tracers;
 import com.starrocks.http.HttpConnectContext;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.PrepareStmtContext;
+import com.starrocks.sql.analyzer.Authorizer;
 import com.starrocks.sql.ast.ExecuteStmt;
-import com.starrocks.sql.ast.QueryRelation;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.StatementBase;
 import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.operator.Operator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
 import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.optimizer.rewrite.OptDistributionPruner;
 import com.starrocks.sql.optimizer.rewrite.OptOlapPartitionPruner;
@@ -44,64 +50,127 @@ public class PrepareStmtPlanner {
             return StatementPlanner.plan(stmt, session);
         }
         QueryStatement queryStmt = (QueryStatement) stmt;
-        if (!queryStmt.isPointQuery()) {
+        PrepareStmtContext prepareStmtContext = session.getPreparedStmt(executeStmt.getStmtName());
+        // custom plan: analyze and optimize the statement with the bound values
+        if (!queryStmt.isPointQuery() || prepareStmtContext.isGenericPlanUnsupported()) {
+            prepareStmtContext.incCustomPlanExecutions();
             return StatementPlanner.plan(stmt, session);
         }
 
-        PrepareStmtContext prepareStmtContext = session.getPreparedStmt(executeStmt.getStmtName());
-        if (!prepareStmtContext.isCached()) {
-            return planAndCacheExecPlan(stmt, session, prepareStmtContext);
-        } else {
-            if (prepareStmtContext.needReAnalyze(queryStmt, session)) {
-                return planAndCacheExecPlan(stmt, session, prepareStmtContext);
-            } else {
-                ExecPlan execPlan = prepareStmtContext.getExecPlan();
-
-                // use cache and rebuild physical plan
-                rePlan(executeStmt, execPlan.getLogicalPlan(), execPlan.getPhysicalPlan());
-
-                TResultSinkType resultSinkType = session instanceof HttpConnectContext ? TResultSinkType.HTTP_PROTOCAL :
-                        TResultSinkType.MYSQL_PROTOCAL;
-                resultSinkType = queryStmt.hasOutFileClause() ? TResultSinkType.FILE : resultSinkType;
-
-                OptExpression physicalPlan = execPlan.getPhysicalPlan();
-                LogicalPlan logicalPlan = execPlan.getLogicalPlan();
-                ColumnRefFactory columnRefFactory = execPlan.getColumnRefFactory();
-                QueryRelation query = queryStmt.getQueryRelation();
-                List<String> colNames = query.getColumnOutputNames();
-
-                return PlanFragmentBuilder.createPhysicalPlan(
-                        physicalPlan, session, logicalPlan.getOutputColumn(), columnRefFactory,
-                        colNames,
-                        resultSinkType,
-                        !session.getSessionVariable().isSingleNodeExecPlan());
+        if (prepareStmtContext.isCached() && !prepareStmtContext.needReAnalyze(queryStmt, session)) {
+            ExecPlan execPlan = planWithGenericPlan(executeStmt, queryStmt, session, prepareStmtContext);
+            if (execPlan != null) {
+                return execPlan;
             }
         }
+        return planAndCacheExecPlan(executeStmt, queryStmt, session, prepareStmtContext);
     }
 
-    private static ExecPlan planAndCacheExecPlan(StatementBase stmt, ConnectContext session,
+    /**
+     * Re-bind the parameters into the cached generic plan and build the fragments, skipping the analyzer and
+     * the optimizer. Return null if the generic plan can't be used.
+     */
+    private static ExecPlan planWithGenericPlan(ExecuteStmt executeStmt, QueryStatement queryStmt,
+                                                ConnectContext session, PrepareStmtContext prepareStmtContext) {
+        // privileges may be changed after the plan is cached
+        Authorizer.check(queryStmt, session);
+
+        ExecPlan execPlan = prepareStmtContext.getExecPlan();
+        OptExpression physicalPlan = execPlan.getPhysicalPlan();
+        LogicalPlan logicalPlan = execPlan.getLogicalPlan();
+        ColumnRefFactory columnRefFactory = execPlan.getColumnRefFactory();
+        try (Timer ignored = Tracers.watchScope("RebindGenericPlan")) {
+            // the values can't be bound into the generic plan, e.g. they can't be cast to the column types,
+            // plan them as a custom plan which replaces the generic plan.
+            if (!rebindPointQueryLiterals(executeStmt.getParamsExpr(), logicalPlan, physicalPlan)) {
+                return null;
+            }
+        }
+
+        TResultSinkType resultSinkType = session instanceof HttpConnectContext ? TResultSinkType.HTTP_PROTOCAL :
+                TResultSinkType.MYSQL_PROTOCAL;
+        resultSinkType = queryStmt.hasOutFileClause() ? TResultSinkType.FILE : resultSinkType;
+        List<String> colNames = queryStmt.getQueryRelation().getColumnOutputNames();
+
+        ExecPlan newPlan = PlanFragmentBuilder.createPhysicalPlan(
+                physicalPlan, session, logicalPlan.getOutputColumn(), columnRefFactory,
+                colNames,
+                resultSinkType,
+                !session.getSessionVariable().isSingleNodeExecPlan());
+        newPlan.setLogicalPlan(logicalPlan);
+        newPlan.setColumnRefFactory(columnRefFactory);
+        prepareStmtContext.incGenericPlanExecutions();
+        Tracers.count(Tracers.Module.BASE, "PrepareGenericPlan", 1);
+        return newPlan;
+    }
+
+    private static ExecPlan planAndCacheExecPlan(ExecuteStmt executeStmt, QueryStatement stmt, ConnectContext session,
                                                  PrepareStmtContext prepareStmtContext) {
+        prepareStmtContext.reset();
         ExecPlan execPlan = StatementPlanner.plan(stmt, session);
+        prepareStmtContext.incCustomPlanExecutions();
         if (execPlan == null) {
             return null;
         }
 
-        prepareStmtContext.setExecPlan(execPlan);
-        prepareStmtContext.updateLastSchemaUpdateTime((QueryStatement) stmt, session);
+        // the plan can only be used as a generic plan if every parameter can be re-bound into it,
+        // otherwise (e.g. a parameter is a part of an expression) custom plans are used.
+        if (!canRebindPointQueryLiterals(executeStmt.getParamsExpr(), execPlan.getLogicalPlan(),
+                execPlan.getPhysicalPlan())) {
+            prepareStmtContext.disableGenericPlan();
+            return execPlan;
+        }
+        prepareStmtContext.updateTableVersions(stmt);
         prepareStmtContext.cachePlan(execPlan);
         return execPlan;
     }
 
-    private static void rePlan(ExecuteStmt executeStmt,
-                               LogicalPlan logicalPlan,
-                               OptExpression optimizedPlan) {
-
+    /**
+     * Check whether the literals of a point query can be re-bound into its plan, the plan must be a single olap
+     * scan whose filter only has `column op literal` conjuncts, one for each literal.
+     */
+    public static boolean canRebindPointQueryLiterals(List<? extends Expr> literals,
+                                                      LogicalPlan logicalPlan,
+                                                      OptExpression optimizedPlan) {
+        if (literals == null || !(optimizedPlan.getOp() instanceof PhysicalOlapScanOperator)) {
+            return false;
+        }
+        if (!literals.stream().allMatch(literal -> literal instanceof LiteralExpr)) {
+            return false;
+        }
         Operator operator = logicalPlan.getRoot().getInputs().get(0).getOp();
-        if (operator instanceof LogicalFilterOperator) {
-            ScalarOperator.updateLiteralPredicates(operator.getPredicate(), executeStmt.getParamsExpr());
+        if (!(operator instanceof LogicalFilterOperator)) {
+            return false;
+        }
+        List<ScalarOperator> conjuncts = Utils.extractConjuncts(operator.getPredicate());
+        if (conjuncts.size() != literals.size()) {
+            return false;
+        }
+        for (ScalarOperator conjunct : conjuncts) {
+            if (!(conjunct instanceof BinaryPredicateOperator) || !conjunct.getChild(1).isConstantRef()) {
+                return false;
+            }
         }
+        return true;
+    }
 
+    /**
+     * Re-bind the literals of a point query into its cached plan and prune partitions and tablets again,
+     * return false and leave the plan unchanged if the plan doesn't support re-binding or any literal can't be
+     * cast to the type of the literal it replaces.
+     */
+    public static boolean rebindPointQueryLiterals(List<? extends Expr> literals,
+                                                   LogicalPlan logicalPlan,
+                                                   OptExpression optimizedPlan) {
+        if (!canRebindPointQueryLiterals(literals, logicalPlan, optimizedPlan)) {
+            return false;
+        }
+        Operator operator = logicalPlan.getRoot().getInputs().get(0).getOp();
+        if (!ScalarOperator.updateLiteralPredicates(operator.getPredicate(), literals)) {
+            return false;
+        }
         rePlanOptimizedPlan(logicalPlan, optimizedPlan);
+        return true;
     }
 
     private static void rePlanOptimizedPlan(LogicalPlan logicalPlan, OptExpression optimizedPlan) {
@@ -0,0 +1,344 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.InformationFunction;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.Parameter;
+import com.starrocks.analysis.ParseNode;
+import com.starrocks.analysis.UserVariableExpr;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.analyzer.AstToSQLBuilder;
+import com.starrocks.sql.ast.AstTraverser;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.common.SqlDigestBuilder;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.PlanFragmentBuilder;
+import com.starrocks.thrift.TResultSinkType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of optimized physical plans for repeated query shapes, so that a query which only differs from a
+ * previous one in its literals can skip the transformer and the optimizer.
+ * <p>
+ * The cache stores the optimized {@link OptExpression} rather than the fragments, fragments are rebuilt from the
+ * cached expression for every execution because they carry per-query state (scan ranges, ids, descriptors).
+ * <p>
+ * Two kinds of entries exist:
+ * 1. parameterized entries, keyed by the sql digest (literals replaced by `?`). Only point queries are
+ *    parameterized, the literals of the new query are re-bound into the cached plan and partitions/tablets are
+ *    pruned again, the same way as prepared statements do.
+ * 2. exact entries, keyed by the normalized sql text with its literals, for all other cacheable queries.
+ * <p>
+ * An entry is only reused if the versions of all the tables it reads are unchanged, which covers both DDL
+ * (schema update time) and data changes (partitions version, increased when a partition or its visible version
+ * is changed).
+ */
+public class QueryPlanCache {
+    private static final Logger LOG = LogManager.getLogger(QueryPlanCache.class);
+    private static final QueryPlanCache INSTANCE = new QueryPlanCache();
+
+    private Cache<PlanCacheKey, CachedQueryPlan> planCache = buildCache();
+
+    public static class PlanCacheKey {
+        private final String sql;
+        private final boolean parameterized;
+        private final String catalog;
+        private final String database;
+        private final String user;
+        private final String sessionVariables;
+        // versions of the tables when the key is built, not a part of the key
+        private final List<Long> tableVersions;
+
+        public PlanCacheKey(String sql, boolean parameterized, String catalog, String database, String user,
+                            String sessionVariables, List<Long> tableVersions) {
+            this.sql = sql;
+            this.parameterized = parameterized;
+            this.catalog = catalog;
+            this.database = database;
+            this.user = user;
+            this.sessionVariables = sessionVariables;
+            this.tableVersions = tableVersions;
+        }
+
+        public boolean isParameterized() {
+            return parameterized;
+        }
+
+        public List<Long> getTableVersions() {
+            return tableVersions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanCacheKey)) {
+                return false;
+            }
+            PlanCacheKey other = (PlanCacheKey) o;
+            return parameterized == other.parameterized &&
+                    Objects.equals(sql, other.sql) &&
+                    Objects.equals(catalog, other.catalog) &&
+                    Objects.equals(database, other.database) &&
+                    Objects.equals(user, other.user) &&
+                    Objects.equals(sessionVariables, other.sessionVariables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, parameterized, catalog, database, user, sessionVariables);
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+
+    public static class CachedQueryPlan {
+        private final OptExpression physicalPlan;
+        private final LogicalPlan logicalPlan;
+        private final ColumnRefFactory columnRefFactory;
+        // table id, schema update time and partitions version of every table in the query
+        private final List<Long> tableVersions;
+
+        public CachedQueryPlan(OptExpression physicalPlan, LogicalPlan logicalPlan, ColumnRefFactory columnRefFactory,
+                               List<Long> tableVersions) {
+            this.physicalPlan = physicalPlan;
+            this.logicalPlan = logicalPlan;
+            this.columnRefFactory = columnRefFactory;
+            this.tableVersions = tableVersions;
+        }
+
+        public OptExpression getPhysicalPlan() {
+            return physicalPlan;
+        }
+
+        public LogicalPlan getLogicalPlan() {
+            return logicalPlan;
+        }
+
+        public ColumnRefFactory getColumnRefFactory() {
+            return columnRefFactory;
+        }
+
+        public List<Long> getTableVersions() {
+            return tableVersions;
+        }
+    }
+
+    private QueryPlanCache() {
+    }
+
+    public static QueryPlanCache getInstance() {
+        return INSTANCE;
+    }
+
+    private Cache<PlanCacheKey, CachedQueryPlan> buildCache() {
+        return Caffeine.newBuilder()
+                .expireAfterAccess(Config.query_plan_cache_expire_interval_sec, TimeUnit.SECONDS)
+                .maximumSize(Config.query_plan_cache_max_size)
+                .recordStats()
+                .build();
+    }
+
+    @VisibleForTesting
+    public void rebuildCache() {
+        planCache = buildCache();
+    }
+
+    @VisibleForTesting
+    public CacheStats getStats() {
+        return planCache.stats();
+    }
+
+    public long size() {
+        return planCache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        planCache.invalidateAll();
+    }
+
+    /**
+     * Build the cache key of an analyzed query, return null if the query can not use the plan cache.
+     */
+    public PlanCacheKey buildKey(QueryStatement queryStmt, ConnectContext session) {
+        if (!session.getSessionVariable().isEnableQueryPlanCache() || !isCacheable(queryStmt)) {
+            return null;
+        }
+        try {
+            boolean parameterized = queryStmt.isPointQuery() && queryStmt.getPointQueryLiterals() != null;
+            String sql = parameterized ? SqlDigestBuilder.build(queryStmt) : AstToSQLBuilder.toSQL(queryStmt);
+            String user = session.getCurrentUserIdentity() == null ? "" :
+                    session.getCurrentUserIdentity() + "/" + session.getCurrentRoleIds();
+            // all the session variables take part in the key, any of them may change the plan
+            return new PlanCacheKey(sql, parameterized, session.getCurrentCatalog(), session.getDatabase(), user,
+                    session.getSessionVariable().getPlanCacheFingerprint(),
+                    collectTableVersions(AnalyzerUtils.collectAllTable(queryStmt).values()));
+        } catch (Exception e) {
+            LOG.debug("failed to build plan cache key", e);
+            return null;
+        }
+    }
+
+    private static boolean isCacheable(QueryStatement queryStmt) {
+        if (queryStmt.isExplain() || queryStmt.hasOutFileClause()) {
+            return false;
+        }
+        Collection<Table> tables = AnalyzerUtils.collectAllTable(queryStmt).values();
+        if (tables.isEmpty()) {
+            return false;
+        }
+        for (Table table : tables) {
+            // only olap tables have the versions to validate the cached plan
+            if (!(table instanceof OlapTable) || !table.isOlapTableOrMaterializedView() || table.isTemporaryTable()) {
+                return false;
+            }
+        }
+        // the statement of a prepared statement keeps its own generic plan, see PrepareStmtPlanner.
+        // user variables and information functions are bound to the values of the session by the analyzer,
+        // but the key only has their names.
+        if (containsNonCacheableExpr(queryStmt)) {
+            return false;
+        }
+        return !AnalyzerUtils.containsNonDeterministicFunction(queryStmt).first;
+    }
+
+    /**
+     * Collect id, schema update time and partitions version of the olap tables, ordered by table id so that the
+     * result doesn't depend on how the tables are collected. It only reads a few versions of each table, so it
+     * doesn't depend on the number of partitions and is safe to call without the table locks.
+     */
+    public static List<Long> collectTableVersions(Collection<Table> tables) {
+        Map<Long, OlapTable> olapTables = Maps.newTreeMap();
+        for (Table table : tables) {
+            olapTables.put(table.getId(), (OlapTable) table);
+        }
+        List<Long> versions = Lists.newArrayList();
+        for (OlapTable olapTable : olapTables.values()) {
+            versions.add(olapTable.getId());
+            versions.add(olapTable.lastSchemaUpdateTime.get());
+            versions.add(olapTable.getPartitionsVersion());
+        }
+        return versions;
+    }
+
+    private static boolean containsNonCacheableExpr(ParseNode node) {
+        NonCacheableExprChecker checker = new NonCacheableExprChecker();
+        checker.visit(node);
+        return checker.found;
+    }
+
+    private static class NonCacheableExprChecker extends AstTraverser<Void, Void> {
+        private boolean found = false;
+
+        @Override
+        public Void visitParameterExpr(Parameter node, Void context) {
+            found = true;
+            return null;
+        }
+
+        @Override
+        public Void visitUserVariableExpr(UserVariableExpr node, Void context) {
+            found = true;
+            return null;
+        }
+
+        @Override
+        public Void visitInformationFunction(InformationFunction node, Void context) {
+            found = true;
+            return null;
+        }
+    }
+
+    /**
+     * Build an exec plan from the cached plan of the key, return null if there is no valid cached plan.
+     */
+    public ExecPlan getPlan(PlanCacheKey key, QueryStatement queryStmt, ConnectContext session,
+                            TResultSinkType resultSinkType) {
+        CachedQueryPlan cachedPlan = planCache.getIfPresent(key);
+        if (cachedPlan == null) {
+            return null;
+        }
+        if (!cachedPlan.getTableVersions().equals(key.getTableVersions())) {
+            planCache.invalidate(key);
+            return null;
+        }
+
+        List<String> colNames = queryStmt.getQueryRelation().getColumnOutputNames();
+        // the cached expression is shared by all the queries of the same shape, re-binding literals and building
+        // fragments mutate it, so they must not run concurrently for one entry.
+        synchronized (cachedPlan) {
+            if (key.isParameterized()) {
+                List<LiteralExpr> literals = queryStmt.getPointQueryLiterals();
+                try {
+                    if (!PrepareStmtPlanner.rebindPointQueryLiterals(literals, cachedPlan.getLogicalPlan(),
+                            cachedPlan.getPhysicalPlan())) {
+                        planCache.invalidate(key);
+                        return null;
+                    }
+                } catch (Exception e) {
+                    LOG.warn("failed to re-bind literals of cached plan: {}", key, e);
+                    planCache.invalidate(key);
+                    return null;
+                }
+            }
+
+            ExecPlan execPlan = PlanFragmentBuilder.createPhysicalPlan(
+                    cachedPlan.getPhysicalPlan(), session, cachedPlan.getLogicalPlan().getOutputColumn(),
+                    cachedPlan.getColumnRefFactory(), colNames, resultSinkType,
+                    !session.getSessionVariable().isSingleNodeExecPlan());
+            execPlan.setLogicalPlan(cachedPlan.getLogicalPlan());
+            execPlan.setColumnRefFactory(cachedPlan.getColumnRefFactory());
+            return execPlan;
+        }
+    }
+
+    public void putPlan(PlanCacheKey key, QueryStatement queryStmt, ExecPlan execPlan) {
+        if (execPlan == null || execPlan.getPhysicalPlan() == null || execPlan.getLogicalPlan() == null) {
+            return;
+        }
+        List<LiteralExpr> literals = key.isParameterized() ? queryStmt.getPointQueryLiterals() : null;
+        if (key.isParameterized() && !PrepareStmtPlanner.canRebindPointQueryLiterals(literals,
+                execPlan.getLogicalPlan(), execPlan.getPhysicalPlan())) {
+            return;
+        }
+        planCache.put(key, new CachedQueryPlan(execPlan.getPhysicalPlan(), execPlan.getLogicalPlan(),
+                execPlan.getColumnRefFactory(), key.getTableVersions()));
+    }
+}
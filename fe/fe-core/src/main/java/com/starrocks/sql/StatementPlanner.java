@@ -117,6 +117,9 @@ public class StatementPlanner {
         // 1. For all queries, we need db lock when analyze phase
         PlannerMetaLocker plannerMetaLocker = new PlannerMetaLocker(session, stmt);
         try (var guard = session.bindScope()) {
+            // Taken before analyzing, the analysis may read the metadata without the locks, so any table update after
+            // this point invalidates the plan
+            long planStartTime = OptimisticVersion.generate();
             // Analyze
             analyzeStatement(stmt, session, plannerMetaLocker);
 
@@ -130,19 +133,40 @@ public class StatementPlanner {
             if (stmt instanceof QueryStatement) {
                 QueryStatement queryStmt = (QueryStatement) stmt;
                 resultSinkType = queryStmt.hasOutFileClause() ? TResultSinkType.FILE : resultSinkType;
+                QueryPlanCache.PlanCacheKey planCacheKey = QueryPlanCache.getInstance().buildKey(queryStmt, session);
+                if (planCacheKey != null) {
+                    ExecPlan cachedPlan;
+                    try (Timer ignored = Tracers.watchScope("PlanCache")) {
+                        cachedPlan = QueryPlanCache.getInstance().getPlan(planCacheKey, queryStmt, session,
+                                resultSinkType);
+                    }
+                    if (cachedPlan != null) {
+                        Tracers.count(Tracers.Module.BASE, "PlanCacheHit", 1);
+                        return cachedPlan;
+                    }
+                }
+
                 boolean areTablesCopySafe = AnalyzerUtils.areTablesCopySafe(queryStmt);
                 needWholePhaseLock = isLockFree(areTablesCopySafe, session) ? false : true;
+                if (needWholePhaseLock && !plannerMetaLocker.isLocked()) {
+                    // analyzed without the locks, analyze again with the locks held during the whole planning
+                    lock(plannerMetaLocker);
+                    Analyzer.analyze(queryStmt, session);
+                }
+
                 ExecPlan plan;
                 VectorSearchOptions vectorSearchOptions = new VectorSearchOptions();
                 if (needWholePhaseLock) {
                     plan = createQueryPlan(queryStmt, session, resultSinkType, vectorSearchOptions);
                 } else {
-                    long planStartTime = OptimisticVersion.generate();
                     unLock(plannerMetaLocker);
                     plan = createQueryPlanWithReTry(queryStmt, session, resultSinkType, plannerMetaLocker,
                                                     planStartTime, vectorSearchOptions);
                 }
                 setOutfileSink(queryStmt, plan);
+                if (planCacheKey != null) {
+                    QueryPlanCache.getInstance().putPlan(planCacheKey, queryStmt, plan);
+                }
                 return plan;
             } else if (stmt instanceof InsertStmt) {
                 return planInsertStmt(plannerMetaLocker, (InsertStmt) stmt, session);
@@ -173,6 +197,8 @@ public class StatementPlanner {
      * Analyze the statement.
      * 1. Optimization for INSERT-SELECT: if the SELECT doesn't need the lock, we can defer the lock acquisition
      * after analyzing the SELECT. That can help the case which SELECT is a time-consuming external table access.
+     * 2. Optimization for the query on olap tables: analyze it without the locks, and validate that the metadata
+     * is not written during analyzing, see {@link PlannerMetaLocker#readOptimistically(Runnable)}.
      */
     private static void analyzeStatement(StatementBase statement, ConnectContext session, PlannerMetaLocker locker) {
         boolean deferredLock = false;
@@ -195,6 +221,10 @@ public class StatementPlanner {
 
             if (deferredLock) {
                 InsertAnalyzer.analyzeWithDeferredLock((InsertStmt) statement, session, takeLock);
+            } else if (statement instanceof QueryStatement && locker.canReadOptimistically(session)) {
+                // the locks are taken only if the metadata is written during analyzing
+                boolean lockFree = locker.readOptimistically(() -> Analyzer.analyze(statement, session));
+                Tracers.count(Tracers.Module.BASE, lockFree ? "OptimisticAnalyze" : "OptimisticAnalyzeFailed", 1);
             } else {
                 takeLock.run();
                 Analyzer.analyze(statement, session);
@@ -19,8 +19,10 @@ import com.google.common.collect.Maps;
 import com.starrocks.analysis.TableName;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
 import com.starrocks.common.Pair;
 import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.LockVersionTracker;
 import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.server.CatalogMgr;
@@ -34,6 +36,7 @@ import com.starrocks.sql.ast.TableRelation;
 import com.starrocks.sql.ast.UpdateStmt;
 import com.starrocks.sql.ast.ViewRelation;
 
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -62,8 +65,16 @@ public class PlannerMetaLocker {
      */
     private Map<Long, Set<Long>> tables = Maps.newTreeMap(Long::compareTo);
 
+    // whether all the tables can be read optimistically, see readOptimistically()
+    private boolean allTablesOptimisticReadable = true;
+
+    // the locks are reentrant, and may be skipped by readOptimistically()
+    private int lockCount = 0;
+
     public PlannerMetaLocker(ConnectContext session, StatementBase statementBase) {
-        new TableCollector(session, dbs, tables).visit(statementBase);
+        TableCollector collector = new TableCollector(session, dbs, tables);
+        collector.visit(statementBase);
+        allTablesOptimisticReadable = collector.allTablesOptimisticReadable;
         session.setCurrentSqlDbIds(dbs.values().stream().map(Database::getId).collect(Collectors.toSet()));
     }
 
@@ -85,6 +96,7 @@ public class PlannerMetaLocker {
                 lockedDbs.add(database);
             }
             isLockSuccess = true;
+            lockCount++;
         } finally {
             if (!isLockSuccess) {
                 for (Database database : lockedDbs) {
@@ -103,9 +115,14 @@ public class PlannerMetaLocker {
             List<Long> tableIds = new ArrayList<>(entry.getValue());
             locker.lockTablesWithIntensiveDbLock(database.getId(), tableIds, LockType.READ);
         }
+        lockCount++;
     }
 
     public void unlock() {
+        if (lockCount == 0) {
+            return;
+        }
+        lockCount--;
         Locker locker = new Locker();
         for (Map.Entry<Long, Set<Long>> entry : tables.entrySet()) {
             Database database = dbs.get(entry.getKey());
@@ -114,6 +131,69 @@ public class PlannerMetaLocker {
         }
     }
 
+    public boolean isLocked() {
+        return lockCount > 0;
+    }
+
+    /**
+     * Whether the metadata can be read by {@link #readOptimistically(Runnable)}. Only the internal olap tables are
+     * supported, which will be copied for planning after analyzing.
+     */
+    public boolean canReadOptimistically(ConnectContext session) {
+        return Config.enable_planner_optimistic_meta_read && allTablesOptimisticReadable &&
+                !session.getSessionVariable().isCboUseDBLock();
+    }
+
+    /**
+     * Run the read-only action on the metadata without taking the locks, and validate that none of the databases
+     * and tables is written during the action, like the optimistic read of
+     * {@link java.util.concurrent.locks.StampedLock}. If the validation fails, the action is run again with the
+     * locks held, so the action must tolerate the inconsistent metadata and be able to run again.
+     *
+     * @return true if the validation succeeds, otherwise the locks are held after return.
+     */
+    public boolean readOptimistically(Runnable action) {
+        Map<Long, Long> versions = getStableVersions();
+        if (versions != null) {
+            try {
+                action.run();
+                // the plain reads of the metadata in the action must not be reordered after the validation
+                VarHandle.acquireFence();
+                if (versions.equals(getStableVersions())) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                VarHandle.acquireFence();
+                // a real error rather than reading the metadata being written
+                if (versions.equals(getStableVersions())) {
+                    throw e;
+                }
+            }
+        }
+        lock();
+        action.run();
+        return false;
+    }
+
+    /**
+     * Get the versions of all the databases and tables to lock, return null if any of them is being written.
+     */
+    private Map<Long, Long> getStableVersions() {
+        Map<Long, Long> versions = Maps.newHashMap();
+        for (Map.Entry<Long, Set<Long>> entry : tables.entrySet()) {
+            List<Long> rids = new ArrayList<>(entry.getValue());
+            rids.add(entry.getKey());
+            for (Long rid : rids) {
+                long version = LockVersionTracker.getStableVersion(rid);
+                if (version == LockVersionTracker.UNSTABLE_VERSION) {
+                    return null;
+                }
+                versions.put(rid, version);
+            }
+        }
+        return versions;
+    }
+
     /**
      * Collect tables that need to be protected by the PlannerMetaLock
      */
@@ -173,6 +253,7 @@ public class PlannerMetaLocker {
 
         private final Map<Long, Database> dbs;
         private final Map<Long, Set<Long>> tables;
+        private boolean allTablesOptimisticReadable = true;
 
         public TableCollector(ConnectContext session, Map<Long, Database> dbs, Map<Long, Set<Long>> tables) {
             this.session = session;
@@ -219,6 +300,10 @@ public class PlannerMetaLocker {
             if (dbAndTable != null) {
                 Database database = dbAndTable.first;
                 Table table = dbAndTable.second;
+                // the tables referred by a view are unknown before analyzing, so they are not protected
+                if (!table.isOlapTable() && !table.isOlapMaterializedView()) {
+                    allTablesOptimisticReadable = false;
+                }
 
                 dbs.putIfAbsent(database.getId(), database);
                 tables.computeIfAbsent(database.getId(), k -> new HashSet<>()).add(table.getId());
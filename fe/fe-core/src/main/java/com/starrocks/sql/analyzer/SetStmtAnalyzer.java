@@ -41,6 +41,7 @@ import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.GlobalVariable;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.SessionVariableConstants;
+import com.starrocks.qe.scheduler.BatchPlanFragmentsRequestBuilder;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.SelectList;
@@ -198,6 +199,15 @@ public class SetStmtAnalyzer {
             }
         }
 
+        if (variable.equalsIgnoreCase(SessionVariable.BATCH_DEPLOY_COMPRESSION_TYPE)) {
+            String compressionName = resolvedExpression.getStringValue();
+            TCompressionType compressionType = CompressionUtils.findTCompressionByName(compressionName);
+            if (!BatchPlanFragmentsRequestBuilder.SUPPORTED_COMPRESSION_TYPES.contains(compressionType)) {
+                throw new SemanticException(String.format("Unsupported compression type: %s, supported list is %s",
+                        compressionName, StringUtils.join(BatchPlanFragmentsRequestBuilder.SUPPORTED_COMPRESSION_TYPES, ",")));
+            }
+        }
+
         if (variable.equalsIgnoreCase(SessionVariable.ADAPTIVE_DOP_MAX_BLOCK_ROWS_PER_DRIVER_SEQ)) {
             checkRangeLongVariable(resolvedExpression, SessionVariable.ADAPTIVE_DOP_MAX_BLOCK_ROWS_PER_DRIVER_SEQ, 1L,
                     null);
@@ -18,6 +18,7 @@ package com.starrocks.sql.ast;
 import com.starrocks.analysis.BinaryPredicate;
 import com.starrocks.analysis.CompoundPredicate;
 import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.analysis.OutFileClause;
 import com.starrocks.analysis.RedirectStatus;
 import com.starrocks.analysis.SlotRef;
@@ -28,6 +29,7 @@ import com.starrocks.common.Pair;
 import com.starrocks.qe.OriginStatement;
 import com.starrocks.thrift.TExprOpcode;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -128,6 +130,34 @@ public class QueryStatement extends StatementBase {
         return true;
     }
 
+    /**
+     * Literals of a point query's `column = literal [AND ...]` predicate in their textual order,
+     * or null if any conjunct is not in this form. Only valid after analyzing.
+     */
+    public List<LiteralExpr> getPointQueryLiterals() {
+        if (!(queryRelation instanceof SelectRelation)) {
+            return null;
+        }
+        List<LiteralExpr> literals = new ArrayList<>();
+        return collectPointQueryLiterals(((SelectRelation) queryRelation).getPredicate(), literals) ? literals : null;
+    }
+
+    private static boolean collectPointQueryLiterals(Expr expr, List<LiteralExpr> literals) {
+        if (expr instanceof CompoundPredicate) {
+            CompoundPredicate compoundPredicate = (CompoundPredicate) expr;
+            return compoundPredicate.getOp() == CompoundPredicate.Operator.AND &&
+                    collectPointQueryLiterals(compoundPredicate.getChild(0), literals) &&
+                    collectPointQueryLiterals(compoundPredicate.getChild(1), literals);
+        } else if (expr instanceof BinaryPredicate) {
+            if (!(expr.getChild(0) instanceof SlotRef) || !(expr.getChild(1) instanceof LiteralExpr)) {
+                return false;
+            }
+            literals.add((LiteralExpr) expr.getChild(1));
+            return true;
+        }
+        return false;
+    }
+
     private static Map<SlotRef, Expr> getEQBinaryPredicates(Map<SlotRef, Expr> result, Expr expr,
                                                             TExprOpcode eqOpcode) {
         if (expr == null) {
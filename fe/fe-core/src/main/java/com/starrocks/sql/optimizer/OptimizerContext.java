@@ -32,6 +32,7 @@ import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
 import com.starrocks.sql.optimizer.rewrite.JoinPredicatePushdown;
 import com.starrocks.sql.optimizer.rule.RuleSet;
 import com.starrocks.sql.optimizer.rule.RuleType;
+import com.starrocks.sql.optimizer.task.ParallelTaskScheduler;
 import com.starrocks.sql.optimizer.task.SeriallyTaskScheduler;
 import com.starrocks.sql.optimizer.task.TaskContext;
 import com.starrocks.sql.optimizer.task.TaskScheduler;
@@ -110,7 +111,9 @@ public class OptimizerContext {
         this.memo = memo;
         this.ruleSet = new RuleSet();
         this.globalStateMgr = GlobalStateMgr.getCurrentState();
-        this.taskScheduler = SeriallyTaskScheduler.create();
+        this.taskScheduler = connectContext.getSessionVariable().isCboEnableParallelDeriveStats() ?
+                ParallelTaskScheduler.create(connectContext.getSessionVariable().getCboDeriveStatsThreadPoolSize()) :
+                SeriallyTaskScheduler.create();
         this.columnRefFactory = columnRefFactory;
         this.queryId = connectContext.getQueryId();
         this.sessionVariable = connectContext.getSessionVariable();
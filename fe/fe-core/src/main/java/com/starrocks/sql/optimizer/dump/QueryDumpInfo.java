@@ -180,7 +180,7 @@ public class QueryDumpInfo implements DumpInfo {
         this.exceptionList.clear();
     }
 
-    public void addPartitionRowCount(String tableName, String partition, long rowCount) {
+    public synchronized void addPartitionRowCount(String tableName, String partition, long rowCount) {
         if (!partitionRowCountMap.containsKey(tableName)) {
             partitionRowCountMap.put(tableName, new HashMap<>());
         }
@@ -220,7 +220,7 @@ public class QueryDumpInfo implements DumpInfo {
         addTableStatistics(getTableName(table.getId()), column, columnStatistic);
     }
 
-    public void addTableStatistics(String tableName, String column, ColumnStatistic columnStatistic) {
+    public synchronized void addTableStatistics(String tableName, String column, ColumnStatistic columnStatistic) {
         if (!tableStatisticsMap.containsKey(tableName)) {
             tableStatisticsMap.put(tableName, new HashMap<>());
         }
@@ -271,7 +271,7 @@ public class QueryDumpInfo implements DumpInfo {
     }
 
     @Override
-    public void addException(String exception) {
+    public synchronized void addException(String exception) {
         this.exceptionList.add(exception);
     }
 
@@ -19,6 +19,7 @@ import com.google.common.collect.Lists;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.catalog.Type;
+import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.operator.OperatorType;
 
@@ -292,26 +293,28 @@ public abstract class ScalarOperator implements Cloneable {
         return false;
     }
 
-    public static void updateLiteralPredicates(ScalarOperator predicate, List<Expr> exprs) {
-        if (predicate instanceof CompoundPredicateOperator) {
-            updateCompoundLiteralPredicate((CompoundPredicateOperator) predicate, exprs);
-        } else {
-            updateSingleLiteralPredicate(predicate, exprs.get(0));
+    /**
+     * Replace the literal of each `column op literal` conjunct of the predicate with the expr of the same index.
+     * Nothing is changed and false is returned if any expr can't be cast to the type of its literal.
+     */
+    public static boolean updateLiteralPredicates(ScalarOperator predicate, List<? extends Expr> exprs) {
+        List<ScalarOperator> conjuncts = Utils.extractConjuncts(predicate);
+        List<ConstantOperator> constants = Lists.newArrayListWithCapacity(conjuncts.size());
+        for (int i = 0; i < conjuncts.size(); i++) {
+            Optional<ConstantOperator> constant = castLiteral(conjuncts.get(i), exprs.get(i));
+            if (!constant.isPresent()) {
+                return false;
+            }
+            constants.add(constant.get());
         }
-    }
-
-    private static void updateCompoundLiteralPredicate(CompoundPredicateOperator compoundPredicate, List<Expr> exprs) {
-        for (int i = 0; i < compoundPredicate.getChildren().size(); i++) {
-            updateSingleLiteralPredicate(compoundPredicate.getChild(i), exprs.get(i));
+        for (int i = 0; i < conjuncts.size(); i++) {
+            conjuncts.get(i).setChild(1, constants.get(i));
         }
+        return true;
     }
 
-    private static void updateSingleLiteralPredicate(ScalarOperator predicate, Expr expr) {
+    private static Optional<ConstantOperator> castLiteral(ScalarOperator predicate, Expr expr) {
         Object realObjectValue = ((LiteralExpr) expr).getRealObjectValue();
-        Optional<ConstantOperator> constantOperator =
-                new ConstantOperator(realObjectValue, expr.getType()).castTo(predicate.getChild(1).getType());
-        if (constantOperator.isPresent()) {
-            predicate.setChild(1, constantOperator.get());
-        }
+        return new ConstantOperator(realObjectValue, expr.getType()).castTo(predicate.getChild(1).getType());
     }
 }
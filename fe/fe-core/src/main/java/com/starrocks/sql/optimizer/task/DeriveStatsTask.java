@@ -57,15 +57,28 @@ public class DeriveStatsTask extends OptimizerTask {
             Preconditions.checkNotNull(groupExpression.getInputs().get(i).getStatistics());
         }
 
+        updateGroupStatistics(deriveStatistics());
+    }
+
+    /**
+     * Estimate the statistics of the group expression, it doesn't modify the memo.
+     */
+    Statistics deriveStatistics() {
         ExpressionContext expressionContext = new ExpressionContext(groupExpression);
         StatisticsCalculator statisticsCalculator = new StatisticsCalculator(expressionContext,
                 context.getOptimizerContext().getColumnRefFactory(), context.getOptimizerContext());
         statisticsCalculator.estimatorStats();
+        return expressionContext.getStatistics();
+    }
 
+    /**
+     * Update the statistics of the group with the estimated statistics of the group expression,
+     * and mark the group expression as derived.
+     */
+    void updateGroupStatistics(Statistics groupExpressionStatistics) {
         Statistics currentStatistics = groupExpression.getGroup().getStatistics();
         // @Todo: update choose algorithm, like choose the least predicate statistics
         // choose best statistics
-        Statistics groupExpressionStatistics = expressionContext.getStatistics();
         if (needUpdateGroupStatistics(currentStatistics, groupExpressionStatistics)) {
             if (currentStatistics != null
                     && isMaterializedView(groupExpression)
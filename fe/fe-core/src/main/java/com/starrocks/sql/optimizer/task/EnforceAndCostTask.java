@@ -17,6 +17,7 @@ package com.starrocks.sql.optimizer.task;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.starrocks.analysis.JoinOperator;
+import com.starrocks.common.profile.Tracers;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.optimizer.ChildOutputPropertyGuarantor;
@@ -81,6 +82,10 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
 
     private static final Logger LOG = LogManager.getLogger(EnforceAndCostTask.class);
 
+    private static final String PRUNED_BY_LOCAL_COST_COUNTER = "EnforceAndCostPrunedByLocalCost";
+    private static final String PRUNED_BY_UPPER_BOUND_COUNTER = "EnforceAndCostPrunedByUpperBound";
+    private static final String PRUNED_BY_CHILD_COUNTER = "EnforceAndCostPrunedByChild";
+
     EnforceAndCostTask(TaskContext context, GroupExpression expression) {
         super(context);
         this.groupExpression = expression;
@@ -144,6 +149,10 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
             if (curChildIndex == 0 && prevChildIndex == -1) {
                 localCost = CostModel.calculateCost(groupExpression);
                 curTotalCost += localCost;
+                if (pruneByLocalCost()) {
+                    resetEnumerationState();
+                    continue;
+                }
             }
 
             for (; curChildIndex < groupExpression.getInputs().size(); curChildIndex++) {
@@ -157,6 +166,7 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
                     // If there can not find best child expr or push child's OptimizeGroupTask, The child has been
                     // pruned because of UpperBound cost prune, and parent task can break here and return
                     recordLowerBoundCost(context.getUpperBoundCost() + 1);
+                    Tracers.count(Tracers.Module.OPTIMIZER, PRUNED_BY_CHILD_COUNTER, 1);
                     break;
                 }
 
@@ -186,6 +196,7 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
                 curTotalCost += childBestExpr.getCost(childRequiredProperty);
                 if (curTotalCost > context.getUpperBoundCost()) {
                     recordLowerBoundCost(curTotalCost);
+                    Tracers.count(Tracers.Module.OPTIMIZER, PRUNED_BY_UPPER_BOUND_COUNTER, 1);
                     break;
                 }
             }
@@ -204,6 +215,7 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
 
                 if (curTotalCost > context.getUpperBoundCost()) {
                     recordLowerBoundCost(curTotalCost);
+                    Tracers.count(Tracers.Module.OPTIMIZER, PRUNED_BY_UPPER_BOUND_COUNTER, 1);
                     break;
                 }
 
@@ -218,13 +230,33 @@ public class EnforceAndCostTask extends OptimizerTask implements Cloneable {
                 PhysicalPropertySet outputProperty = outputPropertyDeriver.getOutputProperty();
                 recordCostsAndEnforce(outputProperty, childrenRequiredProperties);
             }
-            // Reset child idx and total cost
-            prevChildIndex = -1;
-            curChildIndex = 0;
-            curTotalCost = 0;
-            childrenBestExprList.clear();
-            childrenOutputProperties.clear();
+            resetEnumerationState();
+        }
+    }
+
+    // Reset child idx and total cost before costing the next children required properties
+    private void resetEnumerationState() {
+        prevChildIndex = -1;
+        curChildIndex = 0;
+        curTotalCost = 0;
+        childrenBestExprList.clear();
+        childrenOutputProperties.clear();
+    }
+
+    // The cost of a child is never negative, so if the local cost has already exceeded the upper bound,
+    // the expression can't be cheaper than the best plan found for the group, and would be pruned once
+    // its first child is costed. Prune it before optimizing any child group to save the search of children.
+    private boolean pruneByLocalCost() {
+        if (groupExpression.getInputs().isEmpty() ||
+                !context.getOptimizerContext().getSessionVariable().isCboEnableLocalCostPrune()) {
+            return false;
+        }
+        if (curTotalCost > context.getUpperBoundCost()) {
+            recordLowerBoundCost(curTotalCost);
+            Tracers.count(Tracers.Module.OPTIMIZER, PRUNED_BY_LOCAL_COST_COUNTER, 1);
+            return true;
         }
+        return false;
     }
 
     private void recordLowerBoundCost(double cost) {
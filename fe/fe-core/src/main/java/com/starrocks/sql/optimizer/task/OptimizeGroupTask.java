@@ -15,6 +15,7 @@
 
 package com.starrocks.sql.optimizer.task;
 
+import com.starrocks.common.profile.Tracers;
 import com.starrocks.sql.optimizer.Group;
 
 /**
@@ -43,8 +44,11 @@ public class OptimizeGroupTask extends OptimizerTask {
     public void execute() {
         // 1 Group Cost LB > Context Cost UB
         // 2 Group has optimized given the context
-        if (group.getCostLowerBound(context.getRequiredProperty()) >= context.getUpperBoundCost() ||
-                group.hasBestExpression(context.getRequiredProperty())) {
+        if (group.hasBestExpression(context.getRequiredProperty())) {
+            return;
+        }
+        if (group.getCostLowerBound(context.getRequiredProperty()) >= context.getUpperBoundCost()) {
+            Tracers.count(Tracers.Module.OPTIMIZER, "OptimizeGroupPrunedByLowerBound", 1);
             return;
         }
 
@@ -0,0 +1,142 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.task;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.profile.Timer;
+import com.starrocks.common.profile.Tracers;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.optimizer.Group;
+import com.starrocks.sql.optimizer.GroupExpression;
+import com.starrocks.sql.optimizer.Memo;
+import com.starrocks.sql.optimizer.operator.logical.LogicalScanOperator;
+import com.starrocks.sql.optimizer.statistics.Statistics;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParallelTaskScheduler derives the statistics of all the scan groups in memo concurrently before
+ * exploring the memo. The scans are independent of each other, and estimating their statistics needs to
+ * load table and column statistics, which dominates the memo phase of a wide join with a cold statistics cache.
+ * <p>
+ * All the tasks which modify the memo are still executed serially and in the same order as
+ * {@link SeriallyTaskScheduler}, and the derived statistics are applied to the groups in the order of groups,
+ * so the final plan is the same as the serial one.
+ */
+public class ParallelTaskScheduler extends SeriallyTaskScheduler {
+    private static final int DERIVE_STATS_QUEUE_SIZE = 1024;
+
+    // the threads are created lazily and exit when idle, so the pool costs nothing if the feature is disabled
+    private static class ExecutorHolder {
+        private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private static ThreadPoolExecutor createExecutor() {
+            int numThreads = Math.max(1, Config.optimizer_derive_stats_thread_pool_size);
+            // run the task in the optimizer thread if the queue is full, rather than failing the query
+            ThreadPoolExecutor executor = ThreadPoolManager.newDaemonThreadPool(numThreads, numThreads,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(DERIVE_STATS_QUEUE_SIZE),
+                    new ThreadPoolExecutor.CallerRunsPolicy(), "optimizer-derive-stats", true);
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    // the max number of the scans of one query derived concurrently
+    private final int parallelism;
+
+    private ParallelTaskScheduler(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public static TaskScheduler create(int parallelism) {
+        return new ParallelTaskScheduler(parallelism);
+    }
+
+    @Override
+    public void executeTasks(TaskContext context) {
+        deriveScanStatistics(context);
+        super.executeTasks(context);
+    }
+
+    private void deriveScanStatistics(TaskContext context) {
+        Memo memo = context.getOptimizerContext().getMemo();
+        // memo is not initialized in the rewrite phase
+        if (memo == null || memo.getRootGroup() == null) {
+            return;
+        }
+
+        List<DeriveStatsTask> tasks = Lists.newArrayList();
+        for (Group group : memo.getGroups()) {
+            for (GroupExpression expression : group.getLogicalExpressions()) {
+                if (expression.arity() == 0 && expression.getOp() instanceof LogicalScanOperator
+                        && !expression.isStatsDerived() && !expression.isUnused()) {
+                    tasks.add(new DeriveStatsTask(context, expression));
+                }
+            }
+        }
+        if (tasks.size() <= 1 || parallelism <= 1) {
+            return;
+        }
+
+        // each worker takes the next task until all the tasks are taken, which bounds the number of threads used by
+        // one query without splitting the tasks in advance
+        Statistics[] results = new Statistics[tasks.size()];
+        AtomicInteger nextTask = new AtomicInteger(0);
+        ConnectContext connectContext = ConnectContext.get();
+        Thread optimizerThread = Thread.currentThread();
+        Runnable worker = () -> {
+            boolean inPool = Thread.currentThread() != optimizerThread;
+            if (inPool && connectContext != null) {
+                connectContext.setThreadLocalInfo();
+            }
+            try {
+                for (int i = nextTask.getAndIncrement(); i < tasks.size(); i = nextTask.getAndIncrement()) {
+                    results[i] = tasks.get(i).deriveStatistics();
+                }
+            } finally {
+                if (inPool) {
+                    ConnectContext.remove();
+                }
+            }
+        };
+
+        try (Timer ignored = Tracers.watchScope(Tracers.Module.OPTIMIZER, "ParallelDeriveStats")) {
+            // the optimizer thread works too, so the query makes progress even if the shared pool is busy
+            int numWorkers = Math.min(parallelism, tasks.size());
+            List<CompletableFuture<Void>> futures = Lists.newArrayListWithCapacity(numWorkers - 1);
+            for (int i = 0; i < numWorkers - 1; i++) {
+                futures.add(CompletableFuture.runAsync(worker, ExecutorHolder.EXECUTOR));
+            }
+            worker.run();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).updateGroupStatistics(results[i]);
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
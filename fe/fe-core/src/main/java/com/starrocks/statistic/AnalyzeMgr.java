@@ -909,8 +909,11 @@ public class AnalyzeMgr implements Writable {
             BasicStatsMeta meta = new BasicStatsMeta(dbId, tableId, Lists.newArrayList(),
                     StatsConstants.AnalyzeType.SAMPLE, LocalDateTime.now(),
                     StatsConstants.buildInitStatsProp(), loadedRows);
-            GlobalStateMgr.getCurrentState().getAnalyzeMgr().getBasicStatsMetaMap().put(tableId, meta);
-        } else {
+            // the partitions of a table may be published concurrently
+            basicStatsMeta = GlobalStateMgr.getCurrentState().getAnalyzeMgr().getBasicStatsMetaMap()
+                    .putIfAbsent(tableId, meta);
+        }
+        if (basicStatsMeta != null) {
             basicStatsMeta.increaseDeltaRows(loadedRows);
         }
     }
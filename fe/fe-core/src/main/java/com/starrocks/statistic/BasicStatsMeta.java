@@ -191,7 +191,7 @@ public class BasicStatsMeta implements Writable {
         this.updateRows = updateRows;
     }
 
-    public void increaseDeltaRows(Long delta) {
+    public synchronized void increaseDeltaRows(Long delta) {
         updateRows += delta;
         deltaRows += delta;
     }
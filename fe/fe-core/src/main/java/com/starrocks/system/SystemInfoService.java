@@ -71,6 +71,7 @@ import com.starrocks.persist.DropComputeNodeLog;
 import com.starrocks.persist.gson.GsonPostProcessable;
 import com.starrocks.qe.ShowResultSet;
 import com.starrocks.qe.ShowResultSetMetaData;
+import com.starrocks.qe.scheduler.AdaptiveWorkerSelector;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.RunMode;
 import com.starrocks.server.WarehouseManager;
@@ -390,6 +391,7 @@ public class SystemInfoService implements GsonPostProcessable {
 
         // remove from BackendCoreStat
         BackendResourceStat.getInstance().removeBe(dropComputeNode.getId());
+        AdaptiveWorkerSelector.getInstance().removeWorker(dropComputeNode.getId());
 
         // remove worker
         if (RunMode.isSharedDataMode()) {
@@ -508,6 +510,7 @@ public class SystemInfoService implements GsonPostProcessable {
 
         // remove from BackendCoreStat
         BackendResourceStat.getInstance().removeBe(droppedBackend.getId());
+        AdaptiveWorkerSelector.getInstance().removeWorker(droppedBackend.getId());
 
         // remove worker
         if (RunMode.isSharedDataMode()) {
@@ -1095,6 +1098,7 @@ public class SystemInfoService implements GsonPostProcessable {
         if (!GlobalStateMgr.isCheckpointThread()) {
             // remove from BackendCoreStat
             BackendResourceStat.getInstance().removeBe(computeNodeId);
+            AdaptiveWorkerSelector.getInstance().removeWorker(computeNodeId);
         }
 
         // clear map in starosAgent
@@ -1122,6 +1126,7 @@ public class SystemInfoService implements GsonPostProcessable {
         if (!GlobalStateMgr.isCheckpointThread()) {
             // remove from BackendCoreStat
             BackendResourceStat.getInstance().removeBe(backend.getId());
+            AdaptiveWorkerSelector.getInstance().removeWorker(backend.getId());
         }
 
         // clear map in starosAgent
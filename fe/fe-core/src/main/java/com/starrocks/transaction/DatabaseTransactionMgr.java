@@ -61,6 +61,7 @@ import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.journal.JournalTask;
 import com.starrocks.lake.LakeTableHelper;
 import com.starrocks.load.routineload.RLTaskTxnCommitAttachment;
 import com.starrocks.metric.MetricRepo;
@@ -881,9 +882,9 @@ public class DatabaseTransactionMgr {
             return true;
         }
 
-        List<Long> tableIdList = txn.getTableIdList();
+        Map<Long, Set<Long>> tableToPartitions = getCommittedPartitionIds(txn);
         Locker locker = new Locker();
-        locker.lockTablesWithIntensiveDbLock(db.getId(), tableIdList, LockType.READ);
+        locker.lockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.READ);
         long currentTs = System.currentTimeMillis();
         try {
             // check each table involved in transaction
@@ -971,7 +972,7 @@ public class DatabaseTransactionMgr {
                 }
             }
         } finally {
-            locker.unLockTablesWithIntensiveDbLock(db.getId(), tableIdList, LockType.READ);
+            locker.unLockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.READ);
         }
         return true;
     }
@@ -1009,9 +1010,9 @@ public class DatabaseTransactionMgr {
         }
         Span finishSpan = TraceManager.startSpan("finishTransaction", transactionState.getTxnSpan());
 
-        List<Long> tableIdList = transactionState.getTableIdList();
+        Map<Long, Set<Long>> tableToPartitions = getCommittedPartitionIds(transactionState);
         Locker locker = new Locker();
-        locker.lockTablesWithIntensiveDbLock(db.getId(), tableIdList, LockType.WRITE);
+        locker.lockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.WRITE);
         try {
             transactionState.writeLock();
             try {
@@ -1170,13 +1171,22 @@ public class DatabaseTransactionMgr {
                     return;
                 }
                 boolean txnOperated = false;
+                JournalTask visibleLogTask = null;
                 writeLock();
                 try {
                     transactionState.setErrorReplicas(errorReplicaIds);
                     transactionState.setFinishTime(System.currentTimeMillis());
                     transactionState.clearErrorMsg();
                     transactionState.setTransactionStatus(TransactionStatus.VISIBLE);
-                    unprotectUpsertTransactionState(transactionState, false);
+                    // Submit the edit log in the lock to keep the order of the txn states, but wait for it out of
+                    // the lock, so the txns finished concurrently can be committed in one journal batch.
+                    // It's safe because the txn is already committed, the new leader will publish it again if the
+                    // VISIBLE log is lost.
+                    if (!Config.lock_manager_enable_using_fine_granularity_lock) {
+                        visibleLogTask = editLog.logInsertTransactionStateNoWait(transactionState);
+                    }
+                    // the edit log is submitted above, or written by persistTxnStateInTxnLevelLock()
+                    unprotectUpsertTransactionState(transactionState, true);
                     txnOperated = true;
                     // TODO(cmy): We found a very strange problem. When delete-related transactions are processed here,
                     // subsequent `updateCatalogAfterVisible()` is called, but it does not seem to be executed here
@@ -1185,6 +1195,9 @@ public class DatabaseTransactionMgr {
                     LOG.debug("after set transaction {} to visible", transactionState);
                 } finally {
                     writeUnlock();
+                    if (visibleLogTask != null) {
+                        EditLog.waitInfinity(visibleLogTask);
+                    }
                     transactionState.afterStateTransform(TransactionStatus.VISIBLE, txnOperated);
                 }
 
@@ -1203,7 +1216,7 @@ public class DatabaseTransactionMgr {
                 transactionState.writeUnlock();
             }
         } finally {
-            locker.unLockTablesWithIntensiveDbLock(db.getId(), tableIdList, LockType.WRITE);
+            locker.unLockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.WRITE);
             finishSpan.end();
         }
 
@@ -1665,6 +1678,25 @@ public class DatabaseTransactionMgr {
         }
     }
 
+    /**
+     * Get the partitions to lock for publishing the transaction: table id -> ids of the partitions committed in it.
+     * Only the committed partitions are changed when the transaction becomes visible.
+     */
+    private static Map<Long, Set<Long>> getCommittedPartitionIds(TransactionState transactionState) {
+        Map<Long, Set<Long>> tableToPartitions = new HashMap<>();
+        for (Long tableId : transactionState.getTableIdList()) {
+            tableToPartitions.put(tableId, Sets.newHashSet());
+        }
+        for (TableCommitInfo tableCommitInfo : transactionState.getIdToTableCommitInfos().values()) {
+            Set<Long> partitionIds =
+                    tableToPartitions.computeIfAbsent(tableCommitInfo.getTableId(), k -> Sets.newHashSet());
+            if (tableCommitInfo.getIdToPartitionCommitInfo() != null) {
+                partitionIds.addAll(tableCommitInfo.getIdToPartitionCommitInfo().keySet());
+            }
+        }
+        return tableToPartitions;
+    }
+
     private boolean updateCatalogAfterVisible(TransactionState transactionState, Database db) {
         for (TableCommitInfo tableCommitInfo : transactionState.getIdToTableCommitInfos().values()) {
             Table table = globalStateMgr.getLocalMetastore().getTable(db.getId(), tableCommitInfo.getTableId());
@@ -1868,8 +1900,8 @@ public class DatabaseTransactionMgr {
 
         Span finishSpan = TraceManager.startSpan("finishTransaction", transactionState.getTxnSpan());
         Locker locker = new Locker();
-        List<Long> tableIdList = transactionState.getTableIdList();
-        locker.lockTablesWithIntensiveDbLock(db.getId(), tableIdList, LockType.WRITE);
+        Map<Long, Set<Long>> tableToPartitions = getCommittedPartitionIds(transactionState);
+        locker.lockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.WRITE);
         finishSpan.addEvent("db_lock");
         try {
             transactionState.writeLock();
@@ -1903,7 +1935,7 @@ public class DatabaseTransactionMgr {
                 transactionState.writeUnlock();
             }
         } finally {
-            locker.unLockTablesWithIntensiveDbLock(db.getId(), tableIdList, LockType.WRITE);
+            locker.unLockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.WRITE);
             finishSpan.end();
         }
 
@@ -1939,11 +1971,12 @@ public class DatabaseTransactionMgr {
         }
 
         Locker locker = new Locker();
-        Set<Long> tableIds = Sets.newHashSet();
+        Map<Long, Set<Long>> tableToPartitions = new HashMap<>();
         for (TransactionState transactionState : stateBatch.getTransactionStates()) {
-            tableIds.addAll(transactionState.getTableIdList());
+            getCommittedPartitionIds(transactionState).forEach((tableId, partitionIds) ->
+                    tableToPartitions.computeIfAbsent(tableId, k -> Sets.newHashSet()).addAll(partitionIds));
         }
-        locker.lockTablesWithIntensiveDbLock(db.getId(), new ArrayList<>(tableIds), LockType.WRITE);
+        locker.lockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.WRITE);
 
         try {
             boolean txnOperated = false;
@@ -1970,7 +2003,7 @@ public class DatabaseTransactionMgr {
                 stateBatch.writeUnlock();
             }
         } finally {
-            locker.unLockTablesWithIntensiveDbLock(db.getId(), new ArrayList<>(tableIds), LockType.WRITE);
+            locker.unLockPartitionsWithIntensiveDbLock(db.getId(), tableToPartitions, LockType.WRITE);
         }
 
         // do after transaction finish in batch
@@ -113,6 +113,7 @@ public class LakeTableTxnLogApplier implements TransactionLogApplier {
             }
             maxPartitionVersionTime = Math.max(maxPartitionVersionTime, versionTime);
         }
+        table.increasePartitionsVersion();
 
         if (!GlobalStateMgr.isCheckpointThread() && dictCollectedVersions.size() == validDictCacheColumns.size()) {
             for (int i = 0; i < validDictCacheColumns.size(); i++) {
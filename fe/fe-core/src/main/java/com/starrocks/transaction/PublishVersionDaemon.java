@@ -468,7 +468,7 @@ public class PublishVersionDaemon extends FrontendDaemon {
         Set<Tablet> normalTablets = null;
 
         Locker locker = new Locker();
-        locker.lockTablesWithIntensiveDbLock(db.getId(), Lists.newArrayList(tableId), LockType.READ);
+        locker.lockPartitionWithIntensiveDbLock(db.getId(), tableId, partitionId, LockType.READ);
         // version -> shadowTablets
         long warehouseId = WarehouseManager.DEFAULT_WAREHOUSE_ID;
         try {
@@ -513,7 +513,7 @@ public class PublishVersionDaemon extends FrontendDaemon {
                 }
             }
         } finally {
-            locker.unLockTablesWithIntensiveDbLock(db.getId(), Lists.newArrayList(tableId), LockType.READ);
+            locker.unLockPartitionWithIntensiveDbLock(db.getId(), tableId, partitionId, LockType.READ);
         }
 
         long startVersion = versions.get(0);
@@ -755,8 +755,9 @@ public class PublishVersionDaemon extends FrontendDaemon {
         List<Tablet> normalTablets = null;
         List<Tablet> shadowTablets = null;
 
+        long partitionId = partitionCommitInfo.getPartitionId();
         Locker locker = new Locker();
-        locker.lockTablesWithIntensiveDbLock(db.getId(), Lists.newArrayList(tableId), LockType.READ);
+        locker.lockPartitionWithIntensiveDbLock(db.getId(), tableId, partitionId, LockType.READ);
         try {
             OlapTable table = (OlapTable) GlobalStateMgr.getCurrentState().getLocalMetastore().getTable(db.getId(), tableId);
             if (table == null) {
@@ -764,7 +765,6 @@ public class PublishVersionDaemon extends FrontendDaemon {
                 LOG.info("Removed non-exist table {} from transaction {}. txn_id={}", tableId, txnLabel, txnId);
                 return true;
             }
-            long partitionId = partitionCommitInfo.getPartitionId();
             PhysicalPartition partition = table.getPhysicalPartition(partitionId);
             if (partition == null) {
                 LOG.info("Ignore non-exist partition {} of table {} in txn {}", partitionId, table.getName(), txnLabel);
@@ -790,7 +790,7 @@ public class PublishVersionDaemon extends FrontendDaemon {
                 }
             }
         } finally {
-            locker.unLockTablesWithIntensiveDbLock(db.getId(), Lists.newArrayList(tableId), LockType.READ);
+            locker.unLockPartitionWithIntensiveDbLock(db.getId(), tableId, partitionId, LockType.READ);
         }
 
         TxnInfoPB txnInfo = TxnInfoHelper.fromTransactionState(txnState);
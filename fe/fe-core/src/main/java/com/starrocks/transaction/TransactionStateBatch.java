@@ -19,6 +19,7 @@ import com.starrocks.common.UserException;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.io.Writable;
 import com.starrocks.lake.compaction.Quantiles;
+import com.starrocks.persist.gson.BinaryJson;
 import com.starrocks.persist.gson.GsonUtils;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.ComputeNode;
@@ -165,7 +166,7 @@ public class TransactionStateBatch implements Writable {
     }
 
     public static TransactionStateBatch read(DataInput in) throws IOException {
-        return GsonUtils.GSON.fromJson(Text.readString(in), TransactionStateBatch.class);
+        return BinaryJson.readJsonOrBinary(in, TransactionStateBatch.class);
     }
 
     @Override
@@ -14,16 +14,25 @@
 
 package com.starrocks.analysis;
 
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.PrepareStmtContext;
 import com.starrocks.qe.StmtExecutor;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.PrepareStmtPlanner;
+import com.starrocks.sql.ast.ExecuteStmt;
 import com.starrocks.sql.ast.PrepareStmt;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.SelectRelation;
 import com.starrocks.sql.ast.StatementBase;
 import com.starrocks.sql.common.StarRocksPlannerException;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.utframe.StarRocksAssert;
 import com.starrocks.utframe.UtFrameUtils;
 import org.junit.Assert;
@@ -57,6 +66,16 @@ public class PreparedStmtTest{
             "); ";
 
 
+    private static String createPkTable = "CREATE TABLE `prepare_stmt_pk` (\n" +
+            "  `k0` int NOT NULL COMMENT \"\",\n" +
+            "  `v0` varchar(24) NULL COMMENT \"\"\n" +
+            ") ENGINE=OLAP \n" +
+            "PRIMARY KEY(`k0`)\n" +
+            "DISTRIBUTED BY HASH(`k0`) BUCKETS 1 \n" +
+            "PROPERTIES (\n" +
+            "\"replication_num\" = \"1\"\n" +
+            "); ";
+
     @BeforeClass
     public static void setUp() throws Exception {
         UtFrameUtils.createMinStarRocksCluster();
@@ -64,6 +83,7 @@ public class PreparedStmtTest{
         starRocksAssert = new StarRocksAssert(ctx);
         starRocksAssert.withDatabase("demo").useDatabase("demo");
         starRocksAssert.withTable(createTable);
+        starRocksAssert.withTable(createPkTable);
     }
 
     @Test
@@ -140,6 +160,114 @@ public class PreparedStmtTest{
         }
     }
 
+    @Test
+    public void testGenericPlan() throws Exception {
+        ctx.getSessionVariable().setEnableShortCircuit(true);
+        try {
+            String sql = "PREPARE stmt_pk FROM select * from demo.prepare_stmt_pk where k0 = ?";
+            PrepareStmt stmt = (PrepareStmt) UtFrameUtils.parseStmtWithNewParser(sql, ctx);
+            PrepareStmtContext prepareStmtContext = new PrepareStmtContext(stmt, ctx, null);
+            ctx.putPreparedStmt("stmt_pk", prepareStmtContext);
+            for (int i = 0; i < 3; i++) {
+                ExecuteStmt executeStmt = new ExecuteStmt("stmt_pk", Lists.<Expr>newArrayList(new IntLiteral(i)));
+                StatementBase innerStmt = stmt.assignValues(executeStmt.getParamsExpr());
+                Assert.assertNotNull(PrepareStmtPlanner.plan(executeStmt, innerStmt, ctx));
+            }
+            // the first execution plans the generic plan, the others re-bind the parameter into it
+            Assert.assertEquals(1, prepareStmtContext.getCustomPlanExecutions());
+            Assert.assertEquals(2, prepareStmtContext.getGenericPlanExecutions());
+        } finally {
+            ctx.getSessionVariable().setEnableShortCircuit(false);
+        }
+    }
+
+    @Test
+    public void testGenericPlanInvalidatedByPartitionsVersion() throws Exception {
+        ctx.getSessionVariable().setEnableShortCircuit(true);
+        try {
+            String sql = "PREPARE stmt_pk_version FROM select * from demo.prepare_stmt_pk where k0 = ?";
+            PrepareStmt stmt = (PrepareStmt) UtFrameUtils.parseStmtWithNewParser(sql, ctx);
+            PrepareStmtContext prepareStmtContext = new PrepareStmtContext(stmt, ctx, null);
+            ctx.putPreparedStmt("stmt_pk_version", prepareStmtContext);
+            executePrepared("stmt_pk_version", stmt, new IntLiteral(1));
+            executePrepared("stmt_pk_version", stmt, new IntLiteral(2));
+            Assert.assertEquals(1, prepareStmtContext.getCustomPlanExecutions());
+            Assert.assertEquals(1, prepareStmtContext.getGenericPlanExecutions());
+
+            OlapTable table = (OlapTable) GlobalStateMgr.getCurrentState().getLocalMetastore()
+                    .getTable("demo", "prepare_stmt_pk");
+            table.increasePartitionsVersion();
+            executePrepared("stmt_pk_version", stmt, new IntLiteral(3));
+            Assert.assertEquals(2, prepareStmtContext.getCustomPlanExecutions());
+            executePrepared("stmt_pk_version", stmt, new IntLiteral(4));
+            Assert.assertEquals(2, prepareStmtContext.getGenericPlanExecutions());
+        } finally {
+            ctx.getSessionVariable().setEnableShortCircuit(false);
+        }
+    }
+
+    @Test
+    public void testGenericPlanRebindValues() throws Exception {
+        ctx.getSessionVariable().setEnableShortCircuit(true);
+        try {
+            String sql = "PREPARE stmt_pk_rebind FROM select * from demo.prepare_stmt_pk where k0 = ?";
+            PrepareStmt stmt = (PrepareStmt) UtFrameUtils.parseStmtWithNewParser(sql, ctx);
+            PrepareStmtContext prepareStmtContext = new PrepareStmtContext(stmt, ctx, null);
+            ctx.putPreparedStmt("stmt_pk_rebind", prepareStmtContext);
+
+            ExecPlan firstPlan = null;
+            for (int i = 1; i <= 3; i++) {
+                ExecPlan execPlan = executePrepared("stmt_pk_rebind", stmt, new IntLiteral(i));
+                if (firstPlan == null) {
+                    firstPlan = execPlan;
+                }
+                // all the executions share the physical plan, whose literal is the value of the execution
+                Assert.assertSame(firstPlan.getPhysicalPlan(), execPlan.getPhysicalPlan());
+                Assert.assertEquals(i, getScanLiteral(execPlan).getInt());
+            }
+            Assert.assertEquals(2, prepareStmtContext.getGenericPlanExecutions());
+
+            // the value can't be cast to the column type, so it's planned as a custom plan
+            // instead of returning the plan of the previous value
+            long customPlanExecutions = prepareStmtContext.getCustomPlanExecutions();
+            ExecPlan execPlan = executePrepared("stmt_pk_rebind", stmt, new StringLiteral("abc"));
+            Assert.assertNotSame(firstPlan.getPhysicalPlan(), execPlan.getPhysicalPlan());
+            Assert.assertEquals(customPlanExecutions + 1, prepareStmtContext.getCustomPlanExecutions());
+            Assert.assertEquals(2, prepareStmtContext.getGenericPlanExecutions());
+        } finally {
+            ctx.getSessionVariable().setEnableShortCircuit(false);
+        }
+    }
+
+    private static ExecPlan executePrepared(String name, PrepareStmt stmt, Expr param) {
+        ExecuteStmt executeStmt = new ExecuteStmt(name, Lists.newArrayList(param));
+        StatementBase innerStmt = stmt.assignValues(executeStmt.getParamsExpr());
+        ExecPlan execPlan = PrepareStmtPlanner.plan(executeStmt, innerStmt, ctx);
+        Assert.assertNotNull(execPlan);
+        return execPlan;
+    }
+
+    private static ConstantOperator getScanLiteral(ExecPlan execPlan) {
+        ScalarOperator predicate = execPlan.getPhysicalPlan().getOp().getPredicate();
+        Assert.assertTrue(predicate instanceof BinaryPredicateOperator);
+        return (ConstantOperator) predicate.getChild(1);
+    }
+
+    @Test
+    public void testCustomPlan() throws Exception {
+        String sql = "PREPARE stmt_agg FROM select c0, count(*) from demo.prepare_stmt where c1 = ? group by c0";
+        PrepareStmt stmt = (PrepareStmt) UtFrameUtils.parseStmtWithNewParser(sql, ctx);
+        PrepareStmtContext prepareStmtContext = new PrepareStmtContext(stmt, ctx, null);
+        ctx.putPreparedStmt("stmt_agg", prepareStmtContext);
+        for (int i = 0; i < 2; i++) {
+            ExecuteStmt executeStmt = new ExecuteStmt("stmt_agg", Lists.<Expr>newArrayList(new IntLiteral(i)));
+            StatementBase innerStmt = stmt.assignValues(executeStmt.getParamsExpr());
+            Assert.assertNotNull(PrepareStmtPlanner.plan(executeStmt, innerStmt, ctx));
+        }
+        Assert.assertEquals(2, prepareStmtContext.getCustomPlanExecutions());
+        Assert.assertEquals(0, prepareStmtContext.getGenericPlanExecutions());
+    }
+
     @Test
     public void testPrepareStmtWithCte() throws Exception {
         String sql = "PREPARE stmt FROM with cte as (select * from prepare_stmt where c0 = ?) select * from cte where c1 = ?";
@@ -0,0 +1,95 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.lock.LockManager;
+import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.server.GlobalStateMgr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the overhead of the lock contention profile of {@link LockManager}, by locking a few hot resources
+ * from several threads with the profile enabled and disabled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(8)
+public class LockContentionProfileBench {
+
+    @Param({"false", "true"})
+    private boolean enableProfile;
+
+    // fewer resources, more contention
+    @Param({"1", "16", "1024"})
+    private int resourceNum;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(LockContentionProfileBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private Locker locker;
+
+        @Setup
+        public void setup() {
+            // the locker must be created by the thread using it
+            locker = new Locker();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Config.lock_manager_enabled = true;
+        Config.lock_manager_enable_contention_profile = enableProfile;
+        GlobalStateMgr.getCurrentState().setLockManager(new LockManager());
+    }
+
+    @Benchmark
+    public void bench_LockAndRelease(ThreadState state) throws Exception {
+        long rid = ThreadLocalRandom.current().nextInt(resourceNum);
+        // 1 in 4 acquisitions are writes
+        LockType lockType = ThreadLocalRandom.current().nextInt(4) == 0 ? LockType.WRITE : LockType.READ;
+        state.locker.lock(rid, lockType);
+        state.locker.release(rid, lockType);
+    }
+}
@@ -0,0 +1,120 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.Replica;
+import com.starrocks.persist.gson.BinaryJson;
+import com.starrocks.persist.gson.BinaryJsonReader;
+import com.starrocks.persist.gson.GsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the image size, write time and load time of a materialized index with 3 replicas per tablet,
+ * in json text and in {@link BinaryJson}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class MetaSerializationBench {
+
+    @Param({"10000", "100000"})
+    private int tabletNum;
+
+    private MaterializedIndex index;
+    private byte[] json;
+    private byte[] binary;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MetaSerializationBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        index = new MaterializedIndex(1L, MaterializedIndex.IndexState.NORMAL);
+        for (long tabletId = 0; tabletId < tabletNum; tabletId++) {
+            LocalTablet tablet = new LocalTablet(10000L + tabletId);
+            for (long backendId = 1; backendId <= 3; backendId++) {
+                tablet.addReplica(new Replica(100000000L + tabletId * 3 + backendId, backendId, 1000L + tabletId, 0,
+                        1024L * 1024 * 1024 + tabletId, 1000000L + tabletId, Replica.ReplicaState.NORMAL, -1, 1000L),
+                        false);
+            }
+            index.addTablet(tablet, null, false);
+        }
+
+        json = bench_WriteJson();
+        binary = bench_WriteBinary();
+        System.out.printf("%n%d tablets, json size: %d bytes, binary size: %d bytes%n", tabletNum, json.length,
+                binary.length);
+    }
+
+    @Benchmark
+    public byte[] bench_WriteJson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            GsonUtils.GSON.toJson(index, MaterializedIndex.class, writer);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] bench_WriteBinary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryJson.toBinary(index, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public MaterializedIndex bench_LoadJson() {
+        return GsonUtils.GSON.fromJson(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8),
+                MaterializedIndex.class);
+    }
+
+    @Benchmark
+    public MaterializedIndex bench_LoadBinary() throws Exception {
+        BinaryJsonReader reader = new BinaryJsonReader(new DataInputStream(new ByteArrayInputStream(binary)));
+        return reader.next(MaterializedIndex.class);
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import com.starrocks.analysis.DateLiteral;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.catalog.RangePartitionInfo;
+import com.starrocks.catalog.Type;
+import com.starrocks.planner.PartitionColumnFilter;
+import com.starrocks.planner.RangePartitionPruner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the range partition pruning of a table partitioned by day, with and without the range index
+ * of RangePartitionInfo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class PartitionPruneBench {
+
+    @Param({"1000", "10000", "100000"})
+    private int partitionNum;
+
+    private RangePartitionInfo partitionInfo;
+    private List<Column> partitionColumns;
+    private Map<String, PartitionColumnFilter> columnFilters;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PartitionPruneBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Column dt = new Column("dt", Type.DATE);
+        partitionColumns = Lists.newArrayList(dt);
+        partitionInfo = new RangePartitionInfo(partitionColumns);
+        LocalDate start = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < partitionNum; i++) {
+            Range<PartitionKey> range = Range.closedOpen(PartitionKey.ofDate(start.plusDays(i)),
+                    PartitionKey.ofDate(start.plusDays(i + 1)));
+            partitionInfo.setRange(i, false, range);
+        }
+
+        // dt >= middle and dt < middle + 7
+        LocalDate middle = start.plusDays(partitionNum / 2);
+        PartitionColumnFilter filter = new PartitionColumnFilter();
+        filter.setLowerBound(new DateLiteral(middle.getYear(), middle.getMonthValue(), middle.getDayOfMonth()), true);
+        LocalDate end = middle.plusDays(7);
+        filter.setUpperBound(new DateLiteral(end.getYear(), end.getMonthValue(), end.getDayOfMonth()), false);
+        columnFilters = Maps.newHashMap();
+        columnFilters.put(dt.getName(), filter);
+    }
+
+    @Benchmark
+    public List<Long> bench_PruneWithRangeIndex() throws Exception {
+        return new RangePartitionPruner(partitionInfo.getRangeIndex(), partitionColumns, columnFilters).prune();
+    }
+
+    @Benchmark
+    public List<Long> bench_PruneWithoutRangeIndex() throws Exception {
+        return new RangePartitionPruner(partitionInfo.getIdToRange(false), partitionColumns, columnFilters).prune();
+    }
+}
@@ -0,0 +1,99 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.starrocks.common.util.Counter;
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.thrift.TUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark {@link RuntimeProfile#mergeIsomorphicProfiles} by merging the isomorphic profiles of many fragment instances,
+ * each of which has a few pipelines with a few operators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ProfileMergeBench {
+    private static final int NUM_PIPELINES = 4;
+    private static final int NUM_OPERATORS = 5;
+    private static final int NUM_COUNTERS = 20;
+
+    @Param({"100", "1000"})
+    private int instanceNum;
+
+    private List<RuntimeProfile> instanceProfiles;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ProfileMergeBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        instanceProfiles = new ArrayList<>(instanceNum);
+        for (int i = 0; i < instanceNum; i++) {
+            instanceProfiles.add(buildInstanceProfile(i));
+        }
+    }
+
+    private static RuntimeProfile buildInstanceProfile(int instanceIdx) {
+        RuntimeProfile instanceProfile = new RuntimeProfile("Instance");
+        instanceProfile.addInfoString("InstanceId", String.valueOf(instanceIdx));
+        for (int p = 0; p < NUM_PIPELINES; p++) {
+            RuntimeProfile pipelineProfile = new RuntimeProfile("Pipeline (id=" + p + ")");
+            instanceProfile.addChild(pipelineProfile);
+            for (int o = 0; o < NUM_OPERATORS; o++) {
+                RuntimeProfile operatorProfile = new RuntimeProfile("Operator (plan_node_id=" + o + ")");
+                pipelineProfile.addChild(operatorProfile);
+                for (int c = 0; c < NUM_COUNTERS; c++) {
+                    Counter counter = operatorProfile.addCounter("Counter" + c, c % 2 == 0 ? TUnit.UNIT : TUnit.TIME_NS,
+                            null);
+                    counter.setValue((long) instanceIdx * c);
+                }
+            }
+        }
+        return instanceProfile;
+    }
+
+    @Benchmark
+    public RuntimeProfile bench_MergeIsomorphicProfiles() {
+        return RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, Collections.singleton("InstanceId"));
+    }
+}
@@ -38,6 +38,8 @@ public class TaskSchedulerBench extends MvRewriteTestBase {
     // private static final int TASK_NUM = Config.task_runs_queue_length;
     private static final int TASK_NUM = 10;
 
+    private static final int STAR_JOIN_DIM_NUM = 11;
+
     @Rule
     public TestRule benchRun = new BenchmarkRule();
 
@@ -46,11 +48,39 @@ public class TaskSchedulerBench extends MvRewriteTestBase {
         MvRewriteTestBase.beforeClass();
         Config.task_runs_concurrency = TASK_NUM;
         LOG.info("prepared {} tasks", TASK_NUM);
+
+        // star schema: one fact table joined with STAR_JOIN_DIM_NUM dimension tables
+        StringBuilder factColumns = new StringBuilder();
+        for (int i = 0; i < STAR_JOIN_DIM_NUM; i++) {
+            factColumns.append("  `d").append(i).append("` bigint NULL,\n");
+            starRocksAssert.withTable("CREATE TABLE `star_dim_" + i + "` (\n" +
+                    "  `k` bigint NULL,\n" +
+                    "  `v` varchar(20) NULL\n" +
+                    ") DUPLICATE KEY(`k`)\n" +
+                    "DISTRIBUTED BY HASH(`k`) BUCKETS 3\n" +
+                    "PROPERTIES (\"replication_num\" = \"1\");");
+        }
+        starRocksAssert.withTable("CREATE TABLE `star_fact` (\n" +
+                "  `id` bigint NULL,\n" + factColumns +
+                "  `amount` bigint NULL\n" +
+                ") DUPLICATE KEY(`id`)\n" +
+                "DISTRIBUTED BY HASH(`id`) BUCKETS 3\n" +
+                "PROPERTIES (\"replication_num\" = \"1\");");
     }
 
     @Before
     public void before() {
         starRocksAssert.getCtx().getSessionVariable().setEnableQueryDump(false);
+        starRocksAssert.getCtx().getSessionVariable().setCboEnableParallelDeriveStats(false);
+    }
+
+    private static String starJoinQuery() {
+        StringBuilder sql = new StringBuilder("select sum(f.amount) from star_fact f");
+        for (int i = 0; i < STAR_JOIN_DIM_NUM; i++) {
+            sql.append(" join star_dim_").append(i).append(" d").append(i)
+                    .append(" on f.d").append(i).append(" = d").append(i).append(".k");
+        }
+        return sql.toString();
     }
 
     private static ExecuteOption makeExecuteOption(boolean isMergeRedundant, boolean isSync) {
@@ -127,4 +157,17 @@ public class TaskSchedulerBench extends MvRewriteTestBase {
             runningTaskRunsCount = taskRunScheduler.getRunningTaskCount();
         }
     }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+    public void testOptimizeStarJoinSerially() throws Exception {
+        starRocksAssert.query(starJoinQuery()).explainContains("star_fact");
+    }
+
+    @Test
+    @BenchmarkOptions(warmupRounds = 3, benchmarkRounds = 10)
+    public void testOptimizeStarJoinWithParallelDeriveStats() throws Exception {
+        starRocksAssert.getCtx().getSessionVariable().setCboEnableParallelDeriveStats(true);
+        starRocksAssert.query(starJoinQuery()).explainContains("star_fact");
+    }
 }
@@ -37,6 +37,8 @@ package com.starrocks.catalog;
 import com.starrocks.alter.AlterJobV2;
 import com.starrocks.alter.BatchAlterJobPersistInfo;
 import com.starrocks.cluster.Cluster;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.journal.JournalTask;
 import com.starrocks.persist.EditLog;
 import com.starrocks.persist.ModifyTablePropertyOperationLog;
 import com.starrocks.persist.ReplicaPersistInfo;
@@ -63,6 +65,14 @@ public class FakeEditLog extends MockUp<EditLog> {
         allTransactionState.put(transactionState.getTransactionId(), transactionState);
     }
 
+    @Mock
+    public JournalTask logInsertTransactionStateNoWait(TransactionState transactionState) {
+        allTransactionState.put(transactionState.getTransactionId(), transactionState);
+        JournalTask task = new JournalTask(System.nanoTime(), new DataOutputBuffer(), -1);
+        task.markSucceed();
+        return task;
+    }
+
     @Mock
     public void logInsertTransactionStateBatch(TransactionStateBatch stateBatch) {
         for (TransactionState transactionState : stateBatch.getTransactionStates()) {
@@ -30,6 +30,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -372,4 +373,30 @@ public class RangePartitionInfoTest {
         Assert.assertTrue(rangePartitionInfo.getRange(123L) == null);
     }
 
+    @Test
+    public void testRangeIndex() throws Exception {
+        partitionColumns.add(new Column("dt", Type.DATE));
+        RangePartitionInfo rangePartitionInfo = new RangePartitionInfo(partitionColumns);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 3; i++) {
+            rangePartitionInfo.setRange(i, false, Range.closedOpen(PartitionKey.ofDate(start.plusDays(i)),
+                    PartitionKey.ofDate(start.plusDays(i + 1))));
+        }
+        PartitionKey day1 = PartitionKey.ofDate(start.plusDays(1));
+        Assert.assertEquals(3, rangePartitionInfo.getRangeIndex().asMapOfRanges().size());
+        Assert.assertEquals(Long.valueOf(1L), rangePartitionInfo.getRangeIndex().get(day1));
+        // the index is reused until the ranges change
+        Assert.assertSame(rangePartitionInfo.getRangeIndex(), rangePartitionInfo.getRangeIndex());
+
+        RangePartitionInfo copyInfo = (RangePartitionInfo) rangePartitionInfo.clone();
+        rangePartitionInfo.dropPartition(1L);
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(day1));
+        Assert.assertEquals(Long.valueOf(1L), copyInfo.getRangeIndex().get(day1));
+
+        // temp partitions are not indexed until they become formal
+        rangePartitionInfo.setRange(10L, true, Range.closedOpen(day1, PartitionKey.ofDate(start.plusDays(2))));
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(day1));
+        rangePartitionInfo.moveRangeFromTempToFormal(10L);
+        Assert.assertEquals(Long.valueOf(10L), rangePartitionInfo.getRangeIndex().get(day1));
+    }
 }
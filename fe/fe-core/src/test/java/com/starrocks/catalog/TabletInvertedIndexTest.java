@@ -0,0 +1,147 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.catalog;
+
+import com.google.common.collect.Table;
+import com.starrocks.catalog.Replica.ReplicaState;
+import com.starrocks.thrift.TStorageMedium;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TabletInvertedIndexTest {
+    private static final int TABLET_NUM = 2000;
+    private static final long BACKEND_NUM = 3;
+
+    private static TabletMeta newTabletMeta() {
+        return new TabletMeta(1L, 2L, 3L, 4L, 0, TStorageMedium.HDD);
+    }
+
+    private static void runConcurrently(Runnable... tasks) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable task : tasks) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable t) {
+                    error.compareAndSet(null, t);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(error.get());
+    }
+
+    // every replica id and backend entry must belong to a replica of a tablet still in the index
+    private static void assertConsistent(TabletInvertedIndex index, long maxReplicaId) {
+        Table<Long, Long, Replica> replicaMetaTable = index.getReplicaMetaTable();
+        Assert.assertEquals(replicaMetaTable.size(), index.getReplicaCount());
+        for (Table.Cell<Long, Long, Replica> cell : replicaMetaTable.cellSet()) {
+            Assert.assertNotNull(index.getTabletMeta(cell.getRowKey()));
+            Assert.assertEquals(cell.getRowKey(), index.getTabletIdByReplica(cell.getValue().getId()));
+        }
+        long mappedReplicas = 0;
+        for (long replicaId = 1; replicaId <= maxReplicaId; replicaId++) {
+            Long tabletId = index.getTabletIdByReplica(replicaId);
+            if (tabletId != null) {
+                mappedReplicas++;
+                Assert.assertTrue(replicaMetaTable.containsRow(tabletId));
+            }
+        }
+        Assert.assertEquals(replicaMetaTable.size(), mappedReplicas);
+        for (long backendId = 1; backendId <= BACKEND_NUM; backendId++) {
+            List<Long> tabletIds = index.getTabletIdsByBackendId(backendId);
+            Assert.assertEquals(replicaMetaTable.column(backendId).size(), tabletIds.size());
+            for (long tabletId : tabletIds) {
+                Assert.assertTrue(replicaMetaTable.contains(tabletId, backendId));
+            }
+        }
+    }
+
+    @Test
+    public void testAddReplicaConcurrentlyWithDeleteTablet() throws InterruptedException {
+        TabletInvertedIndex index = new TabletInvertedIndex();
+        for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId++) {
+            index.addTablet(tabletId, newTabletMeta());
+        }
+        AtomicLong replicaIdGen = new AtomicLong();
+        Runnable addReplicas = () -> {
+            for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId++) {
+                for (long backendId = 1; backendId <= BACKEND_NUM; backendId++) {
+                    try {
+                        index.addReplica(tabletId, new Replica(replicaIdGen.incrementAndGet(), backendId, 0,
+                                ReplicaState.NORMAL));
+                    } catch (IllegalStateException e) {
+                        // the tablet has been deleted
+                    }
+                }
+            }
+        };
+        Runnable deleteTablets = () -> {
+            for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId += 2) {
+                index.deleteTablet(tabletId);
+            }
+        };
+        runConcurrently(addReplicas, addReplicas, deleteTablets);
+
+        for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId += 2) {
+            Assert.assertNull(index.getTabletMeta(tabletId));
+        }
+        Assert.assertEquals(TABLET_NUM / 2, index.getTabletCount());
+        assertConsistent(index, replicaIdGen.get());
+    }
+
+    @Test
+    public void testReplaceReplicaConcurrentlyWithDeleteReplica() throws InterruptedException {
+        TabletInvertedIndex index = new TabletInvertedIndex();
+        for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId++) {
+            index.addTablet(tabletId, newTabletMeta());
+        }
+        AtomicLong replicaIdGen = new AtomicLong();
+        Runnable replaceReplicas = () -> {
+            for (int round = 0; round < 3; round++) {
+                for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId++) {
+                    long backendId = tabletId % BACKEND_NUM + 1;
+                    index.addReplica(tabletId, new Replica(replicaIdGen.incrementAndGet(), backendId, 0,
+                            ReplicaState.NORMAL));
+                }
+            }
+        };
+        Runnable deleteReplicas = () -> {
+            for (int round = 0; round < 3; round++) {
+                for (long tabletId = 1; tabletId <= TABLET_NUM; tabletId++) {
+                    index.deleteReplica(tabletId, tabletId % BACKEND_NUM + 1);
+                }
+            }
+        };
+        runConcurrently(replaceReplicas, replaceReplicas, deleteReplicas);
+
+        Assert.assertEquals(TABLET_NUM, index.getTabletCount());
+        assertConsistent(index, replicaIdGen.get());
+    }
+}
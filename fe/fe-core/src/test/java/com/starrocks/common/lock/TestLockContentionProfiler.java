@@ -0,0 +1,198 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.starrocks.common.lock;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.lock.LockContentionProfiler;
+import com.starrocks.common.util.concurrent.lock.LockException;
+import com.starrocks.common.util.concurrent.lock.LockManager;
+import com.starrocks.common.util.concurrent.lock.LockTimeoutException;
+import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.server.GlobalStateMgr;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestLockContentionProfiler {
+    @Before
+    public void setUp() {
+        GlobalStateMgr.getCurrentState().setLockManager(new LockManager());
+        Config.lock_manager_enabled = true;
+    }
+
+    @After
+    public void tearDown() {
+        Config.lock_manager_enabled = false;
+        Config.lock_manager_enable_contention_profile = true;
+        Config.lock_manager_contention_profile_max_resources = 1024;
+    }
+
+    private static LockContentionProfiler getProfiler() {
+        return GlobalStateMgr.getCurrentState().getLockManager().getContentionProfiler();
+    }
+
+    private static Thread startWaiter(long rid, LockType lockType, long timeout, AtomicReference<Exception> error) {
+        Thread thread = new Thread(() -> {
+            Locker locker = new Locker();
+            try {
+                locker.lock(rid, lockType, timeout);
+                locker.release(rid, lockType);
+            } catch (LockException e) {
+                error.set(e);
+            }
+        }, "contention-waiter");
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testProfileWaits() throws Exception {
+        long rid = 1L;
+        Locker locker = new Locker();
+        locker.lock(rid, LockType.WRITE);
+        // uncontended acquisitions are not recorded
+        Assert.assertTrue(getProfiler().getContentions().isEmpty());
+
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread waiter = startWaiter(rid, LockType.READ, 0, error);
+        awaitBlocked(waiter);
+        Thread.sleep(100);
+        locker.release(rid, LockType.WRITE);
+        waiter.join();
+        Assert.assertNull(error.get());
+
+        List<LockContentionProfiler.ContentionStats> contentions = getProfiler().getContentions();
+        Assert.assertEquals(1, contentions.size());
+        LockContentionProfiler.ContentionStats stats = contentions.get(0);
+        Assert.assertEquals(rid, stats.getRid());
+        Assert.assertEquals(LockType.READ, stats.getLockType());
+        Assert.assertEquals(1, stats.getWaits());
+        Assert.assertEquals(0, stats.getFailedWaits());
+        Assert.assertTrue(stats.getMaxWaitMs() >= 50);
+        Assert.assertTrue(stats.getWaitMsPercentile(0.99) >= stats.getMaxWaitMs());
+
+        List<LockContentionProfiler.BlockerStats> blockers = stats.getTopBlockers(3);
+        Assert.assertEquals(1, blockers.size());
+        Assert.assertEquals(Thread.currentThread().getName(), blockers.get(0).getThreadName());
+        Assert.assertEquals(1, blockers.get(0).getBlockedWaits());
+
+        // the failed wait is recorded too
+        locker.lock(rid, LockType.WRITE);
+        waiter = startWaiter(rid, LockType.WRITE, 50, error);
+        waiter.join();
+        locker.release(rid, LockType.WRITE);
+        Assert.assertTrue(error.get() instanceof LockTimeoutException);
+        Assert.assertEquals(2, getProfiler().getContentions().size());
+        for (LockContentionProfiler.ContentionStats contention : getProfiler().getContentions()) {
+            if (contention.getLockType() == LockType.WRITE) {
+                Assert.assertEquals(1, contention.getFailedWaits());
+            }
+        }
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        Config.lock_manager_contention_profile_max_resources = 1;
+        Locker locker = new Locker();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        // the later resource waits longer, so the first one is evicted
+        for (long rid = 1; rid <= 2; rid++) {
+            locker.lock(rid, LockType.WRITE);
+            Thread waiter = startWaiter(rid, LockType.READ, 0, error);
+            awaitBlocked(waiter);
+            Thread.sleep(rid * 50);
+            locker.release(rid, LockType.WRITE);
+            waiter.join();
+        }
+        Assert.assertEquals(1, getProfiler().getContentions().size());
+        Assert.assertEquals(2L, getProfiler().getContentions().get(0).getRid());
+        Assert.assertEquals(1, getProfiler().getEvictedResources());
+
+        getProfiler().reset();
+        Config.lock_manager_enable_contention_profile = false;
+        locker.lock(1L, LockType.WRITE);
+        Thread waiter = startWaiter(1L, LockType.READ, 0, error);
+        awaitBlocked(waiter);
+        locker.release(1L, LockType.WRITE);
+        waiter.join();
+        Assert.assertTrue(getProfiler().getContentions().isEmpty());
+        Assert.assertNull(error.get());
+    }
+
+    private static List<Thread> startHolders(long rid, String namePrefix, int num, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(num);
+        List<Thread> holders = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+            Thread holder = new Thread(() -> {
+                Locker locker = new Locker();
+                try {
+                    locker.lock(rid, LockType.READ);
+                    acquired.countDown();
+                    release.await();
+                    locker.release(rid, LockType.READ);
+                } catch (LockException | InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }, namePrefix + i);
+            holder.start();
+            holders.add(holder);
+        }
+        acquired.await();
+        return holders;
+    }
+
+    private static void blockWriter(long rid, String namePrefix, int holderNum, long holdMs) throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> holders = startHolders(rid, namePrefix, holderNum, release);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread waiter = startWaiter(rid, LockType.WRITE, 0, error);
+        awaitBlocked(waiter);
+        Thread.sleep(holdMs);
+        release.countDown();
+        for (Thread holder : holders) {
+            holder.join();
+        }
+        waiter.join();
+        Assert.assertNull(error.get());
+    }
+
+    @Test
+    public void testTopBlockers() throws Exception {
+        long rid = 1L;
+        // a short wait blocked by more blockers than kept
+        blockWriter(rid, "short-blocker-", 20, 0);
+        List<LockContentionProfiler.BlockerStats> blockers = getProfiler().getContentions().get(0).getTopBlockers(100);
+        Assert.assertEquals(16, blockers.size());
+
+        // the blocker of a longer wait replaces the one causing the least wait time
+        blockWriter(rid, "long-blocker-", 1, 100);
+        blockers = getProfiler().getContentions().get(0).getTopBlockers(100);
+        Assert.assertEquals(16, blockers.size());
+        Assert.assertEquals("long-blocker-0", blockers.get(0).getThreadName());
+    }
+}
@@ -0,0 +1,63 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.starrocks.common.lock;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.lock.LockException;
+import com.starrocks.common.util.concurrent.lock.LockManager;
+import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.LockVersionTracker;
+import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.server.GlobalStateMgr;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestLockVersionTracker {
+    @Before
+    public void setUp() {
+        GlobalStateMgr.getCurrentState().setLockManager(new LockManager());
+        Config.lock_manager_enabled = true;
+    }
+
+    @After
+    public void tearDown() {
+        Config.lock_manager_enabled = false;
+    }
+
+    @Test
+    public void testVersion() throws LockException {
+        long rid = 90001L;
+        long otherVersion = LockVersionTracker.getStableVersion(90002L);
+        long version = LockVersionTracker.getStableVersion(rid);
+        Assert.assertNotEquals(LockVersionTracker.UNSTABLE_VERSION, version);
+
+        // read lock doesn't change the version
+        Locker locker = new Locker();
+        locker.lock(rid, LockType.READ);
+        Assert.assertEquals(version, LockVersionTracker.getStableVersion(rid));
+        locker.release(rid, LockType.READ);
+        Assert.assertEquals(version, LockVersionTracker.getStableVersion(rid));
+
+        // the version is unstable while being written, and increased after that
+        locker.lock(rid, LockType.WRITE);
+        Assert.assertEquals(LockVersionTracker.UNSTABLE_VERSION, LockVersionTracker.getStableVersion(rid));
+        locker.release(rid, LockType.WRITE);
+        Assert.assertEquals(version + 1, LockVersionTracker.getStableVersion(rid));
+
+        // other resources are not affected
+        Assert.assertEquals(otherVersion, LockVersionTracker.getStableVersion(90002L));
+    }
+}
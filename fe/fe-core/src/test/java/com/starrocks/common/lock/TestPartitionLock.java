@@ -0,0 +1,128 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.starrocks.common.lock;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.lock.LockManager;
+import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.LockVersionTracker;
+import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.server.GlobalStateMgr;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class TestPartitionLock {
+    private static final long DB_ID = 1L;
+    private static final long TABLE_ID = 2L;
+    private static final long PARTITION_1 = 3L;
+    private static final long PARTITION_2 = 4L;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        GlobalStateMgr.getCurrentState().setLockManager(new LockManager());
+        Config.lock_manager_enabled = true;
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        Config.lock_manager_enabled = false;
+        executor.shutdownNow();
+    }
+
+    private Future<?> lockPartition(long partitionId, LockType lockType) {
+        return executor.submit(() -> {
+            Locker locker = new Locker();
+            locker.lockPartitionWithIntensiveDbLock(DB_ID, TABLE_ID, partitionId, lockType);
+            locker.unLockPartitionWithIntensiveDbLock(DB_ID, TABLE_ID, partitionId, lockType);
+        });
+    }
+
+    private Future<?> lockTable(LockType lockType) {
+        return executor.submit(() -> {
+            Locker locker = new Locker();
+            locker.lockTableWithIntensiveDbLock(DB_ID, TABLE_ID, lockType);
+            locker.unLockTableWithIntensiveDbLock(DB_ID, TABLE_ID, lockType);
+        });
+    }
+
+    private static void assertBlocked(Future<?> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("should be blocked");
+        } catch (TimeoutException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPartitionLock() throws Exception {
+        Locker locker = new Locker();
+        Map<Long, Set<Long>> partitions = Map.of(TABLE_ID, Set.of(PARTITION_1));
+        locker.lockPartitionsWithIntensiveDbLock(DB_ID, partitions, LockType.WRITE);
+        Assert.assertEquals(LockVersionTracker.UNSTABLE_VERSION, LockVersionTracker.getStableVersion(TABLE_ID));
+
+        // the other partitions of the table can be written or read
+        lockPartition(PARTITION_2, LockType.WRITE).get(1, TimeUnit.SECONDS);
+        lockPartition(PARTITION_2, LockType.READ).get(1, TimeUnit.SECONDS);
+
+        // but the locked partition and the whole table can't
+        Future<?> partitionWriter = lockPartition(PARTITION_1, LockType.WRITE);
+        Future<?> partitionReader = lockPartition(PARTITION_1, LockType.READ);
+        Future<?> tableReader = lockTable(LockType.READ);
+        assertBlocked(partitionWriter);
+        assertBlocked(partitionReader);
+        assertBlocked(tableReader);
+
+        locker.unLockPartitionsWithIntensiveDbLock(DB_ID, partitions, LockType.WRITE);
+        partitionWriter.get(1, TimeUnit.SECONDS);
+        partitionReader.get(1, TimeUnit.SECONDS);
+        tableReader.get(1, TimeUnit.SECONDS);
+        Assert.assertNotEquals(LockVersionTracker.UNSTABLE_VERSION, LockVersionTracker.getStableVersion(TABLE_ID));
+
+        // the table write lock blocks all the partitions
+        locker.lockTableWithIntensiveDbLock(DB_ID, TABLE_ID, LockType.WRITE);
+        Future<?> otherPartitionWriter = lockPartition(PARTITION_2, LockType.WRITE);
+        assertBlocked(otherPartitionWriter);
+        locker.unLockTableWithIntensiveDbLock(DB_ID, TABLE_ID, LockType.WRITE);
+        otherPartitionWriter.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFallbackToTableLock() throws Exception {
+        Config.lock_manager_enable_using_partition_lock = false;
+        try {
+            Locker locker = new Locker();
+            locker.lockPartitionWithIntensiveDbLock(DB_ID, TABLE_ID, PARTITION_1, LockType.WRITE);
+            Future<?> otherPartitionWriter = lockPartition(PARTITION_2, LockType.WRITE);
+            assertBlocked(otherPartitionWriter);
+            locker.unLockPartitionWithIntensiveDbLock(DB_ID, TABLE_ID, PARTITION_1, LockType.WRITE);
+            otherPartitionWriter.get(1, TimeUnit.SECONDS);
+        } finally {
+            Config.lock_manager_enable_using_partition_lock = true;
+        }
+    }
+}
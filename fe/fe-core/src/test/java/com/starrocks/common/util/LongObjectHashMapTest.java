@@ -0,0 +1,87 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testBasic() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.put(0, "zero"));
+        Assert.assertNull(map.put(-1, "minus"));
+        Assert.assertNull(map.put(1, "one"));
+        Assert.assertEquals("one", map.put(1, "uno"));
+        Assert.assertEquals("uno", map.putIfAbsent(1, "one"));
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("zero", map.get(0));
+        Assert.assertEquals("minus", map.get(-1));
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertFalse(map.containsKey(2));
+
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        Assert.assertArrayEquals(new long[] {-1, 0, 1}, keys);
+        Assert.assertEquals(2, map.keys(2).length);
+
+        Assert.assertEquals("zero", map.remove(0));
+        Assert.assertNull(map.remove(0));
+        Assert.assertEquals(2, map.size());
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(1));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        LongLongHashMap longMap = new LongLongHashMap();
+        Map<Long, Long> expected = Maps.newHashMap();
+        for (int i = 0; i < 200000; i++) {
+            // a small key range to exercise the collisions and the removal of probe sequences
+            long key = random.nextInt(5000) - 100;
+            long value = random.nextLong();
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+                longMap.remove(key);
+            } else {
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                longMap.put(key, value);
+            }
+            Assert.assertEquals(expected.size(), map.size());
+            Assert.assertEquals(expected.size(), longMap.size());
+        }
+        for (long key = -100; key < 4900; key++) {
+            Long value = expected.get(key);
+            Assert.assertEquals(value, map.get(key));
+            Assert.assertEquals(value != null, longMap.containsKey(key));
+            if (value != null) {
+                Assert.assertEquals(value.longValue(), longMap.get(key, 0));
+            }
+        }
+        Map<Long, Long> actual = Maps.newHashMap();
+        map.forEach(actual::put);
+        Assert.assertEquals(expected, actual);
+    }
+}
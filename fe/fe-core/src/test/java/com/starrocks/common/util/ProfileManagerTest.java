@@ -60,6 +60,36 @@ public class ProfileManagerTest {
         manager.clearProfiles();
     }
 
+    @Test
+    public void testPushProfileLazily() {
+        ProfileManager manager = ProfileManager.getInstance();
+
+        // Rendered at once by default.
+        RuntimeProfile eagerProfile = buildRuntimeProfile("128", "Query");
+        eagerProfile.addChild(new RuntimeProfile("Execution"));
+        manager.pushProfileLazily(null, eagerProfile);
+        eagerProfile.getChild("Execution").addInfoString("RenderedLazily", "true");
+        assertFalse(manager.getProfile("128").contains("RenderedLazily"));
+
+        Config.enable_profile_lazy_render = true;
+        try {
+            RuntimeProfile profile = buildRuntimeProfile("127", "Query");
+            profile.addChild(new RuntimeProfile("Execution"));
+            manager.pushProfileLazily(null, profile);
+            assertTrue(manager.hasProfile("127"), "Profile should exist");
+
+            // The profile is rendered when it is requested.
+            profile.getChild("Execution").addInfoString("RenderedLazily", "true");
+            String retrievedProfile = manager.getProfile("127");
+            assertNotNull(retrievedProfile, "Retrieved profile should not be null");
+            assertTrue(retrievedProfile.contains("RenderedLazily"));
+            assertEquals(retrievedProfile, manager.getProfile("127"));
+        } finally {
+            Config.enable_profile_lazy_render = false;
+            manager.clearProfiles();
+        }
+    }
+
     @Test
     public void testRemoveProfile() {
         ProfileManager manager = ProfileManager.getInstance();
@@ -0,0 +1,210 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.starrocks.common.Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProfileStoreTest {
+    @TempDir
+    Path tempDir;
+
+    private long segmentSizeMb;
+    private long maxSizeMb;
+    private long retentionHours;
+
+    @BeforeEach
+    public void setUp() {
+        segmentSizeMb = Config.profile_store_segment_size_mb;
+        maxSizeMb = Config.profile_store_max_size_mb;
+        retentionHours = Config.profile_store_retention_hours;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Config.profile_store_segment_size_mb = segmentSizeMb;
+        Config.profile_store_max_size_mb = maxSizeMb;
+        Config.profile_store_retention_hours = retentionHours;
+    }
+
+    private static byte[] content(int seed, int size) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static Map<String, String> infoStrings(String queryId) {
+        return ImmutableMap.of(ProfileManager.QUERY_ID, queryId, ProfileManager.QUERY_STATE, "Finished");
+    }
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        ProfileStore store = new ProfileStore(tempDir.toString());
+        for (int i = 0; i < 10; i++) {
+            store.put("q" + i, infoStrings("q" + i), content(i, 100 + i));
+        }
+        // overwrite an existing profile
+        store.put("q3", infoStrings("q3"), content(100, 10));
+
+        for (int i = 0; i < 10; i++) {
+            byte[] expected = i == 3 ? content(100, 10) : content(i, 100 + i);
+            assertArrayEquals(expected, store.get("q" + i));
+            assertTrue(store.contains("q" + i));
+        }
+        assertNull(store.get("unknown"));
+        assertFalse(store.contains("unknown"));
+
+        List<ProfileStore.ProfileMeta> profiles = store.getProfiles();
+        assertEquals(10, profiles.size());
+        assertEquals("q3", profiles.get(9).getQueryId());
+        assertEquals("Finished", profiles.get(9).getInfoStrings().get(ProfileManager.QUERY_STATE));
+        store.close();
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        ProfileStore store = new ProfileStore(tempDir.toString());
+        for (int i = 0; i < 10; i++) {
+            store.put("q" + i, infoStrings("q" + i), content(i, 1000));
+        }
+        long totalBytes = store.getTotalBytes();
+        store.close();
+
+        store = new ProfileStore(tempDir.toString());
+        assertEquals(totalBytes, store.getTotalBytes());
+        assertEquals(10, store.getProfiles().size());
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(content(i, 1000), store.get("q" + i));
+            assertEquals(infoStrings("q" + i), store.getProfiles().get(i).getInfoStrings());
+        }
+
+        // append after reload
+        store.put("q10", infoStrings("q10"), content(10, 1000));
+        store.close();
+        store = new ProfileStore(tempDir.toString());
+        assertEquals(11, store.getProfiles().size());
+        assertArrayEquals(content(10, 1000), store.get("q10"));
+        store.close();
+    }
+
+    @Test
+    public void testTruncateLongInfoStrings() throws Exception {
+        String sql = "select " + String.join(", ", Collections.nCopies(100, "c1")) + " from t0";
+        Map<String, String> infoStrings = ImmutableMap.of(ProfileManager.QUERY_ID, "q0", ProfileManager.SQL_STATEMENT, sql);
+        ProfileStore store = new ProfileStore(tempDir.toString());
+        store.put("q0", infoStrings, content(0, 100));
+        String indexedSql = store.getProfiles().get(0).getInfoStrings().get(ProfileManager.SQL_STATEMENT);
+        assertEquals(128, indexedSql.length());
+        assertTrue(indexedSql.endsWith(" ..."));
+        assertTrue(sql.startsWith(indexedSql.substring(0, 124)));
+        store.close();
+
+        store = new ProfileStore(tempDir.toString());
+        assertEquals(indexedSql, store.getProfiles().get(0).getInfoStrings().get(ProfileManager.SQL_STATEMENT));
+        assertEquals("q0", store.getProfiles().get(0).getInfoStrings().get(ProfileManager.QUERY_ID));
+        store.close();
+    }
+
+    @Test
+    public void testTruncateBrokenTail() throws Exception {
+        ProfileStore store = new ProfileStore(tempDir.toString());
+        for (int i = 0; i < 3; i++) {
+            store.put("q" + i, infoStrings("q" + i), content(i, 1000));
+        }
+        store.close();
+
+        // simulate a partial write of the last record
+        File segment = new File(tempDir.toFile(), "profile.0");
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+
+        store = new ProfileStore(tempDir.toString());
+        assertEquals(2, store.getProfiles().size());
+        assertNull(store.get("q2"));
+        assertEquals(segment.length(), store.getTotalBytes());
+
+        store.put("q3", infoStrings("q3"), content(3, 1000));
+        store.close();
+        store = new ProfileStore(tempDir.toString());
+        assertEquals(Arrays.asList("q0", "q1", "q3"),
+                store.getProfiles().stream().map(ProfileStore.ProfileMeta::getQueryId).collect(Collectors.toList()));
+        assertArrayEquals(content(3, 1000), store.get("q3"));
+        store.close();
+    }
+
+    @Test
+    public void testEvictBySize() throws Exception {
+        Config.profile_store_segment_size_mb = 1;
+        Config.profile_store_max_size_mb = 2;
+        ProfileStore store = new ProfileStore(tempDir.toString());
+        for (int i = 0; i < 40; i++) {
+            store.put("q" + i, infoStrings("q" + i), content(i, 256 * 1024));
+        }
+
+        assertTrue(store.getTotalBytes() <= 2L * 1024 * 1024);
+        assertTrue(store.getNumSegments() <= 2);
+        // the latest ones are kept
+        assertArrayEquals(content(39, 256 * 1024), store.get("q39"));
+        assertFalse(store.contains("q0"));
+        assertNull(store.get("q0"));
+        assertEquals(store.getNumSegments(), tempDir.toFile().listFiles().length);
+        store.close();
+    }
+
+    @Test
+    public void testEvictByTime() throws Exception {
+        Config.profile_store_segment_size_mb = 1;
+        Config.profile_store_retention_hours = 1;
+        ProfileStore store = new ProfileStore(tempDir.toString());
+        for (int i = 0; i < 10; i++) {
+            store.put("q" + i, infoStrings("q" + i), content(i, 256 * 1024));
+        }
+        assertTrue(store.getNumSegments() > 1);
+
+        store.evict(System.currentTimeMillis());
+        assertEquals(10, store.getProfiles().size());
+
+        store.evict(System.currentTimeMillis() + 2 * 3600L * 1000L);
+        assertEquals(0, store.getProfiles().size());
+        assertEquals(0, store.getTotalBytes());
+        assertEquals(0, tempDir.toFile().listFiles().length);
+
+        // still writable after all the segments are removed
+        store.put("q10", infoStrings("q10"), content(10, 1000));
+        assertArrayEquals(content(10, 1000), store.get("q10"));
+        store.close();
+    }
+}
@@ -0,0 +1,79 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.journal;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import com.starrocks.persist.OperationType;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+public class JournalEntityTest {
+    @After
+    public void tearDown() {
+        Config.metadata_journal_compression_type = "NO_COMPRESSION";
+        Config.metadata_journal_compression_threshold_bytes = 16384;
+    }
+
+    private static DataOutputBuffer write(String value) throws IOException {
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_SAVE_NEXTID);
+        entity.setData(new Text(value));
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        entity.write(buffer);
+        return buffer;
+    }
+
+    private static JournalEntity read(DataOutputBuffer buffer) throws IOException {
+        JournalEntity entity = new JournalEntity();
+        entity.readFields(new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength())));
+        return entity;
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        String value = StringUtils.repeat("starrocks", 1000);
+        DataOutputBuffer uncompressed = write(value);
+        Config.metadata_journal_compression_threshold_bytes = 1024;
+
+        for (String type : new String[] {"LZ4", "ZSTD"}) {
+            Config.metadata_journal_compression_type = type;
+            DataOutputBuffer compressed = write(value);
+            Assert.assertTrue(compressed.getLength() < uncompressed.getLength() / 10);
+            short header = (short) (((compressed.getData()[0] & 0xFF) << 8) | (compressed.getData()[1] & 0xFF));
+            Assert.assertNotEquals(OperationType.OP_SAVE_NEXTID, header);
+            Assert.assertEquals(OperationType.OP_SAVE_NEXTID, JournalEntity.getOpCode(header));
+
+            JournalEntity entity = read(compressed);
+            Assert.assertEquals(OperationType.OP_SAVE_NEXTID, entity.getOpCode());
+            Assert.assertEquals(value, entity.getData().toString());
+
+            // small entities are not compressed
+            Assert.assertEquals(2 + 4 + 1, write("1").getLength());
+        }
+
+        // uncompressed entities are still readable
+        JournalEntity entity = read(uncompressed);
+        Assert.assertEquals(OperationType.OP_SAVE_NEXTID, entity.getOpCode());
+        Assert.assertEquals(value, entity.getData().toString());
+    }
+}
@@ -0,0 +1,150 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.journal;
+
+import com.starrocks.persist.OperationType;
+import com.starrocks.transaction.TransactionState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+public class JournalReplayPipelineTest {
+    private static JournalEntity createTransactionJournal(long dbId, long txnId) {
+        TransactionState state = new TransactionState(dbId, new ArrayList<>(), txnId, "label_" + txnId, null,
+                TransactionState.LoadJobSourceType.BACKEND_STREAMING, null, -1, 10000);
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_UPSERT_TRANSACTION_STATE_V2);
+        entity.setData(state);
+        return entity;
+    }
+
+    @Test
+    public void testReplayKey() {
+        Assert.assertTrue(JournalReplayPipeline.canDecodeInParallel(OperationType.OP_UPSERT_TRANSACTION_STATE_V2));
+        Assert.assertTrue(JournalReplayPipeline.canDecodeInParallel(OperationType.OP_UPSERT_TRANSACTION_STATE_BATCH));
+        Assert.assertFalse(JournalReplayPipeline.canDecodeInParallel(OperationType.OP_CREATE_DB_V2));
+
+        Assert.assertEquals(10, JournalReplayPipeline.getReplayKey(createTransactionJournal(10, 1)));
+
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_CREATE_DB_V2);
+        Assert.assertEquals(JournalReplayPipeline.NO_REPLAY_KEY, JournalReplayPipeline.getReplayKey(entity));
+    }
+
+    @Test
+    public void testReplayInOrder() throws Exception {
+        JournalReplayPipeline pipeline = new JournalReplayPipeline(4);
+        Map<Long, List<Long>> replayedTxnIds = new ConcurrentHashMap<>();
+        int numDbs = 7;
+        int numJournals = 2000;
+        for (long txnId = 0; txnId < numJournals; txnId++) {
+            JournalEntity entity = createTransactionJournal(txnId % numDbs, txnId);
+            pipeline.submit(entity, JournalReplayPipeline.getReplayKey(entity), journal -> {
+                TransactionState state = (TransactionState) journal.getData();
+                replayedTxnIds.computeIfAbsent(state.getDbId(), k -> new ArrayList<>()).add(state.getTransactionId());
+            });
+        }
+
+        pipeline.waitAll();
+        Assert.assertFalse(pipeline.isEmpty());
+        // finished in the order of submission
+        for (long txnId = 0; txnId < numJournals; txnId++) {
+            JournalReplayPipeline.ReplayingJournal journal = pipeline.poll(false);
+            Assert.assertNotNull(journal);
+            Assert.assertNull(journal.getError());
+            Assert.assertEquals(txnId, ((TransactionState) journal.getEntity().getData()).getTransactionId());
+        }
+        Assert.assertNull(pipeline.poll(true));
+        Assert.assertTrue(pipeline.isEmpty());
+
+        // the journals of the same database are replayed in order
+        Assert.assertEquals(numDbs, replayedTxnIds.size());
+        for (Map.Entry<Long, List<Long>> entry : replayedTxnIds.entrySet()) {
+            List<Long> txnIds = entry.getValue();
+            for (int i = 0; i < txnIds.size(); i++) {
+                Assert.assertEquals(entry.getKey() + (long) i * numDbs, (long) txnIds.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testReplayFailure() throws Exception {
+        JournalReplayPipeline pipeline = new JournalReplayPipeline(2);
+        for (long txnId = 0; txnId < 4; txnId++) {
+            JournalEntity entity = createTransactionJournal(txnId, txnId);
+            pipeline.submit(entity, JournalReplayPipeline.getReplayKey(entity), journal -> {
+                if (((TransactionState) journal.getData()).getTransactionId() == 2) {
+                    throw new IllegalStateException("replay failed");
+                }
+            });
+        }
+
+        for (long txnId = 0; txnId < 4; txnId++) {
+            JournalReplayPipeline.ReplayingJournal journal = pipeline.poll(true);
+            Assert.assertNotNull(journal);
+            if (txnId == 2) {
+                Assert.assertTrue(journal.getError() instanceof IllegalStateException);
+            } else {
+                Assert.assertNull(journal.getError());
+            }
+        }
+        Assert.assertTrue(pipeline.isEmpty());
+    }
+
+    @Test
+    public void testCancelAll() throws Exception {
+        JournalReplayPipeline pipeline = new JournalReplayPipeline(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> replayedTxnIds = Collections.synchronizedList(new ArrayList<>());
+        for (long txnId = 0; txnId < 10; txnId++) {
+            JournalEntity entity = createTransactionJournal(1, txnId);
+            pipeline.submit(entity, JournalReplayPipeline.getReplayKey(entity), journal -> {
+                long id = ((TransactionState) journal.getData()).getTransactionId();
+                if (id == 0) {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                replayedTxnIds.add(id);
+            });
+        }
+
+        running.await();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+        // waits for the running journal, and the journals not started are never replayed
+        pipeline.cancelAll();
+        releaser.join();
+        Assert.assertTrue(pipeline.isEmpty());
+        Assert.assertEquals(Collections.singletonList(0L), replayedTxnIds);
+    }
+}
@@ -59,6 +59,7 @@ public class JournalWriterTest {
         Config.edit_log_roll_num = 50000;
         Config.metadata_journal_max_batch_size_mb = 100;
         Config.metadata_journal_max_batch_cnt = 100;
+        Config.metadata_journal_group_commit_max_wait_us = 2000;
     }
 
     private DataOutputBuffer makeBuffer(int size) throws IOException {
@@ -336,4 +337,40 @@ public class JournalWriterTest {
         Assert.assertFalse(task2.get());
         Assert.assertEquals(0, journalQueue.size());
     }
+
+    @Test
+    public void testGroupCommitWindow() {
+        Config.metadata_journal_group_commit_max_wait_us = 2000;
+        JournalWriter journalWriter = new JournalWriter(journal, new ArrayBlockingQueue<>(10));
+        Assert.assertEquals(0, journalWriter.getGroupCommitWindowNanos());
+
+        // journals are written one by one, no need to wait
+        for (int i = 0; i < 50; i++) {
+            journalWriter.updateGroupCommitStats(1, 10_000_000L);
+        }
+        Assert.assertEquals(0, journalWriter.getGroupCommitWindowNanos());
+
+        // limited by the max wait time
+        for (int i = 0; i < 50; i++) {
+            journalWriter.updateGroupCommitStats(8, 10_000_000L);
+        }
+        Assert.assertEquals(2_000_000L, journalWriter.getGroupCommitWindowNanos());
+
+        // limited by half of the commit latency
+        for (int i = 0; i < 50; i++) {
+            journalWriter.updateGroupCommitStats(8, 1_000_000L);
+        }
+        long window = journalWriter.getGroupCommitWindowNanos();
+        Assert.assertTrue(window > 490_000L && window < 510_000L);
+
+        // smaller batches get a smaller window
+        for (int i = 0; i < 50; i++) {
+            journalWriter.updateGroupCommitStats(2, 1_000_000L);
+        }
+        window = journalWriter.getGroupCommitWindowNanos();
+        Assert.assertTrue(window > 120_000L && window < 130_000L);
+
+        Config.metadata_journal_group_commit_max_wait_us = 0;
+        Assert.assertEquals(0, journalWriter.getGroupCommitWindowNanos());
+    }
 }
@@ -0,0 +1,58 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.mysql;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class ReadBufferPoolTest {
+
+    @Test
+    public void testBorrowAndGiveBack() {
+        ReadBufferPool pool = new ReadBufferPool(1, 1024);
+        ByteBuffer buffer1 = pool.borrow();
+        ByteBuffer buffer2 = pool.borrow();
+        Assert.assertFalse(buffer1.isDirect());
+        Assert.assertEquals(1024, buffer1.capacity());
+        Assert.assertEquals(2, pool.getBorrowedBufferNum());
+
+        buffer1.order(ByteOrder.LITTLE_ENDIAN).putInt(1);
+        pool.giveBack(buffer1);
+        // the pool is full, buffer2 is dropped
+        pool.giveBack(buffer2);
+        Assert.assertEquals(1, pool.getIdleBufferNum());
+        Assert.assertEquals(0, pool.getBorrowedBufferNum());
+
+        ByteBuffer buffer3 = pool.borrow();
+        Assert.assertSame(buffer1, buffer3);
+        Assert.assertEquals(0, buffer3.position());
+        Assert.assertEquals(ByteOrder.BIG_ENDIAN, buffer3.order());
+    }
+
+    @Test
+    public void testIdleBuffersAreBounded() {
+        ReadBufferPool pool = new ReadBufferPool(2, 1024);
+        Assert.assertEquals(0, pool.getIdleBufferNum());
+
+        pool.borrow();
+        pool.giveBack(ByteBuffer.allocate(4096));
+        // a buffer of another size is not kept
+        Assert.assertEquals(0, pool.getIdleBufferNum());
+        Assert.assertEquals(0, pool.getBorrowedBufferNum());
+    }
+}
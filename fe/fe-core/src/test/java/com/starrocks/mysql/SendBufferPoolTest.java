@@ -0,0 +1,49 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.mysql;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class SendBufferPoolTest {
+
+    @Test
+    public void testBorrowAndGiveBack() {
+        SendBufferPool pool = new SendBufferPool(2, 1024);
+        ByteBuffer buffer1 = pool.borrow(256);
+        ByteBuffer buffer2 = pool.borrow(256);
+        Assert.assertTrue(buffer1.isDirect());
+        Assert.assertTrue(buffer2.isDirect());
+        Assert.assertEquals(1024, buffer1.capacity());
+
+        // exhausted, fall back to a heap buffer of the requested size
+        ByteBuffer buffer3 = pool.borrow(256);
+        Assert.assertFalse(buffer3.isDirect());
+        Assert.assertEquals(256, buffer3.capacity());
+        Assert.assertEquals(2, pool.getAllocatedBufferNum());
+
+        buffer1.put((byte) 1);
+        pool.giveBack(buffer1);
+        pool.giveBack(buffer3);
+        Assert.assertEquals(1, pool.getIdleBufferNum());
+
+        ByteBuffer buffer4 = pool.borrow(256);
+        Assert.assertSame(buffer1, buffer4);
+        Assert.assertEquals(0, buffer4.position());
+        Assert.assertEquals(2, pool.getAllocatedBufferNum());
+    }
+}
@@ -14,13 +14,22 @@
 
 package com.starrocks.persist;
 
+import com.starrocks.common.Config;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+import com.starrocks.persist.metablock.SRMetaBlockReader;
+import com.starrocks.persist.metablock.SRMetaBlockWriter;
 import org.apache.commons.io.FileUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -163,4 +172,234 @@ public class ImageLoaderTest {
             }
         }
     }
+
+    private void writeImage(Path imagePath, boolean withFooter) throws Exception {
+        ImageWriter imageWriter = new ImageWriter(imagePath.getParent().toString(), ImageFormatVersion.v2, 3000);
+        try (OutputStream outputStream = Files.newOutputStream(imagePath)) {
+            imageWriter.setOutputStream(outputStream);
+            imageWriter.getDataOutputStream().writeInt(1);
+
+            SRMetaBlockWriter writer = imageWriter.getBlockWriter(SRMetaBlockID.LOCAL_META_STORE, 2);
+            writer.writeInt(1);
+            writer.writeString("db");
+            writer.close();
+
+            writer = imageWriter.getBlockWriter(SRMetaBlockID.VARIABLE_MGR, 1);
+            writer.writeString("variable");
+            writer.close();
+
+            if (withFooter) {
+                imageWriter.saveFooter();
+            }
+            imageWriter.saveChecksum();
+        }
+    }
+
+    @Test
+    public void testFooter() throws Exception {
+        List<Path> pathList = new ArrayList<>();
+        pathList.add(Path.of(imageDir.toString(), "v2", "image.3000"));
+        pathList.add(Path.of(imageDir.toString(), "v2", "checksum.3000"));
+        try {
+            writeImage(pathList.get(0), true);
+
+            ImageLoader imageLoader = new ImageLoader(imageDir.toString());
+            ImageFooter footer = imageLoader.readFooter();
+            Assert.assertNotNull(footer);
+            Assert.assertEquals(2, footer.getSections().size());
+            ImageFooter.Section section1 = footer.getSections().get(0);
+            ImageFooter.Section section2 = footer.getSections().get(1);
+            Assert.assertEquals(SRMetaBlockID.LOCAL_META_STORE, section1.getId());
+            Assert.assertEquals(4, section1.getOffset());
+            Assert.assertEquals(SRMetaBlockID.VARIABLE_MGR, section2.getId());
+            Assert.assertEquals(section1.getOffset() + section1.getLength(), section2.getOffset());
+
+            // load the sections in reverse order
+            try (BufferedInputStream in = imageLoader.openSection(section2)) {
+                SRMetaBlockReader reader = imageLoader.getBlockReader(in);
+                Assert.assertEquals("variable", reader.readString());
+                reader.close();
+            }
+            try (BufferedInputStream in = imageLoader.openSection(section1)) {
+                SRMetaBlockReader reader = imageLoader.getBlockReader(in);
+                Assert.assertEquals(1, reader.readInt());
+                Assert.assertEquals("db", reader.readString());
+                reader.close();
+            }
+
+            imageLoader.checkCheckSum(imageLoader.computeChecksum());
+        } finally {
+            for (Path path : pathList) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryFormat() throws Exception {
+        List<Path> pathList = new ArrayList<>();
+        pathList.add(Path.of(imageDir.toString(), "v2", "image.3000"));
+        pathList.add(Path.of(imageDir.toString(), "v2", "checksum.3000"));
+        boolean binaryFormat = Config.metadata_enable_binary_format;
+        Config.metadata_enable_binary_format = true;
+        try {
+            writeImage(pathList.get(0), true);
+
+            ImageLoader imageLoader = new ImageLoader(imageDir.toString());
+            ImageFooter footer = imageLoader.readFooter();
+            Assert.assertNotNull(footer);
+            Assert.assertEquals(2, footer.getSections().size());
+
+            // load sequentially
+            try (InputStream in = Files.newInputStream(imageLoader.getImageFile().toPath())) {
+                imageLoader.setInputStream(in);
+                Assert.assertEquals(1, new DataInputStream(imageLoader.getCheckedInputStream()).readInt());
+                SRMetaBlockReader reader = imageLoader.getBlockReader();
+                Assert.assertEquals(SRMetaBlockID.LOCAL_META_STORE, reader.getHeader().getSrMetaBlockID());
+                Assert.assertEquals(1, reader.readInt());
+                Assert.assertEquals("db", reader.readString());
+                reader.close();
+                reader = imageLoader.getBlockReader();
+                Assert.assertEquals("variable", reader.readString());
+                reader.close();
+                reader = imageLoader.getBlockReader();
+                Assert.assertEquals(SRMetaBlockID.IMAGE_FOOTER, reader.getHeader().getSrMetaBlockID());
+                reader.close();
+                Assert.assertThrows(EOFException.class, imageLoader::getBlockReader);
+                imageLoader.readTheRemainingBytes();
+            }
+            imageLoader.checkCheckSum();
+
+            // load a section
+            try (BufferedInputStream in = imageLoader.openSection(footer.getSections().get(1))) {
+                SRMetaBlockReader reader = imageLoader.getBlockReader(in);
+                Assert.assertEquals("variable", reader.readString());
+                reader.close();
+            }
+        } finally {
+            Config.metadata_enable_binary_format = binaryFormat;
+            for (Path path : pathList) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testNoFooter() throws Exception {
+        List<Path> pathList = new ArrayList<>();
+        pathList.add(Path.of(imageDir.toString(), "v2", "image.3000"));
+        pathList.add(Path.of(imageDir.toString(), "v2", "checksum.3000"));
+        try {
+            writeImage(pathList.get(0), false);
+
+            ImageLoader imageLoader = new ImageLoader(imageDir.toString());
+            Assert.assertNull(imageLoader.readFooter());
+            imageLoader.checkCheckSum(imageLoader.computeChecksum());
+        } finally {
+            for (Path path : pathList) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void writeStringBlock(ImageWriter imageWriter, SRMetaBlockID id, String value) throws Exception {
+        SRMetaBlockWriter writer = imageWriter.getBlockWriter(id, 1);
+        writer.writeString(value);
+        writer.close();
+    }
+
+    @Test
+    public void testCopySection() throws Exception {
+        String v2Dir = Path.of(imageDir.toString(), "v2").toString();
+        List<Path> pathList = new ArrayList<>();
+        pathList.add(Path.of(v2Dir, "image.3000"));
+        pathList.add(Path.of(v2Dir, "checksum.3000"));
+        pathList.add(Path.of(v2Dir, "image.4000"));
+        pathList.add(Path.of(v2Dir, "checksum.4000"));
+        boolean enableIncrementalCheckpoint = Config.metadata_enable_incremental_checkpoint;
+        Config.metadata_enable_incremental_checkpoint = true;
+        try {
+            ImageWriter imageWriter = new ImageWriter(v2Dir, ImageFormatVersion.v2, 3000);
+            try (OutputStream outputStream = Files.newOutputStream(pathList.get(0))) {
+                imageWriter.setOutputStream(outputStream);
+                imageWriter.getDataOutputStream().writeInt(1);
+                writeStringBlock(imageWriter, SRMetaBlockID.RESOURCE_MGR, "resource");
+                writeStringBlock(imageWriter, SRMetaBlockID.KEY_MGR, "key");
+                imageWriter.saveFooter();
+                imageWriter.saveChecksum();
+            }
+
+            ImageFooter baseFooter = new ImageLoader(imageDir.toString()).readFooter();
+            Assert.assertNotNull(baseFooter);
+            Assert.assertEquals(ImageFooter.getCurrentWriterVersion(), baseFooter.getWriterVersion());
+            ImageSectionTracker tracker = new ImageSectionTracker();
+            tracker.setBaseImage(pathList.get(0).toFile(), baseFooter);
+            tracker.onReplay(OperationType.OP_ADD_KEY);
+            tracker.onReplay(OperationType.OP_CREATE_DB_V2);
+            ImageFooter.Section resourceSection = tracker.getReusableSection(SRMetaBlockID.RESOURCE_MGR);
+            Assert.assertNotNull(resourceSection);
+            Assert.assertNull(tracker.getReusableSection(SRMetaBlockID.KEY_MGR));
+            Assert.assertNull(tracker.getReusableSection(SRMetaBlockID.LOCAL_META_STORE));
+
+            // nothing is copied if the incremental checkpoint is disabled
+            Config.metadata_enable_incremental_checkpoint = false;
+            Assert.assertNull(tracker.getReusableSection(SRMetaBlockID.RESOURCE_MGR));
+            Config.metadata_enable_incremental_checkpoint = true;
+
+            // the meta blocks can not be copied from an image in another encoding
+            Config.metadata_enable_binary_format = !Config.metadata_enable_binary_format;
+            try {
+                Assert.assertNull(tracker.getReusableSection(SRMetaBlockID.RESOURCE_MGR));
+            } finally {
+                Config.metadata_enable_binary_format = !Config.metadata_enable_binary_format;
+            }
+
+            // copy the unchanged meta block and write the changed one
+            imageWriter = new ImageWriter(v2Dir, ImageFormatVersion.v2, 4000);
+            try (OutputStream outputStream = Files.newOutputStream(pathList.get(2))) {
+                imageWriter.setOutputStream(outputStream);
+                imageWriter.getDataOutputStream().writeInt(1);
+                imageWriter.copySection(tracker.getBaseImageFile(), resourceSection);
+                writeStringBlock(imageWriter, SRMetaBlockID.KEY_MGR, "new key");
+                imageWriter.saveFooter();
+                imageWriter.saveChecksum();
+            }
+
+            ImageLoader imageLoader = new ImageLoader(imageDir.toString());
+            Assert.assertEquals(4000, imageLoader.getImageJournalId());
+            try (InputStream in = Files.newInputStream(imageLoader.getImageFile().toPath())) {
+                imageLoader.setInputStream(in);
+                Assert.assertEquals(1, new DataInputStream(imageLoader.getCheckedInputStream()).readInt());
+                SRMetaBlockReader reader = imageLoader.getBlockReader();
+                Assert.assertEquals(SRMetaBlockID.RESOURCE_MGR, reader.getHeader().getSrMetaBlockID());
+                Assert.assertEquals("resource", reader.readString());
+                reader.close();
+                reader = imageLoader.getBlockReader();
+                Assert.assertEquals(SRMetaBlockID.KEY_MGR, reader.getHeader().getSrMetaBlockID());
+                Assert.assertEquals("new key", reader.readString());
+                reader.close();
+                reader = imageLoader.getBlockReader();
+                Assert.assertEquals(SRMetaBlockID.IMAGE_FOOTER, reader.getHeader().getSrMetaBlockID());
+                reader.close();
+                imageLoader.readTheRemainingBytes();
+            }
+            imageLoader.checkCheckSum();
+
+            ImageFooter footer = imageLoader.readFooter();
+            Assert.assertNotNull(footer);
+            ImageFooter.Section section = footer.getSections().get(0);
+            Assert.assertEquals(SRMetaBlockID.RESOURCE_MGR, section.getId());
+            Assert.assertEquals(resourceSection.getLength(), section.getLength());
+            try (BufferedInputStream in = imageLoader.openSection(section)) {
+                SRMetaBlockReader reader = imageLoader.getBlockReader(in);
+                Assert.assertEquals("resource", reader.readString());
+                reader.close();
+            }
+        } finally {
+            Config.metadata_enable_incremental_checkpoint = enableIncrementalCheckpoint;
+            for (Path path : pathList) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
 }
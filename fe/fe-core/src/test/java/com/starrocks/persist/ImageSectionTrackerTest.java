@@ -0,0 +1,107 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.ImmutableMap;
+import com.starrocks.persist.metablock.SRMetaBlockID;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ImageSectionTrackerTest {
+    // the getters of the managers whose meta blocks are tracked
+    private static final Map<String, SRMetaBlockID> TRACKED_MANAGERS = ImmutableMap.<String, SRMetaBlockID>builder()
+            .put("getResourceMgr", SRMetaBlockID.RESOURCE_MGR)
+            .put("getSmallFileMgr", SRMetaBlockID.SMALL_FILE_MGR)
+            .put("getResourceGroupMgr", SRMetaBlockID.RESOURCE_GROUP_MGR)
+            .put("getAuthenticationMgr", SRMetaBlockID.AUTHENTICATION_MGR)
+            .put("getAuthorizationMgr", SRMetaBlockID.AUTHORIZATION_MGR)
+            .put("getCatalogMgr", SRMetaBlockID.CATALOG_MGR)
+            .put("getGlobalFunctionMgr", SRMetaBlockID.GLOBAL_FUNCTION_MGR)
+            .put("getKeyMgr", SRMetaBlockID.KEY_MGR)
+            .build();
+
+    private static final Pattern CASE_PATTERN = Pattern.compile("^ {16}case OperationType\\.(\\w+):");
+    private static final Pattern DEFAULT_PATTERN = Pattern.compile("^ {16}default:");
+
+    private static class ReplayCase {
+        private final List<String> opNames = new ArrayList<>();
+        private final StringBuilder body = new StringBuilder();
+    }
+
+    /**
+     * Split the replay switch of EditLog into the cases, each with its op names and the code handling them.
+     */
+    private static List<ReplayCase> parseReplayCases() throws Exception {
+        Path editLog = Path.of(System.getProperty("user.dir"), "src/main/java/com/starrocks/persist/EditLog.java");
+        List<ReplayCase> cases = new ArrayList<>();
+        ReplayCase current = null;
+        for (String line : Files.readAllLines(editLog)) {
+            Matcher matcher = CASE_PATTERN.matcher(line);
+            if (matcher.find()) {
+                // the adjacent labels share the same code
+                if (current == null || current.body.length() > 0) {
+                    current = new ReplayCase();
+                    cases.add(current);
+                }
+                current.opNames.add(matcher.group(1));
+            } else if (DEFAULT_PATTERN.matcher(line).find()) {
+                current = null;
+            } else if (current != null) {
+                current.body.append(line).append('\n');
+            }
+        }
+        return cases;
+    }
+
+    private static short getOpCode(String opName) throws Exception {
+        return OperationType.class.getField(opName).getShort(null);
+    }
+
+    @Test
+    public void testAllReplayedOpsAreTracked() throws Exception {
+        List<ReplayCase> cases = parseReplayCases();
+        Assert.assertTrue(cases.size() > 100);
+
+        Set<SRMetaBlockID> replayedBlocks = new HashSet<>();
+        for (ReplayCase replayCase : cases) {
+            for (Map.Entry<String, SRMetaBlockID> entry : TRACKED_MANAGERS.entrySet()) {
+                if (!replayCase.body.toString().contains("." + entry.getKey() + "()")) {
+                    continue;
+                }
+                replayedBlocks.add(entry.getValue());
+                Set<Short> trackedOps = ImageSectionTracker.getTrackedOps(entry.getValue());
+                Assert.assertNotNull(entry.getValue() + " isn't tracked", trackedOps);
+                for (String opName : replayCase.opNames) {
+                    // a missed journal makes the checkpoint copy a stale meta block into every later image
+                    Assert.assertTrue(opName + " changes " + entry.getValue() +
+                                    ", it must be added to ImageSectionTracker.REUSABLE_BLOCKS",
+                            trackedOps.contains(getOpCode(opName)));
+                }
+            }
+        }
+        // make sure the parsing still works
+        Assert.assertEquals(new HashSet<>(TRACKED_MANAGERS.values()), replayedBlocks);
+    }
+}
@@ -0,0 +1,167 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.persist.gson;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.MaterializedIndex;
+import com.starrocks.catalog.Replica;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryJsonTest {
+
+    private static class Values {
+        @SerializedName("l")
+        private long longValue = Long.MIN_VALUE;
+        @SerializedName("i")
+        private int intValue = -1;
+        @SerializedName("d")
+        private double doubleValue = 0.1;
+        @SerializedName("f")
+        private float floatValue = 1.5f;
+        @SerializedName("b")
+        private boolean boolValue = true;
+        @SerializedName("s")
+        private String stringValue = "中文";
+        @SerializedName("n")
+        private String nullValue = null;
+        @SerializedName("bd")
+        private BigDecimal bigDecimal = new BigDecimal("123456789012345678901234567890.123");
+        @SerializedName("list")
+        private List<String> list = Lists.newArrayList("a", "b", "a", null, "");
+        @SerializedName("map")
+        private Map<Long, String> map = Maps.newHashMap();
+        @SerializedName("nested")
+        private Values nested;
+    }
+
+    private static byte[] toBinary(Object object) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryJson.toBinary(object, out);
+        return out.toByteArray();
+    }
+
+    private static BinaryJsonReader newReader(byte[] bytes) {
+        return new BinaryJsonReader(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testValues() throws Exception {
+        Values values = new Values();
+        values.map.put(1L, "a");
+        values.map.put(Long.MAX_VALUE, "b");
+        values.nested = new Values();
+
+        byte[] bytes = toBinary(values);
+        Assert.assertEquals(BinaryJson.MAGIC, bytes[0] & 0xFF);
+        Values read = newReader(bytes).next(Values.class);
+        Assert.assertEquals(GsonUtils.GSON.toJson(values), GsonUtils.GSON.toJson(read));
+        Assert.assertEquals(Long.MIN_VALUE, read.longValue);
+        Assert.assertEquals(1.5f, read.nested.floatValue, 0);
+        Assert.assertEquals(0, values.bigDecimal.compareTo(read.bigDecimal));
+        Assert.assertNull(read.nullValue);
+    }
+
+    @Test
+    public void testMaterializedIndex() throws Exception {
+        MaterializedIndex index = new MaterializedIndex(1L, MaterializedIndex.IndexState.NORMAL);
+        for (long tabletId = 100; tabletId < 200; tabletId++) {
+            LocalTablet tablet = new LocalTablet(tabletId);
+            for (long backendId = 1; backendId <= 3; backendId++) {
+                tablet.addReplica(new Replica(tabletId * 10 + backendId, backendId, 100L, 0, 200000L, 3000L,
+                        Replica.ReplicaState.NORMAL, 0, 0), false);
+            }
+            index.addTablet(tablet, null, false);
+        }
+
+        String json = GsonUtils.GSON.toJson(index);
+        byte[] bytes = toBinary(index);
+        // the field names of tablets and replicas are written only once
+        Assert.assertTrue(bytes.length * 2 < json.getBytes(StandardCharsets.UTF_8).length);
+
+        MaterializedIndex read = newReader(bytes).next(MaterializedIndex.class);
+        Assert.assertEquals(json, GsonUtils.GSON.toJson(read));
+        Assert.assertEquals(100, read.getTablets().size());
+    }
+
+    @Test
+    public void testMultipleValues() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryJson.toBinary(new Values(), out);
+        BinaryJson.toBinary(new Values(), out);
+
+        BinaryJsonReader reader = newReader(out.toByteArray());
+        String expected = GsonUtils.GSON.toJson(new Values());
+        // the names and strings are referenced in each value independently
+        Assert.assertEquals(expected, GsonUtils.GSON.toJson(reader.next(Values.class)));
+        Assert.assertEquals(expected, GsonUtils.GSON.toJson(reader.next(Values.class)));
+        Assert.assertThrows(EOFException.class, () -> reader.next(Values.class));
+    }
+
+    @Test
+    public void testStreamValues() throws Exception {
+        List<Values> list = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            Values values = new Values();
+            values.stringValue = "\"quoted\"\n\t\\" + i;
+            values.doubleValue = i * 1e300;
+            list.add(values);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryJson.toBinary(list, out);
+        BinaryJson.toBinary(Long.MAX_VALUE, out);
+        BinaryJson.toBinary(list, out);
+        out.write(new byte[] {1, 2, 3});
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        BinaryJsonReader reader = new BinaryJsonReader(in);
+        Type listType = new TypeToken<List<Values>>() {}.getType();
+        List<Values> read = reader.next(listType);
+        Assert.assertEquals(GsonUtils.GSON.toJson(list), GsonUtils.GSON.toJson(read));
+        Assert.assertEquals(Long.MAX_VALUE, (long) reader.next(Long.class));
+        reader.skipValue();
+        // the input is not read beyond the last value
+        Assert.assertEquals(3, in.available());
+    }
+
+    @Test
+    public void testReadJsonOrBinary() throws Exception {
+        Values values = new Values();
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        Text.writeString(buffer, GsonUtils.GSON.toJson(values));
+        BinaryJson.writeWithMarker(buffer, values);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.getData(), 0, buffer.getLength()));
+        String expected = GsonUtils.GSON.toJson(values);
+        Assert.assertEquals(expected, GsonUtils.GSON.toJson(BinaryJson.readJsonOrBinary(in, Values.class)));
+        Assert.assertEquals(expected, GsonUtils.GSON.toJson(BinaryJson.readJsonOrBinary(in, Values.class)));
+    }
+}
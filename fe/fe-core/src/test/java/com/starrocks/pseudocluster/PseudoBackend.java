@@ -88,6 +88,7 @@ import com.starrocks.proto.UploadSnapshotsRequest;
 import com.starrocks.proto.UploadSnapshotsResponse;
 import com.starrocks.proto.VacuumRequest;
 import com.starrocks.proto.VacuumResponse;
+import com.starrocks.qe.scheduler.BatchPlanFragmentsRequestBuilder;
 import com.starrocks.rpc.LakeService;
 import com.starrocks.rpc.PBackendService;
 import com.starrocks.rpc.PExecBatchPlanFragmentsRequest;
@@ -950,7 +951,7 @@ public class PseudoBackend {
             final TExecBatchPlanFragmentsParams params = new TExecBatchPlanFragmentsParams();
             try {
                 TDeserializer deserializer = new TDeserializer(new TBinaryProtocol.Factory());
-                deserializer.deserialize(params, request.getSerializedRequest());
+                deserializer.deserialize(params, BatchPlanFragmentsRequestBuilder.getSerializedBatchParams(request));
             } catch (TException e) {
                 LOG.warn("error deserialize request", e);
                 PExecBatchPlanFragmentsResult result = new PExecBatchPlanFragmentsResult();
@@ -34,6 +34,9 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ConnectionLimitTest {
     private static StarRocksAssert starRocksAssert;
     private static int connectionId = 100;
@@ -125,6 +128,34 @@ public class ConnectionLimitTest {
         Assert.assertNull(showProcesslistStmt.getForUser());
     }
 
+    @Test
+    public void testShardedConnections() {
+        Config.qe_max_connection = 1000;
+        ExecuteEnv.setup();
+        ConnectScheduler scheduler = ExecuteEnv.getInstance().getScheduler();
+        List<ConnectContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ConnectContext context = createConnectContextForUser("test01");
+            Assert.assertTrue(scheduler.registerConnection(context).first);
+            contexts.add(context);
+        }
+
+        Assert.assertEquals(200, scheduler.getConnectionNum());
+        Assert.assertEquals(200, scheduler.listConnection("test01", null).size());
+        contexts.forEach(context -> Assert.assertSame(context, scheduler.getContext(context.getConnectionId())));
+        Assert.assertEquals(200L, scheduler.estimateCount().get("Connection").longValue());
+        Assert.assertTrue(scheduler.estimateSize() > 0);
+
+        contexts.forEach(scheduler::unregisterConnection);
+        Assert.assertEquals(0, scheduler.getConnectionNum());
+        Assert.assertEquals(0, scheduler.getUserConnectionMap().get("test01").get());
+        Assert.assertNull(scheduler.getContext(contexts.get(0).getConnectionId()));
+
+        // reset
+        Config.qe_max_connection = 4096;
+        ExecuteEnv.setup();
+    }
+
     private HttpConnectContext createHttpConnectContextForUser(String qualifiedName) {
         HttpConnectContext context = new HttpConnectContext();
         context.setQualifiedUser(qualifiedName);
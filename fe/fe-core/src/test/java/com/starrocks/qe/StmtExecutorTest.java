@@ -14,6 +14,7 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.common.DdlException;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.parser.AstBuilder;
 import com.starrocks.sql.parser.SqlParser;
@@ -49,4 +50,62 @@ public class StmtExecutorTest {
         Assert.assertFalse(new StmtExecutor(new ConnectContext(),
                 SqlParser.parseSingleStatement("show frontends", SqlModeHelper.MODE_DEFAULT)).isForwardToLeader());
     }
+
+    @Test
+    public void testReadYourWritesOnFollower(@Mocked GlobalStateMgr state, @Mocked JournalObservable observable)
+            throws DdlException {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentState();
+                minTimes = 0;
+                result = state;
+
+                state.isLeader();
+                result = false;
+
+                state.isInTransferringToLeader();
+                result = false;
+
+                state.canRead();
+                result = true;
+
+                state.getReplayedJournalId();
+                result = 10L;
+
+                state.getJournalObservable();
+                result = observable;
+
+                observable.waitOn(20L, anyInt);
+                result = new DdlException("timeout");
+            }
+        };
+
+        ConnectContext ctx = new ConnectContext();
+        ctx.setSessionVariable(new SessionVariable());
+        ctx.updateLastSeenJournalId(20L);
+        // read-your-writes is disabled
+        Assert.assertFalse(new StmtExecutor(ctx,
+                SqlParser.parseSingleStatement("select 1", SqlModeHelper.MODE_DEFAULT)).isForwardToLeader());
+
+        ctx.getSessionVariable().setEnableFollowerReadYourWrites(true);
+        // the follower can't catch up the journals the session has seen
+        Assert.assertTrue(new StmtExecutor(ctx,
+                SqlParser.parseSingleStatement("select 1", SqlModeHelper.MODE_DEFAULT)).isForwardToLeader());
+
+        // the follower has replayed the journals the session has seen
+        ConnectContext ctx2 = new ConnectContext();
+        ctx2.setSessionVariable(new SessionVariable());
+        ctx2.getSessionVariable().setEnableFollowerReadYourWrites(true);
+        ctx2.updateLastSeenJournalId(5L);
+        Assert.assertFalse(new StmtExecutor(ctx2,
+                SqlParser.parseSingleStatement("select 1", SqlModeHelper.MODE_DEFAULT)).isForwardToLeader());
+
+        // the query is forced to run on the follower, which still waits for the journals the session has seen
+        ctx.getSessionVariable().setFollowerQueryForwardMode("follower");
+        Assert.assertTrue(new StmtExecutor(ctx,
+                SqlParser.parseSingleStatement("select 1", SqlModeHelper.MODE_DEFAULT)).isForwardToLeader());
+        ctx2.getSessionVariable().setFollowerQueryForwardMode("follower");
+        Assert.assertFalse(new StmtExecutor(ctx2,
+                SqlParser.parseSingleStatement("select 1", SqlModeHelper.MODE_DEFAULT)).isForwardToLeader());
+    }
 }
@@ -0,0 +1,169 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.system.ComputeNode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class AdaptiveWorkerSelectorTest {
+    private final long decayMs = Config.adaptive_worker_selection_decay_ms;
+
+    @After
+    public void tearDown() {
+        Config.adaptive_worker_selection_decay_ms = decayMs;
+    }
+
+    private static List<ComputeNode> genWorkers(int num) {
+        List<ComputeNode> workers = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+            ComputeNode worker = new ComputeNode();
+            worker.setId(i);
+            worker.setHost("host#" + i);
+            workers.add(worker);
+        }
+        return workers;
+    }
+
+    @Test
+    public void testScoreWithoutStats() {
+        AdaptiveWorkerSelector selector = new AdaptiveWorkerSelector();
+        List<ComputeNode> workers = genWorkers(3);
+        for (double score : selector.computeScores(workers, System.currentTimeMillis())) {
+            assertThat(score).isCloseTo(1.0, within(1e-6));
+        }
+        assertThat(selector.findStragglers(workers)).containsExactly(false, false, false);
+    }
+
+    @Test
+    public void testSlowWorker() {
+        AdaptiveWorkerSelector selector = new AdaptiveWorkerSelector();
+        List<ComputeNode> workers = genWorkers(3);
+        for (int i = 0; i < 3; i++) {
+            selector.recordDeployLatency(i, i == 2 ? 100 : 10);
+            selector.recordRelativeExecTime(i, i == 2 ? 10.0 : 1.0);
+        }
+        workers.get(2).updateResourceUsage(0, 0, 900);
+        workers.get(0).updateResourceUsage(0, 0, 300);
+        workers.get(1).updateResourceUsage(0, 0, 300);
+
+        double[] scores = selector.computeScores(workers, System.currentTimeMillis());
+        assertThat(scores[0]).isCloseTo(scores[1], within(1e-6));
+        assertThat(scores[2]).isGreaterThan(Config.adaptive_worker_selection_straggler_ratio);
+        assertThat(selector.findStragglers(workers)).containsExactly(false, false, true);
+
+        // The slow worker loses unless the others have much more load.
+        List<ComputeNode> pair = List.of(workers.get(0), workers.get(2));
+        assertThat(selector.select(pair, i -> 0L)).isEqualTo(0);
+        assertThat(selector.select(pair, i -> i == 0 ? 100L : 0L)).isEqualTo(1);
+
+        // All the candidates are compared if there are only a few of them.
+        for (int i = 0; i < 100; i++) {
+            assertThat(selector.select(workers, index -> 0L)).isNotEqualTo(2);
+        }
+
+        selector.removeWorker(2);
+        workers.get(2).updateResourceUsage(0, 0, 300);
+        assertThat(selector.findStragglers(workers)).containsExactly(false, false, false);
+    }
+
+    @Test
+    public void testDecay() {
+        Config.adaptive_worker_selection_decay_ms = 1000;
+        AdaptiveWorkerSelector selector = new AdaptiveWorkerSelector();
+        List<ComputeNode> workers = genWorkers(2);
+        selector.recordRelativeExecTime(0, 1.0);
+        selector.recordRelativeExecTime(1, 9.0);
+
+        long now = System.currentTimeMillis();
+        double[] scores = selector.computeScores(workers, now);
+        assertThat(scores[1]).isGreaterThan(scores[0]);
+
+        // The penalty fades out if the worker isn't updated for a long time.
+        scores = selector.computeScores(workers, now + 60 * 1000);
+        assertThat(scores[0]).isCloseTo(1.0, within(1e-6));
+        assertThat(scores[1]).isCloseTo(1.0, within(1e-6));
+    }
+
+    @Test
+    public void testMovingAverage() {
+        AdaptiveWorkerSelector selector = new AdaptiveWorkerSelector();
+        List<ComputeNode> workers = genWorkers(2);
+        selector.recordRelativeExecTime(0, 1.0);
+        selector.recordRelativeExecTime(1, 1.0);
+        // A single slow sample doesn't make the worker a straggler.
+        selector.recordRelativeExecTime(1, 2.0);
+        double[] scores = selector.computeScores(workers, System.currentTimeMillis());
+        assertThat(scores[1]).isGreaterThan(scores[0]);
+        assertThat(selector.findStragglers(workers)).containsExactly(false, false);
+    }
+
+    @Test
+    public void testCompareAllCandidates() {
+        AdaptiveWorkerSelector selector = new AdaptiveWorkerSelector();
+        List<ComputeNode> workers = genWorkers(3);
+        for (int i = 0; i < 3; i++) {
+            selector.recordRelativeExecTime(i, i == 1 ? 0.5 : 2.0);
+        }
+        // The healthiest replica is always chosen, rather than one of a random pair.
+        for (int i = 0; i < 100; i++) {
+            assertThat(selector.select(workers, index -> 0L)).isEqualTo(1);
+        }
+        // Unless it has been assigned much more instances than the others.
+        assertThat(selector.select(workers, index -> index == 1 ? 10L : 0L)).isNotEqualTo(1);
+
+        // The power of two choices is used for more candidates, which never picks the slowest one.
+        workers = genWorkers(4);
+        selector.recordRelativeExecTime(3, 10.0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(selector.select(workers, index -> 0L)).isNotEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testRecordFragmentExecTimes() {
+        AdaptiveWorkerSelector selector = new AdaptiveWorkerSelector();
+        List<ComputeNode> workers = genWorkers(3);
+
+        // A single instance has nothing to compare with.
+        selector.recordFragmentExecTimes(List.of(Pair.create(0L, 100000L)));
+        assertThat(selector.findStragglers(workers)).containsExactly(false, false, false);
+
+        // A fragment of heavy instances doesn't penalize the workers of it.
+        selector.recordFragmentExecTimes(List.of(Pair.create(0L, 100000L), Pair.create(1L, 100000L)));
+        selector.recordFragmentExecTimes(List.of(Pair.create(1L, 10L), Pair.create(2L, 10L)));
+        double[] scores = selector.computeScores(workers, System.currentTimeMillis());
+        for (double score : scores) {
+            assertThat(score).isCloseTo(1.0, within(1e-6));
+        }
+
+        // Only the instance slower than its siblings is.
+        for (int i = 0; i < 10; i++) {
+            selector.recordFragmentExecTimes(
+                    List.of(Pair.create(0L, 100L), Pair.create(1L, 100L), Pair.create(2L, 1000L)));
+        }
+        scores = selector.computeScores(workers, System.currentTimeMillis());
+        assertThat(scores[0]).isCloseTo(scores[1], within(1e-6));
+        assertThat(scores[2]).isGreaterThan(scores[0]);
+    }
+}
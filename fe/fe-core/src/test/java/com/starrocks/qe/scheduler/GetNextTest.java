@@ -14,6 +14,7 @@
 
 package com.starrocks.qe.scheduler;
 
+import com.starrocks.common.Config;
 import com.starrocks.common.Reference;
 import com.starrocks.common.UserException;
 import com.starrocks.proto.PCancelPlanFragmentRequest;
@@ -44,6 +45,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
@@ -103,6 +105,82 @@ public class GetNextTest extends SchedulerTestBase {
         }
     }
 
+    @Test
+    public void testGetNextPrefetch() throws Exception {
+        final int numPackages = 3;
+        boolean originalEnablePrefetch = Config.enable_result_prefetch;
+        try {
+            for (boolean enablePrefetch : new boolean[] {true, false}) {
+                Config.enable_result_prefetch = enablePrefetch;
+                AtomicLong nexPacketIdx = new AtomicLong(0L);
+                setBackendService(new MockPBackendService() {
+                    @Override
+                    public Future<PFetchDataResult> fetchDataAsync(PFetchDataRequest request) {
+                        long packetIdx = nexPacketIdx.getAndIncrement();
+                        return submit(() -> {
+                            if (packetIdx + 1 < numPackages) {
+                                request.setSerializedResult(genResultBatch(2));
+                                return genDataResult(false, packetIdx);
+                            } else {
+                                return genDataResult(true, packetIdx);
+                            }
+                        });
+                    }
+                });
+
+                DefaultCoordinator scheduler = startScheduling("select count(1) from lineitem");
+                RowBatch batch = scheduler.getNext();
+                Assert.assertNotNull(batch.getBatch());
+                // at most one batch is fetched ahead
+                Assert.assertEquals(enablePrefetch ? 2 : 1, nexPacketIdx.get());
+
+                batch = scheduler.getNext();
+                Assert.assertNotNull(batch.getBatch());
+                batch = scheduler.getNext();
+                Assert.assertNull(batch.getBatch());
+                Assert.assertTrue(batch.isEos());
+                Assert.assertEquals(numPackages, nexPacketIdx.get());
+            }
+        } finally {
+            Config.enable_result_prefetch = originalEnablePrefetch;
+        }
+    }
+
+    @Test
+    public void testCancelStopsPrefetch() throws Exception {
+        boolean originalEnablePrefetch = Config.enable_result_prefetch;
+        try {
+            Config.enable_result_prefetch = true;
+            AtomicLong nexPacketIdx = new AtomicLong(0L);
+            CompletableFuture<PFetchDataResult> prefetchFuture = new CompletableFuture<>();
+            setBackendService(new MockPBackendService() {
+                @Override
+                public Future<PFetchDataResult> fetchDataAsync(PFetchDataRequest request) {
+                    long packetIdx = nexPacketIdx.getAndIncrement();
+                    if (packetIdx > 0) {
+                        // the batch fetched ahead never arrives
+                        return prefetchFuture;
+                    }
+                    return submit(() -> {
+                        request.setSerializedResult(genResultBatch(2));
+                        return genDataResult(false, packetIdx);
+                    });
+                }
+            });
+
+            DefaultCoordinator scheduler = startScheduling("select count(1) from lineitem");
+            RowBatch batch = scheduler.getNext();
+            Assert.assertNotNull(batch.getBatch());
+            Assert.assertEquals(2, nexPacketIdx.get());
+            Assert.assertFalse(prefetchFuture.isDone());
+
+            scheduler.cancel("Cancelled");
+            Assert.assertTrue(prefetchFuture.isCancelled());
+        } finally {
+            Config.enable_result_prefetch = originalEnablePrefetch;
+        }
+    }
+
     @Test
     public void testGetNextReceiveErrorPacketSeq() throws Exception {
         setBackendService(new MockPBackendService() {
@@ -15,26 +15,37 @@
 package com.starrocks.qe.scheduler;
 
 import com.google.api.client.util.Lists;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
 import com.starrocks.common.Reference;
 import com.starrocks.common.UserException;
 import com.starrocks.proto.PCancelPlanFragmentRequest;
 import com.starrocks.proto.PCancelPlanFragmentResult;
+import com.starrocks.proto.PExecBatchPlanFragmentsResult;
 import com.starrocks.proto.PExecPlanFragmentResult;
 import com.starrocks.proto.StatusPB;
 import com.starrocks.qe.DefaultCoordinator;
 import com.starrocks.qe.SimpleScheduler;
 import com.starrocks.qe.scheduler.dag.ExecutionDAG;
+import com.starrocks.qe.scheduler.dag.ExecutionFragment;
+import com.starrocks.qe.scheduler.dag.FragmentInstance;
+import com.starrocks.qe.scheduler.dag.JobSpec;
+import com.starrocks.rpc.PExecBatchPlanFragmentsRequest;
 import com.starrocks.rpc.PExecPlanFragmentRequest;
 import com.starrocks.rpc.RpcException;
 import com.starrocks.thrift.FrontendServiceVersion;
+import com.starrocks.thrift.TExecBatchPlanFragmentsParams;
 import com.starrocks.thrift.TExecPlanFragmentParams;
 import com.starrocks.thrift.TNetworkAddress;
 import com.starrocks.thrift.TReportExecStatusParams;
 import com.starrocks.thrift.TStatus;
 import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TUniqueId;
+import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TBinaryProtocol;
 import org.assertj.core.util.Sets;
 import org.awaitility.Awaitility;
 import org.jetbrains.annotations.NotNull;
@@ -54,6 +65,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.starrocks.utframe.MockedBackend.MockPBackendService;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -140,6 +152,98 @@ public class StartSchedulingTest extends SchedulerTestBase {
         });
     }
 
+    @Test
+    public void testBatchDeploy() throws Exception {
+        long originalThreshold = Config.batch_deploy_compression_threshold_bytes;
+        Config.batch_deploy_compression_threshold_bytes = 0;
+        connectContext.getSessionVariable().setEnableBatchDeployFragments(true);
+        try {
+            for (String compressionType : ImmutableList.of("NO_COMPRESSION", "LZ4", "ZSTD")) {
+                connectContext.getSessionVariable().setBatchDeployCompressionType(compressionType);
+
+                AtomicInteger numBatchRequests = new AtomicInteger();
+                Set<TUniqueId> deployedInstanceIds = Sets.newHashSet();
+                setBackendService(address -> new MockPBackendService() {
+                    @Override
+                    public Future<PExecPlanFragmentResult> execPlanFragmentAsync(PExecPlanFragmentRequest request) {
+                        TExecPlanFragmentParams tRequest = new TExecPlanFragmentParams();
+                        try {
+                            request.getRequest(tRequest);
+                        } catch (TException e) {
+                            throw new RuntimeException(e);
+                        }
+                        deployedInstanceIds.add(tRequest.getParams().getFragment_instance_id());
+                        return super.execPlanFragmentAsync(request);
+                    }
+
+                    @Override
+                    public Future<PExecBatchPlanFragmentsResult> execBatchPlanFragmentsAsync(
+                            PExecBatchPlanFragmentsRequest request) {
+                        Assert.assertEquals(!"NO_COMPRESSION".equals(compressionType),
+                                request.getAttachmentCompressionType() != null);
+                        TExecBatchPlanFragmentsParams tRequest = new TExecBatchPlanFragmentsParams();
+                        try {
+                            new TDeserializer(new TBinaryProtocol.Factory()).deserialize(tRequest,
+                                    BatchPlanFragmentsRequestBuilder.getSerializedBatchParams(request));
+                        } catch (TException e) {
+                            throw new RuntimeException(e);
+                        }
+                        numBatchRequests.incrementAndGet();
+
+                        Assert.assertTrue(tRequest.getCommon_param().isSetFragment());
+                        Assert.assertTrue(tRequest.getCommon_param().getParams().isSetInstances_number());
+                        tRequest.getUnique_param_per_instance().forEach(uniqueRequest -> {
+                            Assert.assertFalse(uniqueRequest.isSetFragment());
+                            deployedInstanceIds.add(uniqueRequest.getParams().getFragment_instance_id());
+                        });
+                        return super.execBatchPlanFragmentsAsync(request);
+                    }
+                });
+
+                String sql = "select count(1) from lineitem UNION ALL select count(1) from lineitem";
+                DefaultCoordinator scheduler = startScheduling(sql);
+
+                Assert.assertTrue(scheduler.getExecStatus().ok());
+                Assert.assertTrue(numBatchRequests.get() > 0);
+                Assert.assertEquals(scheduler.getExecutionDAG().getInstances().size(), deployedInstanceIds.size());
+            }
+        } finally {
+            Config.batch_deploy_compression_threshold_bytes = originalThreshold;
+            connectContext.getSessionVariable().setEnableBatchDeployFragments(false);
+            connectContext.getSessionVariable().setBatchDeployCompressionType("NO_COMPRESSION");
+        }
+    }
+
+    @Test
+    public void testBatchDeployParamsRoundTrip() throws Exception {
+        DefaultCoordinator scheduler = startScheduling("select count(1) from lineitem UNION ALL select count(1) from lineitem");
+        JobSpec jobSpec = scheduler.getJobSpec();
+        ExecutionDAG executionDAG = scheduler.getExecutionDAG();
+        TFragmentInstanceFactory factory = new TFragmentInstanceFactory(connectContext, jobSpec, executionDAG,
+                new TNetworkAddress("127.0.0.1", 9020));
+
+        TSerializer serializer = new TSerializer(new TBinaryProtocol.Factory());
+        TDeserializer deserializer = new TDeserializer(new TBinaryProtocol.Factory());
+        for (ExecutionFragment fragment : executionDAG.getFragmentsInPreorder()) {
+            for (FragmentInstance instance : fragment.getInstances()) {
+                TExecPlanFragmentParams common = factory.createCommon(fragment, jobSpec.getDescTable(), 0,
+                        instance.getWorkerId());
+                TExecPlanFragmentParams commonRead = new TExecPlanFragmentParams();
+                deserializer.deserialize(commonRead, serializer.serialize(common));
+                commonRead.validate();
+                Assert.assertEquals(jobSpec.getQueryId(), commonRead.getParams().getQuery_id());
+                Assert.assertEquals(fragment.getNumSendersPerExchange(), commonRead.getParams().getPer_exch_num_senders());
+
+                TExecPlanFragmentParams unique = factory.createUnique(instance, 0);
+                TExecPlanFragmentParams uniqueRead = new TExecPlanFragmentParams();
+                deserializer.deserialize(uniqueRead, serializer.serialize(unique));
+                uniqueRead.validate();
+                Assert.assertEquals(instance.getInstanceId(), uniqueRead.getParams().getFragment_instance_id());
+                Assert.assertEquals(instance.getNode2ScanRanges(), uniqueRead.getParams().getPer_node_scan_ranges());
+            }
+        }
+    }
+
     @Test
     public void testDeployThrowException() {
         setBackendService(address -> {
@@ -0,0 +1,107 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.DebugUtil;
+import com.starrocks.qe.DefaultCoordinator;
+import com.starrocks.qe.scheduler.dag.FragmentInstanceExecState;
+import com.starrocks.system.ComputeNode;
+import com.starrocks.thrift.FrontendServiceVersion;
+import com.starrocks.thrift.TReportExecStatusParams;
+import com.starrocks.thrift.TStatus;
+import com.starrocks.thrift.TStatusCode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.starrocks.utframe.MockedBackend.MockPBackendService;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StragglerDetectionTest extends SchedulerTestBase {
+    private final boolean enableDetection = Config.enable_straggler_instance_detection;
+    private final long detectionMinMs = Config.straggler_instance_detection_min_ms;
+
+    @Before
+    public void before() {
+        Config.enable_straggler_instance_detection = true;
+        Config.straggler_instance_detection_min_ms = 0;
+    }
+
+    @After
+    public void after() {
+        Config.enable_straggler_instance_detection = enableDetection;
+        Config.straggler_instance_detection_min_ms = detectionMinMs;
+    }
+
+    private static void report(DefaultCoordinator scheduler, FragmentInstanceExecState execution, boolean done) {
+        TReportExecStatusParams request = new TReportExecStatusParams(FrontendServiceVersion.V1);
+        request.setBackend_num(execution.getIndexInJob());
+        request.setDone(done);
+        request.setStatus(new TStatus(TStatusCode.OK));
+        request.setFragment_instance_id(execution.getInstanceId());
+        scheduler.updateFragmentExecStatus(request);
+    }
+
+    @Test
+    public void testDetectStraggler() throws Exception {
+        setBackendService(new MockPBackendService());
+        DefaultCoordinator scheduler = startScheduling("select count(1) from lineitem");
+
+        List<FragmentInstanceExecState> scanExecutions = scheduler.getExecutionDAG().getExecutions().stream()
+                .filter(execution -> !execution.getFragmentInstance().getExecFragment().getScanNodes().isEmpty())
+                .collect(Collectors.toList());
+        assertThat(scanExecutions).hasSize(3);
+        List<ComputeNode> workers = scanExecutions.stream()
+                .map(FragmentInstanceExecState::getWorker)
+                .collect(Collectors.toList());
+        assertThat(workers).doesNotHaveDuplicates();
+
+        // The workers have been equally fast in the previous queries.
+        AdaptiveWorkerSelector selector = AdaptiveWorkerSelector.getInstance();
+        workers.forEach(worker -> selector.recordRelativeExecTime(worker.getId(), 1.0));
+
+        FragmentInstanceExecState straggler = scanExecutions.get(2);
+        report(scheduler, scanExecutions.get(0), true);
+        report(scheduler, scanExecutions.get(1), true);
+        assertThat(scheduler.getQueryProfile().getInfoString("StragglerInstances")).isNull();
+
+        // Wait for the detection interval and several times of the execution time of the finished siblings.
+        Thread.sleep(1500);
+        long nowMs = System.currentTimeMillis() + 1000;
+        double[] scoresBefore = selector.computeScores(workers, nowMs);
+
+        // The detection is driven by the report of the running straggler.
+        report(scheduler, straggler, false);
+        String stragglerInstances = scheduler.getQueryProfile().getInfoString("StragglerInstances");
+        assertThat(stragglerInstances).contains(DebugUtil.printId(straggler.getInstanceId()));
+        assertThat(stragglerInstances).doesNotContain(DebugUtil.printId(scanExecutions.get(0).getInstanceId()));
+
+        // The worker of the straggler is penalized before the straggler finishes.
+        double[] scoresAfter = selector.computeScores(workers, nowMs);
+        assertThat(scoresAfter[2]).isGreaterThan(scoresBefore[2]);
+        assertThat(scoresAfter[0]).isLessThan(scoresBefore[0]);
+
+        // Each straggler is reported only once.
+        report(scheduler, straggler, true);
+        assertThat(scheduler.getQueryProfile().getInfoString("StragglerInstances")).isEqualTo(stragglerInstances);
+        assertThat(scheduler.getExecStatus().ok()).isTrue();
+
+        workers.forEach(worker -> selector.removeWorker(worker.getId()));
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler;
+
+import com.starrocks.planner.PlanFragmentId;
+import com.starrocks.planner.ScanNode;
+import com.starrocks.qe.scheduler.dag.ExecutionFragment;
+import com.starrocks.qe.scheduler.dag.FragmentInstance;
+import com.starrocks.qe.scheduler.dag.FragmentInstanceExecState;
+import com.starrocks.system.ComputeNode;
+import com.starrocks.thrift.TUniqueId;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StragglerDetectorTest {
+    private static final long START_MS = 100000;
+
+    private final PlanFragmentId fragmentId = new PlanFragmentId(1);
+    private ExecutionFragment fragment;
+    private List<FragmentInstanceExecState> executions;
+
+    @Before
+    public void setUp() {
+        fragment = mock(ExecutionFragment.class);
+        when(fragment.getFragmentId()).thenReturn(fragmentId);
+        when(fragment.getScanNodes()).thenReturn(Collections.singletonList(mock(ScanNode.class)));
+
+        List<FragmentInstance> instances = new ArrayList<>();
+        executions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            FragmentInstance instance = mock(FragmentInstance.class);
+            when(instance.getExecFragment()).thenReturn(fragment);
+            instances.add(instance);
+
+            FragmentInstanceExecState execution = mock(FragmentInstanceExecState.class);
+            when(execution.getFragmentInstance()).thenReturn(instance);
+            when(execution.getFragmentId()).thenReturn(fragmentId);
+            when(execution.getInstanceId()).thenReturn(new TUniqueId(0, i));
+            when(execution.hasBeenDeployed()).thenReturn(true);
+            when(execution.isFinished()).thenReturn(false);
+            when(execution.getDeployStartTimeMs()).thenReturn(START_MS);
+            ComputeNode worker = new ComputeNode();
+            worker.setId(i);
+            when(execution.getWorker()).thenReturn(worker);
+            executions.add(execution);
+        }
+        when(fragment.getInstances()).thenReturn(instances);
+    }
+
+    private void finish(StragglerDetector detector, int index, long nowMs) {
+        FragmentInstanceExecState execution = executions.get(index);
+        when(execution.isFinished()).thenReturn(true);
+        detector.onInstanceFinished(execution, nowMs);
+    }
+
+    @Test
+    public void testDetect() {
+        StragglerDetector detector = new StragglerDetector();
+        assertThat(detector.detect(executions, START_MS + 500)).isEmpty();
+
+        // Less than half of the instances have finished.
+        finish(detector, 0, START_MS + 1000);
+        assertThat(detector.detect(executions, START_MS + 2000)).isEmpty();
+
+        finish(detector, 1, START_MS + 1000);
+        finish(detector, 2, START_MS + 1200);
+        // Shorter than straggler_instance_detection_min_ms.
+        assertThat(detector.detect(executions, START_MS + 4500)).isEmpty();
+        // Detect at most once per second.
+        assertThat(detector.detect(executions, START_MS + 5200)).isEmpty();
+
+        assertThat(detector.detect(executions, START_MS + 5600)).containsExactly(executions.get(3));
+        // Each straggler is detected only once.
+        assertThat(detector.detect(executions, START_MS + 7000)).isEmpty();
+        assertThat(detector.getMedianExecTimeMs(fragmentId)).isEqualTo(1000);
+        // The finished straggler doesn't skew the median.
+        finish(detector, 3, START_MS + 20000);
+        assertThat(detector.getMedianExecTimeMs(fragmentId)).isEqualTo(1000);
+        assertThat(detector.getMedianExecTimeMs(new PlanFragmentId(2))).isEqualTo(-1);
+    }
+
+    @Test
+    public void testIgnoreFragmentWithoutScan() {
+        when(fragment.getScanNodes()).thenReturn(Collections.emptyList());
+        StragglerDetector detector = new StragglerDetector();
+        finish(detector, 0, START_MS + 1000);
+        finish(detector, 1, START_MS + 1000);
+        finish(detector, 2, START_MS + 1000);
+        assertThat(detector.detect(executions, START_MS + 60000)).isEmpty();
+    }
+}
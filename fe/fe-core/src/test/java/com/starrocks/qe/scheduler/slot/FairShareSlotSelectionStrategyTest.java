@@ -0,0 +1,236 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.slot;
+
+import com.google.common.collect.ImmutableList;
+import com.starrocks.catalog.ResourceGroup;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.system.BackendResourceStat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class FairShareSlotSelectionStrategyTest {
+    private static final int NUM_CORES = 16;
+    private static final long MEM_LIMIT_BYTES = 100L * 1024 * 1024 * 1024;
+    private static final long GROUP_A = 1L;
+    private static final long GROUP_B = 2L;
+
+    private boolean prevEnableQueryQueueV2 = false;
+    private final Map<Long, ResourceGroup> groups = new HashMap<>();
+
+    @BeforeClass
+    public static void beforeClass() {
+        MetricRepo.init();
+    }
+
+    @Before
+    public void before() {
+        prevEnableQueryQueueV2 = Config.enable_query_queue_v2;
+        Config.enable_query_queue_v2 = true;
+
+        BackendResourceStat.getInstance().setNumHardwareCoresOfBe(1, NUM_CORES);
+        BackendResourceStat.getInstance().setMemLimitBytesOfBe(1, MEM_LIMIT_BYTES);
+
+        groups.put(GROUP_A, createGroup(GROUP_A, "rg_a", 3));
+        groups.put(GROUP_B, createGroup(GROUP_B, "rg_b", 1));
+    }
+
+    @After
+    public void after() {
+        Config.enable_query_queue_v2 = prevEnableQueryQueueV2;
+        Config.query_queue_v2_mem_admission_ratio = 0.9;
+
+        BackendResourceStat.getInstance().reset();
+    }
+
+    @Test
+    public void testWeightedFairShare() {
+        QueryQueueOptions opts = QueryQueueOptions.createFromEnv();
+        FairShareSlotSelectionStrategy strategy = new FairShareSlotSelectionStrategy(groups::get);
+        SlotTracker slotTracker = new SlotTracker(ImmutableList.of(strategy));
+
+        final int numSlotsPerQuery = 4;
+        final int numQueries = opts.v2().getTotalSlots() / numSlotsPerQuery;
+        for (int i = 0; i < numQueries; i++) {
+            slotTracker.requireSlot(generateSlot(GROUP_A, numSlotsPerQuery, 0));
+            slotTracker.requireSlot(generateSlot(GROUP_B, numSlotsPerQuery, 0));
+        }
+
+        List<LogicalSlot> peakSlots = strategy.peakSlotsToAllocate(slotTracker);
+        peakSlots.forEach(slotTracker::allocateSlot);
+        assertThat(peakSlots).hasSize(numQueries);
+        assertThat(slotTracker.getNumAllocatedSlots()).isEqualTo(opts.v2().getTotalSlots());
+
+        // The slots are shared by 3:1 according to the cpu weights.
+        long numGroupASlots = peakSlots.stream().filter(slot -> slot.getGroupId() == GROUP_A).count();
+        assertThat(numGroupASlots).isEqualTo(numQueries * 3 / 4);
+    }
+
+    @Test
+    public void testIdleGroupNotAccumulateCredits() {
+        FairShareSlotSelectionStrategy strategy = new FairShareSlotSelectionStrategy(groups::get);
+        SlotTracker slotTracker = new SlotTracker(ImmutableList.of(strategy));
+
+        // 1. Group A runs alone for a while.
+        for (int i = 0; i < 10; i++) {
+            LogicalSlot slot = generateSlot(GROUP_A, 8, 0);
+            slotTracker.requireSlot(slot);
+            assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(slot);
+            slotTracker.allocateSlot(slot);
+            slotTracker.releaseSlot(slot.getSlotId());
+        }
+
+        // 2. Group B starts from the current virtual time instead of zero.
+        slotTracker.requireSlot(generateSlot(GROUP_B, 8, 0));
+        assertThat(strategy.getGroupVirtualTime(GROUP_B))
+                .isCloseTo(strategy.getGroupVirtualTime(GROUP_A) - 8.0 / 3, within(1e-6));
+    }
+
+    @Test
+    public void testMemoryAdmission() {
+        Config.query_queue_v2_mem_admission_ratio = 0.5;
+        FairShareSlotSelectionStrategy strategy = new FairShareSlotSelectionStrategy(groups::get);
+        SlotTracker slotTracker = new SlotTracker(ImmutableList.of(strategy));
+
+        LogicalSlot slot1 = generateSlot(GROUP_A, 2, MEM_LIMIT_BYTES / 4);
+        LogicalSlot slot2 = generateSlot(GROUP_A, 2, MEM_LIMIT_BYTES / 4);
+        LogicalSlot slot3 = generateSlot(GROUP_A, 2, MEM_LIMIT_BYTES / 4);
+        slotTracker.requireSlot(slot1);
+        slotTracker.requireSlot(slot2);
+        slotTracker.requireSlot(slot3);
+
+        // 1. Enough slots, but only half of the memory could be used.
+        List<LogicalSlot> peakSlots = strategy.peakSlotsToAllocate(slotTracker);
+        assertThat(peakSlots).containsExactly(slot1, slot2);
+        peakSlots.forEach(slotTracker::allocateSlot);
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).isEmpty();
+
+        // 2. Release slot1 and then slot3 could be allocated.
+        slotTracker.releaseSlot(slot1.getSlotId());
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(slot3);
+        slotTracker.allocateSlot(slot3);
+
+        // 3. A slot larger than the memory limit could be allocated when there are no running slots.
+        LogicalSlot largeSlot = generateSlot(GROUP_B, 2, MEM_LIMIT_BYTES);
+        slotTracker.requireSlot(largeSlot);
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).isEmpty();
+        slotTracker.releaseSlot(slot2.getSlotId());
+        slotTracker.releaseSlot(slot3.getSlotId());
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(largeSlot);
+    }
+
+    @Test
+    public void testShortQueryBypassQueue() {
+        QueryQueueOptions opts = QueryQueueOptions.createFromEnv();
+        FairShareSlotSelectionStrategy strategy = new FairShareSlotSelectionStrategy(groups::get);
+        SlotTracker slotTracker = new SlotTracker(ImmutableList.of(strategy));
+
+        // 1. Occupy all the slots.
+        LogicalSlot largeSlot = generateSlot(GROUP_B, opts.v2().getTotalSlots(), 0);
+        slotTracker.requireSlot(largeSlot);
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(largeSlot);
+        slotTracker.allocateSlot(largeSlot);
+
+        // 2. The queued large slot is blocked, but the short query still could be allocated from the small slots.
+        LogicalSlot queuedSlot = generateSlot(GROUP_A, 4, 0);
+        LogicalSlot shortSlot = generateSlot(GROUP_A, 1, 0);
+        slotTracker.requireSlot(queuedSlot);
+        slotTracker.requireSlot(shortSlot);
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(shortSlot);
+        slotTracker.allocateSlot(shortSlot);
+
+        // 3. Release the large slot and then the queued slot could be allocated.
+        slotTracker.releaseSlot(largeSlot.getSlotId());
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(queuedSlot);
+    }
+
+    @Test
+    public void testShortQueryLimitedByMemory() {
+        Config.query_queue_v2_mem_admission_ratio = 0.5;
+        FairShareSlotSelectionStrategy strategy = new FairShareSlotSelectionStrategy(groups::get);
+        SlotTracker slotTracker = new SlotTracker(ImmutableList.of(strategy));
+
+        // 1. The running query uses all the admitted memory.
+        LogicalSlot runningSlot = generateSlot(GROUP_A, 4, MEM_LIMIT_BYTES / 2);
+        slotTracker.requireSlot(runningSlot);
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(runningSlot);
+        slotTracker.allocateSlot(runningSlot);
+
+        // 2. The short query doesn't bypass the memory limit.
+        LogicalSlot shortSlot = generateSlot(GROUP_B, 1, MEM_LIMIT_BYTES / 4);
+        slotTracker.requireSlot(shortSlot);
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).isEmpty();
+
+        // 3. Release the running query and then the short query could be allocated.
+        slotTracker.releaseSlot(runningSlot.getSlotId());
+        assertThat(strategy.peakSlotsToAllocate(slotTracker)).containsExactly(shortSlot);
+    }
+
+    @Test
+    public void testCategoryMetrics() {
+        FairShareSlotSelectionStrategy strategy = new FairShareSlotSelectionStrategy(groups::get);
+        SlotTracker slotTracker = new SlotTracker(ImmutableList.of(strategy));
+
+        final String category = "rg_a";
+        final long pending = MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(category).getValue();
+        final long running = MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_RUNNING.getMetric(category).getValue();
+        final long allocated = MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_ALLOCATED_TOTAL.getMetric(category).getValue();
+
+        LogicalSlot slot1 = generateSlot(GROUP_A, 4, 0);
+        LogicalSlot slot2 = generateSlot(GROUP_A, 2, 0);
+        slotTracker.requireSlot(slot1);
+        slotTracker.requireSlot(slot2);
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(category).getValue())
+                .isEqualTo(pending + 6);
+
+        slotTracker.allocateSlot(slot1);
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(category).getValue())
+                .isEqualTo(pending + 2);
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_RUNNING.getMetric(category).getValue())
+                .isEqualTo(running + 4);
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_ALLOCATED_TOTAL.getMetric(category).getValue())
+                .isEqualTo(allocated + 4);
+
+        slotTracker.releaseSlot(slot1.getSlotId());
+        slotTracker.releaseSlot(slot2.getSlotId());
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_PENDING.getMetric(category).getValue()).isEqualTo(pending);
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_RUNNING.getMetric(category).getValue()).isEqualTo(running);
+        assertThat(MetricRepo.COUNTER_QUERY_QUEUE_CATEGORY_SLOT_ALLOCATED_TOTAL.getMetric(category).getValue())
+                .isEqualTo(allocated + 4);
+    }
+
+    private static ResourceGroup createGroup(long id, String name, int cpuWeight) {
+        ResourceGroup group = new ResourceGroup();
+        group.setId(id);
+        group.setName(name);
+        group.setCpuWeight(cpuWeight);
+        return group;
+    }
+
+    private static LogicalSlot generateSlot(long groupId, int numSlots, long memBytes) {
+        return new LogicalSlot(UUIDUtil.genTUniqueId(), "fe", groupId, numSlots, 0, 0, 0, 0, 0, memBytes);
+    }
+}
@@ -0,0 +1,168 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.service.arrow.flight.sql;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.ScalarType;
+import com.starrocks.catalog.Type;
+import com.starrocks.mysql.MysqlSerializer;
+import com.starrocks.utframe.UtFrameUtils;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightClient;
+import org.apache.arrow.flight.FlightInfo;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.flight.grpc.CredentialCallOption;
+import org.apache.arrow.flight.sql.FlightSqlClient;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ArrowFlightSqlServiceTest {
+    private static ArrowFlightSqlService service;
+    private static BufferAllocator clientAllocator;
+    private static FlightClient flightClient;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        service = new ArrowFlightSqlService(0);
+        service.start();
+        clientAllocator = new RootAllocator();
+        flightClient = FlightClient.builder(clientAllocator, Location.forGrpcInsecure("localhost", service.getPort()))
+                .build();
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        flightClient.close();
+        clientAllocator.close();
+        service.stop();
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        CredentialCallOption token = flightClient.authenticateBasicToken("root", "").get();
+        FlightSqlClient sqlClient = new FlightSqlClient(flightClient);
+
+        FlightInfo info = sqlClient.execute("select 1 as a, 'starrocks' as b", token);
+        Schema schema = info.getSchema();
+        Assert.assertEquals("a", schema.getFields().get(0).getName());
+        Assert.assertEquals("b", schema.getFields().get(1).getName());
+        Assert.assertEquals(ArrowType.Utf8.INSTANCE, schema.getFields().get(1).getType());
+
+        int rows = 0;
+        try (FlightStream stream = sqlClient.getStream(info.getEndpoints().get(0).getTicket(), token)) {
+            while (stream.next()) {
+                VectorSchemaRoot root = stream.getRoot();
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    Assert.assertEquals("starrocks", root.getVector("b").getObject(i).toString());
+                }
+                rows += root.getRowCount();
+            }
+        }
+        Assert.assertEquals(1, rows);
+
+        // a ticket can be fetched only once
+        FlightRuntimeException e = Assert.assertThrows(FlightRuntimeException.class, () -> {
+            try (FlightStream stream = sqlClient.getStream(info.getEndpoints().get(0).getTicket(), token)) {
+                stream.next();
+            }
+        });
+        Assert.assertEquals(CallStatus.NOT_FOUND.code(), e.status().code());
+    }
+
+    @Test
+    public void testInvalidStatement() throws Exception {
+        CredentialCallOption token = flightClient.authenticateBasicToken("root", "").get();
+        FlightSqlClient sqlClient = new FlightSqlClient(flightClient);
+        FlightRuntimeException e = Assert.assertThrows(FlightRuntimeException.class,
+                () -> sqlClient.execute("select * from not_exist_db.not_exist_table", token));
+        Assert.assertEquals(CallStatus.INVALID_ARGUMENT.code(), e.status().code());
+
+        e = Assert.assertThrows(FlightRuntimeException.class, () -> sqlClient.execute("show databases", token));
+        Assert.assertEquals(CallStatus.INVALID_ARGUMENT.code(), e.status().code());
+    }
+
+    @Test
+    public void testBasicAuthenticationReusesSession() {
+        flightClient.authenticateBasicToken("root", "").get();
+        long sessionNum = service.getSessionManager().getSessionNum();
+        for (int i = 0; i < 3; i++) {
+            flightClient.authenticateBasicToken("root", "").get();
+        }
+        Assert.assertEquals(sessionNum, service.getSessionManager().getSessionNum());
+    }
+
+    @Test
+    public void testAuthenticationFailed() {
+        FlightRuntimeException e = Assert.assertThrows(FlightRuntimeException.class,
+                () -> flightClient.authenticateBasicToken("root", "wrong_password"));
+        Assert.assertEquals(CallStatus.UNAUTHENTICATED.code(), e.status().code());
+    }
+
+    @Test
+    public void testFillRows() {
+        List<String> names = Lists.newArrayList("k1", "k2", "k3", "k4", "k5");
+        List<Type> types = Lists.newArrayList(Type.BIGINT, ScalarType.createDecimalV3NarrowestType(10, 2),
+                Type.DATE, Type.DATETIME, Type.VARCHAR);
+        Schema schema = ArrowFlightSqlResultSender.buildSchema(names, types);
+
+        List<ByteBuffer> rows = Lists.newArrayList();
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeLenEncodedString("42");
+        serializer.writeLenEncodedString("3.14");
+        serializer.writeLenEncodedString("2024-02-29");
+        serializer.writeLenEncodedString("2024-02-29 01:02:03.5");
+        serializer.writeLenEncodedString("abc");
+        rows.add(serializer.toByteBuffer());
+        serializer = MysqlSerializer.newInstance();
+        for (int i = 0; i < names.size(); i++) {
+            serializer.writeNull();
+        }
+        rows.add(serializer.toByteBuffer());
+
+        try (BufferAllocator allocator = new RootAllocator();
+                VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator)) {
+            ArrowFlightSqlResultSender.fillRows(root, rows);
+            Assert.assertEquals(2, root.getRowCount());
+            Assert.assertEquals(42L, ((BigIntVector) root.getVector("k1")).get(0));
+            Assert.assertEquals(new BigDecimal("3.14"), ((DecimalVector) root.getVector("k2")).getObject(0));
+            Assert.assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), ((DateDayVector) root.getVector("k3")).get(0));
+            Assert.assertEquals(500000, ((TimeStampMicroVector) root.getVector("k4")).get(0) % 1000_000L);
+            Assert.assertEquals("abc", ((VarCharVector) root.getVector("k5")).getObject(0).toString());
+            for (String name : names) {
+                Assert.assertTrue(root.getVector(name).isNull(1));
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@ package com.starrocks.sql;
 
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.OlapTable;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.AnalyzerUtils;
@@ -24,16 +25,23 @@ import com.starrocks.sql.ast.InsertStmt;
 import com.starrocks.sql.ast.StatementBase;
 import com.starrocks.sql.common.StarRocksPlannerException;
 import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.sql.plan.PlanTestBase;
+import mockit.Invocation;
 import mockit.Mock;
 import mockit.MockUp;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -118,4 +126,49 @@ class OptimisticVersionTest extends PlanTestBase {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testReAnalyzeWithWholePhaseLock() throws Exception {
+        ConnectContext session = starRocksAssert.getCtx();
+        StatementBase stmt = SqlParser.parseSingleStatement("select * from t0",
+                session.getSessionVariable().getSqlMode());
+
+        // analyzed without the locks, but the tables are not copy safe, so analyze again with the locks held
+        AtomicInteger analyzeTimes = new AtomicInteger();
+        List<Boolean> lockedWhenAnalyzing = new ArrayList<>();
+        new MockUp<AnalyzerUtils>() {
+            @Mock
+            public boolean areTablesCopySafe(StatementBase statementBase) {
+                return false;
+            }
+        };
+        AtomicBoolean locked = new AtomicBoolean(false);
+        new MockUp<PlannerMetaLocker>() {
+            @Mock
+            public void lock(Invocation invocation) {
+                invocation.proceed();
+                locked.set(true);
+            }
+
+            @Mock
+            public void unlock(Invocation invocation) {
+                invocation.proceed();
+                locked.set(false);
+            }
+        };
+        new MockUp<Analyzer>() {
+            @Mock
+            public void analyze(Invocation invocation, StatementBase statement, ConnectContext context) {
+                if (statement == stmt) {
+                    analyzeTimes.incrementAndGet();
+                    lockedWhenAnalyzing.add(locked.get());
+                }
+                invocation.proceed();
+            }
+        };
+
+        ExecPlan plan = StatementPlanner.plan(stmt, session);
+        assertNotNull(plan);
+        assertEquals(2, analyzeTimes.get());
+        assertEquals(List.of(false, true), lockedWhenAnalyzing);
+    }
+}
@@ -0,0 +1,149 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.analyzer;
+
+import com.starrocks.catalog.Database;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.concurrent.lock.LockType;
+import com.starrocks.common.util.concurrent.lock.LockVersionTracker;
+import com.starrocks.common.util.concurrent.lock.Locker;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.ast.StatementBase;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.PlanTestBase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlannerMetaLockerTest extends PlanTestBase {
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        PlanTestBase.beforeClass();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        PlanTestBase.afterClass();
+    }
+
+    private static Database getTestDb() {
+        return GlobalStateMgr.getCurrentState().getLocalMetastore().getDb("test");
+    }
+
+    private static PlannerMetaLocker newLocker(ConnectContext session) {
+        StatementBase stmt = SqlParser.parseSingleStatement("select * from test.t0",
+                session.getSessionVariable().getSqlMode());
+        return new PlannerMetaLocker(session, stmt);
+    }
+
+    private static void writeDb(long dbId) {
+        Locker locker = new Locker();
+        locker.lockDatabase(dbId, LockType.WRITE);
+        locker.unLockDatabase(dbId, LockType.WRITE);
+    }
+
+    @Test
+    public void testReadOptimistically() {
+        ConnectContext session = starRocksAssert.getCtx();
+        PlannerMetaLocker locker = newLocker(session);
+        assertTrue(locker.canReadOptimistically(session));
+
+        AtomicInteger runs = new AtomicInteger();
+        assertTrue(locker.readOptimistically(runs::incrementAndGet));
+        assertEquals(1, runs.get());
+        assertFalse(locker.isLocked());
+    }
+
+    @Test
+    public void testReadOptimisticallyFallback() {
+        ConnectContext session = starRocksAssert.getCtx();
+        PlannerMetaLocker locker = newLocker(session);
+        long dbId = getTestDb().getId();
+
+        // the database is written during the first run, so the action runs again with the locks held
+        AtomicInteger runs = new AtomicInteger();
+        try {
+            assertFalse(locker.readOptimistically(() -> {
+                if (runs.incrementAndGet() == 1) {
+                    writeDb(dbId);
+                }
+            }));
+            assertEquals(2, runs.get());
+            assertTrue(locker.isLocked());
+        } finally {
+            locker.unlock();
+        }
+        assertFalse(locker.isLocked());
+
+        // an error not caused by the concurrent write is thrown directly
+        assertThrows(SemanticException.class, () -> locker.readOptimistically(() -> {
+            throw new SemanticException("error");
+        }));
+        assertFalse(locker.isLocked());
+    }
+
+    @Test
+    public void testLegacyDbLockVersion() {
+        boolean lockManagerEnabled = Config.lock_manager_enabled;
+        Config.lock_manager_enabled = false;
+        try {
+            long dbId = getTestDb().getId();
+            long version = LockVersionTracker.getStableVersion(dbId);
+            assertNotEquals(LockVersionTracker.UNSTABLE_VERSION, version);
+
+            Locker locker = new Locker();
+            locker.lockDatabase(dbId, LockType.WRITE);
+            assertEquals(LockVersionTracker.UNSTABLE_VERSION, LockVersionTracker.getStableVersion(dbId));
+            locker.unLockDatabase(dbId, LockType.WRITE);
+            long newVersion = LockVersionTracker.getStableVersion(dbId);
+            assertNotEquals(LockVersionTracker.UNSTABLE_VERSION, newVersion);
+            assertNotEquals(version, newVersion);
+
+            // the read lock of the legacy db lock doesn't change the version
+            locker.lockDatabase(dbId, LockType.READ);
+            assertEquals(newVersion, LockVersionTracker.getStableVersion(dbId));
+            locker.unLockDatabase(dbId, LockType.READ);
+
+            // the optimistic read falls back to the legacy db lock as well
+            ConnectContext session = starRocksAssert.getCtx();
+            PlannerMetaLocker plannerMetaLocker = newLocker(session);
+            AtomicInteger runs = new AtomicInteger();
+            try {
+                assertFalse(plannerMetaLocker.readOptimistically(() -> {
+                    if (runs.incrementAndGet() == 1) {
+                        writeDb(dbId);
+                    }
+                }));
+                assertEquals(2, runs.get());
+                assertTrue(getTestDb().getRwLock().getReadLockCount() > 0);
+            } finally {
+                plannerMetaLocker.unlock();
+            }
+            assertEquals(0, getTestDb().getRwLock().getReadLockCount());
+        } finally {
+            Config.lock_manager_enabled = lockManagerEnabled;
+        }
+    }
+}
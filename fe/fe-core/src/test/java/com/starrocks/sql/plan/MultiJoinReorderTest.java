@@ -494,4 +494,18 @@ public class MultiJoinReorderTest extends PlanTestBase {
                 "  4:HASH JOIN\n" +
                 "  |  join op: INNER JOIN (BUCKET_SHUFFLE)"));
     }
+
+    @Test
+    @Order(7)
+    void testParallelDeriveStats() throws Exception {
+        String sql = "select * from t1 join t3 on t1.v4 = t3.v10 join t0 on t0.v1 = t3.v11 join t2 on t2.v7 = t0.v2";
+        String serialPlan = getCostExplain(sql);
+        try {
+            connectContext.getSessionVariable().setCboEnableParallelDeriveStats(true);
+            String parallelPlan = getCostExplain(sql);
+            Assert.assertEquals(serialPlan, parallelPlan);
+        } finally {
+            connectContext.getSessionVariable().setCboEnableParallelDeriveStats(false);
+        }
+    }
 }
@@ -0,0 +1,141 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.PhysicalPartition;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.QueryPlanCache;
+import com.starrocks.sql.analyzer.SetStmtAnalyzer;
+import com.starrocks.sql.ast.SetStmt;
+import com.starrocks.sql.ast.SetType;
+import com.starrocks.sql.ast.SystemVariable;
+import com.starrocks.sql.ast.UserVariable;
+import com.starrocks.sql.parser.NodePosition;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryPlanCacheTest extends PlanTestBase {
+
+    @Before
+    public void before() {
+        QueryPlanCache.getInstance().rebuildCache();
+        connectContext.getSessionVariable().setEnableQueryPlanCache(true);
+    }
+
+    @After
+    public void after() {
+        connectContext.getSessionVariable().setEnableQueryPlanCache(false);
+    }
+
+    @Test
+    public void testExactHit() throws Exception {
+        String sql = "select v1, sum(v2) from t0 where v3 = 1 group by v1";
+        String plan1 = getFragmentPlan(sql);
+        Assert.assertEquals(0, QueryPlanCache.getInstance().getStats().hitCount());
+        String plan2 = getFragmentPlan(sql);
+        Assert.assertEquals(1, QueryPlanCache.getInstance().getStats().hitCount());
+        Assert.assertEquals(plan1, plan2);
+
+        // different literals are different entries for a non point query
+        getFragmentPlan("select v1, sum(v2) from t0 where v3 = 2 group by v1");
+        Assert.assertEquals(1, QueryPlanCache.getInstance().getStats().hitCount());
+        Assert.assertEquals(2, QueryPlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        getFragmentPlan("select v1, rand() from t0");
+        getFragmentPlan("select v1, rand() from t0");
+        Assert.assertEquals(0, QueryPlanCache.getInstance().size());
+
+        connectContext.getSessionVariable().setEnableQueryPlanCache(false);
+        getFragmentPlan("select v1 from t0");
+        Assert.assertEquals(0, QueryPlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testUserVariableAndInformationFunction() throws Exception {
+        String sql = "select v1 from t0 where v2 = @plan_cache_var";
+        try {
+            connectContext.modifyUserVariable(
+                    new UserVariable("plan_cache_var", new IntLiteral(1), NodePosition.ZERO));
+            String plan1 = getFragmentPlan(sql);
+            assertContains(plan1, "2: v2 = 1");
+
+            // the value bound by the analyzer isn't in the key, so the plan must not be reused
+            connectContext.modifyUserVariable(
+                    new UserVariable("plan_cache_var", new IntLiteral(2), NodePosition.ZERO));
+            String plan2 = getFragmentPlan(sql);
+            assertContains(plan2, "2: v2 = 2");
+        } finally {
+            connectContext.getUserVariables().remove("plan_cache_var");
+        }
+
+        getFragmentPlan("select v1, connection_id() from t0");
+        getFragmentPlan("select v1, connection_id() from t0");
+        Assert.assertEquals(0, QueryPlanCache.getInstance().getStats().hitCount());
+        Assert.assertEquals(0, QueryPlanCache.getInstance().size());
+    }
+
+    @Test
+    public void testInvalidateByPartitionVersion() throws Exception {
+        String sql = "select v1, v2 from t0 where v3 > 10";
+        getFragmentPlan(sql);
+        getFragmentPlan(sql);
+        Assert.assertEquals(1, QueryPlanCache.getInstance().getStats().hitCount());
+
+        OlapTable t0 = (OlapTable) GlobalStateMgr.getCurrentState().getLocalMetastore().getTable("test", "t0");
+        for (PhysicalPartition partition : t0.getAllPhysicalPartitions()) {
+            partition.updateVisibleVersion(partition.getVisibleVersion() + 1);
+        }
+        // done by the txn log applier after updating the visible versions
+        t0.increasePartitionsVersion();
+        getFragmentPlan(sql);
+        Assert.assertEquals(1, QueryPlanCache.getInstance().getStats().hitCount());
+        getFragmentPlan(sql);
+        Assert.assertEquals(2, QueryPlanCache.getInstance().getStats().hitCount());
+    }
+
+    @Test
+    public void testSessionVariableInKey() throws Exception {
+        String sql = "select v1 from t0 where v2 = 3";
+        getFragmentPlan(sql);
+        int pipelineDop = connectContext.getSessionVariable().getPipelineDop();
+        try {
+            setSessionVariable(SessionVariable.PIPELINE_DOP, pipelineDop + 1);
+            getFragmentPlan(sql);
+            Assert.assertEquals(0, QueryPlanCache.getInstance().getStats().hitCount());
+            getFragmentPlan(sql);
+            Assert.assertEquals(1, QueryPlanCache.getInstance().getStats().hitCount());
+        } finally {
+            setSessionVariable(SessionVariable.PIPELINE_DOP, pipelineDop);
+        }
+        getFragmentPlan(sql);
+        Assert.assertEquals(2, QueryPlanCache.getInstance().getStats().hitCount());
+    }
+
+    private static void setSessionVariable(String name, long value) throws Exception {
+        SystemVariable setVar = new SystemVariable(SetType.SESSION, name, new IntLiteral(value));
+        SetStmtAnalyzer.analyze(new SetStmt(Lists.newArrayList(setVar)), connectContext);
+        GlobalStateMgr.getCurrentState().getVariableMgr().setSystemVariable(connectContext.getSessionVariable(),
+                setVar, true);
+    }
+}
@@ -670,4 +670,17 @@ public class TPCDSPlanTest extends TPCDSPlanTestBase {
                 "  |  \n" +
                 "  |----7:EXCHANGE");
     }
+
+    @Test
+    public void testLocalCostPruneKeepsPlan() throws Exception {
+        for (String sql : new String[] {Q17, Q25, Q29, Q64, Q72}) {
+            String prunedPlan = getCostExplain(sql);
+            try {
+                connectContext.getSessionVariable().setCboEnableLocalCostPrune(false);
+                Assert.assertEquals(getCostExplain(sql), prunedPlan);
+            } finally {
+                connectContext.getSessionVariable().setCboEnableLocalCostPrune(true);
+            }
+        }
+    }
 }
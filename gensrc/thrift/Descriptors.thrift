@@ -175,6 +175,8 @@ enum TSchemaTableType {
     SCH_PARTITIONS_META,
     SYS_FE_MEMORY_USAGE,
     SCH_TEMP_TABLES,
+    SYS_FE_LOCK_CONTENTIONS,
+    SCH_QUERY_PROFILES,
 }
 
 enum THdfsCompression {
@@ -1526,6 +1526,28 @@ struct TGetTemporaryTablesInfoResponse {
     1: optional list<TTableInfo> tables_infos
 }
 
+struct TQueryProfileInfo {
+    1: optional string query_id
+    2: optional string user
+    3: optional string default_db
+    4: optional string sql_statement
+    5: optional string query_type
+    6: optional string start_time
+    7: optional string end_time
+    8: optional string total_time
+    9: optional string query_state
+}
+
+struct TGetQueryProfilesInfoRequest {
+    1: optional TAuthInfo auth_info
+    // only for no predicate and limit parameter is set
+    2: optional i64 limit
+}
+
+struct TGetQueryProfilesInfoResponse {
+    1: optional list<TQueryProfileInfo> profiles
+}
+
 struct TTabletSchedule {
     1: optional i64 table_id
     2: optional i64 partition_id
@@ -1604,6 +1626,7 @@ struct TResourceLogicalSlot {
 
     100: optional i32 num_fragments
     101: optional i32 pipeline_dop
+    102: optional i64 mem_bytes
 }
 
 struct TRequireSlotRequest {
@@ -1717,6 +1740,26 @@ struct TFeLocksRes {
     1: optional list<TFeLocksItem> items
 }
 
+struct TFeLockContentionsItem {
+    1: optional string lock_object
+    2: optional string lock_mode
+    3: optional i64 wait_count
+    4: optional i64 failed_wait_count
+    5: optional i64 total_wait_ms
+    6: optional i64 max_wait_ms
+    7: optional i64 p50_wait_ms
+    8: optional i64 p99_wait_ms
+    9: optional string top_blockers
+}
+
+struct TFeLockContentionsReq {
+    1: optional TAuthInfo auth_info
+}
+
+struct TFeLockContentionsRes {
+    1: optional list<TFeLockContentionsItem> items
+}
+
 struct TFeMemoryItem {
     1: optional string module_name
     2: optional string class_name
@@ -1940,6 +1983,9 @@ service FrontendService {
     // sys.fe_locks
     TFeLocksRes listFeLocks(1: TFeLocksReq request)
 
+    // sys.fe_lock_contentions
+    TFeLockContentionsRes listFeLockContentions(1: TFeLockContentionsReq request)
+
     // sys.fe_memory_usage
     TFeMemoryRes listFeMemoryUsage(1: TFeMemoryReq request)
 
@@ -1960,6 +2006,8 @@ service FrontendService {
     TListSessionsResponse listSessions(1: TListSessionsRequest request)
     TGetTemporaryTablesInfoResponse getTemporaryTablesInfo(1: TGetTemporaryTablesInfoRequest request)
 
+    TGetQueryProfilesInfoResponse getQueryProfilesInfo(1: TGetQueryProfilesInfoRequest request)
+
     TReportFragmentFinishResponse reportFragmentFinish(TReportFragmentFinishParams request)
 }
 